@@ -0,0 +1,108 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.SpotLag;
+import net.objectlab.kit.datecalc.common.StandardTenor;
+import net.objectlab.kit.datecalc.common.Tenor;
+import net.objectlab.kit.datecalc.common.TenorDateMatrix;
+import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
+
+/**
+ * calculateSpotDate and calculateTenorDates for a matrix of currency pairs, some with USD, some crosses
+ * (USD holidays are then checked on top of both currencies) and one T+1.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrencyDateCalculatorBenchmark {
+    private static final List<Tenor> TENORS = Arrays.asList(StandardTenor.SPOT, StandardTenor.T_1D, StandardTenor.T_1W, StandardTenor.T_1M,
+            StandardTenor.T_2M, StandardTenor.T_3M, StandardTenor.T_6M, StandardTenor.T_9M, StandardTenor.T_1Y);
+
+    @Param({ DateFlavour.DATE, DateFlavour.CALENDAR, DateFlavour.JODA, DateFlavour.JDK8 })
+    private String flavour;
+
+    /** ccy1.ccy2, USD.CAD is T+1. */
+    @Param({ "EUR.USD", "GBP.USD", "USD.JPY", "USD.CAD", "EUR.GBP", "GBP.JPY", "AUD.NZD", "EUR.CHF", "SEK.NOK" })
+    private String currencyPair;
+
+    private Scenario<?> scenario;
+
+    @Setup
+    public void setUp() {
+        final String[] ccys = currencyPair.split("\\.");
+        scenario = new Scenario<>(DateFlavour.of(flavour), ccys[0], ccys[1]);
+    }
+
+    @Benchmark
+    public Object calculateSpotDate() {
+        return scenario.calculateSpotDate();
+    }
+
+    @Benchmark
+    public Object calculateTenorDates() {
+        return scenario.calculateTenorDates();
+    }
+
+    /**
+     * All 512 start dates at once, see TenorDateMatrix.
+     */
+    @Benchmark
+    @OperationsPerInvocation(DateCalculatorBenchmark.NUMBER_OF_START_DATES)
+    public Object calculateTenorDateMatrix() {
+        return scenario.calculateTenorDateMatrix();
+    }
+
+    private static final class Scenario<E extends Serializable> {
+        private final DateFlavour<E> flavour;
+        private final AbstractCurrencyDateCalculator<E> calculator;
+        private final List<E> startDates;
+        private int index;
+
+        private Scenario(final DateFlavour<E> flavour, final String ccy1, final String ccy2) {
+            this.flavour = flavour;
+            calculator = (AbstractCurrencyDateCalculator<E>) flavour.getFactory().getDefaultCurrencyDateCalculator(ccy1, ccy2,
+                    "CAD".equals(ccy2) ? SpotLag.T_1 : SpotLag.T_2);
+            startDates = flavour.newDates("2017-01-01", DateCalculatorBenchmark.NUMBER_OF_START_DATES);
+        }
+
+        private E nextStartDate() {
+            index = index + 1 & DateCalculatorBenchmark.NUMBER_OF_START_DATES - 1;
+            return flavour.copy(startDates.get(index));
+        }
+
+        private E calculateSpotDate() {
+            return calculator.calculateSpotDate(nextStartDate());
+        }
+
+        private List<E> calculateTenorDates() {
+            return calculator.calculateTenorDates(nextStartDate(), TENORS);
+        }
+
+        private TenorDateMatrix<E> calculateTenorDateMatrix() {
+            return calculator.calculateTenorDates(startDates, TENORS);
+        }
+    }
+}
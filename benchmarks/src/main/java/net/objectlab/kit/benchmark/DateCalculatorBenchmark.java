@@ -0,0 +1,103 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+import net.objectlab.kit.datecalc.common.StandardTenor;
+import net.objectlab.kit.datecalc.common.Tenor;
+
+/**
+ * moveByBusinessDays and moveByTenor on a DateCalculator, cycling through a year of start dates
+ * so that weekends and holidays are hit.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateCalculatorBenchmark {
+    static final int NUMBER_OF_START_DATES = 512;
+
+    @Param({ DateFlavour.DATE, DateFlavour.CALENDAR, DateFlavour.JODA, DateFlavour.JDK8 })
+    private String flavour;
+
+    @Param({ HolidayHandlerType.FORWARD, HolidayHandlerType.MODIFIED_FOLLOWING })
+    private String holidayHandlerType;
+
+    private Scenario<?> scenario;
+
+    @Setup
+    public void setUp() {
+        scenario = new Scenario<>(DateFlavour.of(flavour), holidayHandlerType);
+    }
+
+    @Benchmark
+    public Object moveBy1BusinessDay() {
+        return scenario.moveByBusinessDays(1);
+    }
+
+    @Benchmark
+    public Object moveBy10BusinessDays() {
+        return scenario.moveByBusinessDays(10);
+    }
+
+    @Benchmark
+    public Object moveByTenor1W() {
+        return scenario.moveByTenor(StandardTenor.T_1W);
+    }
+
+    @Benchmark
+    public Object moveByTenor3M() {
+        return scenario.moveByTenor(StandardTenor.T_3M);
+    }
+
+    @Benchmark
+    public Object moveByTenor1Y() {
+        return scenario.moveByTenor(StandardTenor.T_1Y);
+    }
+
+    private static final class Scenario<E extends Serializable> {
+        private final DateFlavour<E> flavour;
+        private final DateCalculator<E> calculator;
+        private final List<E> startDates;
+        private int index;
+
+        private Scenario(final DateFlavour<E> flavour, final String holidayHandlerType) {
+            this.flavour = flavour;
+            calculator = flavour.getFactory().getDateCalculator("GBP", holidayHandlerType);
+            startDates = flavour.newDates("2017-01-01", NUMBER_OF_START_DATES);
+        }
+
+        private E nextStartDate() {
+            index = index + 1 & NUMBER_OF_START_DATES - 1;
+            return flavour.copy(startDates.get(index));
+        }
+
+        private E moveByBusinessDays(final int businessDays) {
+            return calculator.setStartDate(nextStartDate()).moveByBusinessDays(businessDays).getCurrentBusinessDate();
+        }
+
+        private E moveByTenor(final Tenor tenor) {
+            return calculator.setStartDate(nextStartDate()).moveByTenor(tenor, 2).getCurrentBusinessDate();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.jdk.CalendarKitCalculatorsFactory;
+import net.objectlab.kit.datecalc.jdk.DateKitCalculatorsFactory;
+
+/**
+ * The 4 implementations of the Date Calculators, each benchmark takes the flavour as a JMH parameter
+ * so that the flavours can be compared for the same operation.
+ *
+ * Every flavour gets the same holidays for the currencies used by the benchmarks, between 2000 and 2040.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ * @param <E> JDK Date/Calendar, JDK8 LocalDate or Joda LocalDate
+ */
+public abstract class DateFlavour<E extends Serializable> {
+    public static final String DATE = "Date";
+    public static final String CALENDAR = "Calendar";
+    public static final String JODA = "Joda";
+    public static final String JDK8 = "Jdk8";
+
+    /** All currencies with holidays. */
+    public static final String[] CURRENCIES = { "EUR", "USD", "GBP", "JPY", "CHF", "AUD", "NZD", "CAD", "SEK", "NOK" };
+
+    private static final int FIRST_YEAR = 2000;
+    private static final int LAST_YEAR = 2040;
+    private static final String[] COMMON_HOLIDAYS = { "-01-01", "-12-25" };
+    private static final String[][] SPECIFIC_HOLIDAYS = { { "-05-01", "-12-26" }, { "-07-04", "-11-11" }, { "-05-01", "-12-26" },
+            { "-05-03", "-05-04", "-05-05" }, { "-08-01", "-12-26" }, { "-01-26", "-04-25" }, { "-02-06", "-04-25" }, { "-07-01", "-12-26" },
+            { "-06-06", "-12-24" }, { "-05-17", "-12-26" } };
+
+    private final KitCalculatorsFactory<E> factory;
+
+    protected DateFlavour(final KitCalculatorsFactory<E> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @param flavour one of DATE, CALENDAR, JODA or JDK8.
+     * @return the flavour with the holidays registered for all CURRENCIES.
+     * @throws IllegalArgumentException if the flavour is unknown.
+     */
+    public static DateFlavour<?> of(final String flavour) {
+        final DateFlavour<?> result;
+        if (DATE.equals(flavour)) {
+            result = new DateFlavour<Date>(DateKitCalculatorsFactory.getDefaultInstance()) {
+                @Override
+                public Date newDate(final String date) {
+                    return Utils.createDate(date);
+                }
+            };
+        } else if (CALENDAR.equals(flavour)) {
+            result = new DateFlavour<java.util.Calendar>(CalendarKitCalculatorsFactory.getDefaultInstance()) {
+                @Override
+                public java.util.Calendar newDate(final String date) {
+                    return Utils.createCalendar(date);
+                }
+
+                @Override
+                public java.util.Calendar copy(final java.util.Calendar date) {
+                    return (java.util.Calendar) date.clone();
+                }
+            };
+        } else if (JODA.equals(flavour)) {
+            result = new DateFlavour<org.joda.time.LocalDate>(net.objectlab.kit.datecalc.joda.LocalDateKitCalculatorsFactory.getDefaultInstance()) {
+                @Override
+                public org.joda.time.LocalDate newDate(final String date) {
+                    return new org.joda.time.LocalDate(date);
+                }
+            };
+        } else if (JDK8.equals(flavour)) {
+            result = new DateFlavour<java.time.LocalDate>(net.objectlab.kit.datecalc.jdk8.LocalDateKitCalculatorsFactory.getDefaultInstance()) {
+                @Override
+                public java.time.LocalDate newDate(final String date) {
+                    return java.time.LocalDate.parse(date);
+                }
+            };
+        } else {
+            throw new IllegalArgumentException("Unknown flavour " + flavour);
+        }
+        result.registerHolidays();
+        return result;
+    }
+
+    /**
+     * @param date yyyy-MM-dd
+     */
+    public abstract E newDate(String date);
+
+    /**
+     * @return a date that can be given to a calculator without the original being modified.
+     */
+    public E copy(final E date) {
+        return date;
+    }
+
+    public KitCalculatorsFactory<E> getFactory() {
+        return factory;
+    }
+
+    /**
+     * @param from the first date, yyyy-MM-dd
+     * @param count number of consecutive calendar days.
+     */
+    public List<E> newDates(final String from, final int count) {
+        final List<E> dates = new ArrayList<>(count);
+        java.time.LocalDate date = java.time.LocalDate.parse(from);
+        for (int i = 0; i < count; i++) {
+            dates.add(newDate(date.toString()));
+            date = date.plusDays(1);
+        }
+        return dates;
+    }
+
+    private void registerHolidays() {
+        for (int i = 0; i < CURRENCIES.length; i++) {
+            final Set<E> holidays = new HashSet<>();
+            for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+                for (final String monthDay : COMMON_HOLIDAYS) {
+                    holidays.add(newDate(year + monthDay));
+                }
+                for (final String monthDay : SPECIFIC_HOLIDAYS[i]) {
+                    holidays.add(newDate(year + monthDay));
+                }
+            }
+            factory.registerHolidays(CURRENCIES[i],
+                    new DefaultHolidayCalendar<E>(holidays, newDate(FIRST_YEAR + "-01-01"), newDate(LAST_YEAR + "-12-31")));
+        }
+    }
+}
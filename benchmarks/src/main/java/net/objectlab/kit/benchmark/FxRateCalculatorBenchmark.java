@@ -0,0 +1,105 @@
+package net.objectlab.kit.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.fxcalc.CurrencyPair;
+import net.objectlab.kit.fxcalc.CurrencyProvider;
+import net.objectlab.kit.fxcalc.FxRateCalculator;
+import net.objectlab.kit.fxcalc.FxRateCalculatorBuilder;
+import net.objectlab.kit.fxcalc.FxRateCalculatorImpl;
+import net.objectlab.kit.fxcalc.FxRateImpl;
+import net.objectlab.kit.fxcalc.FxRateMatrix;
+import net.objectlab.kit.fxcalc.JdkCurrencyProvider;
+
+/**
+ * FxRateCalculatorImpl.findFx for a rate given in the snapshot (direct), its inverse and a cross via USD,
+ * with and without caching of the results, with the default or the concurrent cache, and from a FxRateMatrix.
+ *
+ * The FX calculators do not use dates so, unlike the date benchmarks, there is no flavour.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FxRateCalculatorBenchmark {
+    private static final String[][] RATES_VS_USD = { { "EUR", "USD", "1.1213", "1.1215" }, { "GBP", "USD", "1.3012", "1.3015" },
+            { "AUD", "USD", "0.7512", "0.7514" }, { "NZD", "USD", "0.7011", "0.7014" }, { "USD", "JPY", "112.51", "112.53" },
+            { "USD", "CHF", "0.9712", "0.9715" }, { "USD", "CAD", "1.2512", "1.2515" }, { "USD", "SEK", "8.5012", "8.5032" },
+            { "USD", "NOK", "8.2012", "8.2032" }, { "USD", "SGD", "1.3512", "1.3515" } };
+
+    public enum Lookup {
+        /** A rate in the snapshot. */
+        DIRECT(CurrencyPair.of("EUR", "USD")),
+        /** The inverse of a rate in the snapshot. */
+        INVERSE(CurrencyPair.of("JPY", "USD")),
+        /** A rate calculated via USD. */
+        CROSS(CurrencyPair.of("GBP", "CHF"));
+
+        private final CurrencyPair currencyPair;
+
+        Lookup(final CurrencyPair currencyPair) {
+            this.currencyPair = currencyPair;
+        }
+    }
+
+    @Param
+    private Lookup lookup;
+
+    @Param({ "true", "false" })
+    private boolean cacheResults;
+
+    @Param({ "false", "true" })
+    private boolean concurrentCache;
+
+    private FxRateCalculator calculator;
+    private FxRateMatrix matrix;
+    private FxRateCalculatorBuilder builder;
+
+    @Setup
+    public void setUp() {
+        builder = new FxRateCalculatorBuilder().cacheResults(cacheResults).concurrentCache(concurrentCache);
+        final CurrencyProvider currencyProvider = new JdkCurrencyProvider();
+        for (final String[] rate : RATES_VS_USD) {
+            builder.addRateSnapshot(new FxRateImpl(CurrencyPair.of(rate[0], rate[1]), null, true, new BigDecimal(rate[2]), new BigDecimal(rate[3]),
+                    currencyProvider));
+        }
+        calculator = new FxRateCalculatorImpl(builder);
+        matrix = new FxRateMatrix(builder);
+    }
+
+    @Benchmark
+    public Object findFx() {
+        return calculator.findFx(lookup.currencyPair);
+    }
+
+    @Benchmark
+    public Object findFxInMatrix() {
+        return matrix.findFx(lookup.currencyPair);
+    }
+
+    /**
+     * Time to calculate all the rates between the 11 currencies.
+     */
+    @Benchmark
+    public Object buildMatrix() {
+        return new FxRateMatrix(builder);
+    }
+}
@@ -0,0 +1,92 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.IMMDateCalculator;
+import net.objectlab.kit.datecalc.common.IMMPeriod;
+
+/**
+ * IMM date generation: next IMM date, the next 12 IMM dates and all the quarterly IMM dates until the end of 2023.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IMMDateCalculatorBenchmark {
+    @Param({ DateFlavour.DATE, DateFlavour.CALENDAR, DateFlavour.JODA, DateFlavour.JDK8 })
+    private String flavour;
+
+    private Scenario<?> scenario;
+
+    @Setup
+    public void setUp() {
+        scenario = new Scenario<>(DateFlavour.of(flavour));
+    }
+
+    @Benchmark
+    public Object getNextIMMDate() {
+        return scenario.getNextIMMDate();
+    }
+
+    @Benchmark
+    public Object getNext12IMMDates() {
+        return scenario.getNextIMMDates(12);
+    }
+
+    @Benchmark
+    public Object getQuarterlyIMMDates() {
+        return scenario.getIMMDates();
+    }
+
+    private static final class Scenario<E extends Serializable> {
+        private final DateFlavour<E> flavour;
+        private final IMMDateCalculator<E> calculator;
+        private final List<E> startDates;
+        private final E endDate;
+        private int index;
+
+        private Scenario(final DateFlavour<E> flavour) {
+            this.flavour = flavour;
+            calculator = flavour.getFactory().getIMMDateCalculator();
+            startDates = flavour.newDates("2017-01-01", DateCalculatorBenchmark.NUMBER_OF_START_DATES);
+            endDate = flavour.newDate("2023-12-31");
+        }
+
+        private E nextStartDate() {
+            index = index + 1 & DateCalculatorBenchmark.NUMBER_OF_START_DATES - 1;
+            return flavour.copy(startDates.get(index));
+        }
+
+        private E getNextIMMDate() {
+            return calculator.getNextIMMDate(nextStartDate());
+        }
+
+        private List<E> getNextIMMDates(final int numberOfDates) {
+            return calculator.getNextIMMDates(nextStartDate(), numberOfDates);
+        }
+
+        private List<E> getIMMDates() {
+            final E start = nextStartDate();
+            return calculator.getIMMDates(start, endDate, IMMPeriod.QUARTERLY);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.PeriodCountBasis;
+import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
+
+/**
+ * PeriodCountCalculator.yearDiff for each basis, between start dates spread over a year and end dates
+ * between a few days and a few years later.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PeriodCountCalculatorBenchmark {
+    @Param({ DateFlavour.DATE, DateFlavour.CALENDAR, DateFlavour.JODA, DateFlavour.JDK8 })
+    private String flavour;
+
+    @Param
+    private PeriodCountBasis basis;
+
+    private Scenario<?> scenario;
+
+    @Setup
+    public void setUp() {
+        scenario = new Scenario<>(DateFlavour.of(flavour));
+    }
+
+    @Benchmark
+    public double yearDiff() {
+        return scenario.yearDiff(basis);
+    }
+
+    private static final class Scenario<E extends Serializable> {
+        private static final int DAYS_BETWEEN_END_DATES = 7;
+        private final PeriodCountCalculator<E> calculator;
+        private final List<E> startDates;
+        private final List<E> endDates;
+        private int index;
+
+        private Scenario(final DateFlavour<E> flavour) {
+            calculator = flavour.getFactory().getPeriodCountCalculator();
+            startDates = flavour.newDates("2016-01-01", DateCalculatorBenchmark.NUMBER_OF_START_DATES);
+            endDates = flavour.newDates("2016-01-08", DateCalculatorBenchmark.NUMBER_OF_START_DATES * DAYS_BETWEEN_END_DATES);
+        }
+
+        private double yearDiff(final PeriodCountBasis basis) {
+            index = index + 1 & DateCalculatorBenchmark.NUMBER_OF_START_DATES - 1;
+            return calculator.yearDiff(startDates.get(index), endDates.get(index * DAYS_BETWEEN_END_DATES), basis);
+        }
+    }
+}
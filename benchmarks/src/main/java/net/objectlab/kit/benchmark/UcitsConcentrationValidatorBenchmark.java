@@ -0,0 +1,85 @@
+package net.objectlab.kit.benchmark;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.pf.AssetDetails;
+import net.objectlab.kit.pf.BasicAsset;
+import net.objectlab.kit.pf.BasicLine;
+import net.objectlab.kit.pf.BasicPortfolio;
+import net.objectlab.kit.pf.ValidationResults;
+import net.objectlab.kit.pf.ucits.BasicUcitsConcentrationValidator;
+
+/**
+ * BasicUcitsConcentrationValidator.validate on portfolios of increasing size; there are 10 lines per issuer
+ * on average, 1 asset in 50 is not eligible and a few issuers are above the limits so that issues are created.
+ *
+ * The validator does not use dates so, unlike the date benchmarks, there is no flavour.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UcitsConcentrationValidatorBenchmark {
+    private static final int LINES_PER_ISSUER = 10;
+    private static final int NOT_ELIGIBLE_EVERY = 50;
+
+    @Param({ "100", "1000", "10000" })
+    private int numberOfLines;
+
+    private BasicUcitsConcentrationValidator validator;
+    private BasicPortfolio portfolio;
+
+    @Setup
+    public void setUp() {
+        final Map<String, AssetDetails> assets = new HashMap<>();
+        final Set<String> notEligible = new HashSet<>();
+        portfolio = new BasicPortfolio();
+        portfolio.setId("PF");
+        portfolio.setPortfolioCcy("EUR");
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < numberOfLines; i++) {
+            final String assetCode = "ASSET" + i;
+            // the first issuers get more value to create concentration issues
+            final int issuer = i / LINES_PER_ISSUER;
+            final BigDecimal value = BigDecimal.valueOf(issuer < 3 ? 1_000_000L : 10_000L + i);
+            assets.put(assetCode, new BasicAsset(assetCode, "Asset " + i, "ISSUER" + issuer));
+            portfolio.getLines().add(new BasicLine(assetCode, "Asset " + i, BigDecimal.ONE, value, value));
+            total = total.add(value);
+            if (i % NOT_ELIGIBLE_EVERY == NOT_ELIGIBLE_EVERY - 1) {
+                notEligible.add(assetCode);
+            }
+        }
+        portfolio.setPortfolioValue(total);
+
+        validator = new BasicUcitsConcentrationValidator(new BasicUcitsConcentrationValidator.Builder() //
+                .assetDetailsProvider(assets::get) //
+                .assetEligibilityProvider(assetCode -> !notEligible.contains(assetCode)));
+    }
+
+    @Benchmark
+    public ValidationResults validate() {
+        return validator.validate(portfolio);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.BACKWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLLOWING;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Abstract implementation of the stateless {@link BusinessDayCalendar}, it encapsulates
+ * the common functionality between Jdk/Jdk8 and Joda implementations. All fields are final
+ * and every move goes through {@link HolidayHandler#adjustDate(Object, int, NonWorkingDayChecker)}
+ * with this calendar as the checker, so an instance can be shared between threads.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ */
+public abstract class AbstractBusinessDayCalendar<E extends Serializable> implements BusinessDayCalendar<E> {
+    private static final int MONTHS_IN_YEAR = 12;
+    private static final int DAYS_IN_WEEK = 7;
+    private final String name;
+    private final HolidayCalendar<E> holidayCalendar;
+    private final WorkingWeek workingWeek;
+    private final HolidayHandler<E> holidayHandler;
+    private final KitCalculatorsFactory<E> factory;
+
+    /**
+     * @param factory
+     *            the factory creating this calendar, it provides the holiday
+     *            handlers for {@link #adjust(Serializable, String)}.
+     */
+    protected AbstractBusinessDayCalendar(final String name, final HolidayCalendar<E> holidayCalendar, final WorkingWeek workingWeek,
+            final HolidayHandler<E> holidayHandler, final KitCalculatorsFactory<E> factory) {
+        this.name = name;
+        if (holidayCalendar instanceof ImmutableHolidayCalendar) {
+            this.holidayCalendar = holidayCalendar;
+        } else {
+            this.holidayCalendar = new ImmutableHolidayCalendar<E>(holidayCalendar != null ? holidayCalendar : new DefaultHolidayCalendar<E>());
+        }
+        this.workingWeek = workingWeek != null ? workingWeek : WorkingWeek.DEFAULT;
+        this.holidayHandler = holidayHandler;
+        this.factory = factory;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public ReadOnlyHolidayCalendar<E> getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    @Override
+    public WorkingWeek getWorkingWeek() {
+        return workingWeek;
+    }
+
+    @Override
+    public String getHolidayHandlerType() {
+        return holidayHandler != null ? holidayHandler.getType() : null;
+    }
+
+    protected HolidayHandler<E> getHolidayHandler() {
+        return holidayHandler;
+    }
+
+    /**
+     * @return a new holiday handler of the given type, created by the factory of this calendar.
+     * @throws IllegalArgumentException if the holidayHandlerType is unsupported
+     */
+    protected HolidayHandler<E> getHolidayHandler(final String holidayHandlerType) {
+        return factory.getHolidayHandler(holidayHandlerType);
+    }
+
+    /**
+     * @return a NEW date, the given one must not be modified.
+     */
+    protected abstract E plusDays(E date, int days);
+
+    /**
+     * @return a NEW date, the given one must not be modified.
+     */
+    protected abstract E plusMonths(E date, int months);
+
+    protected abstract int calendarWeekDay(E date);
+
+    protected abstract boolean isBefore(E date, E other);
+
+    @Override
+    public boolean isNonWorkingDay(final E date) {
+        checkBoundary(date);
+        return !workingWeek.isWorkingDayFromCalendar(calendarWeekDay(date)) || holidayCalendar.isHoliday(date);
+    }
+
+    @Override
+    public boolean isBusinessDay(final E date) {
+        return !isNonWorkingDay(date);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the date is not within the boundaries.
+     */
+    protected void checkBoundary(final E date) {
+        final E early = holidayCalendar.getEarlyBoundary();
+        if (early != null && isBefore(date, early)) {
+            throw new IndexOutOfBoundsException(date + " is before the early boundary " + early);
+        }
+
+        final E late = holidayCalendar.getLateBoundary();
+        if (late != null && isBefore(late, date)) {
+            throw new IndexOutOfBoundsException(date + " is after the late boundary " + late);
+        }
+    }
+
+    @Override
+    public E adjust(final E date) {
+        return adjust(date, holidayHandler, 1);
+    }
+
+    @Override
+    public E adjust(final E date, final String holidayHandlerType) {
+        return adjust(date, getHolidayHandler(holidayHandlerType), 1);
+    }
+
+    /**
+     * Same as the handler's moveCurrentDate for a calculator whose current increment is the given one.
+     */
+    private E adjust(final E date, final HolidayHandler<E> handler, final int increment) {
+        if (date == null) {
+            return null;
+        }
+        if (handler == null) {
+            checkBoundary(date);
+            return date;
+        }
+        final String type = handler.getType();
+        int step = 1;
+        if (BACKWARD.equals(type) || MODIFIED_PRECEDING.equals(type)) {
+            step = -1;
+        } else if (FORWARD_UNLESS_MOVING_BACK.equals(type)) {
+            step = increment;
+        }
+        return handler.adjustDate(date, step, this);
+    }
+
+    @Override
+    public E addDays(final E date, final int days) {
+        return adjust(plusDays(date, days), holidayHandler, days);
+    }
+
+    @Override
+    public E addBusinessDays(final E date, final int businessDays) {
+        checkHolidayValidity(businessDays);
+
+        final int numberOfStepsLeft = Math.abs(businessDays);
+        final int step = businessDays < 0 ? -1 : 1;
+
+        E result = date;
+        for (int i = 0; i < numberOfStepsLeft; i++) {
+            result = addDays(result, step);
+        }
+        return result;
+    }
+
+    private void checkHolidayValidity(final int businessDays) {
+        final String type = getHolidayHandlerType();
+        if (businessDays > 0 && (BACKWARD.equals(type) || MODIFIED_PRECEDING.equals(type))) {
+            throw new IllegalArgumentException(
+                    "A " + MODIFIED_PRECEDING + " or " + BACKWARD + " does not allow positive steps for addBusinessDays");
+        } else if (businessDays < 0 && (FORWARD.equals(type) || MODIFIED_FOLLOWING.equals(type))) {
+            throw new IllegalArgumentException(
+                    "A " + MODIFIED_FOLLOWING + " or " + FORWARD + " does not allow negative steps for addBusinessDays");
+        }
+    }
+
+    @Override
+    public E addTenor(final E date, final Tenor tenor) {
+        return addTenor(date, tenor, 0);
+    }
+
+    @Override
+    public E addTenor(final E date, final Tenor tenor, final int spotLag) {
+        if (tenor == null) {
+            throw new IllegalArgumentException("Tenor cannot be null");
+        }
+
+        E calc = adjust(date);
+        TenorCode tenorCode = tenor.getCode();
+        if (tenorCode != TenorCode.OVERNIGHT && tenorCode != TenorCode.TOM_NEXT) {
+            // get to the Spot date first:
+            calc = addBusinessDays(calc, spotLag);
+        }
+        int unit = tenor.getUnits();
+        if (tenorCode == TenorCode.WEEK) {
+            tenorCode = TenorCode.DAY;
+            unit *= DAYS_IN_WEEK;
+        }
+
+        if (tenorCode == TenorCode.YEAR) {
+            tenorCode = TenorCode.MONTH;
+            unit *= MONTHS_IN_YEAR;
+        }
+
+        return applyTenor(calc, tenorCode, unit);
+    }
+
+    private E applyTenor(final E date, final TenorCode tenorCode, final int unit) {
+        E calc = date;
+        // move by tenor
+        switch (tenorCode) {
+        case OVERNIGHT:
+        case SPOT_NEXT:
+            calc = addDays(calc, 1);
+            break;
+        case TOM_NEXT: // it would have NOT moved by
+            calc = addDays(addDays(calc, 1), 1);
+            break;
+        case SPOT:
+            break;
+        case DAY:
+            calc = addDays(calc, unit);
+            break;
+        case MONTH:
+            calc = adjust(plusMonths(calc, unit), holidayHandler, unit);
+            break;
+        default:
+            throw new UnsupportedOperationException("Sorry not yet...");
+        }
+        return calc;
+    }
+
+    @Override
+    public List<E> calculateTenorDates(final E date, final List<Tenor> tenors, final int spotLag) {
+        final List<E> results = new ArrayList<E>();
+        if (tenors != null) {
+            for (final Tenor tenor : tenors) {
+                results.add(addTenor(date, tenor, spotLag));
+            }
+        }
+        return results;
+    }
+}
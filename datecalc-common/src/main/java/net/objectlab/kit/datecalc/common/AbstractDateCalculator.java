@@ -34,6 +34,7 @@ package net.objectlab.kit.datecalc.common;
 
 import static net.objectlab.kit.datecalc.common.HolidayHandlerType.BACKWARD;
 import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK;
 import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLLOWING;
 import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
 
@@ -42,6 +43,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Abstract implementation in order to encapsulate all the common functionality
@@ -73,6 +75,8 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
 
     private int currentIncrement;
 
+    private CompiledBusinessCalendar<E> compiledCalendar;
+
     protected AbstractDateCalculator(final String name, final HolidayCalendar<E> holidayCalendar, final HolidayHandler<E> holidayHandler) {
         this.name = name;
         if (holidayCalendar != null) {
@@ -153,6 +157,11 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
             // get to the Spot date first:
             moveToSpotDate(spotLag);
         }
+        return moveByTenorFromCurrentDate(tenor);
+    }
+
+    private DateCalculator<E> moveByTenorFromCurrentDate(final Tenor tenor) {
+        TenorCode tenorCode = tenor.getCode();
         int unit = tenor.getUnits();
         if (tenorCode == TenorCode.WEEK) {
             tenorCode = TenorCode.DAY;
@@ -245,6 +254,100 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
         return list;
     }
 
+    /**
+     * Calculate a series of Tenor codes for many start dates in one go, each
+     * start date is adjusted and moved to SPOT (calculated with the spot lag)
+     * like <code>setStartDate(startDate).calculateTenorDates(tenors, spotLag)</code>
+     * would; the dates from spot are only calculated once for start dates
+     * leading to the same spot date. This does NOT change the current business date.
+     *
+     * @return a matrix of dates, one row per start date and one column per tenor.
+     * @since 1.4.1
+     */
+    public TenorDateMatrix<E> calculateTenorDates(final List<E> startDates, final List<Tenor> tenors, final int spotLag) {
+        return calculateTenorDates(startDates, tenors, spotLag, null);
+    }
+
+    /**
+     * Same as {@link #calculateTenorDates(List, List, int)} but chunks of rows
+     * are calculated by the executor (e.g. a ForkJoinPool), each chunk using
+     * its own copy of this calculator.
+     *
+     * @param executor the executor, if null the rows are calculated in the current thread.
+     * @return a matrix of dates, one row per start date and one column per tenor.
+     * @since 1.4.1
+     */
+    public TenorDateMatrix<E> calculateTenorDates(final List<E> startDates, final List<Tenor> tenors, final int spotLag,
+            final ExecutorService executor) {
+        return TenorDateMatrix.calculate(startDates, tenors, new TenorRowCalculator<E>(this, null, spotLag), executor);
+    }
+
+    /**
+     * @param theStartDate the start date of the copy
+     * @return a new calculator with the same holidays, handler, working week,
+     *         current increment and compiled calendar as this one.
+     */
+    protected AbstractDateCalculator<E> copy(final E theStartDate) {
+        // the handler is set afterwards, as the factories do, so that it only applies to the copy itself
+        final AbstractDateCalculator<E> copy = (AbstractDateCalculator<E>) createNewCalculator(getName(), theStartDate, holidayCalendar, null);
+        copy.setHolidayHandler(holidayHandler);
+        copy.setWorkingWeek(getWorkingWeek());
+        copy.setCompiledCalendar(compiledCalendar);
+        copy.setCurrentIncrement(currentIncrement);
+        return copy;
+    }
+
+    /**
+     * Fills a row of a TenorDateMatrix by moving its own copy of the calculator.
+     */
+    private static final class TenorRowCalculator<E extends Serializable> implements TenorDateRowCalculator<E> {
+        private final AbstractDateCalculator<E> source;
+        private final AbstractDateCalculator<E> calculator;
+        private final int spotLag;
+        private final int increment;
+
+        private TenorRowCalculator(final AbstractDateCalculator<E> source, final AbstractDateCalculator<E> calculator, final int spotLag) {
+            this.source = source;
+            this.calculator = calculator;
+            this.spotLag = spotLag;
+            this.increment = source.getCurrentIncrement();
+        }
+
+        @Override
+        public E calculateSpotDate(final E startDate) {
+            moveToStartDate(startDate);
+            calculator.moveToSpotDate(spotLag);
+            return calculator.clone(calculator.getCurrentBusinessDate());
+        }
+
+        @Override
+        public E calculateTenorDate(final E startDate, final E spotDate, final Tenor tenor) {
+            if (tenor.getCode() == TenorCode.OVERNIGHT || tenor.getCode() == TenorCode.TOM_NEXT) {
+                moveToStartDate(startDate);
+                calculator.moveByTenor(tenor, spotLag);
+            } else {
+                calculator.forceCurrentDateNoAdjustment(calculator.clone(spotDate));
+                calculator.moveByTenorFromCurrentDate(tenor);
+            }
+            return calculator.clone(calculator.getCurrentBusinessDate());
+        }
+
+        @Override
+        public E copy(final E date) {
+            return source.clone(date);
+        }
+
+        private void moveToStartDate(final E startDate) {
+            calculator.setCurrentIncrement(increment);
+            calculator.setStartDate(calculator.clone(startDate));
+        }
+
+        @Override
+        public TenorDateRowCalculator<E> fork(final E startDate) {
+            return new TenorRowCalculator<E>(source, source.copy(startDate), spotLag);
+        }
+    }
+
     // -----------------------------------------------------------------------
     //
     // ObjectLab, world leaders in the design and development of bespoke
@@ -317,10 +420,43 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
         moveByBusinessDays(spotLag);
     }
 
+    /**
+     * Enables the compiled mode: moveByBusinessDays uses the precomputed business days
+     * instead of moving day by day, for FORWARD, BACKWARD and FORWARD_UNLESS_MOVING_BACK
+     * handlers. The compiled calendar is only used if it was compiled for the current
+     * WorkingWeek and HolidayCalendar of this calculator (it is ignored otherwise, e.g.
+     * after a call to setWorkingWeek).
+     *
+     * @param compiledCalendar the compiled calendar, null to disable the compiled mode.
+     * @return this calculator
+     * @see AbstractKitCalculatorsFactory#getCompiledDateCalculator(String, String)
+     * @since 1.4.1
+     */
+    public DateCalculator<E> setCompiledCalendar(final CompiledBusinessCalendar<E> compiledCalendar) {
+        this.compiledCalendar = compiledCalendar;
+        return this;
+    }
+
+    public CompiledBusinessCalendar<E> getCompiledCalendar() {
+        return compiledCalendar;
+    }
+
+    /**
+     * @return the Working Week used by this calculator.
+     * @since 1.4.1
+     */
+    public abstract WorkingWeek getWorkingWeek();
+
     @Override
     public DateCalculator<E> moveByBusinessDays(final int businessDays) {
         checkHolidayValidity(businessDays);
 
+        if (businessDays != 0 && isCompiledCalendarUsable(businessDays)) {
+            setCurrentIncrement(businessDays < 0 ? -1 : 1);
+            forceCurrentDateNoAdjustment(compiledCalendar.moveByBusinessDays(getCurrentBusinessDate(), businessDays));
+            return this;
+        }
+
         final int numberOfStepsLeft = Math.abs(businessDays);
         final int step = businessDays < 0 ? -1 : 1;
 
@@ -331,6 +467,19 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
         return this;
     }
 
+    /**
+     * The compiled calendar gives the Nth business day after (or before), which is only
+     * what the step by step algorithm gives for handlers that always move in the
+     * direction of the step.
+     */
+    private boolean isCompiledCalendarUsable(final int businessDays) {
+        if (compiledCalendar == null || holidayHandler == null || !compiledCalendar.isCompiledFor(getWorkingWeek(), holidayCalendar)) {
+            return false;
+        }
+        final String type = holidayHandler.getType();
+        return FORWARD_UNLESS_MOVING_BACK.equals(type) || businessDays > 0 && FORWARD.equals(type) || businessDays < 0 && BACKWARD.equals(type);
+    }
+
     private void checkHolidayValidity(final int businessDays) {
         if (businessDays > 0 && holidayHandler != null
                 && (holidayHandler.getType().equals(BACKWARD) || holidayHandler.getType().equals(MODIFIED_PRECEDING))) {
@@ -41,6 +41,7 @@ import java.util.concurrent.ConcurrentMap;
 
 import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
 import net.objectlab.kit.datecalc.common.ccy.DefaultCurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.SpotDateCache;
 
 /**
  * Base class for all calculator factories, it handles the holiday registration.
@@ -56,6 +57,15 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
 
     private final ConcurrentMap<String, HolidayCalendar<E>> holidays = new ConcurrentHashMap<String, HolidayCalendar<E>>();
 
+    /** calendar name to working days to compiled calendar. */
+    private final ConcurrentMap<String, ConcurrentMap<Byte, CompiledBusinessCalendar<E>>> compiledCalendars = new ConcurrentHashMap<String, ConcurrentMap<Byte, CompiledBusinessCalendar<E>>>();
+
+    private final ConcurrentMap<String, SpotDateCache<E>> spotDateCaches = new ConcurrentHashMap<String, SpotDateCache<E>>();
+
+    private int spotDateCacheSize;
+
+    private SpotDateCache.Eviction spotDateCacheEviction = SpotDateCache.Eviction.LRU;
+
     private CurrencyCalculatorConfig currencyCalculatorConfig = new DefaultCurrencyCalculatorConfig();
 
     /**
@@ -64,6 +74,44 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public void setCurrencyCalculatorConfig(final CurrencyCalculatorConfig config) {
         currencyCalculatorConfig = config;
+        spotDateCaches.clear();
+    }
+
+    /**
+     * Enables a SpotDateCache shared by all the CurrencyDateCalculators returned by getDefaultCurrencyDateCalculator
+     * for the same currency pair and SpotLag. The shared caches are dropped (but not cleared, so existing calculators
+     * remain consistent) whenever holidays or the currency config are registered.
+     * @param maximumSize the maximum number of start dates per currency pair and SpotLag, 0 to disable (the default).
+     * @param eviction LRU or FIFO
+     * @since 1.4.1
+     */
+    public void setSharedSpotDateCache(final int maximumSize, final SpotDateCache.Eviction eviction) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must be >= 0, was " + maximumSize);
+        }
+        spotDateCacheSize = maximumSize;
+        spotDateCacheEviction = eviction != null ? eviction : SpotDateCache.Eviction.LRU;
+        spotDateCaches.clear();
+    }
+
+    /**
+     * @return the SpotDateCache shared by the default CurrencyDateCalculators for that pair and SpotLag, null if disabled.
+     * @since 1.4.1
+     */
+    public SpotDateCache<E> getSharedSpotDateCache(final String ccy1, final String ccy2, final SpotLag spotLag) {
+        if (spotDateCacheSize == 0) {
+            return null;
+        }
+        final String key = ccy1 + "." + ccy2 + "/" + spotLag;
+        SpotDateCache<E> cache = spotDateCaches.get(key);
+        if (cache == null) {
+            final SpotDateCache<E> newCache = new SpotDateCache<E>(spotDateCacheSize, spotDateCacheEviction);
+            cache = spotDateCaches.putIfAbsent(key, newCache);
+            if (cache == null) {
+                cache = newCache;
+            }
+        }
+        return cache;
     }
 
     /**
@@ -101,6 +149,7 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
                 defaultHolidayCalendar.setLateBoundary(holidaysCalendar.getLateBoundary());
             }
             this.holidays.put(name, new ImmutableHolidayCalendar<E>(holidaysCalendar));
+            spotDateCaches.clear();
         }
         return this;
     }
@@ -149,6 +198,8 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public KitCalculatorsFactory<E> unregisterHolidayCalendar(final String calendarName) {
         holidays.remove(calendarName);
+        spotDateCaches.clear();
+        compiledCalendars.remove(calendarName);
         return this;
     }
 
@@ -157,9 +208,100 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public KitCalculatorsFactory<E> unregisterAllHolidayCalendars() {
         holidays.clear();
+        compiledCalendars.clear();
+        spotDateCaches.clear();
         return this;
     }
 
+    /**
+     * Create a new DateCalculator for a given name and type of handling in
+     * "compiled" mode: moveByBusinessDays uses the precomputed business days of
+     * the calendar (see {@link #getCompiledBusinessCalendar(String, WorkingWeek)})
+     * instead of moving day by day; this applies to FORWARD, BACKWARD and
+     * FORWARD_UNLESS_MOVING_BACK handlers, the others behave as usual.
+     *
+     * @param name
+     *            calendar name, it must be registered with an early and a
+     *            late boundary.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @return a new DateCalculator
+     * @exception IllegalArgumentException
+     *                if the type is not null or a valid value or if the
+     *                calendar is not registered with boundaries.
+     * @since 1.4.1
+     */
+    public DateCalculator<E> getCompiledDateCalculator(final String name, final String holidayHandlerType) {
+        final DateCalculator<E> dc = getDateCalculator(name, holidayHandlerType);
+        if (dc instanceof AbstractDateCalculator) {
+            final AbstractDateCalculator<E> calculator = (AbstractDateCalculator<E>) dc;
+            calculator.setCompiledCalendar(getCompiledBusinessCalendar(name, calculator.getWorkingWeek()));
+        }
+        return dc;
+    }
+
+    /**
+     * Provides the business days of a registered calendar and a working week,
+     * precomputed between the early and late boundaries. It is computed once
+     * and shared until the calendar is registered again or unregistered.
+     *
+     * @param calendarName
+     *            the registered calendar name.
+     * @param workingWeek
+     *            the working week, default Mon-Fri if null.
+     * @return an immutable CompiledBusinessCalendar
+     * @exception IllegalArgumentException
+     *                if the calendar is not registered or has no early or
+     *                late boundary.
+     * @since 1.4.1
+     */
+    public CompiledBusinessCalendar<E> getCompiledBusinessCalendar(final String calendarName, final WorkingWeek workingWeek) {
+        final HolidayCalendar<E> calendar = calendarName != null ? holidays.get(calendarName) : null;
+        if (calendar == null) {
+            throw new IllegalArgumentException("No holiday calendar registered under " + calendarName);
+        }
+        final WorkingWeek week = workingWeek != null ? workingWeek : WorkingWeek.DEFAULT;
+        ConcurrentMap<Byte, CompiledBusinessCalendar<E>> perWeek = compiledCalendars.get(calendarName);
+        if (perWeek == null) {
+            final ConcurrentMap<Byte, CompiledBusinessCalendar<E>> created = new ConcurrentHashMap<Byte, CompiledBusinessCalendar<E>>();
+            perWeek = compiledCalendars.putIfAbsent(calendarName, created);
+            if (perWeek == null) {
+                perWeek = created;
+            }
+        }
+        final Byte key = Byte.valueOf(week.getWorkingDays());
+        CompiledBusinessCalendar<E> compiled = perWeek.get(key);
+        if (compiled == null || !compiled.isCompiledFor(week, calendar)) {
+            compiled = new CompiledBusinessCalendar<E>(getEpochDayConverter(), week, calendar);
+            perWeek.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Create a new stateless BusinessDayCalendar for a given name and type of
+     * handling, it can be shared between threads.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @param workingWeek
+     *            the working week, the default one (Mon-Fri) if null.
+     * @return a new BusinessDayCalendar
+     * @exception IllegalArgumentException
+     *                if the type is not null or a valid value.
+     * @since 1.4.1
+     */
+    public abstract BusinessDayCalendar<E> getBusinessDayCalendar(String name, String holidayHandlerType, WorkingWeek workingWeek);
+
+    /**
+     * @return the converter to and from epoch days for the type E, used to compile the calendars.
+     * @since 1.4.1
+     */
+    protected abstract EpochDayConverter<E> getEpochDayConverter();
+
     /**
      * Method that may be called by the specialised factory methods and will fetch the registered holidayCalendar for all 3 currencies 
      * and the working weeks via the currencyCalculatorConfig and assigning currencyCalculatorConfig to the builder, 
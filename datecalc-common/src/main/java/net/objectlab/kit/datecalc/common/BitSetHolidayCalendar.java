@@ -0,0 +1,203 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A Holiday Calendar that indexes its holidays by epoch day in a <code>BitSet</code>,
+ * checking a date is therefore a conversion to an <code>int</code>, a range
+ * check and a bit lookup; no object is created and there is no string
+ * comparison (unlike {@link DefaultHolidayCalendar}).
+ *
+ * The index spans from the first to the last holiday, any date outside that
+ * range is simply not a holiday. The early and late boundaries are kept as
+ * given, it is the DateCalculator that checks them.
+ *
+ * <pre>
+ * HolidayCalendar&lt;LocalDate&gt; calendar = new BitSetHolidayCalendar&lt;LocalDate&gt;(new LocalDateEpochDayConverter(), holidays, early, late);
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ */
+public class BitSetHolidayCalendar<E extends Serializable> implements HolidayCalendar<E> {
+    private static final long serialVersionUID = -4017936283745103751L;
+
+    private final EpochDayConverter<E> converter;
+
+    private Set<E> holidays;
+
+    private BitSet holidayIndex;
+
+    private int firstEpochDay;
+
+    private int lastEpochDay;
+
+    private E earlyBoundary;
+
+    private E lateBoundary;
+
+    public BitSetHolidayCalendar(final EpochDayConverter<E> converter) {
+        this(converter, (Set<E>) null);
+    }
+
+    public BitSetHolidayCalendar(final EpochDayConverter<E> converter, final Set<E> holidays) {
+        this(converter, holidays, null, null);
+    }
+
+    public BitSetHolidayCalendar(final EpochDayConverter<E> converter, final Set<E> holidays, final E earlyBoundary, final E lateBoundary) {
+        super();
+        if (converter == null) {
+            throw new IllegalArgumentException("converter cannot be null");
+        }
+        this.converter = converter;
+        setHolidays(holidays);
+        this.earlyBoundary = earlyBoundary;
+        this.lateBoundary = lateBoundary;
+    }
+
+    /**
+     * Creates an indexed copy of the given calendar (holidays and boundaries).
+     * @param converter the epoch day converter for the type E
+     * @param calendar the calendar to copy, may be null.
+     */
+    public BitSetHolidayCalendar(final EpochDayConverter<E> converter, final ReadOnlyHolidayCalendar<E> calendar) {
+        this(converter, calendar != null ? calendar.getHolidays() : null, calendar != null ? calendar.getEarlyBoundary() : null,
+                calendar != null ? calendar.getLateBoundary() : null);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see net.objectlab.kit.datecalc.common.HolidayCalendar#getEarlyBoundary()
+     */
+    @Override
+    public E getEarlyBoundary() {
+        return earlyBoundary;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see net.objectlab.kit.datecalc.common.HolidayCalendar#getHolidays()
+     */
+    @Override
+    public Set<E> getHolidays() {
+        return holidays;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see net.objectlab.kit.datecalc.common.HolidayCalendar#getLateBoundary()
+     */
+    @Override
+    public E getLateBoundary() {
+        return lateBoundary;
+    }
+
+    @Override
+    public HolidayCalendar<E> setEarlyBoundary(final E earlyBoundary) {
+        this.earlyBoundary = earlyBoundary;
+        return this;
+    }
+
+    @Override
+    public HolidayCalendar<E> setLateBoundary(final E lateBoundary) {
+        this.lateBoundary = lateBoundary;
+        return this;
+    }
+
+    /**
+     * Takes a copy of the holidays and rebuilds the epoch day index.
+     */
+    @Override
+    public final HolidayCalendar<E> setHolidays(final Set<E> holidays) {
+        if (holidays == null || holidays.isEmpty()) {
+            this.holidays = Collections.emptySet();
+            this.holidayIndex = new BitSet(0);
+            this.firstEpochDay = 0;
+            this.lastEpochDay = -1;
+            return this;
+        }
+
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (final E e : holidays) {
+            final int epochDay = converter.toEpochDay(e);
+            first = Math.min(first, epochDay);
+            last = Math.max(last, epochDay);
+        }
+
+        final BitSet index = new BitSet(last - first + 1);
+        for (final E e : holidays) {
+            index.set(converter.toEpochDay(e) - first);
+        }
+
+        this.holidays = Collections.unmodifiableSet(new HashSet<E>(holidays));
+        this.holidayIndex = index;
+        this.firstEpochDay = first;
+        this.lastEpochDay = last;
+        return this;
+    }
+
+    @Override
+    public boolean isHoliday(final E date) {
+        return date != null && isEpochDayHoliday(converter.toEpochDay(date));
+    }
+
+    /**
+     * Check if a date, given as an epoch day, is a holiday.
+     * @param epochDay number of days since 1970-01-01
+     * @return true if the given day is in the holiday set.
+     */
+    public boolean isEpochDayHoliday(final int epochDay) {
+        return epochDay >= firstEpochDay && epochDay <= lastEpochDay && holidayIndex.get(epochDay - firstEpochDay);
+    }
+
+    /**
+     * @return the converter used to index this calendar.
+     */
+    public EpochDayConverter<E> getConverter() {
+        return converter;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A stateless alternative to the {@link DateCalculator}: it does not hold a current
+ * business date or increment, every method takes the date to work from and returns
+ * a new date. Implementations are immutable and thread safe, a single instance can
+ * be shared across threads without copying or locking.
+ *
+ * For a given date, the results are the same as the ones of a DateCalculator with
+ * the same holiday calendar, working week and holiday handler, e.g.
+ * <code>addTenor(date, tenor, spotLag)</code> gives the same result as
+ * <code>calculator.setStartDate(date); calculator.moveByTenor(tenor, spotLag).getCurrentBusinessDate()</code>.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ */
+public interface BusinessDayCalendar<E extends Serializable> extends NonWorkingDayChecker<E> {
+
+    /**
+     * @return the name of the holiday calendar used.
+     */
+    String getName();
+
+    /**
+     * @return the immutable holiday calendar.
+     */
+    ReadOnlyHolidayCalendar<E> getHolidayCalendar();
+
+    /**
+     * @return the working week used.
+     */
+    WorkingWeek getWorkingWeek();
+
+    /**
+     * @return the holiday handler type used to move dates, can be null.
+     */
+    String getHolidayHandlerType();
+
+    /**
+     * @param date the date
+     * @return true if the date is neither a weekend nor a holiday.
+     * @throws IndexOutOfBoundsException if the date is outside the calendar boundaries.
+     */
+    boolean isBusinessDay(E date);
+
+    /**
+     * Adjust the date, if it is a non-working day, according to the holiday handler of this calendar.
+     *
+     * @param date the date
+     * @return the adjusted date (which may be the same date)
+     */
+    E adjust(E date);
+
+    /**
+     * Adjust the date, if it is a non-working day, according to a given type of holiday handler.
+     *
+     * @param date the date
+     * @param holidayHandlerType typically one of the value of HolidayHandlerType
+     * @return the adjusted date (which may be the same date)
+     * @exception IllegalArgumentException if the type is not a valid value.
+     */
+    E adjust(E date, String holidayHandlerType);
+
+    /**
+     * Moves the date by a number of calendar days and adjusts the result.
+     *
+     * @param date the date, it is NOT adjusted first.
+     * @param days number of days (can be &lt;0 or &gt;0)
+     * @return a new date
+     * @see DateCalculator#moveByDays(int)
+     */
+    E addDays(E date, int days);
+
+    /**
+     * Moves the date by a number of business days.
+     *
+     * @param date the date, it is NOT adjusted first.
+     * @param businessDays number of business days (can be &lt;0 or &gt;0)
+     * @return a new date
+     * @exception IllegalArgumentException
+     *                if the HolidayHandlerType is (MODIFIED_PRECEDING or
+     *                BACKWARD) and businessDays &gt; 0 or (MODIFIED_FOLLOWING or
+     *                FORWARD) and businessDays &lt; 0
+     * @see DateCalculator#moveByBusinessDays(int)
+     */
+    E addBusinessDays(E date, int businessDays);
+
+    /**
+     * Calculates the date for a tenor from the adjusted date, going via the spot
+     * date first (except for Overnight and Tom Next).
+     *
+     * @param date the start date, adjusted first if it is a non-working day.
+     * @param tenor the tenor
+     * @param spotLag number of business days to spot
+     * @return the tenor date
+     * @see DateCalculator#moveByTenor(Tenor, int)
+     */
+    E addTenor(E date, Tenor tenor, int spotLag);
+
+    /**
+     * Calculates the date for a tenor relative to the adjusted date (and NOT from spot).
+     *
+     * @param date the start date, adjusted first if it is a non-working day.
+     * @param tenor the tenor
+     * @return the tenor date
+     * @see #addTenor(Serializable, Tenor, int)
+     */
+    E addTenor(E date, Tenor tenor);
+
+    /**
+     * Calculates a series of tenor dates from a given date.
+     *
+     * @param date the start date, adjusted first if it is a non-working day.
+     * @param tenors the tenors, the dates are calculated from spot except for Overnight and Tom Next
+     * @param spotLag number of business days to spot
+     * @return list of dates in the same order as the tenors.
+     * @see DateCalculator#calculateTenorDates(List, int)
+     */
+    List<E> calculateTenorDates(E date, List<Tenor> tenors, int spotLag);
+}
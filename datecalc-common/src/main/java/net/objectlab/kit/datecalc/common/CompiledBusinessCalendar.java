@@ -0,0 +1,235 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Calendar;
+
+/**
+ * A "compiled" view of a WorkingWeek and a HolidayCalendar: every day between the
+ * early and late boundaries of the calendar is precomputed once, with the cumulative
+ * number of business days up to that day and the list of business days in order.
+ *
+ * Moving by N business days or counting the business days between 2 dates is then
+ * a couple of array lookups instead of probing every day with the holiday handler.
+ * The holiday calendar MUST have both an early and a late boundary.
+ *
+ * It is immutable and can be shared between threads and DateCalculators, see
+ * {@link AbstractKitCalculatorsFactory#getCompiledBusinessCalendar(String, WorkingWeek)}.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ */
+public class CompiledBusinessCalendar<E extends Serializable> implements NonWorkingDayChecker<E> {
+    private final EpochDayConverter<E> converter;
+
+    private final byte workingDays;
+
+    private final ReadOnlyHolidayCalendar<E> holidayCalendar;
+
+    private final int firstEpochDay;
+
+    private final int lastEpochDay;
+
+    /** number of business days from the first day up to (and including) a given day. */
+    private final int[] businessDaysUpTo;
+
+    /** the business days (as epoch days) in ascending order. */
+    private final int[] businessDays;
+
+    /**
+     * @param converter the epoch day converter for the type E
+     * @param workingWeek the working week
+     * @param holidayCalendar the holiday calendar, with early and late boundaries
+     * @throws IllegalArgumentException if any parameter is null or the calendar does not have both boundaries.
+     */
+    public CompiledBusinessCalendar(final EpochDayConverter<E> converter, final WorkingWeek workingWeek,
+            final ReadOnlyHolidayCalendar<E> holidayCalendar) {
+        if (converter == null || workingWeek == null || holidayCalendar == null) {
+            throw new IllegalArgumentException("converter, workingWeek and holidayCalendar cannot be null");
+        }
+        if (holidayCalendar.getEarlyBoundary() == null || holidayCalendar.getLateBoundary() == null) {
+            throw new IllegalArgumentException("The holiday calendar must have an early and a late boundary to be compiled");
+        }
+        this.converter = converter;
+        this.workingDays = workingWeek.getWorkingDays();
+        this.holidayCalendar = holidayCalendar;
+        this.firstEpochDay = converter.toEpochDay(holidayCalendar.getEarlyBoundary());
+        this.lastEpochDay = converter.toEpochDay(holidayCalendar.getLateBoundary());
+        if (lastEpochDay < firstEpochDay) {
+            throw new IllegalArgumentException("The early boundary must be before the late boundary");
+        }
+
+        final int length = lastEpochDay - firstEpochDay + 1;
+        final BitSet holidays = new BitSet(length);
+        if (holidayCalendar.getHolidays() != null) {
+            for (final E holiday : holidayCalendar.getHolidays()) {
+                final int epochDay = converter.toEpochDay(holiday);
+                if (epochDay >= firstEpochDay && epochDay <= lastEpochDay) {
+                    holidays.set(epochDay - firstEpochDay);
+                }
+            }
+        }
+
+        final boolean[] workingDayOfWeek = new boolean[Calendar.SATURDAY + 1];
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+            workingDayOfWeek[day] = workingWeek.isWorkingDayFromCalendar(day);
+        }
+
+        businessDaysUpTo = new int[length];
+        final int[] days = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            final int epochDay = firstEpochDay + i;
+            if (workingDayOfWeek[Utils.toCalendarDayOfWeek(epochDay)] && !holidays.get(i)) {
+                days[count++] = epochDay;
+            }
+            businessDaysUpTo[i] = count;
+        }
+        businessDays = new int[count];
+        System.arraycopy(days, 0, businessDays, 0, count);
+    }
+
+    /**
+     * @return true if this was compiled for the same working days and the very same holiday calendar instance.
+     */
+    public boolean isCompiledFor(final WorkingWeek workingWeek, final ReadOnlyHolidayCalendar<E> calendar) {
+        return workingWeek != null && workingWeek.getWorkingDays() == workingDays && calendar == holidayCalendar;
+    }
+
+    public ReadOnlyHolidayCalendar<E> getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    public EpochDayConverter<E> getConverter() {
+        return converter;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the date is outside the boundaries.
+     */
+    @Override
+    public boolean isNonWorkingDay(final E date) {
+        return !isBusinessDay(converter.toEpochDay(date));
+    }
+
+    /**
+     * @param epochDay number of days since 1970-01-01
+     * @return true if the day is neither a weekend nor a holiday.
+     * @throws IndexOutOfBoundsException if the day is outside the boundaries.
+     */
+    public boolean isBusinessDay(final int epochDay) {
+        final int index = indexOf(epochDay);
+        return businessDaysUpTo[index] != (index > 0 ? businessDaysUpTo[index - 1] : 0);
+    }
+
+    /**
+     * Moves a date by a number of business days, the same way a FORWARD (or
+     * BACKWARD for negative steps) handler would via
+     * {@link DateCalculator#moveByBusinessDays(int)}: the result is the Nth
+     * business day strictly after (or before) the date, which may itself be a
+     * non-working day.
+     *
+     * @param date the starting date
+     * @param numberOfBusinessDays can be &lt;0 or &gt;0, 0 returns the date.
+     * @return a new date
+     * @throws IndexOutOfBoundsException if the date or the result is outside the boundaries.
+     */
+    public E moveByBusinessDays(final E date, final int numberOfBusinessDays) {
+        if (numberOfBusinessDays == 0) {
+            return date;
+        }
+        return converter.fromEpochDay(moveByBusinessDays(converter.toEpochDay(date), numberOfBusinessDays));
+    }
+
+    /**
+     * @param epochDay the starting day (number of days since 1970-01-01)
+     * @param numberOfBusinessDays can be &lt;0 or &gt;0, 0 returns the day.
+     * @return the epoch day of the Nth business day strictly after (or before) the given day.
+     * @throws IndexOutOfBoundsException if the day or the result is outside the boundaries.
+     */
+    public int moveByBusinessDays(final int epochDay, final int numberOfBusinessDays) {
+        if (numberOfBusinessDays == 0) {
+            return epochDay;
+        }
+        final int index = indexOf(epochDay);
+        // number of business days strictly before the given day
+        final int before = isBusinessDay(epochDay) ? businessDaysUpTo[index] - 1 : businessDaysUpTo[index];
+        final int target = numberOfBusinessDays > 0 ? businessDaysUpTo[index] - 1 + numberOfBusinessDays : before + numberOfBusinessDays;
+        if (target < 0 || target >= businessDays.length) {
+            throw new IndexOutOfBoundsException("Moving " + numberOfBusinessDays + " business days from " + converter.fromEpochDay(epochDay)
+                    + " goes beyond the boundaries " + holidayCalendar.getEarlyBoundary() + " / " + holidayCalendar.getLateBoundary());
+        }
+        return businessDays[target];
+    }
+
+    /**
+     * Counts the business days after the start date up to, and including, the end date;
+     * it is the number of business days to move from start to reach end (if it is a business day).
+     *
+     * @return the number of business days in (start, end], negative if end is before start.
+     * @throws IndexOutOfBoundsException if a date is outside the boundaries.
+     */
+    public int getBusinessDaysBetween(final E start, final E end) {
+        return getBusinessDaysBetween(converter.toEpochDay(start), converter.toEpochDay(end));
+    }
+
+    /**
+     * @see #getBusinessDaysBetween(Serializable, Serializable)
+     */
+    public int getBusinessDaysBetween(final int startEpochDay, final int endEpochDay) {
+        return businessDaysUpTo[indexOf(endEpochDay)] - businessDaysUpTo[indexOf(startEpochDay)];
+    }
+
+    /**
+     * @return the total number of business days between the boundaries.
+     */
+    public int getNumberOfBusinessDays() {
+        return businessDays.length;
+    }
+
+    private int indexOf(final int epochDay) {
+        if (epochDay < firstEpochDay) {
+            throw new IndexOutOfBoundsException(converter.fromEpochDay(epochDay) + " is before the early boundary " + holidayCalendar.getEarlyBoundary());
+        }
+        if (epochDay > lastEpochDay) {
+            throw new IndexOutOfBoundsException(converter.fromEpochDay(epochDay) + " is after the late boundary " + holidayCalendar.getLateBoundary());
+        }
+        return epochDay - firstEpochDay;
+    }
+}
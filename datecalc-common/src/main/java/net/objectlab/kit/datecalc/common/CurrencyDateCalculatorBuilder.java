@@ -3,6 +3,7 @@ package net.objectlab.kit.datecalc.common;
 import java.io.Serializable;
 
 import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.SpotDateCache;
 
 /**
  * Provides enough information to create an immutable CurrencyDateCalculator.
@@ -22,6 +23,7 @@ import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
             .brokenDateAllowed(false) // use the CrossCcy holidays on Spot and Tenor Date
             .currencyCalculatorConfig(new DefaultCurrencyCalculatorConfig()) // Will be used for finding Working Weeks IF NOT PROVIDED and Latin
                                                                              // American ccy USD handling.
+            .spotDateCache(new SpotDateCache&lt;LocalDate&gt;(1000)); // optional, memoise the Spot Date for the last 1000 start dates
  * </pre>
  *
  * @param <E> JDK Date/Calendar, JDK8 LocalDate or Joda LocalDate
@@ -42,6 +44,7 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
     private boolean brokenDateAllowed;
     private boolean adjustStartDateWithCurrencyPair = true;
     private SpotLag spotLag = SpotLag.T_2;
+    private SpotDateCache<E> spotDateCache;
 
     /**
      * Default values are:
@@ -173,6 +176,10 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
         return brokenDateAllowed;
     }
 
+    public SpotDateCache<E> getSpotDateCache() {
+        return spotDateCache;
+    }
+
     /**
      * This specialises the calculator to the given currency pair and the SpotLag (0, 1, 2). Given than some currencies can have different
      * SpotLag depending on the business, this is something that the user will have to provide.
@@ -318,4 +325,16 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
         this.crossCcyWeek = crossCcyWeek;
         return this;
     }
+
+    /**
+     * Memoise the Spot Date per start date, the cache must not be shared with a calculator using a different
+     * currency pair, spot lag, calendars or working weeks.
+     * @param spotDateCache the cache, null (the default) if the Spot Date should be calculated every time.
+     * @return the builder
+     * @since 1.4.1
+     */
+    public CurrencyDateCalculatorBuilder<E> spotDateCache(final SpotDateCache<E> spotDateCache) {
+        this.spotDateCache = spotDateCache;
+        return this;
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Epoch day converter for <code>java.util.Date</code>, the day of a Date
+ * depends on a time zone; by default, this uses the JVM default time zone
+ * at the time the converter is created.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class DateEpochDayConverter implements EpochDayConverter<Date> {
+    private static final long serialVersionUID = -2315917003560315476L;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private final TimeZone timeZone;
+
+    /**
+     * Converter using the current default time zone.
+     */
+    public DateEpochDayConverter() {
+        this(TimeZone.getDefault());
+    }
+
+    public DateEpochDayConverter(final TimeZone timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    @Override
+    public int toEpochDay(final Date date) {
+        final long time = date.getTime();
+        final long localTime = time + timeZone.getOffset(time);
+        long epochDay = localTime / MILLIS_PER_DAY;
+        if (localTime % MILLIS_PER_DAY < 0) {
+            epochDay--;
+        }
+        return (int) epochDay;
+    }
+
+    @Override
+    public Date fromEpochDay(final int epochDay) {
+        final Calendar cal = Calendar.getInstance(timeZone);
+        cal.clear();
+        cal.set(1970, Calendar.JANUARY, 1);
+        cal.add(Calendar.DAY_OF_MONTH, epochDay);
+        return cal.getTime();
+    }
+}
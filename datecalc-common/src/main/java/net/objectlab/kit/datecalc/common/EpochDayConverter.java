@@ -0,0 +1,64 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+
+/**
+ * Converts a date representation to and from an epoch day, i.e. the number of
+ * days since 1970-01-01 (which is epoch day 0). This is what allows a calendar
+ * to index its dates by a primitive <code>int</code> instead of the date object itself.
+ *
+ * Implementations must be immutable and thread safe; <code>toEpochDay</code>
+ * should not allocate.
+ *
+ * @author Benoit Xhenseval
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ * @since 1.4.1
+ */
+public interface EpochDayConverter<E> extends Serializable {
+    /**
+     * @param date the date, not null.
+     * @return the number of days since 1970-01-01 for the given date (ignoring any time portion).
+     */
+    int toEpochDay(E date);
+
+    /**
+     * @param epochDay number of days since 1970-01-01
+     * @return a new date representing the given epoch day.
+     */
+    E fromEpochDay(int epochDay);
+}
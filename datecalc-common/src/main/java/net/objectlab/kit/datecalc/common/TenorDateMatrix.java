@@ -0,0 +1,217 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A dense matrix of tenor dates, one row per start date and one column per tenor, as
+ * calculated in one go by a batch <code>calculateTenorDates</code>.
+ *
+ * Start dates that lead to the same spot date (e.g. a Saturday and a Sunday) reuse the
+ * tenor dates calculated from spot; each row gets its own {@link TenorDateRowCalculator#copy(Object) copy}
+ * of them so that a mutable date (Date, Calendar) is never shared between rows.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ */
+public class TenorDateMatrix<E> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int TASKS_PER_PROCESSOR = 4;
+    private final List<E> startDates;
+    private final List<Tenor> tenors;
+    private final Object[][] tenorDates;
+
+    private TenorDateMatrix(final List<E> startDates, final List<Tenor> tenors) {
+        this.startDates = Collections.unmodifiableList(new ArrayList<E>(startDates));
+        this.tenors = Collections.unmodifiableList(new ArrayList<Tenor>(tenors));
+        this.tenorDates = new Object[startDates.size()][tenors.size()];
+    }
+
+    /**
+     * Calculate the tenor dates for all the start dates.
+     *
+     * @param startDates the start dates (one row each), none can be null.
+     * @param tenors the tenors (one column each)
+     * @param calculator the calculator for the rows
+     * @param executor optional, if not null the rows are split in chunks calculated by this executor (a ForkJoinPool
+     *        can be used), each chunk uses its own {@link TenorDateRowCalculator#fork(Object) fork} of the calculator.
+     * @return the matrix, with the same results as calculating each row on its own.
+     * @throws IllegalArgumentException if a start date or tenor is null.
+     */
+    public static <E> TenorDateMatrix<E> calculate(final List<E> startDates, final List<Tenor> tenors,
+            final TenorDateRowCalculator<E> calculator, final ExecutorService executor) {
+        if (startDates == null || startDates.contains(null)) {
+            throw new IllegalArgumentException("Start dates cannot be null");
+        }
+        if (tenors == null || tenors.contains(null)) {
+            throw new IllegalArgumentException("Tenor cannot be null");
+        }
+
+        final TenorDateMatrix<E> matrix = new TenorDateMatrix<E>(startDates, tenors);
+        final ConcurrentMap<E, Object[]> datesBySpot = new ConcurrentHashMap<E, Object[]>();
+        final int rows = startDates.size();
+        if (executor == null || rows < 2) {
+            if (rows > 0) {
+                matrix.calculateRows(0, rows, calculator.fork(startDates.get(0)), datesBySpot);
+            }
+            return matrix;
+        }
+
+        final int chunk = Math.max(1, rows / (Runtime.getRuntime().availableProcessors() * TASKS_PER_PROCESSOR));
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int from = 0; from < rows; from += chunk) {
+            final int start = from;
+            final int end = Math.min(rows, from + chunk);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    matrix.calculateRows(start, end, calculator.fork(startDates.get(start)), datesBySpot);
+                    return null;
+                }
+            });
+        }
+        try {
+            for (final Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted whilst calculating tenor dates", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not calculate tenor dates", e.getCause());
+        }
+        return matrix;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void calculateRows(final int from, final int to, final TenorDateRowCalculator<E> calculator, final ConcurrentMap<E, Object[]> datesBySpot) {
+        final int columns = tenors.size();
+        for (int row = from; row < to; row++) {
+            final E startDate = startDates.get(row);
+            final E spotDate = calculator.calculateSpotDate(startDate);
+            Object[] fromSpot = datesBySpot.get(spotDate);
+            final boolean reused = fromSpot != null;
+            if (fromSpot == null) {
+                fromSpot = new Object[columns];
+                for (int col = 0; col < columns; col++) {
+                    final Tenor tenor = tenors.get(col);
+                    if (!isFromStartDate(tenor)) {
+                        fromSpot[col] = calculator.calculateTenorDate(startDate, spotDate, tenor);
+                    }
+                }
+                datesBySpot.putIfAbsent(spotDate, fromSpot);
+            }
+            final Object[] dates = tenorDates[row];
+            for (int col = 0; col < columns; col++) {
+                final Tenor tenor = tenors.get(col);
+                if (isFromStartDate(tenor)) {
+                    dates[col] = calculator.calculateTenorDate(startDate, spotDate, tenor);
+                } else {
+                    dates[col] = reused ? calculator.copy((E) fromSpot[col]) : fromSpot[col];
+                }
+            }
+        }
+    }
+
+    private static boolean isFromStartDate(final Tenor tenor) {
+        return tenor.getCode() == TenorCode.OVERNIGHT || tenor.getCode() == TenorCode.TOM_NEXT;
+    }
+
+    public List<E> getStartDates() {
+        return startDates;
+    }
+
+    public List<Tenor> getTenors() {
+        return tenors;
+    }
+
+    public int getNumberOfStartDates() {
+        return tenorDates.length;
+    }
+
+    public int getNumberOfTenors() {
+        return tenors.size();
+    }
+
+    /**
+     * @param row the index of the start date
+     * @param column the index of the tenor
+     * @return the tenor date
+     * @throws IndexOutOfBoundsException if row or column are invalid.
+     */
+    @SuppressWarnings("unchecked")
+    public E getTenorDate(final int row, final int column) {
+        return (E) tenorDates[row][column];
+    }
+
+    /**
+     * @param row the index of the start date
+     * @return the tenor dates for a start date, in the same order as the tenors.
+     */
+    @SuppressWarnings("unchecked")
+    public List<E> getTenorDates(final int row) {
+        return Collections.unmodifiableList((List<E>) (List<?>) Arrays.asList(tenorDates[row]));
+    }
+
+    /**
+     * @param converter the converter for this type of date
+     * @return the tenor dates as epoch days, indexed [start date][tenor].
+     */
+    public int[][] toEpochDays(final EpochDayConverter<E> converter) {
+        final int[][] epochDays = new int[tenorDates.length][tenors.size()];
+        for (int row = 0; row < tenorDates.length; row++) {
+            for (int col = 0; col < tenors.size(); col++) {
+                epochDays[row][col] = converter.toEpochDay(getTenorDate(row, col));
+            }
+        }
+        return epochDays;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+/**
+ * The operations a {@link TenorDateMatrix} needs to fill one row (i.e. one start date) of tenor dates.
+ * A row calculator is only ever used by one thread at a time, a stateful calculator can therefore
+ * be used as long as {@link #fork(Object)} returns an independent copy.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate; JDK8: LocalDate
+ */
+public interface TenorDateRowCalculator<E> {
+    /**
+     * @param startDate the start date of the row
+     * @return the spot date for the start date, all tenors but Overnight and Tom Next are calculated from it.
+     */
+    E calculateSpotDate(E startDate);
+
+    /**
+     * @param startDate the start date of the row, used for Overnight and Tom Next.
+     * @param spotDate the spot date as returned by {@link #calculateSpotDate(Object)} for that start date.
+     * @param tenor the tenor
+     * @return the tenor date; for tenors other than Overnight and Tom Next it must depend on the spot date only.
+     */
+    E calculateTenorDate(E startDate, E spotDate, Tenor tenor);
+
+    /**
+     * @param date a tenor date calculated for another row
+     * @return a copy of the date for a mutable type, the same date for an immutable type.
+     */
+    E copy(E date);
+
+    /**
+     * @param startDate the first start date the copy will be used for.
+     * @return a row calculator that can be used by another thread, a stateless implementation may return itself.
+     */
+    TenorDateRowCalculator<E> fork(E startDate);
+}
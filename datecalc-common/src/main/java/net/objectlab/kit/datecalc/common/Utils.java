@@ -50,6 +50,14 @@ import java.util.Set;
 public final class Utils {
     private static final String DATE_PATTERN = "yyyy-MM-dd";
 
+    private static final int YEARS_PER_ERA = 400;
+
+    private static final int DAYS_PER_ERA = 146097;
+
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    private static final int DAYS_PER_WEEK = 7;
+
     private Utils() {
     }
 
@@ -134,6 +142,42 @@ public final class Utils {
         return blastTime(cal);
     }
 
+    /**
+     * Calculates the number of days since 1970-01-01 for a date in the
+     * proleptic Gregorian calendar, without creating any object.
+     *
+     * @param year
+     *            the year, e.g. 2006
+     * @param month
+     *            the month from 1 (January) to 12 (December)
+     * @param dayOfMonth
+     *            the day of the month from 1 to 31
+     * @return the epoch day
+     * @since 1.4.1
+     */
+    public static int toEpochDay(final int year, final int month, final int dayOfMonth) {
+        // shift the year so that it starts in March, the leap day is then the last day of the year.
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - YEARS_PER_ERA + 1) / YEARS_PER_ERA;
+        final int yearOfEra = y - era * YEARS_PER_ERA;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Gives the day of the week of an epoch day, 1970-01-01 was a Thursday.
+     *
+     * @param epochDay
+     *            number of days since 1970-01-01
+     * @return the day of the week as a Calendar constant, e.g. Calendar.MONDAY
+     * @since 1.4.1
+     */
+    public static int toCalendarDayOfWeek(final int epochDay) {
+        final int dayOfWeek = (epochDay + Calendar.THURSDAY - Calendar.SUNDAY) % DAYS_PER_WEEK;
+        return (dayOfWeek < 0 ? dayOfWeek + DAYS_PER_WEEK : dayOfWeek) + Calendar.SUNDAY;
+    }
+
     /**
      * Converts a Set of Date objects to a Set of Calendar objects.
      *
@@ -159,7 +203,8 @@ public final class Utils {
         for (final Date date : dates.getHolidays()) {
             calendars.add(getCal(date));
         }
-        return new DefaultHolidayCalendar<Calendar>(calendars, getCal(dates.getEarlyBoundary()), getCal(dates.getLateBoundary()));
+        return new BitSetHolidayCalendar<Calendar>(CalendarEpochDayConverter.INSTANCE, calendars, getCal(dates.getEarlyBoundary()),
+                getCal(dates.getLateBoundary()));
     }
 
     /**
@@ -3,6 +3,7 @@ package net.objectlab.kit.datecalc.common.ccy;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculator;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
@@ -15,6 +16,8 @@ import net.objectlab.kit.datecalc.common.ReadOnlyHolidayCalendar;
 import net.objectlab.kit.datecalc.common.SpotLag;
 import net.objectlab.kit.datecalc.common.Tenor;
 import net.objectlab.kit.datecalc.common.TenorCode;
+import net.objectlab.kit.datecalc.common.TenorDateMatrix;
+import net.objectlab.kit.datecalc.common.TenorDateRowCalculator;
 import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 /**
@@ -60,6 +63,7 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
     private final boolean useCrossCcyOnT1ForCcy2;
     private final boolean adjustStartDateWithCcy1Ccy2;
     private final SpotLag spotLag;
+    private final SpotDateCache<E> spotDateCache;
 
     protected AbstractCurrencyDateCalculator(final CurrencyDateCalculatorBuilder<E> builder) {
         builder.checkValidity();
@@ -78,6 +82,7 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
         this.crossCcyWeek = builder.getCrossCcyWeek();
         this.brokenDateAllowed = builder.isBrokenDateAllowed();
         this.spotLag = builder.getSpotLag();
+        this.spotDateCache = builder.getSpotDateCache();
         this.adjustStartDateWithCcy1Ccy2 = builder.isAdjustStartDateWithCurrencyPair();
         this.useCrossCcyOnT1ForCcy1 = builder.getCurrencyCalculatorConfig() != null
                 && builder.getCurrencyCalculatorConfig().getCurrenciesSubjectToCrossCcyForT1(crossCcy).contains(ccy1);
@@ -160,12 +165,29 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
         return crossCcyWeek;
     }
 
+    /**
+     * @return the cache of Spot Dates per start date, null if not used.
+     * @since 1.4.1
+     */
+    public SpotDateCache<E> getSpotDateCache() {
+        return spotDateCache;
+    }
+
     protected abstract E calculateNextDay(E date);
 
     protected abstract int calendarWeekDay(E date);
 
     protected abstract E max(E d1, E d2);
 
+    /**
+     * Used to protect the content of the SpotDateCache, a mutable date must be copied.
+     * @return the same date for an immutable type, a copy otherwise.
+     * @since 1.4.1
+     */
+    protected E copy(final E date) {
+        return date;
+    }
+
     private boolean isNonWorkingDay(final E date, final WorkingWeek ww, final HolidayCalendar<E> calendar) {
         return !ww.isWorkingDayFromCalendar(calendarWeekDay(date)) || calendar != null && calendar.isHoliday(date);
     }
@@ -211,6 +233,19 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
 
     @Override
     public E calculateSpotDate(final E startDate) {
+        if (spotDateCache == null) {
+            return calculateSpotDateNoCache(startDate);
+        }
+        final E cached = spotDateCache.get(startDate);
+        if (cached != null) {
+            return copy(cached);
+        }
+        final E spotDate = calculateSpotDateNoCache(startDate);
+        spotDateCache.put(copy(startDate), copy(spotDate));
+        return spotDate;
+    }
+
+    private E calculateSpotDateNoCache(final E startDate) {
         E date = startDate;
         if (adjustStartDateWithCcy1Ccy2 || spotLag == SpotLag.T_0) {
             date = adjustToNextWorkingDateForCcyPairIfRequired(startDate);
@@ -267,12 +302,17 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
             throw new IllegalArgumentException("Tenor cannot be null");
         }
 
-        TenorCode tenorCode = tenor.getCode();
+        final TenorCode tenorCode = tenor.getCode();
         E date = startDate;
         if (tenorCode != TenorCode.OVERNIGHT && tenorCode != TenorCode.TOM_NEXT /*&& spotLag != 0*/) {
             // get to the Spot date first:
             date = calculateSpotDate(date);
         }
+        return applyTenor(date, tenor);
+    }
+
+    private E applyTenor(final E date, final Tenor tenor) {
+        TenorCode tenorCode = tenor.getCode();
         int unit = tenor.getUnits();
         if (tenorCode == TenorCode.WEEK) {
             tenorCode = TenorCode.DAY;
@@ -331,4 +371,57 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
         }
         return results;
     }
+
+    /**
+     * Calculate the Tenor Dates for many start dates in one go, the dates from Spot are only calculated once for
+     * start dates leading to the same Spot Date.
+     * @param startDates the start dates which may be adjusted for the ccy pair if enabled.
+     * @param tenors the list of tenors ('chronological order is not mandatory)
+     * @return a matrix of Tenor Dates, one row per start date and one column per tenor.
+     * @since 1.4.1
+     */
+    public TenorDateMatrix<E> calculateTenorDates(final List<E> startDates, final List<Tenor> tenors) {
+        return calculateTenorDates(startDates, tenors, null);
+    }
+
+    /**
+     * Calculate the Tenor Dates for many start dates in one go, the rows being calculated in parallel by the executor.
+     * @param startDates the start dates which may be adjusted for the ccy pair if enabled.
+     * @param tenors the list of tenors ('chronological order is not mandatory)
+     * @param executor the executor (e.g. a ForkJoinPool) used to calculate chunks of rows, if null the rows are calculated in the current thread.
+     * @return a matrix of Tenor Dates, one row per start date and one column per tenor, identical to the sequential one.
+     * @since 1.4.1
+     */
+    public TenorDateMatrix<E> calculateTenorDates(final List<E> startDates, final List<Tenor> tenors, final ExecutorService executor) {
+        return TenorDateMatrix.calculate(startDates, tenors, new TenorRowCalculator(), executor);
+    }
+
+    /**
+     * This calculator is stateless so the same row calculator can be used by all threads.
+     */
+    private class TenorRowCalculator implements TenorDateRowCalculator<E> {
+        @Override
+        public E calculateSpotDate(final E startDate) {
+            return AbstractCurrencyDateCalculator.this.calculateSpotDate(startDate);
+        }
+
+        @Override
+        public E calculateTenorDate(final E startDate, final E spotDate, final Tenor tenor) {
+            final TenorCode tenorCode = tenor.getCode();
+            if (tenorCode == TenorCode.OVERNIGHT || tenorCode == TenorCode.TOM_NEXT) {
+                return AbstractCurrencyDateCalculator.this.calculateTenorDate(startDate, tenor);
+            }
+            return applyTenor(spotDate, tenor);
+        }
+
+        @Override
+        public E copy(final E date) {
+            return AbstractCurrencyDateCalculator.this.copy(date);
+        }
+
+        @Override
+        public TenorDateRowCalculator<E> fork(final E startDate) {
+            return this;
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common.ccy;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread safe cache of Spot Dates keyed by start date, used by a CurrencyDateCalculator
+ * in order to avoid working out T+1/T+2 for each currency on every tenor.
+ *
+ * Large caches spread the entries over segments, each guarded by its own lock, so that threads
+ * using different start dates rarely contend. Once a segment is full, its least recently used
+ * (LRU) or oldest (FIFO) entry is evicted.
+ *
+ * A cache must only be shared between calculators with the same currency pair, spot lag,
+ * calendars and working weeks, which is what the factories do.
+ *
+ * @param <E> JDK Date/Calendar, JDK8 LocalDate or Joda LocalDate
+ * @since 1.4.1
+ */
+public class SpotDateCache<E extends Serializable> {
+    /**
+     * Which entry to evict when the cache is full.
+     */
+    public enum Eviction {
+        /** evict the least recently used start date. */
+        LRU,
+        /** evict the start date that was added first. */
+        FIFO
+    }
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+    private static final int HASH_SHIFT = 16;
+    private final int maximumSize;
+    private final Eviction eviction;
+    private final Segment<E>[] segments;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * A LRU cache.
+     * @param maximumSize the maximum number of start dates kept.
+     */
+    public SpotDateCache(final int maximumSize) {
+        this(maximumSize, Eviction.LRU);
+    }
+
+    /**
+     * @param maximumSize the maximum number of start dates kept, must be &gt; 0.
+     * @param eviction LRU or FIFO
+     * @throws IllegalArgumentException if the size is not positive or eviction is null.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public SpotDateCache(final int maximumSize, final Eviction eviction) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be > 0, was " + maximumSize);
+        }
+        if (eviction == null) {
+            throw new IllegalArgumentException("eviction is required");
+        }
+        this.maximumSize = maximumSize;
+        this.eviction = eviction;
+        final int count = Math.max(1, Math.min(MAX_SEGMENTS, maximumSize / MIN_SEGMENT_SIZE));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<E>(maximumSize / count + (i < maximumSize % count ? 1 : 0), eviction == Eviction.LRU, evictions);
+        }
+    }
+
+    private Segment<E> segmentFor(final E startDate) {
+        final int h = startDate.hashCode();
+        return segments[((h ^ h >>> HASH_SHIFT) & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * @param startDate the start date
+     * @return the spot date cached for this start date, null if none.
+     */
+    public E get(final E startDate) {
+        final Segment<E> segment = segmentFor(startDate);
+        final E spotDate;
+        synchronized (segment) {
+            spotDate = segment.get(startDate);
+        }
+        if (spotDate != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return spotDate;
+    }
+
+    /**
+     * Cache the spot date for the start date, neither can be modified afterwards.
+     */
+    public void put(final E startDate, final E spotDate) {
+        final Segment<E> segment = segmentFor(startDate);
+        synchronized (segment) {
+            segment.put(startDate, spotDate);
+        }
+    }
+
+    /**
+     * Remove all entries, the counters are not reset.
+     */
+    public void clear() {
+        for (final Segment<E> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the current number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment<E> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return hits / (hits + misses), 0 if the cache was never used.
+     */
+    public double getHitRate() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SpotDateCache[size=" + size() + "/" + maximumSize + " " + eviction + " hits=" + hits.get() + " misses=" + misses.get()
+                + " evictions=" + evictions.get() + "]";
+    }
+
+    private static final class Segment<E> extends LinkedHashMap<E, E> {
+        private static final long serialVersionUID = 1L;
+        private static final float LOAD_FACTOR = 0.75f;
+        private final int capacity;
+        private final AtomicLong evictions;
+
+        private Segment(final int capacity, final boolean accessOrder, final AtomicLong evictions) {
+            super((int) (capacity / LOAD_FACTOR) + 1, LOAD_FACTOR, accessOrder);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<E, E> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -38,6 +38,8 @@ import java.util.Set;
 
 import junit.framework.Assert;
 
+import net.objectlab.kit.datecalc.common.ccy.SpotDateCache;
+
 public abstract class AbstractCurrencyDateCalculatorTest<E extends Serializable> extends AbstractDateTestCase<E> {
 
     protected HolidayCalendar<E> createRUHolidayCalendar() {
@@ -88,6 +90,72 @@ public abstract class AbstractCurrencyDateCalculatorTest<E extends Serializable>
         checkDate("Spot", cal.calculateSpotDate(newDate("2006-08-05")), "2006-08-09"); // Sat (move to Mon) -> Wed
     }
 
+    public void testSpotDateCache() {
+        newCurrencyCalculator("EUR", "GBP");
+        final SpotDateCache<E> cache = new SpotDateCache<E>(3, SpotDateCache.Eviction.LRU);
+        final CurrencyDateCalculator<E> cal = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).spotDateCache(cache));
+        final CurrencyDateCalculator<E> noCache = getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2);
+
+        for (final String date : new String[] { "2006-06-30", "2006-07-02", "2006-07-03", "2006-06-30", "2006-07-03", "2006-07-04" }) {
+            Assert.assertEquals("Spot from " + date, noCache.calculateSpotDate(newDate(date)), cal.calculateSpotDate(newDate(date)));
+        }
+        Assert.assertEquals("hits", 2, cache.getHitCount());
+        Assert.assertEquals("misses", 4, cache.getMissCount());
+        Assert.assertEquals("evictions", 1, cache.getEvictionCount());
+        Assert.assertEquals("size", 3, cache.size());
+
+        // 1M is calculated from the cached spot date
+        checkDate("1M", cal.calculateTenorDate(newDate("2006-07-04"), StandardTenor.T_1M), "2006-08-07");
+        Assert.assertEquals("hits after tenor", 3, cache.getHitCount());
+    }
+
+    public void testSharedSpotDateCache() {
+        newCurrencyCalculator("EUR", "GBP");
+        final AbstractKitCalculatorsFactory<E> factory = (AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory();
+        Assert.assertNull("disabled by default", factory.getSharedSpotDateCache("EUR", "GBP", SpotLag.T_2));
+        factory.setSharedSpotDateCache(100, SpotDateCache.Eviction.FIFO);
+        try {
+            final SpotDateCache<E> cache = factory.getSharedSpotDateCache("EUR", "GBP", SpotLag.T_2);
+            Assert.assertNotNull("enabled", cache);
+            Assert.assertNotSame("one per spot lag", cache, factory.getSharedSpotDateCache("EUR", "GBP", SpotLag.T_1));
+
+            checkDate("Spot", factory.getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2).calculateSpotDate(newDate("2006-06-30")),
+                    "2006-07-05");
+            checkDate("Spot", factory.getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2).calculateSpotDate(newDate("2006-06-30")),
+                    "2006-07-05");
+            Assert.assertEquals("shared between calculators", 1, cache.getHitCount());
+
+            factory.registerHolidays("GBP", createUKHolidayCalendar());
+            Assert.assertNotSame("new cache once holidays are registered", cache, factory.getSharedSpotDateCache("EUR", "GBP", SpotLag.T_2));
+        } finally {
+            factory.setSharedSpotDateCache(0, null);
+        }
+    }
+
+    /**
+     * A factory other than the default one uses its own calendars and its own shared spot date cache.
+     */
+    public void testSharedSpotDateCacheOfAnotherFactory() {
+        // the default factory has the USD 4th of July
+        newCurrencyCalculator("EUR", "GBP");
+        final AbstractKitCalculatorsFactory<E> factory = createDateCalculatorFactory();
+        factory.registerHolidays("GBP", createUKHolidayCalendar());
+        factory.registerHolidays("EUR", createEUHolidayCalendar());
+        factory.setSharedSpotDateCache(10, SpotDateCache.Eviction.LRU);
+
+        checkDate("Spot", factory.getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2).calculateSpotDate(newDate("2006-06-30")),
+                "2006-07-04");
+        checkDate("Spot", factory.getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2).calculateSpotDate(newDate("2006-06-30")),
+                "2006-07-04");
+        Assert.assertEquals("own shared cache", 1, factory.getSharedSpotDateCache("EUR", "GBP", SpotLag.T_2).getHitCount());
+    }
+
+    /**
+     * @return a new factory, not the default instance.
+     */
+    protected abstract AbstractKitCalculatorsFactory<E> createDateCalculatorFactory();
+
     public void testSimpleTodayUsdEur() {
         final CurrencyDateCalculator<E> cal = newCurrencyCalculator(CurrencyDateCalculator.USD_CODE, "EUR");
         Assert.assertEquals("Name", "USD.EUR", cal.getName());
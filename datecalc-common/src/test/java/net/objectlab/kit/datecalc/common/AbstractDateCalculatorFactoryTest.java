@@ -33,12 +33,43 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.io.Serializable;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.Assert;
+import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
 
 public abstract class AbstractDateCalculatorFactoryTest<E extends Serializable> extends AbstractDateTestCase<E> {
 
+    private static final String[] HANDLERS = { HolidayHandlerType.FORWARD, HolidayHandlerType.BACKWARD, HolidayHandlerType.MODIFIED_FOLLOWING,
+            HolidayHandlerType.MODIFIED_PRECEDING, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK };
+
+    private static final String[] START_DATES = { "2006-01-02", "2006-03-31", "2006-06-30", "2006-08-24", "2006-08-25", "2006-08-26",
+            "2006-08-28", "2006-09-29", "2006-12-22", "2006-12-25", "2006-12-29", "2007-06-15" };
+
+    private static final int[] STEPS = { 1, 2, 3, 5, 10, 22, 250, 2500 };
+
+    private static final List<Tenor> TENORS = Arrays.asList(StandardTenor.SPOT, StandardTenor.OVERNIGHT, new Tenor(0, TenorCode.TOM_NEXT),
+            new Tenor(0, TenorCode.SPOT_NEXT), StandardTenor.T_1D, StandardTenor.T_2D, StandardTenor.T_1W, StandardTenor.T_1M, StandardTenor.T_2M,
+            StandardTenor.T_3M, StandardTenor.T_6M, StandardTenor.T_1Y, StandardTenor.T_3Y);
+
+    protected abstract EpochDayConverter<E> getEpochDayConverter();
+
+    @Override
+    protected void tearDown() throws Exception {
+        getDateCalculatorFactory().unregisterAllHolidayCalendars();
+        super.tearDown();
+    }
+
     public void testGetCalendarsNoHoliday() {
         final DateCalculator<E> cal1 = getDateCalculatorFactory().getDateCalculator("bla", null);
         Assert.assertNotNull("cal1", cal1);
@@ -217,6 +248,399 @@ public abstract class AbstractDateCalculatorFactoryTest<E extends Serializable>
         assertNull("Early boundary", ukCal.getEarlyBoundary());
         assertNull("Late boundary", ukCal.getLateBoundary());
     }
+
+    public void testEpochDay() {
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        Assert.assertEquals("1970-01-01", 0, converter.toEpochDay(newDate("1970-01-01")));
+        Assert.assertEquals("2006-08-28", 13388, converter.toEpochDay(newDate("2006-08-28")));
+        Assert.assertEquals("1900-03-01", -25508, converter.toEpochDay(newDate("1900-03-01")));
+        checkDate("back from 13388", converter.fromEpochDay(13388), "2006-08-28");
+        checkDate("back from -25508", converter.fromEpochDay(-25508), "1900-03-01");
+    }
+
+    public void testBitSetHolidayCalendar() {
+        final HolidayCalendar<E> holidayCalendar = newBitSetHolidayCalendar();
+        Assert.assertEquals("size", 4, holidayCalendar.getHolidays().size());
+        Assert.assertTrue("contains", holidayCalendar.getHolidays().contains(newDate("2006-08-28")));
+        checkDate("early", holidayCalendar.getEarlyBoundary(), "2006-01-01");
+        checkDate("late", holidayCalendar.getLateBoundary(), "2020-12-31");
+
+        final HolidayCalendar<E> expected = createUKHolidayCalendar();
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        final int end = converter.toEpochDay(newDate("2007-12-31"));
+        for (int epochDay = converter.toEpochDay(newDate("2005-01-01")); epochDay <= end; epochDay++) {
+            final E date = converter.fromEpochDay(epochDay);
+            Assert.assertEquals("Holiday for " + date, expected.isHoliday(date), holidayCalendar.isHoliday(date));
+        }
+    }
+
+    public void testEmptyBitSetHolidayCalendar() {
+        final HolidayCalendar<E> holidayCalendar = new BitSetHolidayCalendar<E>(getEpochDayConverter());
+        Assert.assertTrue("empty", holidayCalendar.getHolidays().isEmpty());
+        Assert.assertFalse("holiday", holidayCalendar.isHoliday(newDate("2006-08-28")));
+        Assert.assertFalse("null", holidayCalendar.isHoliday(null));
+
+        holidayCalendar.setHolidays(createUKHolidays());
+        Assert.assertTrue("holiday", holidayCalendar.isHoliday(newDate("2006-08-28")));
+        Assert.assertFalse("null", holidayCalendar.isHoliday(null));
+
+        final HolidayCalendar<E> copy = new BitSetHolidayCalendar<E>(getEpochDayConverter(), createUSHolidayCalendar());
+        Assert.assertEquals("size", 3, copy.getHolidays().size());
+        Assert.assertTrue("holiday", copy.isHoliday(newDate("2006-07-04")));
+        checkDate("early", copy.getEarlyBoundary(), "2005-01-01");
+        checkDate("late", copy.getLateBoundary(), "2021-12-31");
+    }
+
+    public void testBitSetHolidayCalendarWithCalculator() {
+        final DateCalculator<E> cal = newDateCalculator("bitset", HolidayHandlerType.FORWARD);
+        cal.setHolidayCalendar(newBitSetHolidayCalendar());
+        cal.setStartDate(newDate("2006-08-24"));
+        checkDate("Move by 2 business days", cal.moveByBusinessDays(2), "2006-08-29");
+
+        cal.setStartDate(newDate("2006-12-22"));
+        checkDate("Move by 1 business day", cal.moveByBusinessDays(1), "2006-12-27");
+
+        cal.setStartDate(newDate("2006-01-01"));
+        checkDate("Start on holiday", cal, "2006-01-02");
+    }
+
+    public void testCompiledSameAsStepByStep() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        checkSameAsStepByStep(HolidayHandlerType.FORWARD, 1);
+        checkSameAsStepByStep(HolidayHandlerType.BACKWARD, -1);
+        checkSameAsStepByStep(HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK, 1);
+        checkSameAsStepByStep(HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK, -1);
+    }
+
+    public void testCompiledMoveByBusinessDays() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final DateCalculator<E> cal = getAbstractFactory().getCompiledDateCalculator("UK", HolidayHandlerType.FORWARD);
+        cal.setStartDate(newDate("2006-08-24"));
+        checkDate("Move by 2 business days", cal.moveByBusinessDays(2), "2006-08-29");
+
+        cal.setStartDate(newDate("2006-12-22"));
+        checkDate("Move by 1 business day", cal.moveByBusinessDays(1), "2006-12-27");
+
+        cal.setStartDate(newDate("2006-08-24"));
+        checkDate("Move by 0 business day", cal.moveByBusinessDays(0), "2006-08-24");
+
+        final DateCalculator<E> back = getAbstractFactory().getCompiledDateCalculator("UK", HolidayHandlerType.BACKWARD);
+        back.setStartDate(newDate("2006-08-29"));
+        checkDate("Move by -1 business day", back.moveByBusinessDays(-1), "2006-08-25");
+
+        cal.setWorkingWeek(getWorkingWeek(WorkingWeek.ARABIC_WEEK));
+        cal.setStartDate(newDate("2006-08-24"));
+        checkDate("Thursday + 1 in Arabic week", cal.moveByBusinessDays(1), "2006-08-27");
+    }
+
+    public void testCompiledBusinessDaysBetween() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final CompiledBusinessCalendar<E> compiled = getAbstractFactory().getCompiledBusinessCalendar("UK", getWorkingWeek(WorkingWeek.DEFAULT));
+        Assert.assertEquals("Thu to Tue over holiday", 2, compiled.getBusinessDaysBetween(newDate("2006-08-24"), newDate("2006-08-29")));
+        Assert.assertEquals("Tue to Thu over holiday", -2, compiled.getBusinessDaysBetween(newDate("2006-08-29"), newDate("2006-08-24")));
+        Assert.assertEquals("Same day", 0, compiled.getBusinessDaysBetween(newDate("2006-08-24"), newDate("2006-08-24")));
+        Assert.assertEquals("Sat to Mon holiday", 0, compiled.getBusinessDaysBetween(newDate("2006-08-26"), newDate("2006-08-28")));
+        Assert.assertEquals("Xmas week", 3, compiled.getBusinessDaysBetween(newDate("2006-12-24"), newDate("2006-12-31")));
+
+        Assert.assertTrue("holiday", compiled.isNonWorkingDay(newDate("2006-08-28")));
+        Assert.assertTrue("weekend", compiled.isNonWorkingDay(newDate("2006-08-26")));
+        Assert.assertFalse("working day", compiled.isNonWorkingDay(newDate("2006-08-29")));
+    }
+
+    public void testCompiledBoundaries() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final DateCalculator<E> cal = getAbstractFactory().getCompiledDateCalculator("UK", HolidayHandlerType.FORWARD);
+        cal.setStartDate(newDate("2020-12-24"));
+        try {
+            cal.moveByBusinessDays(10);
+            Assert.fail("Should have thrown IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+
+        final CompiledBusinessCalendar<E> compiled = getAbstractFactory().getCompiledBusinessCalendar("UK", null);
+        try {
+            compiled.getBusinessDaysBetween(newDate("2005-12-01"), newDate("2006-08-24"));
+            Assert.fail("Should have thrown IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+
+        registerHolidays("NoBoundary", newHolidaysCalendar());
+        try {
+            getAbstractFactory().getCompiledDateCalculator("NoBoundary", HolidayHandlerType.FORWARD);
+            Assert.fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            getAbstractFactory().getCompiledBusinessCalendar("NotRegistered", null);
+            Assert.fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    public void testCompiledSharedAndRecompiled() {
+        final AbstractKitCalculatorsFactory<E> factory = getAbstractFactory();
+        final WorkingWeek week = getWorkingWeek(WorkingWeek.DEFAULT);
+        registerHolidays("UK", createUKHolidayCalendar());
+        final CompiledBusinessCalendar<E> compiled = factory.getCompiledBusinessCalendar("UK", week);
+        Assert.assertSame("shared", compiled, factory.getCompiledBusinessCalendar("UK", week));
+
+        registerHolidays("UK", createUKHolidayCalendar());
+        final CompiledBusinessCalendar<E> recompiled = factory.getCompiledBusinessCalendar("UK", week);
+        Assert.assertNotSame("recompiled after registration", compiled, recompiled);
+        Assert.assertTrue("compiled for registered", recompiled.isCompiledFor(week, factory.getHolidayCalendar("UK")));
+
+        // a name containing a '/' is not affected by the unregistration of its prefix
+        registerHolidays("UK/LON", createUKHolidayCalendar());
+        final CompiledBusinessCalendar<E> london = factory.getCompiledBusinessCalendar("UK/LON", week);
+        factory.unregisterHolidayCalendar("UK");
+        Assert.assertSame("still shared", london, factory.getCompiledBusinessCalendar("UK/LON", week));
+    }
+
+    public void testBusinessDayCalendarSameAsDateCalculator() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        for (final String type : HANDLERS) {
+            final BusinessDayCalendar<E> calendar = getAbstractFactory().getBusinessDayCalendar("UK", type, null);
+            Assert.assertEquals("type", type, calendar.getHolidayHandlerType());
+            for (final int spotLag : new int[] { 0, 1, 2 }) {
+                if (spotLag > 0 && (HolidayHandlerType.BACKWARD.equals(type) || HolidayHandlerType.MODIFIED_PRECEDING.equals(type))) {
+                    continue;
+                }
+                for (final String start : START_DATES) {
+                    final DateCalculator<E> calc = newDateCalculator("UK", type);
+                    calc.setStartDate(newDate(start));
+                    Assert.assertEquals(type + " from " + start + " spotLag " + spotLag, calc.calculateTenorDates(TENORS, spotLag),
+                            calendar.calculateTenorDates(newDate(start), TENORS, spotLag));
+                }
+            }
+            for (final int step : new int[] { -22, -5, -1, 1, 2, 5, 22, 260 }) {
+                if (step > 0 && (HolidayHandlerType.BACKWARD.equals(type) || HolidayHandlerType.MODIFIED_PRECEDING.equals(type))
+                        || step < 0 && (HolidayHandlerType.FORWARD.equals(type) || HolidayHandlerType.MODIFIED_FOLLOWING.equals(type))) {
+                    continue;
+                }
+                for (final String start : START_DATES) {
+                    final DateCalculator<E> calc = newDateCalculator("UK", type);
+                    calc.setStartDate(newDate(start));
+                    E actual = null;
+                    try {
+                        actual = calendar.addBusinessDays(calc.getCurrentBusinessDate(), step);
+                    } catch (final IndexOutOfBoundsException e) {
+                        // beyond the boundaries, so should the calculator be
+                    }
+                    try {
+                        Assert.assertEquals(type + " from " + start + " by " + step, calc.moveByBusinessDays(step).getCurrentBusinessDate(), actual);
+                    } catch (final IndexOutOfBoundsException e) {
+                        Assert.assertNull(type + " from " + start + " by " + step + " should be beyond the boundaries", actual);
+                    }
+                }
+            }
+        }
+    }
+
+    public void testBusinessDayCalendarAdjust() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final BusinessDayCalendar<E> calendar = getAbstractFactory().getBusinessDayCalendar("UK", HolidayHandlerType.FORWARD, null);
+        checkDate("Forward", calendar.adjust(newDate("2006-08-26")), "2006-08-29");
+        checkDate("Business day", calendar.adjust(newDate("2006-08-25")), "2006-08-25");
+        checkDate("Backward", calendar.adjust(newDate("2006-08-28"), HolidayHandlerType.BACKWARD), "2006-08-25");
+        checkDate("Modified Following", calendar.adjust(newDate("2006-09-30"), HolidayHandlerType.MODIFIED_FOLLOWING), "2006-09-29");
+        checkDate("Modified Preceding", calendar.adjust(newDate("2006-10-01"), HolidayHandlerType.MODIFIED_PRECEDING), "2006-10-02");
+
+        Assert.assertTrue("business day", calendar.isBusinessDay(newDate("2006-08-25")));
+        Assert.assertFalse("holiday", calendar.isBusinessDay(newDate("2006-08-28")));
+        Assert.assertTrue("weekend", calendar.isNonWorkingDay(newDate("2006-08-26")));
+
+        final E date = newDate("2006-08-24");
+        checkDate("1M", calendar.addTenor(date, StandardTenor.T_1M, 2), "2006-09-29");
+        checkDate("2 business days", calendar.addBusinessDays(date, 2), "2006-08-29");
+        checkDate("Same date", date, "2006-08-24");
+
+        try {
+            calendar.adjust(newDate("2006-08-26"), "bla");
+            Assert.fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            calendar.addTenor(newDate("2020-12-24"), StandardTenor.T_1M);
+            Assert.fail("Should have thrown IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+        try {
+            calendar.isBusinessDay(newDate("2005-12-31"));
+            Assert.fail("Should have thrown IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+    }
+
+    public void testBusinessDayCalendarWithWorkingWeek() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final WorkingWeek arabic = getWorkingWeek(WorkingWeek.ARABIC_WEEK);
+        final BusinessDayCalendar<E> calendar = getAbstractFactory().getBusinessDayCalendar("UK", HolidayHandlerType.FORWARD, arabic);
+        Assert.assertSame("week", arabic, calendar.getWorkingWeek());
+        Assert.assertTrue("Sunday", calendar.isBusinessDay(newDate("2006-08-27")));
+        Assert.assertFalse("Friday", calendar.isBusinessDay(newDate("2006-08-25")));
+        checkDate("Thursday + 1 in Arabic week", calendar.addBusinessDays(newDate("2006-08-24"), 1), "2006-08-27");
+
+        final DateCalculator<E> calc = newDateCalculator("UK", HolidayHandlerType.FORWARD);
+        calc.setWorkingWeek(arabic);
+        calc.setStartDate(newDate("2006-08-24"));
+        Assert.assertEquals("same as calculator", calc.calculateTenorDates(TENORS, 2), calendar.calculateTenorDates(newDate("2006-08-24"), TENORS, 2));
+    }
+
+    public void testBusinessDayCalendarSharedBetweenThreads() throws Exception {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final BusinessDayCalendar<E> calendar = getAbstractFactory().getBusinessDayCalendar("UK", HolidayHandlerType.MODIFIED_FOLLOWING, null);
+        final List<E> expected = calendar.calculateTenorDates(newDate("2006-08-24"), TENORS, 2);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Callable<Boolean> task = new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    for (int i = 0; i < 200; i++) {
+                        if (!expected.equals(calendar.calculateTenorDates(newDate("2006-08-24"), TENORS, 2))) {
+                            return Boolean.FALSE;
+                        }
+                    }
+                    return Boolean.TRUE;
+                }
+            };
+            final List<Future<Boolean>> results = executor.invokeAll(Arrays.asList(task, task, task, task, task, task, task, task));
+            for (final Future<Boolean> result : results) {
+                Assert.assertTrue("same results in all threads", result.get().booleanValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testTenorDateMatrixSameAsForEachStartDate() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final List<E> startDates = newDates("2006-08-01", "2006-12-31");
+        for (final String type : HANDLERS) {
+            for (final int spotLag : new int[] { 0, 1, 2 }) {
+                if (spotLag > 0 && (HolidayHandlerType.BACKWARD.equals(type) || HolidayHandlerType.MODIFIED_PRECEDING.equals(type))) {
+                    continue;
+                }
+                final AbstractDateCalculator<E> calc = (AbstractDateCalculator<E>) newDateCalculator("UK", type);
+                calc.setStartDate(newDate("2006-08-24"));
+                final TenorDateMatrix<E> matrix = calc.calculateTenorDates(startDates, TENORS, spotLag);
+                checkDate("current date not changed", calc.getCurrentBusinessDate(), "2006-08-24");
+                Assert.assertEquals("rows", startDates.size(), matrix.getNumberOfStartDates());
+                Assert.assertEquals("columns", TENORS.size(), matrix.getNumberOfTenors());
+
+                for (int row = 0; row < startDates.size(); row++) {
+                    final DateCalculator<E> single = newDateCalculator("UK", type);
+                    single.setStartDate(startDates.get(row));
+                    Assert.assertEquals(type + " row " + row + " spotLag " + spotLag, single.calculateTenorDates(TENORS, spotLag),
+                            matrix.getTenorDates(row));
+                }
+            }
+        }
+
+        try {
+            ((AbstractDateCalculator<E>) newDateCalculator("UK", HolidayHandlerType.FORWARD)).calculateTenorDates(Arrays.asList(newDate("2006-08-24"), null), TENORS, 2);
+            Assert.fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    public void testTenorDateMatrixInParallel() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        registerHolidays("EUR", createUKHolidayCalendar());
+        registerHolidays(CurrencyDateCalculator.USD_CODE, createUSHolidayCalendar());
+        final List<E> startDates = newDates("2006-06-01", "2006-12-31");
+        final AbstractDateCalculator<E> calc = (AbstractDateCalculator<E>) newDateCalculator("UK", HolidayHandlerType.MODIFIED_FOLLOWING);
+        final AbstractCurrencyDateCalculator<E> ccyCalc = (AbstractCurrencyDateCalculator<E>) getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR",
+                "USD", SpotLag.T_2);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final TenorDateMatrix<E> sequential = calc.calculateTenorDates(startDates, TENORS, 2);
+            final TenorDateMatrix<E> parallel = calc.calculateTenorDates(startDates, TENORS, 2, executor);
+            final TenorDateMatrix<E> ccySequential = ccyCalc.calculateTenorDates(startDates, TENORS);
+            final TenorDateMatrix<E> ccyParallel = ccyCalc.calculateTenorDates(startDates, TENORS, executor);
+            for (int row = 0; row < startDates.size(); row++) {
+                Assert.assertEquals("row " + row, sequential.getTenorDates(row), parallel.getTenorDates(row));
+                final List<E> expected = ccyCalc.calculateTenorDates(startDates.get(row), TENORS);
+                Assert.assertEquals("ccy row " + row, expected, ccySequential.getTenorDates(row));
+                Assert.assertEquals("ccy parallel row " + row, expected, ccyParallel.getTenorDates(row));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testTenorDateMatrixReusesDatesForSameSpot() {
+        registerHolidays("UK", createUKHolidayCalendar());
+        final AbstractDateCalculator<E> calc = (AbstractDateCalculator<E>) newDateCalculator("UK", HolidayHandlerType.FORWARD);
+        // Saturday and Sunday are both adjusted to Tuesday (Monday is a holiday)
+        final TenorDateMatrix<E> matrix = calc.calculateTenorDates(newDates("2006-08-26", "2006-08-27"), TENORS, 2);
+        final E saturday1M = matrix.getTenorDate(0, TENORS.indexOf(StandardTenor.T_1M));
+        final E sunday1M = matrix.getTenorDate(1, TENORS.indexOf(StandardTenor.T_1M));
+        checkDate("1M", saturday1M, "2006-10-02");
+        Assert.assertEquals("same 1M", saturday1M, sunday1M);
+        if (saturday1M instanceof Date || saturday1M instanceof Calendar) {
+            Assert.assertNotSame("mutable 1M not shared", saturday1M, sunday1M);
+        }
+        checkDate("ON", matrix.getTenorDate(1, TENORS.indexOf(StandardTenor.OVERNIGHT)), "2006-08-30");
+
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        final int[][] epochDays = matrix.toEpochDays(converter);
+        Assert.assertEquals("rows", 2, epochDays.length);
+        for (int row = 0; row < epochDays.length; row++) {
+            for (int col = 0; col < TENORS.size(); col++) {
+                Assert.assertEquals("epoch day", converter.toEpochDay(matrix.getTenorDate(row, col)), epochDays[row][col]);
+            }
+        }
+    }
+
+    private AbstractKitCalculatorsFactory<E> getAbstractFactory() {
+        return (AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory();
+    }
+
+    private HolidayCalendar<E> newBitSetHolidayCalendar() {
+        return new BitSetHolidayCalendar<E>(getEpochDayConverter(), createUKHolidays(), newDate("2006-01-01"), newDate("2020-12-31"));
+    }
+
+    private void checkSameAsStepByStep(final String handlerType, final int direction) {
+        final DateCalculator<E> compiled = getAbstractFactory().getCompiledDateCalculator("UK", handlerType);
+        final DateCalculator<E> stepByStep = newDateCalculator("UK", handlerType);
+        for (final String start : START_DATES) {
+            for (final int step : STEPS) {
+                final String msg = handlerType + " from " + start + " by " + step * direction;
+                compiled.forceCurrentDateNoAdjustment(newDate(start));
+                stepByStep.forceCurrentDateNoAdjustment(newDate(start));
+                E expected = null;
+                try {
+                    expected = stepByStep.moveByBusinessDays(step * direction).getCurrentBusinessDate();
+                } catch (final IndexOutOfBoundsException e) {
+                    // beyond the boundaries, the compiled calendar must fail too
+                }
+                try {
+                    Assert.assertEquals(msg, expected, compiled.moveByBusinessDays(step * direction).getCurrentBusinessDate());
+                } catch (final IndexOutOfBoundsException e) {
+                    Assert.assertNull(msg + " should not be beyond the boundaries", expected);
+                }
+            }
+        }
+    }
+
+    private List<E> newDates(final String from, final String to) {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        final Calendar cal = Utils.createCalendar(from);
+        final List<E> dates = new ArrayList<E>();
+        while (format.format(cal.getTime()).compareTo(to) <= 0) {
+            dates.add(newDate(format.format(cal.getTime())));
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return dates;
+    }
 }
 
 /*
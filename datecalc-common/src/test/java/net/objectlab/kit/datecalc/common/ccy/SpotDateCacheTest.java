@@ -0,0 +1,88 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common.ccy;
+
+import junit.framework.TestCase;
+
+public class SpotDateCacheTest extends TestCase {
+
+    public void testLruEviction() {
+        final SpotDateCache<String> cache = new SpotDateCache<String>(2);
+        cache.put("2006-08-01", "2006-08-03");
+        cache.put("2006-08-02", "2006-08-04");
+        assertEquals("hit", "2006-08-03", cache.get("2006-08-01"));
+        cache.put("2006-08-03", "2006-08-07");
+
+        assertNull("least recently used is evicted", cache.get("2006-08-02"));
+        assertEquals("still there", "2006-08-03", cache.get("2006-08-01"));
+        assertEquals("size", 2, cache.size());
+        assertEquals("evictions", 1, cache.getEvictionCount());
+        assertEquals("hits", 2, cache.getHitCount());
+        assertEquals("misses", 1, cache.getMissCount());
+        assertEquals("hit rate", 2.0 / 3.0, cache.getHitRate(), 0.0001);
+    }
+
+    public void testFifoEviction() {
+        final SpotDateCache<String> cache = new SpotDateCache<String>(2, SpotDateCache.Eviction.FIFO);
+        cache.put("2006-08-01", "2006-08-03");
+        cache.put("2006-08-02", "2006-08-04");
+        assertEquals("hit", "2006-08-03", cache.get("2006-08-01"));
+        cache.put("2006-08-03", "2006-08-07");
+
+        assertNull("first in is evicted", cache.get("2006-08-01"));
+        assertEquals("still there", "2006-08-04", cache.get("2006-08-02"));
+    }
+
+    public void testBoundedWithSegments() {
+        final SpotDateCache<Integer> cache = new SpotDateCache<Integer>(1000);
+        for (int i = 0; i < 5000; i++) {
+            cache.put(Integer.valueOf(i), Integer.valueOf(i + 2));
+        }
+        assertEquals("bounded", 1000, cache.size());
+        assertEquals("evictions", 4000, cache.getEvictionCount());
+        assertEquals("latest kept", Integer.valueOf(5001), cache.get(Integer.valueOf(4999)));
+
+        cache.clear();
+        assertEquals("cleared", 0, cache.size());
+        assertNull("cleared", cache.get(Integer.valueOf(4999)));
+    }
+
+    public void testInvalidSize() {
+        try {
+            new SpotDateCache<String>(0);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.jdk;
+
+import java.util.Calendar;
+
+import net.objectlab.kit.datecalc.common.AbstractBusinessDayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayHandler;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+/**
+ * Stateless and thread safe BusinessDayCalendar for JDK Calendar, the given
+ * Calendar objects are never modified, all results are new instances.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class CalendarBusinessDayCalendar extends AbstractBusinessDayCalendar<Calendar> {
+
+    public CalendarBusinessDayCalendar(final String name, final HolidayCalendar<Calendar> holidayCalendar, final WorkingWeek workingWeek,
+            final HolidayHandler<Calendar> holidayHandler, final KitCalculatorsFactory<Calendar> factory) {
+        super(name, holidayCalendar, workingWeek, holidayHandler, factory);
+    }
+
+    @Override
+    protected Calendar plusDays(final Calendar date, final int days) {
+        final Calendar cal = (Calendar) date.clone();
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal;
+    }
+
+    @Override
+    protected Calendar plusMonths(final Calendar date, final int months) {
+        final Calendar cal = (Calendar) date.clone();
+        cal.add(Calendar.MONTH, months);
+        return cal;
+    }
+
+    @Override
+    protected int calendarWeekDay(final Calendar date) {
+        return date.get(Calendar.DAY_OF_WEEK);
+    }
+
+    @Override
+    protected boolean isBefore(final Calendar date, final Calendar other) {
+        return date.before(other);
+    }
+}
@@ -18,8 +18,9 @@ public class CalendarCurrencyDateCalculator extends AbstractCurrencyDateCalculat
 
     @Override
     protected Calendar addMonths(final Calendar calc, final int unit) {
-        calc.add(Calendar.MONTH, unit);
-        return calc;
+        final Calendar cal = (Calendar) calc.clone();
+        cal.add(Calendar.MONTH, unit);
+        return cal;
     }
 
     @Override
@@ -40,4 +41,9 @@ public class CalendarCurrencyDateCalculator extends AbstractCurrencyDateCalculat
         return d1.compareTo(d2) > 0 ? d1 : d2;
     }
 
+    @Override
+    protected Calendar copy(final Calendar date) {
+        return (Calendar) date.clone();
+    }
+
 }
@@ -74,6 +74,11 @@ public class CalendarDateCalculator extends AbstractDateCalculator<Calendar> {
         return this;
     }
 
+    @Override
+    public WorkingWeek getWorkingWeek() {
+        return workingWeek;
+    }
+
     /**
      * is the date a non-working day according to the WorkingWeek?
      */
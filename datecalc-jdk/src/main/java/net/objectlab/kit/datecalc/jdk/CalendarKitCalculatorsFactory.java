@@ -40,12 +40,15 @@ import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PREC
 import java.util.Calendar;
 
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.SpotLag;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 /**
  * The default factory for getting Jdk <code>Calendar</code> based
@@ -93,7 +96,8 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
     }
 
     public CalendarCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new CalendarCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return new CalendarCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag) //
+                .spotDateCache(getSharedSpotDateCache(ccy1, ccy2, spotLag)));
     }
 
     public static CalendarDateCalculator forwardCalculator(final String name) {
@@ -139,6 +143,25 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
         return cal;
     }
 
+    /**
+     * Create a new stateless BusinessDayCalendar for a given name and type of handling.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @param workingWeek
+     *            the working week, the default one (Mon-Fri) if null.
+     * @return a new BusinessDayCalendar
+     * @since 1.4.1
+     */
+    @Override
+    public CalendarBusinessDayCalendar getBusinessDayCalendar(final String name, final String holidayHandlerType, final WorkingWeek workingWeek) {
+        return new CalendarBusinessDayCalendar(name, name != null ? getHolidayCalendar(name) : null, workingWeek != null ? workingWeek : WorkingWeek.DEFAULT,
+                getHolidayHandler(holidayHandlerType), this);
+    }
+
     public HolidayHandler<Calendar> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
             return new CalendarForwardHandler();
@@ -173,6 +196,14 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
         return PCC;
     }
 
+    /**
+     * @return the converter used to compile the calendars.
+     */
+    @Override
+    protected EpochDayConverter<Calendar> getEpochDayConverter() {
+        return CalendarEpochDayConverter.INSTANCE;
+    }
+
     /**
      * Create a new IMMDateCalculator.
      *
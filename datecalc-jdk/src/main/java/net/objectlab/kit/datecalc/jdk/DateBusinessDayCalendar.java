@@ -0,0 +1,81 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.jdk;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import net.objectlab.kit.datecalc.common.AbstractBusinessDayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayHandler;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+/**
+ * Stateless and thread safe BusinessDayCalendar for JDK Date.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class DateBusinessDayCalendar extends AbstractBusinessDayCalendar<Date> {
+
+    public DateBusinessDayCalendar(final String name, final HolidayCalendar<Date> holidayCalendar, final WorkingWeek workingWeek,
+            final HolidayHandler<Date> holidayHandler, final KitCalculatorsFactory<Date> factory) {
+        super(name, holidayCalendar, workingWeek, holidayHandler, factory);
+    }
+
+    @Override
+    protected Date plusDays(final Date date, final int days) {
+        final Calendar cal = Utils.getCal(date);
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal.getTime();
+    }
+
+    @Override
+    protected Date plusMonths(final Date date, final int months) {
+        final Calendar cal = Utils.getCal(date);
+        cal.add(Calendar.MONTH, months);
+        return cal.getTime();
+    }
+
+    @Override
+    protected int calendarWeekDay(final Date date) {
+        return Utils.getCal(date).get(Calendar.DAY_OF_WEEK);
+    }
+
+    @Override
+    protected boolean isBefore(final Date date, final Date other) {
+        return date.before(other);
+    }
+}
@@ -45,4 +45,9 @@ public class DateCurrencyDateCalculator extends AbstractCurrencyDateCalculator<D
         return d1.compareTo(d2) > 0 ? d1 : d2;
     }
 
+    @Override
+    protected Date copy(final Date date) {
+        return new Date(date.getTime());
+    }
+
 }
@@ -91,6 +91,11 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
         return this;
     }
 
+    @Override
+    public WorkingWeek getWorkingWeek() {
+        return delegate.getWorkingWeek();
+    }
+
     /**
      * is the date a non-working day according to the WorkingWeek?
      */
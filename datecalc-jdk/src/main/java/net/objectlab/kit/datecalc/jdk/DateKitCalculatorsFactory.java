@@ -41,11 +41,14 @@ import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.SpotLag;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 /**
  * The default factory for getting Jdk <code>Date</code> based calculators.
@@ -61,6 +64,8 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
 
     private static final DateIMMDateCalculator IMMDC = new DateIMMDateCalculator();
 
+    private final EpochDayConverter<Date> epochDayConverter = new DateEpochDayConverter();
+
     public static DateKitCalculatorsFactory getDefaultInstance() {
         return DEFAULT;
     }
@@ -91,7 +96,8 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
     }
 
     public DateCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new DateCurrencyDateCalculator(DEFAULT.getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return new DateCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag) //
+                .spotDateCache(getSharedSpotDateCache(ccy1, ccy2, spotLag)));
     }
 
     public static DateDateCalculator forwardCalculator(final String name) {
@@ -138,6 +144,25 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
         return cal;
     }
 
+    /**
+     * Create a new stateless BusinessDayCalendar for a given name and type of handling.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @param workingWeek
+     *            the working week, the default one (Mon-Fri) if null.
+     * @return a new BusinessDayCalendar
+     * @since 1.4.1
+     */
+    @Override
+    public DateBusinessDayCalendar getBusinessDayCalendar(final String name, final String holidayHandlerType, final WorkingWeek workingWeek) {
+        return new DateBusinessDayCalendar(name, name != null ? getHolidayCalendar(name) : null, workingWeek != null ? workingWeek : WorkingWeek.DEFAULT,
+                getHolidayHandler(holidayHandlerType), this);
+    }
+
     public HolidayHandler<Date> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
             return new DateForwardHandler();
@@ -164,6 +189,14 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
         return PCC;
     }
 
+    /**
+     * @return the converter used to compile the calendars, in the default time zone of the JVM when the factory was created.
+     */
+    @Override
+    protected EpochDayConverter<Date> getEpochDayConverter() {
+        return epochDayConverter;
+    }
+
     public IMMDateCalculator<Date> getIMMDateCalculator() {
         return IMMDC;
     }
@@ -35,6 +35,8 @@ package net.objectlab.kit.datecalc.jdk;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractDateCalculatorFactoryTest;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.Utils;
 
@@ -49,6 +51,11 @@ public class DateCalculatorFactoryTest extends AbstractDateCalculatorFactoryTest
     protected KitCalculatorsFactory<Date> getDateCalculatorFactory() {
         return DateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    @Override
+    protected EpochDayConverter<Date> getEpochDayConverter() {
+        return new DateEpochDayConverter();
+    }
 }
 
 /*
@@ -35,6 +35,8 @@ package net.objectlab.kit.datecalc.jdk;
 import java.util.Calendar;
 
 import net.objectlab.kit.datecalc.common.AbstractDateCalculatorFactoryTest;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.Utils;
 
@@ -49,6 +51,11 @@ public class JdkCalendarCalculatorFactoryTest extends AbstractDateCalculatorFact
     protected KitCalculatorsFactory<Calendar> getDateCalculatorFactory() {
         return CalendarKitCalculatorsFactory.getDefaultInstance();
     }
+
+    @Override
+    protected EpochDayConverter<Calendar> getEpochDayConverter() {
+        return CalendarEpochDayConverter.INSTANCE;
+    }
 }
 
 /*
@@ -35,6 +35,7 @@ package net.objectlab.kit.datecalc.jdk;
 import java.util.Calendar;
 
 import net.objectlab.kit.datecalc.common.AbstractCurrencyDateCalculatorTest;
+import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.Utils;
 
@@ -50,6 +51,11 @@ public class JdkCalendarCurrencyDateCalculatorTest extends AbstractCurrencyDateC
         return CalendarKitCalculatorsFactory.getDefaultInstance();
     }
 
+    @Override
+    protected AbstractKitCalculatorsFactory<Calendar> createDateCalculatorFactory() {
+        return new CalendarKitCalculatorsFactory();
+    }
+
 }
 
 /*
@@ -35,6 +35,7 @@ package net.objectlab.kit.datecalc.jdk;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractCurrencyDateCalculatorTest;
+import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.Utils;
 
@@ -49,6 +50,11 @@ public class JdkDateCurrencyDateCalculatorTest extends AbstractCurrencyDateCalcu
     protected KitCalculatorsFactory<Date> getDateCalculatorFactory() {
         return DateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    @Override
+    protected AbstractKitCalculatorsFactory<Date> createDateCalculatorFactory() {
+        return new DateKitCalculatorsFactory();
+    }
 }
 
 /*
@@ -0,0 +1,75 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.jdk8;
+
+import java.time.LocalDate;
+
+import net.objectlab.kit.datecalc.common.AbstractBusinessDayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayHandler;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+/**
+ * Stateless and thread safe BusinessDayCalendar for JDK8 LocalDate.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class LocalDateBusinessDayCalendar extends AbstractBusinessDayCalendar<LocalDate> {
+
+    public LocalDateBusinessDayCalendar(final String name, final HolidayCalendar<LocalDate> holidayCalendar, final WorkingWeek workingWeek,
+            final HolidayHandler<LocalDate> holidayHandler, final KitCalculatorsFactory<LocalDate> factory) {
+        super(name, holidayCalendar, workingWeek, holidayHandler, factory);
+    }
+
+    @Override
+    protected LocalDate plusDays(final LocalDate date, final int days) {
+        return date.plusDays(days);
+    }
+
+    @Override
+    protected LocalDate plusMonths(final LocalDate date, final int months) {
+        return date.plusMonths(months);
+    }
+
+    @Override
+    protected int calendarWeekDay(final LocalDate date) {
+        return Jdk8WorkingWeek.jdk8ToCalendarDayConstant(date.getDayOfWeek());
+    }
+
+    @Override
+    protected boolean isBefore(final LocalDate date, final LocalDate other) {
+        return date.isBefore(other);
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.jdk8;
+
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.BACKWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLLOWING;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import net.objectlab.kit.datecalc.common.BitSetHolidayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayCalendar;
+import net.objectlab.kit.datecalc.common.Tenor;
+import net.objectlab.kit.datecalc.common.TenorCode;
+import net.objectlab.kit.datecalc.common.Utils;
+
+/**
+ * A primitive specialisation of the JDK8 calculator: every date is an <code>int</code> epoch day
+ * (number of days since 1970-01-01, see <code>LocalDate.toEpochDay()</code>) so that adjusting,
+ * moving by business days, tenors and spot do not create any object. Dates only need to be
+ * converted to <code>LocalDate</code> at the boundaries of a batch, e.g. via {@link #toLocalDate(int)}.
+ *
+ * The results are the same as the ones of a LocalDateCalculator with the same holidays, working week
+ * and holiday handler type. It is immutable and thread safe.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class LocalDateEpochDayCalculator {
+    private static final int MONTHS_IN_YEAR = 12;
+    private static final int DAYS_IN_WEEK = 7;
+    /** 1970-01-01 was a Thursday, i.e. ISO day 4, so Monday is 0 after shifting by 3. */
+    private static final int EPOCH_DAY_TO_MONDAY = 3;
+    private static final int DAYS_FROM_0000_03_01_TO_EPOCH = 719_468;
+    private static final int DAYS_PER_ERA = 146_097;
+    private static final int YEARS_PER_ERA = 400;
+    private static final int DAYS_IN_4_YEARS = 1460;
+    private static final int DAYS_IN_100_YEARS = 36_524;
+    private static final int DAYS_IN_YEAR = 365;
+    private static final int DAYS_IN_5_MONTHS = 153;
+    private static final int MARCH_BASED_MONTHS = 5;
+    private static final int MARCH = 3;
+    private static final int MONTHS_FROM_MARCH_TO_JANUARY = 10;
+
+    private final String name;
+    private final String holidayHandlerType;
+    private final Handler handler;
+    private final Jdk8WorkingWeek workingWeek;
+    private final BitSetHolidayCalendar<LocalDate> holidays;
+    private final boolean[] workingDays = new boolean[DAYS_IN_WEEK];
+    private final int earlyBoundary;
+    private final int lateBoundary;
+
+    /**
+     * @param name the name of the holiday calendar
+     * @param holidayCalendar the holidays, can be null
+     * @param workingWeek the working week, Mon-Fri if null
+     * @param holidayHandlerType one of the HolidayHandlerType, null means dates are never adjusted.
+     * @throws IllegalArgumentException if the holidayHandlerType is unsupported
+     */
+    public LocalDateEpochDayCalculator(final String name, final HolidayCalendar<LocalDate> holidayCalendar, final Jdk8WorkingWeek workingWeek,
+            final String holidayHandlerType) {
+        this.name = name;
+        this.holidayHandlerType = holidayHandlerType;
+        this.handler = Handler.of(holidayHandlerType);
+        this.workingWeek = workingWeek != null ? workingWeek : Jdk8WorkingWeek.DEFAULT;
+        this.holidays = holidayCalendar != null ? new BitSetHolidayCalendar<LocalDate>(LocalDateEpochDayConverter.INSTANCE, holidayCalendar)
+                : new BitSetHolidayCalendar<LocalDate>(LocalDateEpochDayConverter.INSTANCE);
+        for (final DayOfWeek day : DayOfWeek.values()) {
+            workingDays[day.ordinal()] = this.workingWeek.isWorkingDayFromDateTimeConstant(day);
+        }
+        earlyBoundary = holidays.getEarlyBoundary() != null ? toEpochDay(holidays.getEarlyBoundary()) : Integer.MIN_VALUE;
+        lateBoundary = holidays.getLateBoundary() != null ? toEpochDay(holidays.getLateBoundary()) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * The holiday handler, resolved once from its HolidayHandlerType name.
+     */
+    private enum Handler {
+        NONE, FORWARD_HANDLER, BACKWARD_HANDLER, MODIFIED_FOLLOWING_HANDLER, MODIFIED_PRECEDING_HANDLER, FORWARD_UNLESS_MOVING_BACK_HANDLER;
+
+        private static Handler of(final String holidayHandlerType) {
+            if (holidayHandlerType == null) {
+                return NONE;
+            } else if (FORWARD.equals(holidayHandlerType)) {
+                return FORWARD_HANDLER;
+            } else if (BACKWARD.equals(holidayHandlerType)) {
+                return BACKWARD_HANDLER;
+            } else if (MODIFIED_FOLLOWING.equals(holidayHandlerType)) {
+                return MODIFIED_FOLLOWING_HANDLER;
+            } else if (MODIFIED_PRECEDING.equals(holidayHandlerType)) {
+                return MODIFIED_PRECEDING_HANDLER;
+            } else if (FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType)) {
+                return FORWARD_UNLESS_MOVING_BACK_HANDLER;
+            }
+            throw new IllegalArgumentException("Unsupported HolidayHandler: " + holidayHandlerType);
+        }
+    }
+
+    public static int toEpochDay(final LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    public static LocalDate toLocalDate(final int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHolidayHandlerType() {
+        return holidayHandlerType;
+    }
+
+    public Jdk8WorkingWeek getWorkingWeek() {
+        return workingWeek;
+    }
+
+    public HolidayCalendar<LocalDate> getHolidayCalendar() {
+        return holidays;
+    }
+
+    /**
+     * @return true if the day is a weekend or a holiday.
+     * @throws IndexOutOfBoundsException if the day is outside the holiday calendar boundaries.
+     */
+    public boolean isNonWorkingDay(final int epochDay) {
+        if (epochDay < earlyBoundary) {
+            throw new IndexOutOfBoundsException(toLocalDate(epochDay) + " is before the early boundary " + toLocalDate(earlyBoundary));
+        }
+        if (epochDay > lateBoundary) {
+            throw new IndexOutOfBoundsException(toLocalDate(epochDay) + " is after the late boundary " + toLocalDate(lateBoundary));
+        }
+        return !workingDays[Math.floorMod(epochDay + EPOCH_DAY_TO_MONDAY, DAYS_IN_WEEK)] || holidays.isEpochDayHoliday(epochDay);
+    }
+
+    /**
+     * Adjust the day, if it is a non-working day, according to the holiday handler, like setStartDate on a calculator.
+     */
+    public int adjust(final int epochDay) {
+        return adjust(epochDay, 1);
+    }
+
+    /**
+     * @param increment the direction of the last move, only used by FORWARD_UNLESS_MOVING_BACK.
+     */
+    private int adjust(final int epochDay, final int increment) {
+        final int step;
+        switch (handler) {
+        case NONE:
+            isNonWorkingDay(epochDay);
+            return epochDay;
+        case MODIFIED_FOLLOWING_HANDLER:
+            return adjustModified(epochDay, 1);
+        case MODIFIED_PRECEDING_HANDLER:
+            return adjustModified(epochDay, -1);
+        case BACKWARD_HANDLER:
+            step = -1;
+            break;
+        case FORWARD_UNLESS_MOVING_BACK_HANDLER:
+            step = increment < 0 ? -1 : 1;
+            break;
+        default:
+            step = 1;
+            break;
+        }
+        int day = epochDay;
+        while (isNonWorkingDay(day)) {
+            day += step;
+        }
+        return day;
+    }
+
+    private int adjustModified(final int epochDay, final int increment) {
+        final int firstOfMonth = epochDay - dayOfMonth(epochDay) + 1;
+        final int lastOfMonth = plusMonths(firstOfMonth, 1) - 1;
+        int step = increment;
+        int day = epochDay;
+        while (isNonWorkingDay(day)) {
+            day += step;
+            if (day < firstOfMonth || day > lastOfMonth) {
+                step = -step;
+                day += step;
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Move by a number of calendar days and adjust the result, see DateCalculator.moveByDays.
+     */
+    public int moveByDays(final int epochDay, final int days) {
+        return adjust(epochDay + days, days);
+    }
+
+    /**
+     * Move by a number of months and adjust the result, see DateCalculator.moveByMonths.
+     */
+    public int moveByMonths(final int epochDay, final int months) {
+        return adjust(plusMonths(epochDay, months), months);
+    }
+
+    /**
+     * Move by a number of business days, see DateCalculator.moveByBusinessDays; the day is NOT adjusted first.
+     * @exception IllegalArgumentException
+     *                if the HolidayHandlerType is (MODIFIED_PRECEDING or
+     *                BACKWARD) and businessDays &gt; 0 or (MODIFIED_FOLLOWING or
+     *                FORWARD) and businessDays &lt; 0
+     */
+    public int moveByBusinessDays(final int epochDay, final int businessDays) {
+        if (businessDays > 0 && (handler == Handler.BACKWARD_HANDLER || handler == Handler.MODIFIED_PRECEDING_HANDLER)) {
+            throw new IllegalArgumentException("A " + MODIFIED_PRECEDING + " or " + BACKWARD + " does not allow positive steps for moveByBusinessDays");
+        } else if (businessDays < 0 && (handler == Handler.FORWARD_HANDLER || handler == Handler.MODIFIED_FOLLOWING_HANDLER)) {
+            throw new IllegalArgumentException("A " + MODIFIED_FOLLOWING + " or " + FORWARD + " does not allow negative steps for moveByBusinessDays");
+        }
+        final int step = businessDays < 0 ? -1 : 1;
+        int day = epochDay;
+        for (int i = Math.abs(businessDays); i > 0; i--) {
+            day = moveByDays(day, step);
+        }
+        return day;
+    }
+
+    /**
+     * @return the adjusted start day moved by spotLag business days.
+     */
+    public int calculateSpotDate(final int startEpochDay, final int spotLag) {
+        return moveByBusinessDays(adjust(startEpochDay), spotLag);
+    }
+
+    /**
+     * Same as <code>calculator.setStartDate(start).moveByTenor(tenor, spotLag)</code>.
+     * @param startEpochDay the start day, adjusted first if it is a non-working day.
+     */
+    public int moveByTenor(final int startEpochDay, final Tenor tenor, final int spotLag) {
+        if (tenor == null) {
+            throw new IllegalArgumentException("Tenor cannot be null");
+        }
+        int day = adjust(startEpochDay);
+        TenorCode tenorCode = tenor.getCode();
+        if (tenorCode != TenorCode.OVERNIGHT && tenorCode != TenorCode.TOM_NEXT) {
+            // get to the Spot date first:
+            day = moveByBusinessDays(day, spotLag);
+        }
+        int unit = tenor.getUnits();
+        if (tenorCode == TenorCode.WEEK) {
+            tenorCode = TenorCode.DAY;
+            unit *= DAYS_IN_WEEK;
+        }
+        if (tenorCode == TenorCode.YEAR) {
+            tenorCode = TenorCode.MONTH;
+            unit *= MONTHS_IN_YEAR;
+        }
+
+        switch (tenorCode) {
+        case OVERNIGHT:
+        case SPOT_NEXT:
+            return moveByDays(day, 1);
+        case TOM_NEXT: // it would have NOT moved by
+            return moveByDays(moveByDays(day, 1), 1);
+        case SPOT:
+            return day;
+        case DAY:
+            return moveByDays(day, unit);
+        case MONTH:
+            return moveByMonths(day, unit);
+        default:
+            throw new UnsupportedOperationException("Sorry not yet...");
+        }
+    }
+
+    /**
+     * Calculate the tenor days into a given array, without any allocation.
+     * @param results receives the tenor days, in the same order as the tenors; must be at least as long.
+     */
+    public void calculateTenorDates(final int startEpochDay, final Tenor[] tenors, final int spotLag, final int[] results) {
+        for (int i = 0; i < tenors.length; i++) {
+            results[i] = moveByTenor(startEpochDay, tenors[i], spotLag);
+        }
+    }
+
+    /**
+     * @return the tenor days, in the same order as the tenors.
+     */
+    public int[] calculateTenorDates(final int startEpochDay, final List<Tenor> tenors, final int spotLag) {
+        final int[] results = new int[tenors.size()];
+        calculateTenorDates(startEpochDay, tenors.toArray(new Tenor[tenors.size()]), spotLag, results);
+        return results;
+    }
+
+    // -----------------------------------------------------------------------
+    // Civil calendar arithmetic on epoch days (proleptic Gregorian, as LocalDate), with
+    // years starting on the 1st of March so that the leap day is the last day of the year.
+    // -----------------------------------------------------------------------
+
+    private static int dayOfMonth(final int epochDay) {
+        final int dayOfEra = dayOfEra(epochDay);
+        final int dayOfYear = dayOfEra - DAYS_IN_YEAR * yearOfEra(dayOfEra) - yearOfEra(dayOfEra) / 4 + yearOfEra(dayOfEra) / 100;
+        return dayOfYear - (DAYS_IN_5_MONTHS * ((MARCH_BASED_MONTHS * dayOfYear + 2) / DAYS_IN_5_MONTHS) + 2) / MARCH_BASED_MONTHS + 1;
+    }
+
+    /**
+     * Same as LocalDate.plusMonths: the day of month is capped to the length of the resulting month.
+     */
+    static int plusMonths(final int epochDay, final int months) {
+        final int shifted = epochDay + DAYS_FROM_0000_03_01_TO_EPOCH;
+        final int era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        final int dayOfEra = shifted - era * DAYS_PER_ERA;
+        final int yearOfEra = yearOfEra(dayOfEra);
+        final int dayOfYear = dayOfEra - (DAYS_IN_YEAR * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int marchBasedMonth = (MARCH_BASED_MONTHS * dayOfYear + 2) / DAYS_IN_5_MONTHS;
+        final int day = dayOfYear - (DAYS_IN_5_MONTHS * marchBasedMonth + 2) / MARCH_BASED_MONTHS + 1;
+        final int month = marchBasedMonth < MONTHS_FROM_MARCH_TO_JANUARY ? marchBasedMonth + MARCH : marchBasedMonth - MONTHS_FROM_MARCH_TO_JANUARY + 1;
+        final int year = yearOfEra + era * YEARS_PER_ERA + (month <= 2 ? 1 : 0);
+
+        final int monthCount = year * MONTHS_IN_YEAR + month - 1 + months;
+        final int newYear = Math.floorDiv(monthCount, MONTHS_IN_YEAR);
+        final int newMonth = Math.floorMod(monthCount, MONTHS_IN_YEAR) + 1;
+        return Utils.toEpochDay(newYear, newMonth, Math.min(day, lengthOfMonth(newYear, newMonth)));
+    }
+
+    private static int dayOfEra(final int epochDay) {
+        return Math.floorMod(epochDay + DAYS_FROM_0000_03_01_TO_EPOCH, DAYS_PER_ERA);
+    }
+
+    private static int yearOfEra(final int dayOfEra) {
+        return (dayOfEra - dayOfEra / DAYS_IN_4_YEARS + dayOfEra / DAYS_IN_100_YEARS - dayOfEra / (DAYS_PER_ERA - 1)) / DAYS_IN_YEAR;
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+        case 2:
+            return year % 4 == 0 && (year % 100 != 0 || year % YEARS_PER_ERA == 0) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+}
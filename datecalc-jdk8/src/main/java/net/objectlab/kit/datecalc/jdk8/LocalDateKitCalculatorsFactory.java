@@ -41,11 +41,13 @@ import java.time.LocalDate;
 
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.SpotLag;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 /**
  * The default factory for getting Joda <code>LocalDate</code> based
@@ -97,7 +99,8 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
 
     @Override
     public LocalDateCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new LocalDateCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return new LocalDateCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag) //
+                .spotDateCache(getSharedSpotDateCache(ccy1, ccy2, spotLag)));
     }
 
     public static LocalDateCalculator forwardCalculator(final String name) {
@@ -149,6 +152,65 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
         return cal;
     }
 
+    /**
+     * Create a new stateless BusinessDayCalendar for a given name and type of handling.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @param workingWeek
+     *            the working week, the default one (Mon-Fri) if null.
+     * @return a new BusinessDayCalendar
+     * @since 1.4.1
+     */
+    @Override
+    public LocalDateBusinessDayCalendar getBusinessDayCalendar(final String name, final String holidayHandlerType, final WorkingWeek workingWeek) {
+        return new LocalDateBusinessDayCalendar(name, name != null ? getHolidayCalendar(name) : null, workingWeek != null ? workingWeek : Jdk8WorkingWeek.DEFAULT,
+                getHolidayHandler(holidayHandlerType), this);
+    }
+
+    /**
+     * Create a new stateless calculator working on epoch days (int) for a given name and type of handling.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @return a new LocalDateEpochDayCalculator working on the default working week (Mon-Fri)
+     * @since 1.4.1
+     */
+    public LocalDateEpochDayCalculator getEpochDayCalculator(final String name, final String holidayHandlerType) {
+        return getEpochDayCalculator(name, holidayHandlerType, null);
+    }
+
+    /**
+     * Create a new stateless calculator working on epoch days (int) for a given name, type of handling and working week.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @param workingWeek
+     *            the working week, the default one (Mon-Fri) if null.
+     * @return a new LocalDateEpochDayCalculator
+     * @since 1.4.1
+     */
+    public LocalDateEpochDayCalculator getEpochDayCalculator(final String name, final String holidayHandlerType, final WorkingWeek workingWeek) {
+        final Jdk8WorkingWeek week;
+        if (workingWeek == null) {
+            week = Jdk8WorkingWeek.DEFAULT;
+        } else if (workingWeek instanceof Jdk8WorkingWeek) {
+            week = (Jdk8WorkingWeek) workingWeek;
+        } else {
+            week = new Jdk8WorkingWeek(workingWeek);
+        }
+        return new LocalDateEpochDayCalculator(name, name != null ? getHolidayCalendar(name) : null, week, holidayHandlerType);
+    }
+
     @Override
     public HolidayHandler<LocalDate> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
@@ -167,6 +229,11 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
         return null;
     }
 
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
+
     @Override
     public PeriodCountCalculator<LocalDate> getPeriodCountCalculator() {
         return PCC;
@@ -34,8 +34,14 @@ package net.objectlab.kit.datecalc.jdk8;
 
 import java.time.LocalDate;
 
+import junit.framework.Assert;
 import net.objectlab.kit.datecalc.common.AbstractDateCalculatorFactoryTest;
+import net.objectlab.kit.datecalc.common.BusinessDayCalendar;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.HolidayHandler;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 public class LocalDateCalculatorFactoryTest extends AbstractDateCalculatorFactoryTest<LocalDate> {
 
@@ -44,10 +50,31 @@ public class LocalDateCalculatorFactoryTest extends AbstractDateCalculatorFactor
         return date != null ? LocalDate.parse(date) : LocalDate.now();
     }
 
+    @Override
+    protected WorkingWeek getWorkingWeek(final WorkingWeek ww) {
+        return new Jdk8WorkingWeek(ww);
+    }
+
     @Override
     protected KitCalculatorsFactory<LocalDate> getDateCalculatorFactory() {
         return LocalDateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
+
+    public void testBusinessDayCalendarUsesItsFactoryHandlers() {
+        final LocalDateKitCalculatorsFactory factory = new LocalDateKitCalculatorsFactory() {
+            @Override
+            public HolidayHandler<LocalDate> getHolidayHandler(final String holidayHandlerType) {
+                return "Preceding".equals(holidayHandlerType) ? new LocalDateBackwardHandler() : super.getHolidayHandler(holidayHandlerType);
+            }
+        };
+        final BusinessDayCalendar<LocalDate> calendar = factory.getBusinessDayCalendar("None", HolidayHandlerType.FORWARD, null);
+        Assert.assertEquals("Saturday, custom handler", newDate("2006-08-25"), calendar.adjust(newDate("2006-08-26"), "Preceding"));
+    }
 }
 
 /*
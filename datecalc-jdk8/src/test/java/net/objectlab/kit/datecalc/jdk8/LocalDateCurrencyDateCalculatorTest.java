@@ -35,6 +35,7 @@ package net.objectlab.kit.datecalc.jdk8;
 import java.time.LocalDate;
 
 import net.objectlab.kit.datecalc.common.AbstractCurrencyDateCalculatorTest;
+import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.WorkingWeek;
 
@@ -58,6 +59,11 @@ public class LocalDateCurrencyDateCalculatorTest extends AbstractCurrencyDateCal
     protected KitCalculatorsFactory<LocalDate> getDateCalculatorFactory() {
         return LocalDateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    @Override
+    protected AbstractKitCalculatorsFactory<LocalDate> createDateCalculatorFactory() {
+        return new LocalDateKitCalculatorsFactory();
+    }
 }
 
 /*
@@ -0,0 +1,183 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.jdk8;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+import net.objectlab.kit.datecalc.common.AbstractDateTestCase;
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.StandardTenor;
+import net.objectlab.kit.datecalc.common.Tenor;
+import net.objectlab.kit.datecalc.common.TenorCode;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+public class LocalDateEpochDayCalculatorTest extends AbstractDateTestCase<LocalDate> {
+
+    private static final String[] HANDLERS = { HolidayHandlerType.FORWARD, HolidayHandlerType.BACKWARD, HolidayHandlerType.MODIFIED_FOLLOWING,
+            HolidayHandlerType.MODIFIED_PRECEDING, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK };
+
+    private static final List<Tenor> TENORS = Arrays.asList(StandardTenor.SPOT, StandardTenor.OVERNIGHT, new Tenor(0, TenorCode.TOM_NEXT),
+            new Tenor(0, TenorCode.SPOT_NEXT), StandardTenor.T_1D, StandardTenor.T_1W, StandardTenor.T_1M, StandardTenor.T_3M, StandardTenor.T_6M,
+            StandardTenor.T_1Y);
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        registerHolidays("UK", createUKHolidayCalendar());
+    }
+
+    @Override
+    public void tearDown() {
+        getDateCalculatorFactory().unregisterAllHolidayCalendars();
+    }
+
+    public void testSameAsDateCalculator() {
+        for (final String type : HANDLERS) {
+            final LocalDateEpochDayCalculator calc = LocalDateKitCalculatorsFactory.getDefaultInstance().getEpochDayCalculator("UK", type);
+            final boolean backward = HolidayHandlerType.BACKWARD.equals(type) || HolidayHandlerType.MODIFIED_PRECEDING.equals(type);
+            final boolean forward = HolidayHandlerType.FORWARD.equals(type) || HolidayHandlerType.MODIFIED_FOLLOWING.equals(type);
+            for (LocalDate start = newDate("2006-01-16"); start.isBefore(newDate("2007-01-01")); start = start.plusDays(1)) {
+                final int epochDay = LocalDateEpochDayCalculator.toEpochDay(start);
+                final DateCalculator<LocalDate> single = newDateCalculator("UK", type);
+                single.setStartDate(start);
+                Assert.assertEquals(type + " adjust " + start, single.getCurrentBusinessDate(), LocalDateEpochDayCalculator.toLocalDate(calc.adjust(epochDay)));
+                Assert.assertEquals(type + " isNonWorkingDay " + start, single.isNonWorkingDay(start), calc.isNonWorkingDay(epochDay));
+
+                for (final int days : new int[] { -3, -1, 1, 5 }) {
+                    Assert.assertEquals(type + " moveByDays " + start + " " + days, newDateCalculator("UK", type).setStartDate(start).moveByDays(days)
+                            .getCurrentBusinessDate(), LocalDateEpochDayCalculator.toLocalDate(calc.moveByDays(calc.adjust(epochDay), days)));
+                }
+                for (final int months : new int[] { 1, 2, 12 }) {
+                    Assert.assertEquals(type + " moveByMonths " + start + " " + months, newDateCalculator("UK", type).setStartDate(start)
+                            .moveByTenor(new Tenor(months, TenorCode.MONTH)).getCurrentBusinessDate(),
+                            LocalDateEpochDayCalculator.toLocalDate(calc.moveByMonths(calc.adjust(epochDay), months)));
+                }
+                if (!forward) {
+                    Assert.assertEquals(type + " -3 business days " + start, newDateCalculator("UK", type).setStartDate(start).moveByBusinessDays(-3)
+                            .getCurrentBusinessDate(), LocalDateEpochDayCalculator.toLocalDate(calc.moveByBusinessDays(calc.adjust(epochDay), -3)));
+                }
+                if (backward) {
+                    continue;
+                }
+                for (final int spotLag : new int[] { 0, 1, 2 }) {
+                    final List<LocalDate> expected = newDateCalculator("UK", type).setStartDate(start).calculateTenorDates(TENORS, spotLag);
+                    final int[] tenorDates = calc.calculateTenorDates(epochDay, TENORS, spotLag);
+                    for (int i = 0; i < TENORS.size(); i++) {
+                        Assert.assertEquals(type + " " + TENORS.get(i) + " " + start + " lag " + spotLag, expected.get(i),
+                                LocalDateEpochDayCalculator.toLocalDate(tenorDates[i]));
+                    }
+                    Assert.assertEquals(type + " spot " + start + " lag " + spotLag, expected.get(0),
+                            LocalDateEpochDayCalculator.toLocalDate(calc.calculateSpotDate(epochDay, spotLag)));
+                }
+            }
+        }
+    }
+
+    public void testPlusMonths() {
+        for (LocalDate date = newDate("1899-11-01"); date.isBefore(newDate("2101-03-01")); date = date.plusDays(1)) {
+            for (final int months : new int[] { -25, -12, -1, 0, 1, 2, 3, 6, 12, 13, 120 }) {
+                Assert.assertEquals(date + " plus " + months, date.plusMonths(months).toEpochDay(),
+                        LocalDateEpochDayCalculator.plusMonths(LocalDateEpochDayCalculator.toEpochDay(date), months));
+            }
+        }
+    }
+
+    public void testBoundaries() {
+        final LocalDateEpochDayCalculator calc = LocalDateKitCalculatorsFactory.getDefaultInstance().getEpochDayCalculator("UK",
+                HolidayHandlerType.FORWARD);
+        try {
+            calc.isNonWorkingDay(LocalDateEpochDayCalculator.toEpochDay(newDate("2005-12-31")));
+            Assert.fail("Should have thrown IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+        try {
+            calc.moveByDays(LocalDateEpochDayCalculator.toEpochDay(newDate("2020-12-30")), 5);
+            Assert.fail("Should have thrown IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+    }
+
+    public void testInvalidMoves() {
+        final LocalDateEpochDayCalculator forward = LocalDateKitCalculatorsFactory.getDefaultInstance().getEpochDayCalculator("UK",
+                HolidayHandlerType.FORWARD);
+        try {
+            forward.moveByBusinessDays(LocalDateEpochDayCalculator.toEpochDay(newDate("2006-08-24")), -1);
+            Assert.fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            LocalDateKitCalculatorsFactory.getDefaultInstance().getEpochDayCalculator("UK", "Unknown");
+            Assert.fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    public void testNoHolidays() {
+        final LocalDateEpochDayCalculator calc = LocalDateKitCalculatorsFactory.getDefaultInstance().getEpochDayCalculator("None", null);
+        final int saturday = LocalDateEpochDayCalculator.toEpochDay(newDate("2006-08-26"));
+        Assert.assertTrue("weekend", calc.isNonWorkingDay(saturday));
+        Assert.assertEquals("not adjusted", saturday, calc.adjust(saturday));
+    }
+
+    public void testWorkingWeek() {
+        final LocalDateEpochDayCalculator calc = LocalDateKitCalculatorsFactory.getDefaultInstance().getEpochDayCalculator("None", null,
+                WorkingWeek.ARABIC_WEEK);
+        Assert.assertFalse("Sunday", calc.isNonWorkingDay(LocalDateEpochDayCalculator.toEpochDay(newDate("2006-08-27"))));
+        Assert.assertTrue("Friday", calc.isNonWorkingDay(LocalDateEpochDayCalculator.toEpochDay(newDate("2006-08-25"))));
+        Assert.assertTrue("Saturday", calc.isNonWorkingDay(LocalDateEpochDayCalculator.toEpochDay(newDate("2006-08-26"))));
+    }
+
+    @Override
+    protected LocalDate newDate(final String date) {
+        return date != null ? LocalDate.parse(date) : LocalDate.now();
+    }
+
+    @Override
+    protected WorkingWeek getWorkingWeek(final WorkingWeek ww) {
+        return new Jdk8WorkingWeek(ww);
+    }
+
+    @Override
+    protected KitCalculatorsFactory<LocalDate> getDateCalculatorFactory() {
+        return LocalDateKitCalculatorsFactory.getDefaultInstance();
+    }
+}
@@ -80,6 +80,11 @@ public class LocalDateCalculator extends AbstractDateCalculator<LocalDate> {
         throw new IllegalArgumentException("Please give an instance of JodaWorkingWeek");
     }
 
+    @Override
+    public JodaWorkingWeek getWorkingWeek() {
+        return workingWeek;
+    }
+
     /**
      * is the date a non-working day according to the WorkingWeek?
      */
@@ -0,0 +1,64 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.joda;
+
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.Utils;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Joda <code>LocalDate</code> epoch day converter, e.g. to be used with a BitSetHolidayCalendar.
+ * The conversion is based on the year/month/day fields so that it does not depend on the
+ * chronology of the LocalDate.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class LocalDateEpochDayConverter implements EpochDayConverter<LocalDate> {
+    private static final long serialVersionUID = -6130947716553862839L;
+
+    private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+    public static final LocalDateEpochDayConverter INSTANCE = new LocalDateEpochDayConverter();
+
+    @Override
+    public int toEpochDay(final LocalDate date) {
+        return Utils.toEpochDay(date.getYear(), date.getMonthOfYear(), date.getDayOfMonth());
+    }
+
+    @Override
+    public LocalDate fromEpochDay(final int epochDay) {
+        return EPOCH.plusDays(epochDay);
+    }
+}
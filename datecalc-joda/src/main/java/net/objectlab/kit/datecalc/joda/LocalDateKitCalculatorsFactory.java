@@ -38,11 +38,13 @@ import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLL
 import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.SpotLag;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 import org.joda.time.LocalDate;
 
@@ -88,7 +90,8 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
     }
 
     public LocalDateCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new LocalDateCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return new LocalDateCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag) //
+                .spotDateCache(getSharedSpotDateCache(ccy1, ccy2, spotLag)));
     }
 
     public LocalDateCurrencyDateCalculator buildCurrencyDateCalculator(final CurrencyDateCalculatorBuilder<LocalDate> builder) {
@@ -143,6 +146,25 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
         return cal;
     }
 
+    /**
+     * Create a new stateless BusinessDayCalendar for a given name and type of handling.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is set of
+     *            holidays with that name, it will work on Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @param workingWeek
+     *            the working week, the default one (Mon-Fri) if null.
+     * @return a new BusinessDayCalendar
+     * @since 1.4.1
+     */
+    @Override
+    public LocalDateBusinessDayCalendar getBusinessDayCalendar(final String name, final String holidayHandlerType, final WorkingWeek workingWeek) {
+        return new LocalDateBusinessDayCalendar(name, name != null ? getHolidayCalendar(name) : null, workingWeek != null ? workingWeek : JodaWorkingWeek.DEFAULT,
+                getHolidayHandler(holidayHandlerType), this);
+    }
+
     public HolidayHandler<LocalDate> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
             return new LocalDateForwardHandler();
@@ -160,6 +182,10 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
         return null;
     }
 
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
+
     public PeriodCountCalculator<LocalDate> getPeriodCountCalculator() {
         return PCC;
     }
@@ -33,7 +33,9 @@
 package net.objectlab.kit.datecalc.joda;
 
 import net.objectlab.kit.datecalc.common.AbstractDateCalculatorFactoryTest;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 import org.joda.time.LocalDate;
 
@@ -44,10 +46,20 @@ public class LocalDateCalculatorFactoryTest extends AbstractDateCalculatorFactor
         return new LocalDate(date);
     }
 
+    @Override
+    protected WorkingWeek getWorkingWeek(final WorkingWeek ww) {
+        return new JodaWorkingWeek(ww);
+    }
+
     @Override
     protected KitCalculatorsFactory<LocalDate> getDateCalculatorFactory() {
         return LocalDateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
 }
 
 /*
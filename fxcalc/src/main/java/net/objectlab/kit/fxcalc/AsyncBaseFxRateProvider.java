@@ -0,0 +1,57 @@
+package net.objectlab.kit.fxcalc;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous and batched version of the BaseFxRateProvider, typically for a remote market data store where one call
+ * for many currency pairs is a lot cheaper than one call per pair.
+ *
+ * Used by FxRateCalculatorImpl.findFxAsync and prefetch to get all the base rates required for a set of currency pairs
+ * (including the legs via each cross currency) in one call; concurrent requests for the same pair share the same call.
+ *
+ * Note: It is NOT the role of ObjectLabKit to provide an implementation for this.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@FunctionalInterface
+public interface AsyncBaseFxRateProvider {
+    /**
+     * Up to the implementer to get the latest FX Rates for the given pairs, in one round-trip if possible.
+     * @param pairs the currency pairs (typically base ones vs USD or vs EUR and their inverse)
+     * @return a future of the FX Rates found, the pairs without a rate are not in the map.
+     */
+    CompletableFuture<Map<CurrencyPair, FxRate>> getLatestRates(Collection<CurrencyPair> pairs);
+
+    /**
+     * @param pair the currency pair
+     * @return a future of the optional FxRate, calls getLatestRates for the single pair by default.
+     */
+    default CompletableFuture<Optional<FxRate>> getLatestRate(final CurrencyPair pair) {
+        return getLatestRates(Collections.singleton(pair)).thenApply(rates -> Optional.ofNullable(rates.get(pair)));
+    }
+
+    /**
+     * @return an AsyncBaseFxRateProvider calling the given BaseFxRateProvider for each pair, in the calling thread.
+     */
+    static AsyncBaseFxRateProvider of(final BaseFxRateProvider provider) {
+        return pairs -> {
+            final CompletableFuture<Map<CurrencyPair, FxRate>> future = new CompletableFuture<>();
+            try {
+                final Map<CurrencyPair, FxRate> rates = new HashMap<>();
+                for (final CurrencyPair pair : pairs) {
+                    provider.getLatestRate(pair).ifPresent(rate -> rates.put(pair, rate));
+                }
+                future.complete(rates);
+            } catch (final RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package net.objectlab.kit.fxcalc;
+
+import static net.objectlab.kit.util.BigDecimalUtil.divide;
+import static net.objectlab.kit.util.BigDecimalUtil.multiply;
+import static net.objectlab.kit.util.BigDecimalUtil.setScale;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Converts many amounts, given as columns (currency codes and amounts), into a target currency and writes the results in
+ * an output array given by the caller; the BigDecimal versions only allocate the converted amounts and the unscaled
+ * versions do not allocate any object per amount.
+ *
+ * The FX Rate for each distinct currency is found once per call via the FxRateCalculator (in the calling thread), the
+ * conversions then give the same amounts as FxRate.convertAmountUsingMid or convertAmountUsingBidOrAsk.
+ * In parallel mode, the conversions of large batches are split across the cores (using the common ForkJoinPool).
+ * <pre>
+ * final BulkCurrencyConverter converter = new BulkCurrencyConverter(calculator, new JdkCurrencyProvider(), true);
+ * final BigDecimal[] inUsd = new BigDecimal[amounts.length];
+ * converter.convertUsingMid(currencies, amounts, "USD", inUsd);
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class BulkCurrencyConverter {
+    /**
+     * Minimum number of amounts per task in parallel mode.
+     */
+    private static final int MIN_CHUNK_SIZE = 4_096;
+    /**
+     * Scale of the amount divided by the rate, as in FxRateImpl.
+     */
+    private static final int PRECISION_FOR_AMOUNT = 10;
+    private final FxRateCalculator calculator;
+    private final CurrencyProvider currencyProvider;
+    private final boolean parallel;
+
+    public BulkCurrencyConverter(final FxRateCalculator calculator, final CurrencyProvider currencyProvider) {
+        this(calculator, currencyProvider, false);
+    }
+
+    /**
+     * @param calculator used to find the FX Rate for each distinct currency
+     * @param currencyProvider used for the scale and rounding of the converted amounts
+     * @param parallel if true, split the conversion of large batches across the cores
+     */
+    public BulkCurrencyConverter(final FxRateCalculator calculator, final CurrencyProvider currencyProvider, final boolean parallel) {
+        this.calculator = calculator;
+        this.currencyProvider = currencyProvider;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Convert each amount (in the currency at the same index) into targetCcy using the MID rate, an amount already in
+     * targetCcy is copied as it is.
+     * @param currencies the currency of each amount
+     * @param amounts the amounts
+     * @param targetCcy the currency to convert to
+     * @param results receives the converted amounts, at the same index
+     * @throws IllegalArgumentException if the arrays do not have the same length or if a FX Rate cannot be found.
+     */
+    public void convertUsingMid(final String[] currencies, final BigDecimal[] amounts, final String targetCcy, final BigDecimal[] results) {
+        convert(currencies, amounts, targetCcy, results, true);
+    }
+
+    /**
+     * Convert each amount (in the currency at the same index) into targetCcy using the BID or ASK rate, an amount already
+     * in targetCcy is copied as it is.
+     * @param currencies the currency of each amount
+     * @param amounts the amounts
+     * @param targetCcy the currency to convert to
+     * @param results receives the converted amounts, at the same index
+     * @throws IllegalArgumentException if the arrays do not have the same length or if a FX Rate cannot be found.
+     */
+    public void convertUsingBidOrAsk(final String[] currencies, final BigDecimal[] amounts, final String targetCcy, final BigDecimal[] results) {
+        convert(currencies, amounts, targetCcy, results, false);
+    }
+
+    /**
+     * Convert each unscaled amount (in the currency at the same index) into targetCcy using the MID rate, without
+     * allocation per amount; the results have the scale of the fraction digits of targetCcy (as given by the
+     * CurrencyProvider), an amount already in targetCcy is only rescaled.
+     * @param currencies the currency of each amount
+     * @param unscaledAmounts the amounts are unscaledAmount / 10^scale
+     * @param scale the scale of all the amounts, &gt;= 0
+     * @param targetCcy the currency to convert to
+     * @param unscaledResults receives the unscaled converted amounts, at the same index
+     * @throws IllegalArgumentException if the arrays do not have the same length or if a FX Rate cannot be found (or held as longs).
+     * @throws ArithmeticException if a result does not fit in a long.
+     */
+    public void convertUnscaledUsingMid(final String[] currencies, final long[] unscaledAmounts, final int scale, final String targetCcy,
+            final long[] unscaledResults) {
+        convertUnscaled(currencies, unscaledAmounts, scale, targetCcy, unscaledResults, true);
+    }
+
+    /**
+     * Same as convertUnscaledUsingMid but using the BID or ASK rate.
+     * @throws IllegalArgumentException if the arrays do not have the same length or if a FX Rate cannot be found (or held as longs).
+     * @throws ArithmeticException if a result does not fit in a long.
+     */
+    public void convertUnscaledUsingBidOrAsk(final String[] currencies, final long[] unscaledAmounts, final int scale, final String targetCcy,
+            final long[] unscaledResults) {
+        convertUnscaled(currencies, unscaledAmounts, scale, targetCcy, unscaledResults, false);
+    }
+
+    private void convert(final String[] currencies, final BigDecimal[] amounts, final String targetCcy, final BigDecimal[] results,
+            final boolean useMid) {
+        checkLengths(currencies.length, amounts.length, results.length);
+        final Map<String, FxRate> found = findRates(currencies, targetCcy);
+        final Map<String, Conversion> conversions = new HashMap<>();
+        found.forEach((ccy, rate) -> conversions.put(ccy, new Conversion(ccy, rate, useMid, currencyProvider)));
+        forEachRange(currencies.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                final Conversion conversion = conversions.get(currencies[i]);
+                results[i] = conversion == null ? amounts[i] : conversion.convert(amounts[i]);
+            }
+        });
+    }
+
+    /**
+     * The rate, scale and rounding to convert the amounts of one currency, found once per call; gives the same amount
+     * as FxRateImpl.convertAmountUsingMid or convertAmountUsingBidOrAsk.
+     */
+    private static final class Conversion {
+        private final boolean multiply;
+        private final BigDecimal rate;
+        private final int decPlace;
+        private final int rounding;
+
+        private Conversion(final String originalCcy, final FxRate fxRate, final boolean useMid, final CurrencyProvider currencyProvider) {
+            final CurrencyPair pair = fxRate.getCurrencyPair();
+            if (!pair.containsCcy(originalCcy)) {
+                throw new IllegalArgumentException("The original ccy [" + originalCcy + "] must be one of the pair's " + pair);
+            }
+            multiply = pair.getCcy1().equals(originalCcy);
+            if (useMid) {
+                rate = fxRate.getMid();
+            } else {
+                rate = multiply ? fxRate.getBid() : fxRate.getAsk();
+            }
+            final String targetCcy = multiply ? pair.getCcy2() : pair.getCcy1();
+            decPlace = currencyProvider.getFractionDigits(targetCcy);
+            rounding = currencyProvider.getRounding(targetCcy);
+        }
+
+        private BigDecimal convert(final BigDecimal amount) {
+            if (multiply) {
+                return setScale(multiply(amount, rate), decPlace, rounding);
+            }
+            return setScale(divide(setScale(amount, PRECISION_FOR_AMOUNT), rate, BigDecimal.ROUND_HALF_UP), decPlace, rounding);
+        }
+    }
+
+    private void convertUnscaled(final String[] currencies, final long[] unscaledAmounts, final int scale, final String targetCcy,
+            final long[] unscaledResults, final boolean useMid) {
+        checkLengths(currencies.length, unscaledAmounts.length, unscaledResults.length);
+        final Map<String, FxRate> found = findRates(currencies, targetCcy);
+        final Map<String, FixedPointFxRate> rates = new HashMap<>();
+        found.forEach((ccy, rate) -> rates.put(ccy, FixedPointFxRate.of(rate, currencyProvider)));
+        final int targetScale = currencyProvider.getFractionDigits(targetCcy);
+        final int targetRounding = currencyProvider.getRounding(targetCcy);
+        forEachRange(currencies.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                final FixedPointFxRate rate = rates.get(currencies[i]);
+                if (rate == null) {
+                    unscaledResults[i] = FixedPointArithmetic.setScale(unscaledAmounts[i], scale, targetScale, targetRounding);
+                } else if (useMid) {
+                    unscaledResults[i] = rate.convertUnscaledAmountUsingMid(currencies[i], unscaledAmounts[i], scale);
+                } else {
+                    unscaledResults[i] = rate.convertUnscaledAmountUsingBidOrAsk(currencies[i], unscaledAmounts[i], scale);
+                }
+            }
+        });
+    }
+
+    private static void checkLengths(final int currencies, final int amounts, final int results) {
+        if (currencies != amounts || results < amounts) {
+            throw new IllegalArgumentException("Inconsistent lengths, currencies:" + currencies + " amounts:" + amounts + " results:" + results);
+        }
+    }
+
+    /**
+     * @return the FX Rate per distinct currency (other than targetCcy) vs targetCcy.
+     */
+    private Map<String, FxRate> findRates(final String[] currencies, final String targetCcy) {
+        final Map<String, FxRate> rates = new HashMap<>();
+        String previous = null;
+        for (final String ccy : currencies) {
+            // positions are often grouped by currency
+            if (ccy.equals(previous) || ccy.equals(targetCcy) || rates.containsKey(ccy)) {
+                continue;
+            }
+            previous = ccy;
+            final CurrencyPair pair = CurrencyPair.of(ccy, targetCcy);
+            rates.put(ccy, calculator.findFx(pair).orElseThrow(() -> new IllegalArgumentException("No FX Rate for " + pair)));
+        }
+        return rates;
+    }
+
+    @FunctionalInterface
+    private interface RangeConverter {
+        void convert(int from, int to);
+    }
+
+    private void forEachRange(final int size, final RangeConverter converter) {
+        final int cores = Runtime.getRuntime().availableProcessors();
+        if (!parallel || cores == 1 || size < 2 * MIN_CHUNK_SIZE) {
+            converter.convert(0, size);
+            return;
+        }
+        final int chunkSize = Math.max(MIN_CHUNK_SIZE, (size + 4 * cores - 1) / (4 * cores));
+        final int chunks = (size + chunkSize - 1) / chunkSize;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> converter.convert(chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize)));
+    }
+}
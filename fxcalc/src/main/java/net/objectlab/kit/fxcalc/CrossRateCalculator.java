@@ -27,7 +27,7 @@ public final class CrossRateCalculator {
      * @param fx2 one rate involving either targetPair.ccy1 or targetPair.ccy2
      * @param precision required in case we need to divide rates
      * @param ranking link to algorithm to determine if the targetPair will be market convention or not
-     * @return a new instance of FxRate
+     * @return a new instance of FxRate, a FixedPointFxRate if fx1 and fx2 are FixedPointFxRate (and the result fits)
      * @throws IllegalArgumentException if the 2 fx1 and fx2 do not share a common cross currency or either currencies in the targetPair
      */
     public static FxRate calculateCross(final CurrencyPair targetPair, final FxRate fx1, final FxRate fx2, final int precision,
@@ -48,13 +48,18 @@ public final class CrossRateCalculator {
         // what if it is both ccy2?
         final boolean shouldDivide = fx1Ccy1.equals(xCcy) && fx2Ccy1.equals(xCcy) || fx1Ccy2.equals(xCcy) && fx2Ccy2.equals(xCcy);
 
-        FxRateImpl crossRate = null;
+        FxRate crossRate = null;
 
         if (shouldDivide) {
             final FxRate numeratorFx = targetPair.getCcy1().equals(fx2Ccy2) || targetPair.getCcy1().equals(fx1Ccy1) ? fx1 : fx2;
             final FxRate denominatorFx = numeratorFx == fx1 ? fx2 : fx1;
             LOG.debug("CALC {} / {}", numeratorFx, denominatorFx);
 
+            crossRate = FixedPointFxRate.divideCross(targetPair, xCcy, ranking.isMarketConvention(targetPair), numeratorFx, denominatorFx,
+                    precision, bidRounding, askRounding, currencyProvider);
+            if (crossRate != null) {
+                return log(crossRate);
+            }
             BigDecimal bid = BigDecimalUtil.divide(precision, numeratorFx.getBid(), denominatorFx.getAsk(), bidRounding);
             BigDecimal ask = BigDecimalUtil.divide(precision, numeratorFx.getAsk(), denominatorFx.getBid(), askRounding);
             crossRate = new FxRateImpl(targetPair, xCcy, ranking.isMarketConvention(targetPair), bid, ask, currencyProvider);
@@ -62,16 +67,27 @@ public final class CrossRateCalculator {
             crossRate = calculateWithDivide(targetPair, fx1, fx2, precision, precisionForInverseFxRate, ranking, bidRounding, askRounding,
                     currencyProvider, xCcy, fx1Ccy2, fx2Ccy2);
         }
-        LOG.debug("X RATE {}", crossRate);
-        LOG.debug(crossRate.getDescription());
+        return log(crossRate);
+    }
+
+    private static FxRate log(final FxRate crossRate) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("X RATE {}", crossRate);
+            LOG.debug(crossRate.getDescription());
+        }
         return crossRate;
     }
 
-    private static FxRateImpl calculateWithDivide(final CurrencyPair targetPair, final FxRate fx1, final FxRate fx2, final int precision,
+    private static FxRate calculateWithDivide(final CurrencyPair targetPair, final FxRate fx1, final FxRate fx2, final int precision,
             final int precisionForInverseFxRate, final MajorCurrencyRanking ranking, final int bidRounding, final int askRounding,
             CurrencyProvider currencyProvider, final String xCcy, final String fx1Ccy2, final String fx2Ccy2) {
         final boolean inverse = targetPair.getCcy1().equals(fx2Ccy2) || targetPair.getCcy1().equals(fx1Ccy2);
         LOG.debug("CALC {} x {}", fx1, fx2);
+        final FxRate fixedPointRate = FixedPointFxRate.multiplyCross(targetPair, xCcy, ranking.isMarketConvention(targetPair), fx1, fx2, inverse,
+                precision, precisionForInverseFxRate, bidRounding, askRounding, currencyProvider);
+        if (fixedPointRate != null) {
+            return fixedPointRate;
+        }
         BigDecimal bid = null;
         BigDecimal ask = null;
         if (inverse) {
@@ -1,19 +1,32 @@
 package net.objectlab.kit.fxcalc;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import net.objectlab.kit.util.StringUtil;
 
-import org.apache.commons.lang.builder.EqualsBuilder;
-import org.apache.commons.lang.builder.HashCodeBuilder;
-
 /**
  * Immutable class representing a Currency pair, ccy1/ccy2; thread-safe and able to be used in Collections.
  * Note that the currencies will be converted to UPPER CASE.
+ *
+ * Since 1.4.1, pairs of 3 letter (or digit) codes are interned: CurrencyPair.of returns the same instance for the same
+ * currencies and createInverse returns the interned inverse, without allocation. Such pairs are identified by the two
+ * codes packed in a long, used by equals and hashCode.
+ * The codes are not validated, so the registry is capped at 65,536 pairs (inverses included, enough
+ * for every pair of ISO currencies): past the cap, CurrencyPair.of returns a new instance that is equal to, but not the
+ * same as, the other instances of that pair; the pairs already interned stay interned.
  */
 public class CurrencyPair {
+    private static final long NOT_PACKED = -1L;
+    private static final int BITS_PER_CHAR = 8;
+    private static final int BITS_PER_CCY = 3 * BITS_PER_CHAR;
+    static final int MAX_INTERNED = 65_536;
+    private static final Registry REGISTRY = new Registry(MAX_INTERNED);
     private final String ccy1;
     private final String ccy2;
+    private final long key;
+    private final int hash;
+    private CurrencyPair inverse;
 
     /**
      * @throws IllegalArgumentException if ccy1 or ccy2 are blank.
@@ -25,10 +38,58 @@ public class CurrencyPair {
         }
         this.ccy1 = StringUtil.toUpperCase(ccy1);
         this.ccy2 = StringUtil.toUpperCase(ccy2);
+        this.key = pack(this.ccy1, this.ccy2);
+        this.hash = key != NOT_PACKED ? Long.hashCode(key) : 31 * this.ccy1.hashCode() + this.ccy2.hashCode();
     }
 
+    /**
+     * @return the interned instance for ccy1/ccy2 if both are 3 letter or digit codes, a new instance otherwise.
+     * @throws IllegalArgumentException if ccy1 or ccy2 are blank.
+     */
     public static CurrencyPair of(final String ccy1, final String ccy2) {
-        return new CurrencyPair(ccy1, ccy2);
+        final long key = pack(ccy1, ccy2);
+        if (key == NOT_PACKED) {
+            return new CurrencyPair(ccy1, ccy2);
+        }
+        final CurrencyPair pair = REGISTRY.get(key);
+        return pair != null ? pair : REGISTRY.intern(key);
+    }
+
+    /**
+     * @return the 2 currencies packed in a long (8 bits per upper case char) or NOT_PACKED if not both 3 letter or digit codes.
+     */
+    static long pack(final String ccy1, final String ccy2) {
+        final long code1 = pack(ccy1);
+        final long code2 = pack(ccy2);
+        return code1 == NOT_PACKED || code2 == NOT_PACKED ? NOT_PACKED : code1 << BITS_PER_CCY | code2;
+    }
+
+    private static long pack(final String ccy) {
+        if (ccy == null || ccy.length() != 3) {
+            return NOT_PACKED;
+        }
+        long code = 0L;
+        for (int i = 0; i < 3; i++) {
+            char c = ccy.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                c = (char) (c - 'a' + 'A');
+            } else if (!(c >= 'A' && c <= 'Z' || c >= '0' && c <= '9')) {
+                return NOT_PACKED;
+            }
+            code = code << BITS_PER_CHAR | c;
+        }
+        return code;
+    }
+
+    /**
+     * @return the upper case code packed by {@link #pack(String)}, independent of the default Locale.
+     */
+    private static String unpack(final long code) {
+        final char[] chars = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            chars[i] = (char) (code >>> (2 - i) * BITS_PER_CHAR & 0xFF);
+        }
+        return new String(chars);
     }
 
     public String getCcy1() {
@@ -41,12 +102,22 @@ public class CurrencyPair {
 
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return hash;
     }
 
     @Override
     public boolean equals(final Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        final CurrencyPair other = (CurrencyPair) obj;
+        if (key != NOT_PACKED) {
+            return key == other.key;
+        }
+        return other.key == NOT_PACKED && ccy1.equals(other.ccy1) && ccy2.equals(other.ccy2);
     }
 
     @Override
@@ -55,7 +126,7 @@ public class CurrencyPair {
     }
 
     public boolean containsCcy(final String ccy) {
-        return ccy1.equalsIgnoreCase(StringUtil.toUpperCase(ccy)) || ccy2.equalsIgnoreCase(StringUtil.toUpperCase(ccy));
+        return ccy1.equalsIgnoreCase(ccy) || ccy2.equalsIgnoreCase(ccy);
     }
 
     /**
@@ -71,10 +142,105 @@ public class CurrencyPair {
     }
 
     /**
-     * Returns a new CurrencyPair ccy2 / ccy1 (useful for FxRate).
+     * Returns the CurrencyPair ccy2 / ccy1 (useful for FxRate), the interned one if the codes are packed.
      */
     public CurrencyPair createInverse() {
-        return new CurrencyPair(ccy2, ccy1);
+        if (inverse != null) {
+            return inverse;
+        }
+        return key != NOT_PACKED ? of(ccy2, ccy1) : new CurrencyPair(ccy2, ccy1);
     }
 
+    /**
+     * Interned pairs by packed key, an open addressing table where lookups are lock-free and do not allocate; the
+     * pair and its inverse are interned together (under lock) and linked. Once maxSize pairs are interned, the new
+     * pairs are created without being interned.
+     */
+    static final class Registry {
+        private static final int INITIAL_CAPACITY = 1024;
+        private final int maxSize;
+        private volatile AtomicReferenceArray<CurrencyPair> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        private volatile boolean full;
+        private int size;
+
+        Registry(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        private static int indexFor(final long key, final int length) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & length - 1;
+        }
+
+        CurrencyPair get(final long key) {
+            final AtomicReferenceArray<CurrencyPair> t = table;
+            final int length = t.length();
+            for (int i = indexFor(key, length);; i = i + 1 & length - 1) {
+                final CurrencyPair pair = t.get(i);
+                if (pair == null || pair.key == key) {
+                    return pair;
+                }
+            }
+        }
+
+        CurrencyPair intern(final long key) {
+            // no lock once full, the caller has not found the key
+            return full ? create(key) : internLocked(key);
+        }
+
+        private static CurrencyPair create(final long key) {
+            // built from the packed codes, ccy1/ccy2 may be lower case and String.toUpperCase depends on the Locale
+            return new CurrencyPair(unpack(key >>> BITS_PER_CCY), unpack(key & (1L << BITS_PER_CCY) - 1));
+        }
+
+        private synchronized CurrencyPair internLocked(final long key) {
+            final CurrencyPair existing = get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final CurrencyPair pair = create(key);
+            if (pair.key != key) {
+                return pair;
+            }
+            final CurrencyPair inverse = pair.ccy1.equals(pair.ccy2) ? pair : new CurrencyPair(pair.ccy2, pair.ccy1);
+            if (size + (inverse != pair ? 2 : 1) > maxSize) {
+                full = true;
+                return pair;
+            }
+            pair.inverse = inverse;
+            inverse.inverse = pair;
+            if ((size + 2) * 2 > table.length()) {
+                resize();
+            }
+            // the inverse first, an interned pair always has its interned inverse
+            put(table, inverse);
+            if (inverse != pair) {
+                put(table, pair);
+            }
+            return pair;
+        }
+
+        private void put(final AtomicReferenceArray<CurrencyPair> t, final CurrencyPair pair) {
+            final int length = t.length();
+            int i = indexFor(pair.key, length);
+            while (t.get(i) != null) {
+                i = i + 1 & length - 1;
+            }
+            t.set(i, pair);
+            size++;
+        }
+
+        private void resize() {
+            final AtomicReferenceArray<CurrencyPair> old = table;
+            final AtomicReferenceArray<CurrencyPair> t = new AtomicReferenceArray<>(old.length() * 2);
+            size = 0;
+            for (int i = 0; i < old.length(); i++) {
+                final CurrencyPair pair = old.get(i);
+                if (pair != null) {
+                    put(t, pair);
+                }
+            }
+            table = t;
+        }
+    }
 }
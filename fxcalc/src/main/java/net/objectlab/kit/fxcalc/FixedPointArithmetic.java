@@ -0,0 +1,218 @@
+package net.objectlab.kit.fxcalc;
+
+import java.math.BigDecimal;
+
+/**
+ * Decimal arithmetic on unscaled long values, giving the same unscaled value as the equivalent BigDecimal operation
+ * (same scale, same rounding) without allocation.
+ * All methods throw an ArithmeticException if the result (or an intermediate value) does not fit in a long, the caller
+ * is then expected to use BigDecimal; the exception is also thrown for ROUND_UNNECESSARY if rounding is required,
+ * as BigDecimal would.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+final class FixedPointArithmetic {
+    static final int MAX_POWER_OF_TEN = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_POWER_OF_TEN + 1];
+    private static final long MAX_DIVISOR = Long.MAX_VALUE / 10;
+    private static final long LOW_32_BITS = 0xFFFFFFFFL;
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i <= MAX_POWER_OF_TEN; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    private FixedPointArithmetic() {
+    }
+
+    /**
+     * @return 10^n
+     * @throws ArithmeticException if n is negative or 10^n does not fit in a long.
+     */
+    static long pow10(final int n) {
+        if (n < 0 || n > MAX_POWER_OF_TEN) {
+            throw new ArithmeticException("10^" + n + " does not fit");
+        }
+        return POWERS_OF_TEN[n];
+    }
+
+    /**
+     * Same as BigDecimal.valueOf(unscaled, fromScale).setScale(toScale, rounding).
+     * @return the unscaled value at toScale.
+     */
+    static long setScale(final long unscaled, final int fromScale, final int toScale, final int rounding) {
+        return divide(unscaled, 1L, 0, rounding, fromScale - toScale, rounding);
+    }
+
+    /**
+     * Same as BigDecimal.valueOf(value, scale1).multiply(BigDecimal.valueOf(multiplicand, scale2)).setScale(toScale, rounding).
+     * @return the unscaled value at toScale.
+     */
+    static long multiply(final long value, final int scale1, final long multiplicand, final int scale2, final int toScale, final int rounding) {
+        final int drop = scale1 + scale2 - toScale;
+        final long product = value * multiplicand;
+        final long absValue = Math.abs(value);
+        final long absMultiplicand = Math.abs(multiplicand);
+        // same overflow check as Math.multiplyExact, without the exception
+        if ((absValue | absMultiplicand) >>> 31 == 0 || multiplicand == 0L
+                || product / multiplicand == value && !(value == Long.MIN_VALUE && multiplicand == -1L)) {
+            return setScale(product, scale1 + scale2, toScale, rounding);
+        }
+        if (drop <= 0 || absValue < 0 || absMultiplicand < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        // the product needs 128 bits, divide it by 10^drop
+        final long high = multiplyHigh(absValue, absMultiplicand);
+        final long low = absValue * absMultiplicand;
+        final long divisor = pow10(drop);
+        if (Long.compareUnsigned(high, divisor) >= 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        long remainder = high;
+        long quotient = 0L;
+        for (int bit = Long.SIZE - 1; bit >= 0; bit--) {
+            // remainder < divisor < 2^60 so the shift does not overflow
+            remainder = remainder << 1 | low >>> bit & 1L;
+            quotient <<= 1;
+            if (remainder >= divisor) {
+                remainder -= divisor;
+                quotient |= 1L;
+            }
+        }
+        if (quotient < 0L) {
+            throw new ArithmeticException("long overflow");
+        }
+        final boolean negative = value < 0 != multiplicand < 0;
+        if (isIncrement(quotient, remainder, divisor, negative, rounding)) {
+            quotient = Math.addExact(quotient, 1L);
+        }
+        return negative ? -quotient : quotient;
+    }
+
+    /**
+     * @return the high 64 bits of the unsigned 128 bit product of 2 non negative longs.
+     */
+    private static long multiplyHigh(final long x, final long y) {
+        final long x1 = x >>> 32;
+        final long x0 = x & LOW_32_BITS;
+        final long y1 = y >>> 32;
+        final long y0 = y & LOW_32_BITS;
+        final long t = x1 * y0 + (x0 * y0 >>> 32);
+        final long w1 = x0 * y1 + (t & LOW_32_BITS);
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+
+    /**
+     * Calculates round(numerator * 10^shift / denominator) with the given rounding, i.e. with a numerator and
+     * denominator of the same scale, the quotient at scale shift; the quotient is then rescaled by removing drop digits
+     * with rounding2 (or adding -drop zeros). This is the equivalent of a BigDecimal divide followed by a setScale.
+     * @param numerator unscaled numerator
+     * @param denominator unscaled denominator, not zero
+     * @param shift number of digits of the quotient after the decimal point, &gt;= 0
+     * @param rounding rounding for the quotient (see BigDecimal)
+     * @param drop number of digits to remove from the quotient (negative to add zeros)
+     * @param rounding2 rounding for removing the digits (see BigDecimal)
+     * @return the unscaled result
+     */
+    static long divide(final long numerator, final long denominator, final int shift, final int rounding, final int drop, final int rounding2) {
+        if (denominator == 0L) {
+            throw new ArithmeticException("Division by zero");
+        }
+        final boolean negative = numerator < 0 != denominator < 0;
+        final long num = Math.abs(numerator);
+        final long den = Math.abs(denominator);
+        if (num < 0 || den < 0 || den > MAX_DIVISOR) {
+            throw new ArithmeticException("Value too large");
+        }
+
+        long high = num / den;
+        long remainder = num % den;
+        if (drop <= 0) {
+            for (int i = 0; i < shift; i++) {
+                remainder *= 10L;
+                high = Math.addExact(Math.multiplyExact(high, 10L), remainder / den);
+                remainder %= den;
+            }
+            if (isIncrement(high, remainder, den, negative, rounding)) {
+                high = Math.addExact(high, 1L);
+            }
+            final long result = Math.multiplyExact(high, pow10(-drop));
+            return negative ? -result : result;
+        }
+
+        // the quotient is high * 10^drop + tail, with the last drop digits in tail
+        final long dropDivisor = pow10(drop);
+        long tail;
+        if (drop >= shift) {
+            final long integerDivisor = pow10(drop - shift);
+            tail = high % integerDivisor;
+            high /= integerDivisor;
+            for (int i = 0; i < shift; i++) {
+                remainder *= 10L;
+                tail = tail * 10L + remainder / den;
+                remainder %= den;
+            }
+        } else {
+            for (int i = 0; i < shift - drop; i++) {
+                remainder *= 10L;
+                high = Math.addExact(Math.multiplyExact(high, 10L), remainder / den);
+                remainder %= den;
+            }
+            tail = 0L;
+            for (int i = 0; i < drop; i++) {
+                remainder *= 10L;
+                tail = tail * 10L + remainder / den;
+                remainder %= den;
+            }
+        }
+        if (isIncrement(tail, remainder, den, negative, rounding)) {
+            tail++;
+            if (tail == dropDivisor) {
+                tail = 0L;
+                high = Math.addExact(high, 1L);
+            }
+        }
+        if (isIncrement(high, tail, dropDivisor, negative, rounding2)) {
+            high = Math.addExact(high, 1L);
+        }
+        return negative ? -high : high;
+    }
+
+    /**
+     * @param quotient the truncated absolute quotient
+     * @param remainder the absolute remainder, less than divisor
+     * @param divisor the absolute divisor
+     * @param negative true if the result is negative
+     * @param rounding the BigDecimal rounding
+     * @return true if the absolute quotient must be incremented.
+     */
+    private static boolean isIncrement(final long quotient, final long remainder, final long divisor, final boolean negative, final int rounding) {
+        if (remainder == 0L) {
+            return false;
+        }
+        final long twice = remainder * 2L;
+        switch (rounding) {
+        case BigDecimal.ROUND_UP:
+            return true;
+        case BigDecimal.ROUND_DOWN:
+            return false;
+        case BigDecimal.ROUND_CEILING:
+            return !negative;
+        case BigDecimal.ROUND_FLOOR:
+            return negative;
+        case BigDecimal.ROUND_HALF_UP:
+            return twice >= divisor;
+        case BigDecimal.ROUND_HALF_DOWN:
+            return twice > divisor;
+        case BigDecimal.ROUND_HALF_EVEN:
+            return twice > divisor || twice == divisor && (quotient & 1L) == 1L;
+        case BigDecimal.ROUND_UNNECESSARY:
+            throw new ArithmeticException("Rounding necessary");
+        default:
+            throw new IllegalArgumentException("Invalid rounding mode " + rounding);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package net.objectlab.kit.fxcalc;
+
+import static net.objectlab.kit.fxcalc.FixedPointArithmetic.divide;
+import static net.objectlab.kit.fxcalc.FixedPointArithmetic.multiply;
+import static net.objectlab.kit.fxcalc.FixedPointArithmetic.setScale;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * An immutable FxRate where bid and ask are held as unscaled longs with a scale (bid = bidUnscaled / 10^bidScale),
+ * a drop-in replacement for FxRateImpl.
+ *
+ * The inverse, mid, conversions and cross rates (via CrossRateCalculator, if both rates are FixedPointFxRate) are
+ * calculated on longs and give exactly the same BigDecimal (value and scale) as FxRateImpl; if a value does not fit in
+ * a long, the calculation is done with BigDecimal as in FxRateImpl.
+ * createInverse() (without precision) uses a scale of 20 and is therefore always calculated with BigDecimal, the
+ * calculators use createInverse(precision).
+ *
+ * For amounts that are not BigDecimal, convertUnscaledAmountUsingMid and convertUnscaledAmountUsingBidOrAsk do not
+ * allocate any object.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class FixedPointFxRate implements FxRate {
+    private static final int SCALE_FOR_INVERSE = 20;
+    private static final int PRECISION_FOR_MID = 10;
+    private static final int PRECISION_FOR_AMOUNT = 10;
+    private final CurrencyPair currencyPair;
+    private final String crossCcy;
+    private final boolean marketConvention;
+    private final long bidUnscaled;
+    private final int bidScale;
+    private final long askUnscaled;
+    private final int askScale;
+    private final boolean midAvailable;
+    private final long midUnscaled;
+    private final int midScale;
+    private final CurrencyProvider currencyProvider;
+
+    /**
+     * @throws IllegalArgumentException if bid or ask is null, has a negative scale or does not fit in a long.
+     */
+    public FixedPointFxRate(final CurrencyPair currencyPair, final String crossCcy, final boolean marketConvention, final BigDecimal bid,
+            final BigDecimal ask, final CurrencyProvider currencyProvider) {
+        this(currencyPair, crossCcy, marketConvention, unscaled(bid), scale(bid), unscaled(ask), scale(ask), currencyProvider);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a scale is negative.
+     */
+    public FixedPointFxRate(final CurrencyPair currencyPair, final String crossCcy, final boolean marketConvention, final long bidUnscaled,
+            final int bidScale, final long askUnscaled, final int askScale, final CurrencyProvider currencyProvider) {
+        if (bidScale < 0 || askScale < 0) {
+            throw new IllegalArgumentException("The scales must be >= 0 for " + currencyPair);
+        }
+        this.currencyPair = currencyPair;
+        this.crossCcy = crossCcy;
+        this.marketConvention = marketConvention;
+        this.bidUnscaled = bidUnscaled;
+        this.bidScale = bidScale;
+        this.askUnscaled = askUnscaled;
+        this.askScale = askScale;
+        this.currencyProvider = currencyProvider;
+
+        long mid = 0L;
+        int scaleOfMid = 0;
+        boolean available = true;
+        if (askUnscaled == 0L) {
+            mid = bidUnscaled;
+            scaleOfMid = bidScale;
+        } else if (bidUnscaled == 0L) {
+            mid = askUnscaled;
+            scaleOfMid = askScale;
+        } else {
+            try {
+                // same as BigDecimalUtil.divide(PRECISION_FOR_MID, bid.add(ask), TWO, ROUND_HALF_UP)
+                final int sumScale = Math.max(bidScale, askScale);
+                final long sum = Math.addExact(setScale(bidUnscaled, bidScale, sumScale, BigDecimal.ROUND_UNNECESSARY),
+                        setScale(askUnscaled, askScale, sumScale, BigDecimal.ROUND_UNNECESSARY));
+                mid = divide(setScale(sum, sumScale, PRECISION_FOR_MID, BigDecimal.ROUND_HALF_UP), 2L, 0, BigDecimal.ROUND_HALF_UP, 0,
+                        BigDecimal.ROUND_HALF_UP);
+                scaleOfMid = PRECISION_FOR_MID;
+            } catch (final ArithmeticException e) {
+                available = false;
+            }
+        }
+        this.midAvailable = available;
+        this.midUnscaled = mid;
+        this.midScale = scaleOfMid;
+    }
+
+    private static long unscaled(final BigDecimal value) {
+        if (value == null || value.scale() < 0 || value.unscaledValue().bitLength() >= Long.SIZE) {
+            throw new IllegalArgumentException("Value " + value + " cannot be represented as an unscaled long");
+        }
+        return value.unscaledValue().longValue();
+    }
+
+    private static int scale(final BigDecimal value) {
+        return value.scale();
+    }
+
+    /**
+     * @return a FixedPointFxRate with the same values as the given rate and the given currency provider (which gives
+     * the scale and rounding of the converted amounts), the rate itself if it is one with the same provider.
+     * @throws IllegalArgumentException if bid or ask cannot be represented.
+     */
+    public static FixedPointFxRate of(final FxRate rate, final CurrencyProvider currencyProvider) {
+        if (rate instanceof FixedPointFxRate) {
+            final FixedPointFxRate fixed = (FixedPointFxRate) rate;
+            if (fixed.currencyProvider == currencyProvider) {
+                return fixed;
+            }
+            return new FixedPointFxRate(fixed.currencyPair, fixed.crossCcy, fixed.marketConvention, fixed.bidUnscaled, fixed.bidScale,
+                    fixed.askUnscaled, fixed.askScale, currencyProvider);
+        }
+        return new FixedPointFxRate(rate.getCurrencyPair(), rate.getCrossCcy().orElse(null), rate.isMarketConvention(), rate.getBid(),
+                rate.getAsk(), currencyProvider);
+    }
+
+    private FxRate toBigDecimalRate() {
+        return new FxRateImpl(currencyPair, crossCcy, marketConvention, getBid(), getAsk(), currencyProvider);
+    }
+
+    public long getBidUnscaled() {
+        return bidUnscaled;
+    }
+
+    public int getBidScale() {
+        return bidScale;
+    }
+
+    public long getAskUnscaled() {
+        return askUnscaled;
+    }
+
+    public int getAskScale() {
+        return askScale;
+    }
+
+    @Override
+    public String getDescription() {
+        return toBigDecimalRate().getDescription();
+    }
+
+    @Override
+    public FxRate createInverse() {
+        return toBigDecimalRate().createInverse();
+    }
+
+    @Override
+    public FxRate createInverse(final int precision) {
+        if (precision >= 0 && bidUnscaled != 0L && askUnscaled != 0L) {
+            try {
+                // same as setScale(inverse(ask), precision) where inverse uses a scale of 20
+                final long inverseBid = divide(1L, askUnscaled, SCALE_FOR_INVERSE + askScale, BigDecimal.ROUND_HALF_UP, SCALE_FOR_INVERSE - precision,
+                        BigDecimal.ROUND_HALF_UP);
+                final long inverseAsk = divide(1L, bidUnscaled, SCALE_FOR_INVERSE + bidScale, BigDecimal.ROUND_HALF_UP, SCALE_FOR_INVERSE - precision,
+                        BigDecimal.ROUND_HALF_UP);
+                return new FixedPointFxRate(currencyPair.createInverse(), crossCcy, !marketConvention, inverseBid, precision, inverseAsk, precision,
+                        currencyProvider);
+            } catch (final ArithmeticException e) {
+                // does not fit in a long
+            }
+        }
+        return toBigDecimalRate().createInverse(precision);
+    }
+
+    @Override
+    public BigDecimal getBid() {
+        return BigDecimal.valueOf(bidUnscaled, bidScale);
+    }
+
+    @Override
+    public BigDecimal getAsk() {
+        return BigDecimal.valueOf(askUnscaled, askScale);
+    }
+
+    @Override
+    public CurrencyPair getCurrencyPair() {
+        return currencyPair;
+    }
+
+    @Override
+    public Optional<String> getCrossCcy() {
+        return Optional.ofNullable(crossCcy);
+    }
+
+    @Override
+    public boolean isMarketConvention() {
+        return marketConvention;
+    }
+
+    @Override
+    public BigDecimal getMid() {
+        return midAvailable ? BigDecimal.valueOf(midUnscaled, midScale) : toBigDecimalRate().getMid();
+    }
+
+    @Override
+    public BigDecimal getBidInMarketConvention() {
+        return toBigDecimalRate().getBidInMarketConvention();
+    }
+
+    @Override
+    public BigDecimal getMidInMarketConvention() {
+        return toBigDecimalRate().getMidInMarketConvention();
+    }
+
+    @Override
+    public BigDecimal getAskInMarketConvention() {
+        return toBigDecimalRate().getAskInMarketConvention();
+    }
+
+    @Override
+    public String toString() {
+        return getCurrencyPair() + " B:" + getBid() + " A:" + getAsk();
+    }
+
+    @Override
+    public CurrencyAmount convertAmountUsingMid(final CurrencyAmount originalAmount) {
+        if (midAvailable) {
+            final BigDecimal amount = originalAmount.getAmount();
+            if (amount != null && amount.scale() >= 0 && amount.precision() <= FixedPointArithmetic.MAX_POWER_OF_TEN) {
+                try {
+                    final long unscaled = convertUnscaledAmountUsingMid(originalAmount.getCurrency(), amount.unscaledValue().longValue(),
+                            amount.scale());
+                    final String targetCcy = getTargetCcy(originalAmount.getCurrency());
+                    return new Cash(targetCcy, BigDecimal.valueOf(unscaled, currencyProvider.getFractionDigits(targetCcy)));
+                } catch (final ArithmeticException e) {
+                    // does not fit in a long
+                }
+            }
+        }
+        return toBigDecimalRate().convertAmountUsingMid(originalAmount);
+    }
+
+    @Override
+    public CurrencyAmount convertAmountUsingBidOrAsk(final CurrencyAmount originalAmount) {
+        final BigDecimal amount = originalAmount.getAmount();
+        if (amount != null && amount.scale() >= 0 && amount.precision() <= FixedPointArithmetic.MAX_POWER_OF_TEN) {
+            try {
+                final long unscaled = convertUnscaledAmountUsingBidOrAsk(originalAmount.getCurrency(), amount.unscaledValue().longValue(),
+                        amount.scale());
+                final String targetCcy = getTargetCcy(originalAmount.getCurrency());
+                return new Cash(targetCcy, BigDecimal.valueOf(unscaled, currencyProvider.getFractionDigits(targetCcy)));
+            } catch (final ArithmeticException e) {
+                // does not fit in a long
+            }
+        }
+        return toBigDecimalRate().convertAmountUsingBidOrAsk(originalAmount);
+    }
+
+    /**
+     * Same as convertAmountUsingMid but on an unscaled amount, without allocation.
+     * @param originalCcy the currency of the amount, one of the pair
+     * @param unscaledAmount the amount is unscaledAmount / 10^scale
+     * @param scale the scale of the amount, &gt;= 0
+     * @return the unscaled converted amount, its scale is the fraction digits of the other currency as given by the CurrencyProvider.
+     * @throws IllegalArgumentException if the original ccy is not one of the pair.
+     * @throws ArithmeticException if the result does not fit in a long.
+     */
+    public long convertUnscaledAmountUsingMid(final String originalCcy, final long unscaledAmount, final int scale) {
+        if (!midAvailable) {
+            throw new ArithmeticException("The mid of " + currencyPair + " does not fit in a long");
+        }
+        return convert(originalCcy, unscaledAmount, scale, midUnscaled, midScale, midUnscaled, midScale);
+    }
+
+    /**
+     * Same as convertAmountUsingBidOrAsk but on an unscaled amount, without allocation.
+     * @param originalCcy the currency of the amount, one of the pair
+     * @param unscaledAmount the amount is unscaledAmount / 10^scale
+     * @param scale the scale of the amount, &gt;= 0
+     * @return the unscaled converted amount, its scale is the fraction digits of the other currency as given by the CurrencyProvider.
+     * @throws IllegalArgumentException if the original ccy is not one of the pair.
+     * @throws ArithmeticException if the result does not fit in a long.
+     */
+    public long convertUnscaledAmountUsingBidOrAsk(final String originalCcy, final long unscaledAmount, final int scale) {
+        return convert(originalCcy, unscaledAmount, scale, bidUnscaled, bidScale, askUnscaled, askScale);
+    }
+
+    private long convert(final String originalCcy, final long unscaledAmount, final int scale, final long multiplier, final int multiplierScale,
+            final long divisor, final int divisorScale) {
+        final String targetCcy = getTargetCcy(originalCcy);
+        final int decPlace = currencyProvider.getFractionDigits(targetCcy);
+        final int rounding = currencyProvider.getRounding(targetCcy);
+        if (targetCcy.equals(currencyPair.getCcy2())) {
+            return multiply(unscaledAmount, scale, multiplier, multiplierScale, decPlace, rounding);
+        }
+        // same as setScale(divide(setScale(amount, 10), divisor, ROUND_HALF_UP), decPlace, rounding)
+        final long amount = setScale(unscaledAmount, scale, PRECISION_FOR_AMOUNT, BigDecimal.ROUND_HALF_UP);
+        return divide(amount, divisor, divisorScale, BigDecimal.ROUND_HALF_UP, PRECISION_FOR_AMOUNT - decPlace, rounding);
+    }
+
+    private String getTargetCcy(final String originalCcy) {
+        if (!currencyPair.containsCcy(originalCcy)) {
+            throw new IllegalArgumentException("The original ccy [" + originalCcy + "] must be one of the pair's " + currencyPair);
+        }
+        return currencyPair.getCcy1().equals(originalCcy) ? currencyPair.getCcy2() : currencyPair.getCcy1();
+    }
+
+    @Override
+    public CurrencyAmount getPaymentAmountForBuying(final CurrencyAmount amountToBuy) {
+        return toBigDecimalRate().getPaymentAmountForBuying(amountToBuy);
+    }
+
+    @Override
+    public CurrencyAmount getReceiptAmountForSelling(final CurrencyAmount amountToSell) {
+        return toBigDecimalRate().getReceiptAmountForSelling(amountToSell);
+    }
+
+    /**
+     * The cross rate numerator / denominator as calculated by CrossRateCalculator.
+     * @return null if the rates are not FixedPointFxRate or the result does not fit in a long.
+     */
+    static FxRate divideCross(final CurrencyPair targetPair, final String xCcy, final boolean marketConvention, final FxRate numeratorFx,
+            final FxRate denominatorFx, final int precision, final int bidRounding, final int askRounding, final CurrencyProvider currencyProvider) {
+        if (!(numeratorFx instanceof FixedPointFxRate) || !(denominatorFx instanceof FixedPointFxRate)) {
+            return null;
+        }
+        final FixedPointFxRate num = (FixedPointFxRate) numeratorFx;
+        final FixedPointFxRate den = (FixedPointFxRate) denominatorFx;
+        if (den.askUnscaled == 0L || den.bidUnscaled == 0L) {
+            return null;
+        }
+        try {
+            // same as BigDecimalUtil.divide(precision, numerator, denominator, rounding)
+            final long bid = divide(setScale(num.bidUnscaled, num.bidScale, precision, bidRounding), den.askUnscaled, den.askScale, bidRounding, 0,
+                    bidRounding);
+            final long ask = divide(setScale(num.askUnscaled, num.askScale, precision, askRounding), den.bidUnscaled, den.bidScale, askRounding, 0,
+                    askRounding);
+            return new FixedPointFxRate(targetPair, xCcy, marketConvention, bid, precision, ask, precision, currencyProvider);
+        } catch (final ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The cross rate fx1 x fx2 (or its inverse) as calculated by CrossRateCalculator.
+     * @return null if the rates are not FixedPointFxRate or the result does not fit in a long.
+     */
+    static FxRate multiplyCross(final CurrencyPair targetPair, final String xCcy, final boolean marketConvention, final FxRate fx1, final FxRate fx2,
+            final boolean inverse, final int precision, final int precisionForInverseFxRate, final int bidRounding, final int askRounding,
+            final CurrencyProvider currencyProvider) {
+        if (!(fx1 instanceof FixedPointFxRate) || !(fx2 instanceof FixedPointFxRate)) {
+            return null;
+        }
+        final FixedPointFxRate rate1 = (FixedPointFxRate) fx1;
+        final FixedPointFxRate rate2 = (FixedPointFxRate) fx2;
+        try {
+            final long bid;
+            final long ask;
+            if (inverse) {
+                // same as setScale(inverse(multiply(x, y), precisionForInverseFxRate, rounding), precision)
+                final long bids = Math.multiplyExact(rate1.bidUnscaled, rate2.bidUnscaled);
+                final long asks = Math.multiplyExact(rate1.askUnscaled, rate2.askUnscaled);
+                if (bids == 0L || asks == 0L) {
+                    return null;
+                }
+                ask = divide(1L, bids, precisionForInverseFxRate + rate1.bidScale + rate2.bidScale, bidRounding, precisionForInverseFxRate - precision,
+                        BigDecimal.ROUND_HALF_UP);
+                bid = divide(1L, asks, precisionForInverseFxRate + rate1.askScale + rate2.askScale, askRounding, precisionForInverseFxRate - precision,
+                        BigDecimal.ROUND_HALF_UP);
+            } else {
+                bid = multiply(rate1.bidUnscaled, rate1.bidScale, rate2.bidUnscaled, rate2.bidScale, precision, BigDecimal.ROUND_HALF_UP);
+                ask = multiply(rate1.askUnscaled, rate1.askScale, rate2.askUnscaled, rate2.askScale, precision, BigDecimal.ROUND_HALF_UP);
+            }
+            return new FixedPointFxRate(targetPair, xCcy, marketConvention, bid, precision, ask, precision, currencyProvider);
+        } catch (final ArithmeticException e) {
+            return null;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
       <li>addRateSnapshot(FxRate rate): add the rate to an internal map per CurrencyPair, an immutable map will be given to the Calculator so the bases rates will NOT change.</li>
       <li>ratesSnapshot(Collection&lt;FxRate&gt; rates): add a collection of rates to an internal map per CurrencyPair, an immutable map will be given to the Calculator so the bases rates will NOT change.</li>
       <li>baseFxRateProvider(BaseFxRateProvider) You then control when the Base Rates change, the Calculator will call the required CurrencyPair you either every time or once (if cacheBaseRates is true).</li>
+      <li>asyncBaseFxRateProvider(AsyncBaseFxRateProvider) Same as above but the Calculator asks for many CurrencyPairs in one call and receives them asynchronously (since 1.4.1).</li>
       </ol>
  * <pre>
  * final FxRateCalculatorBuilder builder = new FxRateCalculatorBuilder() //
@@ -28,7 +29,8 @@ import java.util.stream.Collectors;
         .precisionForInverseFxRate(12)
         .currencyProvider(new JdkCurrencyProvider()) // use the JDK currency
         .cacheResults(true) // only calculate a cross Fx once, cache for subsequent requests
-        .cacheBaseRates(true); // if a BaseFxRateRateProvider is used, cache the rates instead of calling again for same currency pair
+        .cacheBaseRates(true) // if a BaseFxRateRateProvider is used, cache the rates instead of calling again for same currency pair
+        .concurrentCache(true); // the calculator will be shared by many threads
  * </pre>
  * @author Benoit Xhenseval
  */
@@ -41,6 +43,10 @@ public class FxRateCalculatorBuilder {
      * If it is important for you to get the latest rates every time, you can provide a rate provider using this interface.
      */
     private BaseFxRateProvider baseFxRateProvider;
+    /**
+     * Asynchronous and batched provider of the latest rates.
+     */
+    private AsyncBaseFxRateProvider asyncBaseFxRateProvider;
     /**
      * The interface to determine which currency is major, defaults to StandardMajorCurrencyRanking.
      */
@@ -66,6 +72,10 @@ public class FxRateCalculatorBuilder {
      * If using the baseFxRateProvider, should the rate be cached in the calculator, defaulted to true.
      */
     private boolean cacheBaseRates = true;
+    /**
+     * Should the calculator be safe to share between threads, defaulted to false.
+     */
+    private boolean concurrentCache = false;
     /**
      * The Rounding to use for BID, default HALF_DOWN
      */
@@ -87,7 +97,7 @@ public class FxRateCalculatorBuilder {
     /**
      * Check if the builder is valid i.e.
      * * precisions greater than 1
-     * * ratesSnapshot not empty or a BaseFxRateProvider was provided
+     * * ratesSnapshot not empty or a BaseFxRateProvider or AsyncBaseFxRateProvider was provided
      * @throws IllegalArgumentException if the validation fails.
      */
     public void checkValid() {
@@ -101,7 +111,7 @@ public class FxRateCalculatorBuilder {
             }
             b.append("Precision for 1/FX should be >=2");
         }
-        if (ratesSnapshot.isEmpty() && baseFxRateProvider == null) {
+        if (ratesSnapshot.isEmpty() && baseFxRateProvider == null && asyncBaseFxRateProvider == null) {
             if (b.length() > 0) {
                 b.append(",");
             }
@@ -121,6 +131,18 @@ public class FxRateCalculatorBuilder {
         return this;
     }
 
+    /**
+     * If the rates come from a remote store, you can provide a provider that receives many currency pairs in one call and
+     * returns the rates asynchronously; if a BaseFxRateProvider is also given, it is used for the single rates required
+     * by findFx.
+     * @return the builder
+     * @since 1.4.1
+     */
+    public FxRateCalculatorBuilder asyncBaseFxRateProvider(final AsyncBaseFxRateProvider asyncBaseFxRateProvider) {
+        this.asyncBaseFxRateProvider = asyncBaseFxRateProvider;
+        return this;
+    }
+
     public MajorCurrencyRanking getMajorCurrencyRanking() {
         return majorCurrencyRanking;
     }
@@ -145,10 +167,18 @@ public class FxRateCalculatorBuilder {
         return cacheBaseRates;
     }
 
+    public boolean isConcurrentCache() {
+        return concurrentCache;
+    }
+
     public BaseFxRateProvider getBaseFxRateProvider() {
         return baseFxRateProvider;
     }
 
+    public AsyncBaseFxRateProvider getAsyncBaseFxRateProvider() {
+        return asyncBaseFxRateProvider;
+    }
+
     /**
      * Once a new rate has been calculated, should it be cached for any further request?
      * @return the builder
@@ -167,6 +197,18 @@ public class FxRateCalculatorBuilder {
         return this;
     }
 
+    /**
+     * If true, the calculator can be shared by many threads calling findFx simultaneously: the cached rates are kept in a
+     * ConcurrentHashMap and a given inverse or cross rate is only calculated once, other threads requiring it at the
+     * same time wait for the result; defaulted to false.
+     * @return the builder
+     * @since 1.4.1
+     */
+    public FxRateCalculatorBuilder concurrentCache(final boolean concurrentCache) {
+        this.concurrentCache = concurrentCache;
+        return this;
+    }
+
     /**
      * Number of decimal places to use on a rate, defaulted to 6.
      * @return the builder
@@ -1,9 +1,18 @@
 package net.objectlab.kit.fxcalc;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Main implementation, uses the ratesSnapshot or BaseFxRateProvider to find the FX Rate, if not present then
@@ -11,12 +20,29 @@ import java.util.Optional;
  *
  * Uses the {@link CrossRateCalculator}
  *
+ * It is not thread safe unless built with concurrentCache, in which case the rates are cached in a ConcurrentHashMap and
+ * each inverse or cross rate is only calculated once even if many threads require it simultaneously.
+ *
+ * findFxAsync (and prefetch) get the base rates required for a set of currency pairs in at most two calls to the
+ * AsyncBaseFxRateProvider (or the BaseFxRateProvider for each pair): the pairs and their inverse first, then the legs
+ * via each cross currency for the pairs still missing; requests for a base rate already being fetched wait for that
+ * fetch instead of calling the provider again. findFx does the same when there is only an AsyncBaseFxRateProvider.
+ *
  * @author Benoit Xhenseval
  *
  */
 public class FxRateCalculatorImpl implements FxRateCalculator {
-    private final Map<CurrencyPair, FxRate> rates = new HashMap<>();
+    private final Map<CurrencyPair, FxRate> rates;
+    /**
+     * The calculations in progress if concurrentCache, null otherwise.
+     */
+    private final ConcurrentMap<CurrencyPair, CompletableFuture<FxRate>> calculations;
     private final BaseFxRateProvider baseFxRateProvider;
+    private final AsyncBaseFxRateProvider asyncBaseFxRateProvider;
+    /**
+     * The base rates being fetched from the asyncBaseFxRateProvider.
+     */
+    private final ConcurrentMap<CurrencyPair, CompletableFuture<Optional<FxRate>>> fetches = new ConcurrentHashMap<>();
     private final MajorCurrencyRanking majorCurrencyRanking;
     private final List<String> orderedCurrenciesForCross;
     private final int precisionForFxRate;
@@ -30,8 +56,19 @@ public class FxRateCalculatorImpl implements FxRateCalculator {
     public FxRateCalculatorImpl(final FxRateCalculatorBuilder builder) {
         builder.checkValid();
 
-        rates.putAll(builder.getRatesSnapshot());
+        // an asynchronous provider may cache the rates from its own threads
+        if (builder.isConcurrentCache() || builder.getAsyncBaseFxRateProvider() != null) {
+            rates = new ConcurrentHashMap<>(builder.getRatesSnapshot());
+        } else {
+            rates = new HashMap<>(builder.getRatesSnapshot());
+        }
+        calculations = builder.isConcurrentCache() ? new ConcurrentHashMap<>() : null;
         this.baseFxRateProvider = builder.getBaseFxRateProvider();
+        if (builder.getAsyncBaseFxRateProvider() != null) {
+            this.asyncBaseFxRateProvider = builder.getAsyncBaseFxRateProvider();
+        } else {
+            this.asyncBaseFxRateProvider = baseFxRateProvider != null ? AsyncBaseFxRateProvider.of(baseFxRateProvider) : null;
+        }
         this.majorCurrencyRanking = builder.getMajorCurrencyRanking();
         this.orderedCurrenciesForCross = builder.getOrderedCurrenciesForCross();
         this.precisionForFxRate = builder.getPrecisionForFxRate();
@@ -43,60 +80,243 @@ public class FxRateCalculatorImpl implements FxRateCalculator {
         this.currencyProvider = builder.getCurrencyProvider();
     }
 
-    private FxRate getBaseRate(final CurrencyPair ccyPair) {
+    /**
+     * @param fetched the base rates fetched for this request (not to be asked again), null if none
+     */
+    private FxRate getBaseRate(final CurrencyPair ccyPair, final Map<CurrencyPair, FxRate> fetched) {
         FxRate fxRate = rates.get(ccyPair);
 
-        if (fxRate == null && baseFxRateProvider != null) {
+        if (fxRate == null && fetched != null) {
+            fxRate = fetched.get(ccyPair);
+        } else if (fxRate == null && baseFxRateProvider != null) {
             final Optional<FxRate> latetsRate = baseFxRateProvider.getLatestRate(ccyPair);
             if (latetsRate.isPresent()) {
                 fxRate = latetsRate.get();
                 if (cacheBaseRates) {
-                    rates.put(ccyPair, fxRate);
+                    final FxRate existing = rates.putIfAbsent(ccyPair, fxRate);
+                    if (existing != null) {
+                        fxRate = existing;
+                    }
                 }
             }
         }
         return fxRate;
     }
 
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
     @Override
     public Optional<FxRate> findFx(final CurrencyPair ccyPair) {
-        FxRate fxRate = getBaseRate(ccyPair);
-        if (fxRate == null) {
-            // try inverse
-            final FxRate inverse = getBaseRate(ccyPair.createInverse());
+        if (baseFxRateProvider == null && asyncBaseFxRateProvider != null && !rates.containsKey(ccyPair)) {
+            return Optional.ofNullable(find(ccyPair, join(fetchLegs(Collections.singleton(ccyPair)))));
+        }
+        return Optional.ofNullable(find(ccyPair, null));
+    }
 
-            if (inverse != null) {
-                fxRate = inverse.createInverse(precisionForInverseFxRate);
-                if (cacheResults) {
+    private FxRate find(final CurrencyPair ccyPair, final Map<CurrencyPair, FxRate> fetched) {
+        FxRate fxRate = getBaseRate(ccyPair, fetched);
+        if (fxRate == null) {
+            if (calculations != null && cacheResults) {
+                fxRate = calculateOnce(ccyPair, fetched);
+            } else {
+                fxRate = calculate(ccyPair, fetched);
+                if (fxRate != null && cacheResults) {
                     rates.put(ccyPair, fxRate);
                 }
+            }
+        }
+        return fxRate;
+    }
+
+    /**
+     * Find or calculate the FX Rates for the given pairs, all the base rates required are requested in one call to the
+     * provider.
+     * @return a future of the FX Rates found or calculated, the pairs without a rate are not in the map.
+     * @since 1.4.1
+     */
+    public CompletableFuture<Map<CurrencyPair, FxRate>> findFxAsync(final Collection<CurrencyPair> ccyPairs) {
+        return fetchLegs(ccyPairs).thenApply(fetched -> {
+            final Map<CurrencyPair, FxRate> result = new LinkedHashMap<>();
+            for (final CurrencyPair ccyPair : ccyPairs) {
+                final FxRate fxRate = find(ccyPair, fetched);
+                if (fxRate != null) {
+                    result.put(ccyPair, fxRate);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Fetch, in at most two calls to the provider, the base rates required for the given pairs and cache them;
+     * this has no effect on later calls to findFx if cacheBaseRates is false.
+     * @return a future completed once the base rates have been received.
+     * @since 1.4.1
+     */
+    public CompletableFuture<Void> prefetch(final Collection<CurrencyPair> ccyPairs) {
+        return fetchLegs(ccyPairs).thenApply(fetched -> null);
+    }
+
+    /**
+     * Fetch the pairs (and inverse) first, then, in one combined call, the legs via each cross currency for the pairs
+     * that are still missing.
+     */
+    private CompletableFuture<Map<CurrencyPair, FxRate>> fetchLegs(final Collection<CurrencyPair> ccyPairs) {
+        final Set<CurrencyPair> direct = new LinkedHashSet<>();
+        for (final CurrencyPair ccyPair : ccyPairs) {
+            addLeg(direct, ccyPair);
+        }
+        if (direct.isEmpty() || asyncBaseFxRateProvider == null) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return fetch(direct).thenCompose(fetchedDirect -> {
+            final Set<CurrencyPair> crossLegs = new LinkedHashSet<>();
+            for (final CurrencyPair ccyPair : ccyPairs) {
+                if (!isKnown(ccyPair, fetchedDirect) && !isKnown(ccyPair.createInverse(), fetchedDirect)) {
+                    for (final String crossCcy : orderedCurrenciesForCross) {
+                        addLeg(crossLegs, CurrencyPair.of(crossCcy, ccyPair.getCcy1()));
+                        addLeg(crossLegs, CurrencyPair.of(crossCcy, ccyPair.getCcy2()));
+                    }
+                }
+            }
+            crossLegs.removeAll(direct);
+            if (crossLegs.isEmpty()) {
+                return CompletableFuture.completedFuture(fetchedDirect);
+            }
+            return fetch(crossLegs).thenApply(fetchedCross -> {
+                final Map<CurrencyPair, FxRate> fetched = new HashMap<>(fetchedDirect);
+                fetched.putAll(fetchedCross);
+                return fetched;
+            });
+        });
+    }
+
+    /**
+     * Add the pair, and its inverse, unless it is already known.
+     */
+    private void addLeg(final Set<CurrencyPair> legs, final CurrencyPair ccyPair) {
+        if (!rates.containsKey(ccyPair)) {
+            legs.add(ccyPair);
+            final CurrencyPair inverse = ccyPair.createInverse();
+            if (!rates.containsKey(inverse)) {
+                legs.add(inverse);
+            }
+        }
+    }
+
+    private boolean isKnown(final CurrencyPair ccyPair, final Map<CurrencyPair, FxRate> fetched) {
+        return rates.containsKey(ccyPair) || fetched.containsKey(ccyPair);
+    }
+
+    /**
+     * Request the base rates not already being fetched in one call, and wait for the ones being fetched.
+     */
+    private CompletableFuture<Map<CurrencyPair, FxRate>> fetch(final Collection<CurrencyPair> ccyPairs) {
+        final Map<CurrencyPair, CompletableFuture<Optional<FxRate>>> futures = new LinkedHashMap<>();
+        final Map<CurrencyPair, CompletableFuture<Optional<FxRate>>> requested = new LinkedHashMap<>();
+        for (final CurrencyPair ccyPair : ccyPairs) {
+            final CompletableFuture<Optional<FxRate>> future = new CompletableFuture<>();
+            final CompletableFuture<Optional<FxRate>> inProgress = fetches.putIfAbsent(ccyPair, future);
+            if (inProgress != null) {
+                futures.put(ccyPair, inProgress);
             } else {
-                fxRate = tryFindViaCrossCcy(ccyPair, fxRate);
+                futures.put(ccyPair, future);
+                requested.put(ccyPair, future);
+            }
+        }
+
+        if (!requested.isEmpty()) {
+            CompletableFuture<Map<CurrencyPair, FxRate>> call;
+            try {
+                call = asyncBaseFxRateProvider.getLatestRates(Collections.unmodifiableSet(requested.keySet()));
+            } catch (final RuntimeException e) {
+                call = new CompletableFuture<>();
+                call.completeExceptionally(e);
+            }
+            call.whenComplete((latestRates, error) -> requested.forEach((ccyPair, future) -> {
+                if (error != null) {
+                    future.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    FxRate fxRate = latestRates != null ? latestRates.get(ccyPair) : null;
+                    if (fxRate != null && cacheBaseRates) {
+                        final FxRate existing = rates.putIfAbsent(ccyPair, fxRate);
+                        if (existing != null) {
+                            fxRate = existing;
+                        }
+                    }
+                    future.complete(Optional.ofNullable(fxRate));
+                }
+                fetches.remove(ccyPair, future);
+            }));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).thenApply(v -> {
+            final Map<CurrencyPair, FxRate> fetched = new HashMap<>();
+            futures.forEach((ccyPair, future) -> future.join().ifPresent(fxRate -> fetched.put(ccyPair, fxRate)));
+            return fetched;
+        });
+    }
+
+    /**
+     * Only one thread calculates the rate for a given pair, the others wait for its result.
+     */
+    private FxRate calculateOnce(final CurrencyPair ccyPair, final Map<CurrencyPair, FxRate> fetched) {
+        final CompletableFuture<FxRate> calculation = new CompletableFuture<>();
+        final CompletableFuture<FxRate> inProgress = calculations.putIfAbsent(ccyPair, calculation);
+        if (inProgress != null) {
+            // same exception as the thread that did the calculation
+            return join(inProgress);
+        }
+        try {
+            // another thread may have cached it between our check and the start of this calculation
+            FxRate fxRate = rates.get(ccyPair);
+            if (fxRate == null) {
+                fxRate = calculate(ccyPair, fetched);
+                if (fxRate != null) {
+                    rates.put(ccyPair, fxRate);
+                }
             }
+            calculation.complete(fxRate);
+            return fxRate;
+        } catch (final RuntimeException | Error e) {
+            calculation.completeExceptionally(e);
+            throw e;
+        } finally {
+            calculations.remove(ccyPair, calculation);
         }
+    }
 
-        return Optional.ofNullable(fxRate);
+    private FxRate calculate(final CurrencyPair ccyPair, final Map<CurrencyPair, FxRate> fetched) {
+        // try inverse
+        final FxRate inverse = getBaseRate(ccyPair.createInverse(), fetched);
+        if (inverse != null) {
+            return inverse.createInverse(precisionForInverseFxRate);
+        }
+        return tryFindViaCrossCcy(ccyPair, fetched);
     }
 
-    private FxRate tryFindViaCrossCcy(final CurrencyPair ccyPair, FxRate fxRate) {
+    private FxRate tryFindViaCrossCcy(final CurrencyPair ccyPair, final Map<CurrencyPair, FxRate> fetched) {
         for (final String crossCcy : orderedCurrenciesForCross) {
-            fxRate = findViaCrossCcy(ccyPair, crossCcy);
+            final FxRate fxRate = findViaCrossCcy(ccyPair, crossCcy, fetched);
             if (fxRate != null) {
-                if (cacheResults) {
-                    rates.put(ccyPair, fxRate);
-                }
-                break;
+                return fxRate;
             }
         }
-        return fxRate;
+        return null;
     }
 
-    private FxRate findViaCrossCcy(final CurrencyPair ccyPair, final String crossCcy) {
+    private FxRate findViaCrossCcy(final CurrencyPair ccyPair, final String crossCcy, final Map<CurrencyPair, FxRate> fetched) {
         final CurrencyPair xCcyPair = CurrencyPair.of(crossCcy, ccyPair.getCcy1());
-        FxRate xCcy1 = getBaseRate(xCcyPair);
+        FxRate xCcy1 = getBaseRate(xCcyPair, fetched);
         if (xCcy1 == null) {
             // try inverse
-            final FxRate inverse = getBaseRate(xCcyPair.createInverse());
+            final FxRate inverse = getBaseRate(xCcyPair.createInverse(), fetched);
             if (inverse != null) {
                 xCcy1 = inverse.createInverse(precisionForInverseFxRate);
             }
@@ -104,10 +324,10 @@ public class FxRateCalculatorImpl implements FxRateCalculator {
 
         if (xCcy1 != null) {
             final CurrencyPair xCcy2Pair = CurrencyPair.of(crossCcy, ccyPair.getCcy2());
-            FxRate xCcy2 = getBaseRate(xCcy2Pair);
+            FxRate xCcy2 = getBaseRate(xCcy2Pair, fetched);
             if (xCcy2 == null) {
                 // try inverse
-                final FxRate inverse = getBaseRate(xCcy2Pair.createInverse());
+                final FxRate inverse = getBaseRate(xCcy2Pair.createInverse(), fetched);
                 if (inverse != null) {
                     xCcy2 = inverse.createInverse(precisionForInverseFxRate);
                 }
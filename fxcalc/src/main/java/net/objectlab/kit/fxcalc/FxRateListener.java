@@ -0,0 +1,20 @@
+package net.objectlab.kit.fxcalc;
+
+import java.util.Set;
+
+/**
+ * Subscriber to a {@link LiveFxRateCalculator}, told which rates changed following an update of a base rate.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@FunctionalInterface
+public interface FxRateListener {
+    /**
+     * Called after the base rate has been updated and the inverse and cross rates depending on it recalculated.
+     * @param baseRate the new base rate
+     * @param changedPairs the pair of the base rate and the pairs of the cached rates that depend on it; the
+     *        new rates are available via findFx.
+     */
+    void ratesChanged(FxRate baseRate, Set<CurrencyPair> changedPairs);
+}
@@ -0,0 +1,137 @@
+package net.objectlab.kit.fxcalc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * The complete N x N matrix of FX Rates between all the currencies of a snapshot, calculated in one pass.
+ * Each base rate and its inverse is calculated once (the "legs" per currency) and every cross rate is then
+ * calculated from the legs against the cross currencies, in the order given by orderedCurrenciesForCross.
+ *
+ * The rates are the same as the ones found by a FxRateCalculatorImpl built from the same builder without
+ * cacheResults, a lookup is then two array indexes by currency index.
+ * <pre>
+ * final FxRateMatrix matrix = new FxRateMatrix(builder);
+ * final int eur = matrix.getCurrencyIndex("EUR");
+ * final int chf = matrix.getCurrencyIndex("CHF");
+ * final FxRate eurChf = matrix.getFx(eur, chf);
+ * </pre>
+ * It is immutable and thread safe, a BaseFxRateProvider is not used: the snapshot must contain the base rates.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class FxRateMatrix implements FxRateCalculator {
+    private final List<String> currencies;
+    private final Map<String, Integer> currencyIndexes = new HashMap<>();
+    private final FxRate[][] rates;
+
+    /**
+     * @param builder the ratesSnapshot, orderedCurrenciesForCross, precisions, roundings, ranking and currencyProvider are used.
+     * @throws IllegalArgumentException if the builder is invalid or if there is no ratesSnapshot.
+     */
+    public FxRateMatrix(final FxRateCalculatorBuilder builder) {
+        builder.checkValid();
+        if (builder.getRatesSnapshot().isEmpty()) {
+            throw new IllegalArgumentException("A FxRateMatrix requires Base Rates Snapshots");
+        }
+
+        final TreeSet<String> ccys = new TreeSet<>();
+        builder.getRatesSnapshot().keySet().forEach(pair -> {
+            ccys.add(pair.getCcy1());
+            ccys.add(pair.getCcy2());
+        });
+        currencies = Collections.unmodifiableList(new ArrayList<>(ccys));
+        for (int i = 0; i < currencies.size(); i++) {
+            currencyIndexes.put(currencies.get(i), i);
+        }
+
+        final int size = currencies.size();
+        final FxRate[][] legs = calculateLegs(builder, size);
+        final List<Integer> crossIndexes = new ArrayList<>();
+        for (final String crossCcy : builder.getOrderedCurrenciesForCross()) {
+            final Integer index = currencyIndexes.get(crossCcy);
+            if (index != null) {
+                crossIndexes.add(index);
+            }
+        }
+
+        rates = new FxRate[size][size];
+        for (int ccy1 = 0; ccy1 < size; ccy1++) {
+            for (int ccy2 = 0; ccy2 < size; ccy2++) {
+                rates[ccy1][ccy2] = legs[ccy1][ccy2] != null ? legs[ccy1][ccy2] : calculateCross(builder, legs, crossIndexes, ccy1, ccy2);
+            }
+        }
+    }
+
+    /**
+     * The base rates and their inverse, i.e. what does not require a cross currency.
+     */
+    private FxRate[][] calculateLegs(final FxRateCalculatorBuilder builder, final int size) {
+        final FxRate[][] legs = new FxRate[size][size];
+        builder.getRatesSnapshot().forEach((pair, rate) -> {
+            final int ccy1 = currencyIndexes.get(pair.getCcy1());
+            final int ccy2 = currencyIndexes.get(pair.getCcy2());
+            legs[ccy1][ccy2] = rate;
+        });
+        builder.getRatesSnapshot().forEach((pair, rate) -> {
+            final int ccy1 = currencyIndexes.get(pair.getCcy1());
+            final int ccy2 = currencyIndexes.get(pair.getCcy2());
+            if (legs[ccy2][ccy1] == null) {
+                legs[ccy2][ccy1] = rate.createInverse(builder.getPrecisionForInverseFxRate());
+            }
+        });
+        return legs;
+    }
+
+    private FxRate calculateCross(final FxRateCalculatorBuilder builder, final FxRate[][] legs, final List<Integer> crossIndexes, final int ccy1,
+            final int ccy2) {
+        for (final int cross : crossIndexes) {
+            final FxRate xCcy1 = legs[cross][ccy1];
+            final FxRate xCcy2 = legs[cross][ccy2];
+            if (xCcy1 != null && xCcy2 != null) {
+                return CrossRateCalculator.calculateCross(CurrencyPair.of(currencies.get(ccy1), currencies.get(ccy2)), xCcy1, xCcy2,
+                        builder.getPrecisionForFxRate(), builder.getPrecisionForInverseFxRate(), builder.getMajorCurrencyRanking(),
+                        builder.getBidRounding(), builder.getAskRounding(), builder.getCurrencyProvider());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the currencies in the matrix, sorted; the index in this list is the currency index.
+     */
+    public List<String> getCurrencies() {
+        return currencies;
+    }
+
+    /**
+     * @return the index of the currency, -1 if the currency is not in the matrix.
+     */
+    public int getCurrencyIndex(final String ccy) {
+        final Integer index = currencyIndexes.get(ccy);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @param ccy1Index index of ccy1 as given by getCurrencyIndex
+     * @param ccy2Index index of ccy2 as given by getCurrencyIndex
+     * @return the FX Rate for ccy1/ccy2, null if it cannot be calculated.
+     * @throws ArrayIndexOutOfBoundsException if an index is not valid.
+     */
+    public FxRate getFx(final int ccy1Index, final int ccy2Index) {
+        return rates[ccy1Index][ccy2Index];
+    }
+
+    @Override
+    public Optional<FxRate> findFx(final CurrencyPair ccyPair) {
+        final int ccy1 = getCurrencyIndex(ccyPair.getCcy1());
+        final int ccy2 = getCurrencyIndex(ccyPair.getCcy2());
+        return ccy1 >= 0 && ccy2 >= 0 ? Optional.ofNullable(rates[ccy1][ccy2]) : Optional.empty();
+    }
+}
@@ -0,0 +1,161 @@
+package net.objectlab.kit.fxcalc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A FxRateCalculator whose base rates change: each new base rate is given via {@link #update(FxRate)}.
+ *
+ * The inverse and cross rates are cached and, for each of them, the calculator keeps track of the base
+ * currency pairs that were used (or looked for) to calculate it, i.e. the pair, its inverse and the legs against each
+ * cross currency tried. An update only recalculates the cached rates depending on the updated pair, so a tick on
+ * EUR.USD does not affect GBP.JPY if it was calculated via a cross currency other than EUR or USD.
+ *
+ * The rates are the same as the ones of a FxRateCalculatorImpl without cacheResults built with the current base rates.
+ *
+ * Lookups of cached rates are lock-free; calculations and updates are serialised. Listeners are called by the thread
+ * calling update, once the rates have been recalculated.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class LiveFxRateCalculator implements FxRateCalculator {
+    private final Map<CurrencyPair, FxRate> baseRates = new ConcurrentHashMap<>();
+    private final Map<CurrencyPair, FxRate> calculatedRates = new ConcurrentHashMap<>();
+    /**
+     * base pair looked for -&gt; calculated pairs that depend on it.
+     */
+    private final Map<CurrencyPair, Set<CurrencyPair>> dependencies = new HashMap<>();
+    private final List<FxRateListener> listeners = new CopyOnWriteArrayList<>();
+    private final FxRateCalculator calculator;
+    private final Object lock = new Object();
+    /**
+     * The base pairs looked for by the calculation in progress, only used under the lock.
+     */
+    private final Set<CurrencyPair> lookedFor = new HashSet<>();
+
+    /**
+     * @param builder the initial ratesSnapshot and the parameters for the calculations; the baseFxRateProvider and
+     *        the cache flags are ignored.
+     * @throws IllegalArgumentException if the builder is invalid.
+     */
+    public LiveFxRateCalculator(final FxRateCalculatorBuilder builder) {
+        builder.checkValid();
+        baseRates.putAll(builder.getRatesSnapshot());
+        calculator = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .baseFxRateProvider(this::lookForBaseRate) //
+                .cacheBaseRates(false) //
+                .cacheResults(false) //
+                .orderedCurrenciesForCross(builder.getOrderedCurrenciesForCross()) //
+                .majorCurrencyRanking(builder.getMajorCurrencyRanking()) //
+                .precisionForFxRate(builder.getPrecisionForFxRate()) //
+                .precisionForInverseFxRate(builder.getPrecisionForInverseFxRate()) //
+                .bidRounding(builder.getBidRounding()) //
+                .askRounding(builder.getAskRounding()) //
+                .currencyProvider(builder.getCurrencyProvider()));
+    }
+
+    private Optional<FxRate> lookForBaseRate(final CurrencyPair pair) {
+        lookedFor.add(pair);
+        return Optional.ofNullable(baseRates.get(pair));
+    }
+
+    public void subscribe(final FxRateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(final FxRateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the current base rate for the pair, if any.
+     */
+    public Optional<FxRate> getBaseRate(final CurrencyPair ccyPair) {
+        return Optional.ofNullable(baseRates.get(ccyPair));
+    }
+
+    @Override
+    public Optional<FxRate> findFx(final CurrencyPair ccyPair) {
+        FxRate fxRate = baseRates.get(ccyPair);
+        if (fxRate == null) {
+            fxRate = calculatedRates.get(ccyPair);
+        }
+        if (fxRate == null) {
+            synchronized (lock) {
+                fxRate = calculateAndCache(ccyPair);
+            }
+        }
+        return Optional.ofNullable(fxRate);
+    }
+
+    private FxRate calculateAndCache(final CurrencyPair ccyPair) {
+        FxRate fxRate = baseRates.get(ccyPair);
+        if (fxRate == null) {
+            fxRate = calculatedRates.get(ccyPair);
+        }
+        if (fxRate == null) {
+            lookedFor.clear();
+            fxRate = calculator.findFx(ccyPair).orElse(null);
+            if (fxRate != null) {
+                calculatedRates.put(ccyPair, fxRate);
+                for (final CurrencyPair base : lookedFor) {
+                    dependencies.computeIfAbsent(base, k -> new HashSet<>()).add(ccyPair);
+                }
+            }
+            lookedFor.clear();
+        }
+        return fxRate;
+    }
+
+    /**
+     * Replace the base rate for its currency pair and recalculate the cached rates depending on it (or on its inverse),
+     * then notify the listeners.
+     * @param baseRate the new base rate.
+     * @return the pair of the base rate and the pairs of the cached rates that have been recalculated or removed.
+     */
+    public Set<CurrencyPair> update(final FxRate baseRate) {
+        final CurrencyPair pair = baseRate.getCurrencyPair();
+        final Set<CurrencyPair> changedPairs = new LinkedHashSet<>();
+        changedPairs.add(pair);
+        synchronized (lock) {
+            baseRates.put(pair, baseRate);
+
+            final Set<CurrencyPair> dependents = new LinkedHashSet<>();
+            addDependents(pair, dependents);
+            addDependents(pair.createInverse(), dependents);
+            // a cached rate for the pair itself is now superseded by the base rate
+            dependents.add(pair);
+
+            final List<CurrencyPair> toRecalculate = new ArrayList<>();
+            for (final CurrencyPair dependent : dependents) {
+                if (calculatedRates.remove(dependent) != null) {
+                    toRecalculate.add(dependent);
+                    changedPairs.add(dependent);
+                }
+            }
+            for (final CurrencyPair dependent : toRecalculate) {
+                calculateAndCache(dependent);
+            }
+        }
+        final Set<CurrencyPair> result = Collections.unmodifiableSet(changedPairs);
+        listeners.forEach(listener -> listener.ratesChanged(baseRate, result));
+        return result;
+    }
+
+    private void addDependents(final CurrencyPair base, final Set<CurrencyPair> dependents) {
+        final Set<CurrencyPair> deps = dependencies.remove(base);
+        if (deps != null) {
+            dependents.addAll(deps);
+        }
+    }
+}
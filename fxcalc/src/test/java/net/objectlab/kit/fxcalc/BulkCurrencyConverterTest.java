@@ -0,0 +1,171 @@
+package net.objectlab.kit.fxcalc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Random;
+
+import net.objectlab.kit.util.BigDecimalUtil;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+
+public class BulkCurrencyConverterTest {
+    private static final String[] CURRENCIES = { "EUR", "GBP", "JPY", "CHF", "USD" };
+    private final JdkCurrencyProvider currencyProvider = new JdkCurrencyProvider();
+
+    private FxRateCalculator calculator() {
+        return new FxRateCalculatorImpl(new FxRateCalculatorBuilder()
+                //
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("EUR", "USD"), null, true, BigDecimalUtil.bd("1.1213"), BigDecimalUtil.bd("1.1215"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("GBP", "USD"), null, true, BigDecimalUtil.bd("1.3012"), BigDecimalUtil.bd("1.3015"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("USD", "JPY"), null, true, BigDecimalUtil.bd("112.51"), BigDecimalUtil.bd("112.53"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("USD", "CHF"), null, true, BigDecimalUtil.bd("0.9712"), BigDecimalUtil.bd("0.9715"),
+                        currencyProvider))//
+                .orderedCurrenciesForCross(Lists.newArrayList("USD")));
+    }
+
+    private void checkSameAsFxRate(final boolean parallel) {
+        final int size = 20_000;
+        final Random random = new Random(7L);
+        final String[] currencies = new String[size];
+        final BigDecimal[] amounts = new BigDecimal[size];
+        final long[] unscaled = new long[size];
+        for (int i = 0; i < size; i++) {
+            currencies[i] = CURRENCIES[random.nextInt(CURRENCIES.length)];
+            unscaled[i] = random.nextInt(1_000_000_000) - 100_000_000L;
+            amounts[i] = BigDecimal.valueOf(unscaled[i], 2);
+        }
+
+        final FxRateCalculator calc = calculator();
+        final BulkCurrencyConverter converter = new BulkCurrencyConverter(calc, currencyProvider, parallel);
+        final BigDecimal[] mid = new BigDecimal[size];
+        final BigDecimal[] bidOrAsk = new BigDecimal[size];
+        final long[] unscaledMid = new long[size];
+        final long[] unscaledBidOrAsk = new long[size];
+        converter.convertUsingMid(currencies, amounts, "EUR", mid);
+        converter.convertUsingBidOrAsk(currencies, amounts, "EUR", bidOrAsk);
+        converter.convertUnscaledUsingMid(currencies, unscaled, 2, "EUR", unscaledMid);
+        converter.convertUnscaledUsingBidOrAsk(currencies, unscaled, 2, "EUR", unscaledBidOrAsk);
+
+        for (int i = 0; i < size; i++) {
+            if (currencies[i].equals("EUR")) {
+                assertThat(mid[i]).isSameAs(amounts[i]);
+                assertThat(unscaledMid[i]).isEqualTo(unscaled[i]);
+                continue;
+            }
+            final FxRate rate = calc.findFx(CurrencyPair.of(currencies[i], "EUR")).get();
+            final BigDecimal expectedMid = rate.convertAmountUsingMid(Cash.of(currencies[i], amounts[i])).getAmount();
+            final BigDecimal expectedBidOrAsk = rate.convertAmountUsingBidOrAsk(Cash.of(currencies[i], amounts[i])).getAmount();
+            assertThat(mid[i]).isEqualTo(expectedMid);
+            assertThat(bidOrAsk[i]).isEqualTo(expectedBidOrAsk);
+            assertThat(BigDecimal.valueOf(unscaledMid[i], 2)).isEqualTo(expectedMid);
+            assertThat(BigDecimal.valueOf(unscaledBidOrAsk[i], 2)).isEqualTo(expectedBidOrAsk);
+        }
+    }
+
+    @Test
+    public void testSameAsFxRate() {
+        checkSameAsFxRate(false);
+    }
+
+    @Test
+    public void testParallelSameAsFxRate() {
+        checkSameAsFxRate(true);
+    }
+
+    @Test
+    public void testSameAsCash() {
+        final Random random = new Random(11L);
+        final int size = 2_000;
+        final String[] currencies = new String[size];
+        final BigDecimal[] amounts = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            currencies[i] = random.nextBoolean() ? "GBP" : "USD";
+            // scales from 0 to 6, some too large for the fixed point arithmetic
+            final BigDecimal unscaled = i % 10 == 0 ? new BigDecimal(random.nextLong()).multiply(BigDecimal.TEN.pow(6)) : BigDecimal.valueOf(random
+                    .nextInt(2_000_000_000) - 1_000_000_000L);
+            amounts[i] = new BigDecimal(unscaled.unscaledValue(), random.nextInt(7));
+        }
+        for (final FxRate rate : new FxRate[] {
+                new FxRateImpl(CurrencyPair.of("GBP", "USD"), null, true, BigDecimalUtil.bd("1.3012"), BigDecimalUtil.bd("1.3015"), currencyProvider),
+                new FixedPointFxRate(CurrencyPair.of("GBP", "USD"), null, true, BigDecimalUtil.bd("1.3012"), BigDecimalUtil.bd("1.3015"),
+                        currencyProvider) }) {
+            for (final String targetCcy : new String[] { "USD", "GBP" }) {
+                final FxRate fx = rate.getCurrencyPair().getCcy1().equals(targetCcy) ? rate.createInverse() : rate;
+                final BulkCurrencyConverter converter = new BulkCurrencyConverter(pair -> Optional.of(fx), currencyProvider);
+                final BigDecimal[] mid = new BigDecimal[size];
+                final BigDecimal[] bidOrAsk = new BigDecimal[size];
+                converter.convertUsingMid(currencies, amounts, targetCcy, mid);
+                converter.convertUsingBidOrAsk(currencies, amounts, targetCcy, bidOrAsk);
+                for (int i = 0; i < size; i++) {
+                    if (currencies[i].equals(targetCcy)) {
+                        assertThat(mid[i]).isSameAs(amounts[i]);
+                        continue;
+                    }
+                    final Cash cash = new Cash(currencies[i], amounts[i]);
+                    assertThat(mid[i]).isEqualTo(fx.convertAmountUsingMid(cash).getAmount());
+                    assertThat(bidOrAsk[i]).isEqualTo(fx.convertAmountUsingBidOrAsk(cash).getAmount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFindsEachRateOnce() {
+        final int[] calls = new int[1];
+        final FxRateCalculator calc = calculator();
+        final BulkCurrencyConverter converter = new BulkCurrencyConverter(pair -> {
+            calls[0]++;
+            return calc.findFx(pair);
+        }, currencyProvider);
+        final String[] currencies = { "GBP", "GBP", "JPY", "GBP", "USD", "JPY" };
+        final long[] amounts = { 100, 200, 10_000, 300, 400, 20_000 };
+        final long[] results = new long[6];
+        converter.convertUnscaledUsingMid(currencies, amounts, 0, "USD", results);
+        assertThat(calls[0]).isEqualTo(2);
+        assertThat(results[4]).isEqualTo(40_000L);
+        assertThat(results[0]).isEqualTo(13_014L);
+    }
+
+    @Test
+    public void testUnscaledUsesTheCurrencyProviderOfTheConverter() {
+        final FxRate rate = new FixedPointFxRate(CurrencyPair.of("GBP", "USD"), null, true, BigDecimalUtil.bd("1.3012"), BigDecimalUtil.bd("1.3015"),
+                currencyProvider);
+        final CurrencyProvider fourDigits = new CurrencyProvider() {
+            @Override
+            public int getFractionDigits(final String currencyCode) {
+                return 4;
+            }
+
+            @Override
+            public int getRounding(final String currencyCode) {
+                return BigDecimal.ROUND_DOWN;
+            }
+        };
+        final BulkCurrencyConverter converter = new BulkCurrencyConverter(pair -> Optional.of(rate), fourDigits);
+        final long[] results = new long[2];
+        converter.convertUnscaledUsingMid(new String[] { "GBP", "USD" }, new long[] { 10_001, 10_001 }, 2, "USD", results);
+        // 100.01 * 1.30135 = 130.1480135 and 100.01 both with 4 digits, rounded down
+        assertThat(results[0]).isEqualTo(1_301_480L);
+        assertThat(results[1]).isEqualTo(1_000_100L);
+        assertThat(FixedPointFxRate.of(rate, currencyProvider)).isSameAs(rate);
+        assertThat(FixedPointFxRate.of(rate, fourDigits)).isNotSameAs(rate);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingRate() {
+        new BulkCurrencyConverter(calculator(), currencyProvider).convertUsingMid(new String[] { "GBP", "XXX" },
+                new BigDecimal[] { BigDecimal.ONE, BigDecimal.TEN }, "USD", new BigDecimal[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInconsistentLengths() {
+        new BulkCurrencyConverter(calculator(), currencyProvider).convertUsingMid(new String[] { "GBP", "USD" },
+                new BigDecimal[] { BigDecimal.ONE, BigDecimal.TEN }, "USD", new BigDecimal[1]);
+    }
+}
@@ -2,6 +2,8 @@ package net.objectlab.kit.fxcalc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Locale;
+
 import org.junit.Test;
 
 public class CurrencyPairTest {
@@ -96,4 +98,84 @@ public class CurrencyPairTest {
         assertThat(cp.getCcy2()).describedAs("ccy2").isEqualTo("A");
     }
 
+    @Test
+    public void testOfIsInterned() throws Exception {
+        final CurrencyPair cp = CurrencyPair.of("EUR", "USD");
+        assertThat(CurrencyPair.of("EUR", "USD")).isSameAs(cp);
+        assertThat(CurrencyPair.of("eur", "Usd")).isSameAs(cp);
+        assertThat(cp.createInverse()).isSameAs(CurrencyPair.of("USD", "EUR"));
+        assertThat(cp.createInverse().createInverse()).isSameAs(cp);
+
+        final CurrencyPair same = new CurrencyPair("eur", "usd");
+        assertThat(same.equals(cp)).isTrue();
+        assertThat(cp.equals(same)).isTrue();
+        assertThat(same.hashCode()).isEqualTo(cp.hashCode());
+        assertThat(same.createInverse()).isSameAs(cp.createInverse());
+        assertThat(cp.equals(CurrencyPair.of("EUR", "GBP"))).isFalse();
+    }
+
+    @Test
+    public void testSameCurrency() throws Exception {
+        final CurrencyPair cp = CurrencyPair.of("USD", "USD");
+        assertThat(cp.createInverse()).isSameAs(cp);
+    }
+
+    @Test
+    public void testNotInterned() throws Exception {
+        final CurrencyPair cp = CurrencyPair.of("GOLD", "usd");
+        assertThat(cp.getCcy1()).isEqualTo("GOLD");
+        assertThat(cp.equals(CurrencyPair.of("GOLD", "USD"))).isTrue();
+        assertThat(cp.hashCode()).isEqualTo(CurrencyPair.of("GOLD", "USD").hashCode());
+        assertThat(cp.equals(CurrencyPair.of("GOLD", "EUR"))).isFalse();
+        assertThat(cp.createInverse()).isEqualTo(CurrencyPair.of("USD", "GOLD"));
+    }
+
+    @Test
+    public void testInternedIndependentOfLocale() throws Exception {
+        final Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            final CurrencyPair cp = CurrencyPair.of("qir", "wis");
+            assertThat(cp.getCcy1()).isEqualTo("QIR");
+            assertThat(cp.getCcy2()).isEqualTo("WIS");
+            assertThat(CurrencyPair.of("qir", "wis")).isSameAs(cp);
+            assertThat(CurrencyPair.of("WIS", "QIR")).isSameAs(cp.createInverse());
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    public void testRegistryIsCapped() throws Exception {
+        final CurrencyPair.Registry registry = new CurrencyPair.Registry(3);
+        final long eurUsd = CurrencyPair.pack("EUR", "USD");
+        final CurrencyPair cp = registry.intern(eurUsd);
+        assertThat(registry.get(eurUsd)).isSameAs(cp);
+        assertThat(registry.get(CurrencyPair.pack("USD", "EUR"))).isSameAs(cp.createInverse());
+
+        // the pair and its inverse do not fit anymore
+        final long gbpJpy = CurrencyPair.pack("gbp", "jpy");
+        final CurrencyPair notInterned = registry.intern(gbpJpy);
+        assertThat(notInterned.getCcy1()).isEqualTo("GBP");
+        assertThat(notInterned.getCcy2()).isEqualTo("JPY");
+        assertThat(registry.get(gbpJpy)).isNull();
+        assertThat(registry.intern(gbpJpy)).isNotSameAs(notInterned).isEqualTo(notInterned);
+        assertThat(notInterned).isEqualTo(new CurrencyPair("GBP", "JPY"));
+        assertThat(notInterned.createInverse()).isEqualTo(new CurrencyPair("JPY", "GBP"));
+        // still interned
+        assertThat(registry.get(eurUsd)).isSameAs(cp);
+    }
+
+    @Test
+    public void testManyPairs() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            final String ccy = String.format("%03d", i);
+            final CurrencyPair cp = CurrencyPair.of(ccy, "EUR");
+            assertThat(cp.getCcy1()).isEqualTo(ccy);
+            assertThat(CurrencyPair.of(ccy, "EUR")).isSameAs(cp);
+            assertThat(CurrencyPair.of("EUR", ccy)).isSameAs(cp.createInverse());
+        }
+        assertThat(CurrencyPair.of("000", "EUR").createInverse().createInverse()).isSameAs(CurrencyPair.of("000", "EUR"));
+    }
+
 }
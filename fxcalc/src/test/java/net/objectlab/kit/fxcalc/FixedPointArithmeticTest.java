@@ -0,0 +1,84 @@
+package net.objectlab.kit.fxcalc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FixedPointArithmeticTest {
+    private static final int[] ROUNDINGS = { BigDecimal.ROUND_UP, BigDecimal.ROUND_DOWN, BigDecimal.ROUND_CEILING, BigDecimal.ROUND_FLOOR,
+            BigDecimal.ROUND_HALF_UP, BigDecimal.ROUND_HALF_DOWN, BigDecimal.ROUND_HALF_EVEN };
+
+    @Test
+    public void testSetScaleSameAsBigDecimal() {
+        final Random random = new Random(1L);
+        for (int i = 0; i < 20_000; i++) {
+            final long unscaled = random.nextInt(2_000_000) - 1_000_000L;
+            final int fromScale = random.nextInt(8);
+            final int toScale = random.nextInt(8);
+            final int rounding = ROUNDINGS[random.nextInt(ROUNDINGS.length)];
+            final BigDecimal expected = BigDecimal.valueOf(unscaled, fromScale).setScale(toScale, rounding);
+            assertThat(BigDecimal.valueOf(FixedPointArithmetic.setScale(unscaled, fromScale, toScale, rounding), toScale)).as(expected.toString())
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testDivideSameAsBigDecimal() {
+        final Random random = new Random(2L);
+        for (int i = 0; i < 20_000; i++) {
+            final long numerator = random.nextInt(2_000_000) - 1_000_000L;
+            long denominator = random.nextInt(2_000_000) - 1_000_000L;
+            if (denominator == 0L) {
+                denominator = 7L;
+            }
+            final int scale = random.nextInt(12);
+            final int finalScale = random.nextInt(14);
+            final int rounding = ROUNDINGS[random.nextInt(ROUNDINGS.length)];
+            final int rounding2 = ROUNDINGS[random.nextInt(ROUNDINGS.length)];
+            final BigDecimal expected = BigDecimal.valueOf(numerator).divide(BigDecimal.valueOf(denominator), scale, rounding).setScale(finalScale,
+                    rounding2);
+            final long actual = FixedPointArithmetic.divide(numerator, denominator, scale, rounding, scale - finalScale, rounding2);
+            assertThat(BigDecimal.valueOf(actual, finalScale)).as(numerator + "/" + denominator).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testMultiplyBeyondLongSameAsBigDecimal() {
+        final Random random = new Random(3L);
+        for (int i = 0; i < 20_000; i++) {
+            final long value = random.nextLong() % 100_000_000_000L;
+            final long multiplicand = random.nextLong() % 100_000_000_000L;
+            final int scale1 = random.nextInt(6);
+            final int scale2 = 8 + random.nextInt(6);
+            final int toScale = random.nextInt(4);
+            final int rounding = ROUNDINGS[random.nextInt(ROUNDINGS.length)];
+            final BigDecimal expected = BigDecimal.valueOf(value, scale1).multiply(BigDecimal.valueOf(multiplicand, scale2)).setScale(toScale,
+                    rounding);
+            final long actual = FixedPointArithmetic.multiply(value, scale1, multiplicand, scale2, toScale, rounding);
+            assertThat(BigDecimal.valueOf(actual, toScale)).as(expected.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testTies() {
+        // 1/8 = 0.125, then 0.13 or 0.12
+        assertThat(FixedPointArithmetic.divide(1L, 8L, 3, BigDecimal.ROUND_HALF_UP, 1, BigDecimal.ROUND_HALF_UP)).isEqualTo(13L);
+        assertThat(FixedPointArithmetic.divide(1L, 8L, 3, BigDecimal.ROUND_HALF_UP, 1, BigDecimal.ROUND_HALF_EVEN)).isEqualTo(12L);
+        assertThat(FixedPointArithmetic.divide(-1L, 8L, 3, BigDecimal.ROUND_HALF_UP, 1, BigDecimal.ROUND_HALF_DOWN)).isEqualTo(-12L);
+        // 0.0049999 rounded to 0.005 then 0.01
+        assertThat(FixedPointArithmetic.divide(49_999L, 10_000_000L, 3, BigDecimal.ROUND_HALF_UP, 1, BigDecimal.ROUND_HALF_UP)).isEqualTo(1L);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testOverflow() {
+        FixedPointArithmetic.divide(1L, 3L, 25, BigDecimal.ROUND_HALF_UP, 0, BigDecimal.ROUND_HALF_UP);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testRoundingNecessary() {
+        FixedPointArithmetic.setScale(125L, 3, 2, BigDecimal.ROUND_UNNECESSARY);
+    }
+}
@@ -0,0 +1,116 @@
+package net.objectlab.kit.fxcalc;
+
+import static net.objectlab.kit.util.BigDecimalUtil.bd;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FixedPointFxRateTest {
+    private final JdkCurrencyProvider currencyProvider = new JdkCurrencyProvider();
+    private final Random random = new Random(42L);
+
+    private BigDecimal randomRate() {
+        final int scale = 2 + random.nextInt(5);
+        return BigDecimal.valueOf(1 + random.nextInt(2_000_000), scale);
+    }
+
+    private static void assertSame(final FxRate actual, final FxRate expected) {
+        assertThat(actual.getCurrencyPair()).isEqualTo(expected.getCurrencyPair());
+        assertThat(actual.getCrossCcy()).isEqualTo(expected.getCrossCcy());
+        assertThat(actual.isMarketConvention()).isEqualTo(expected.isMarketConvention());
+        assertThat(actual.getBid()).as(expected.toString()).isEqualTo(expected.getBid());
+        assertThat(actual.getAsk()).as(expected.toString()).isEqualTo(expected.getAsk());
+        assertThat(actual.getMid()).as(expected.toString()).isEqualTo(expected.getMid());
+    }
+
+    @Test
+    public void testSameAsFxRateImpl() {
+        final String[][] pairs = { { "EUR", "USD" }, { "USD", "JPY" }, { "JPY", "GBP" }, { "GBP", "KWD" } };
+        for (int i = 0; i < 5_000; i++) {
+            final String[] ccys = pairs[random.nextInt(pairs.length)];
+            final CurrencyPair pair = CurrencyPair.of(ccys[0], ccys[1]);
+            final BigDecimal bid = randomRate();
+            final BigDecimal ask = randomRate();
+            final FxRate expected = new FxRateImpl(pair, null, true, bid, ask, currencyProvider);
+            final FxRate actual = new FixedPointFxRate(pair, null, true, bid, ask, currencyProvider);
+
+            assertSame(actual, expected);
+            final int precision = 2 + random.nextInt(12);
+            final FxRate inverse = actual.createInverse(precision);
+            assertThat(inverse).isInstanceOf(FixedPointFxRate.class);
+            assertSame(inverse, expected.createInverse(precision));
+
+            final BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000_000), random.nextInt(4));
+            for (final String ccy : ccys) {
+                assertThat(actual.convertAmountUsingMid(Cash.of(ccy, amount))).isEqualTo(expected.convertAmountUsingMid(Cash.of(ccy, amount)));
+                assertThat(actual.convertAmountUsingBidOrAsk(Cash.of(ccy, amount))).isEqualTo(
+                        expected.convertAmountUsingBidOrAsk(Cash.of(ccy, amount)));
+            }
+        }
+    }
+
+    @Test
+    public void testCrossSameAsFxRateImpl() {
+        final String[][] legs = { { "USD", "EUR" }, { "EUR", "USD" }, { "USD", "JPY" }, { "JPY", "USD" } };
+        final int[] roundings = { BigDecimal.ROUND_HALF_UP, BigDecimal.ROUND_DOWN, BigDecimal.ROUND_UP, BigDecimal.ROUND_HALF_EVEN };
+        final MajorCurrencyRanking ranking = StandardMajorCurrencyRanking.getDefault();
+        int fixedPoint = 0;
+        for (int i = 0; i < 5_000; i++) {
+            final String[] leg1 = legs[random.nextInt(2)];
+            final String[] leg2 = legs[2 + random.nextInt(2)];
+            final BigDecimal bid1 = randomRate();
+            final BigDecimal ask1 = randomRate();
+            final BigDecimal bid2 = randomRate();
+            final BigDecimal ask2 = randomRate();
+            final int precision = 2 + random.nextInt(10);
+            final int precisionForInverse = 2 + random.nextInt(10);
+            final int bidRounding = roundings[random.nextInt(roundings.length)];
+            final int askRounding = roundings[random.nextInt(roundings.length)];
+            final CurrencyPair target = random.nextBoolean() ? CurrencyPair.of("EUR", "JPY") : CurrencyPair.of("JPY", "EUR");
+
+            final FxRate expected = CrossRateCalculator.calculateCross(target,
+                    new FxRateImpl(CurrencyPair.of(leg1[0], leg1[1]), null, true, bid1, ask1, currencyProvider),
+                    new FxRateImpl(CurrencyPair.of(leg2[0], leg2[1]), null, true, bid2, ask2, currencyProvider), precision, precisionForInverse,
+                    ranking, bidRounding, askRounding, currencyProvider);
+            final FxRate actual = CrossRateCalculator.calculateCross(target,
+                    new FixedPointFxRate(CurrencyPair.of(leg1[0], leg1[1]), null, true, bid1, ask1, currencyProvider),
+                    new FixedPointFxRate(CurrencyPair.of(leg2[0], leg2[1]), null, true, bid2, ask2, currencyProvider), precision,
+                    precisionForInverse, ranking, bidRounding, askRounding, currencyProvider);
+            if (actual instanceof FixedPointFxRate) {
+                fixedPoint++;
+            }
+            assertSame(actual, expected);
+        }
+        // the others did not fit in a long and were calculated with BigDecimal
+        assertThat(fixedPoint > 4_000).as("fixed point " + fixedPoint).isTrue();
+    }
+
+    @Test
+    public void testUnscaledConversion() {
+        final FixedPointFxRate fx = new FixedPointFxRate(CurrencyPair.of("USD", "JPY"), null, true, bd("133.23"), bd("133.34"), currencyProvider);
+        assertThat(fx.getMid()).isEqualByComparingTo(bd("133.285"));
+        // 10 USD -> 1332 JPY (rounded down)
+        assertThat(fx.convertUnscaledAmountUsingMid("USD", 1_000L, 2)).isEqualTo(1_332L);
+        // 1,000 JPY -> 7.50 USD
+        assertThat(fx.convertUnscaledAmountUsingMid("JPY", 1_000L, 0)).isEqualTo(750L);
+        assertThat(fx.convertUnscaledAmountUsingBidOrAsk("USD", 10L, 0)).isEqualTo(1_332L);
+    }
+
+    @Test
+    public void testFallbackToBigDecimal() {
+        final FxRate fx = new FixedPointFxRate(CurrencyPair.of("EUR", "USD"), null, true, bd("1.1213"), bd("1.1215"), currencyProvider);
+        final FxRate expected = new FxRateImpl(CurrencyPair.of("EUR", "USD"), null, true, bd("1.1213"), bd("1.1215"), currencyProvider);
+        assertSame(fx.createInverse(), expected.createInverse());
+        final Cash huge = Cash.of("EUR", bd("123456789012345678901234.5"));
+        assertThat(fx.convertAmountUsingMid(huge)).isEqualTo(expected.convertAmountUsingMid(huge));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongCurrency() {
+        new FixedPointFxRate(CurrencyPair.of("EUR", "USD"), null, true, bd("1.1213"), bd("1.1215"), currencyProvider).convertAmountUsingMid(Cash.of(
+                "GBP", 10));
+    }
+}
@@ -2,7 +2,19 @@ package net.objectlab.kit.fxcalc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.objectlab.kit.util.BigDecimalUtil;
 
@@ -187,4 +199,192 @@ public class FxRateCalculatorImplTest {
         assertThat(amountBuyInEUR2.getCurrency()).isEqualTo("EUR");
         assertThat(amountBuyInEUR2.getAmount()).isEqualTo("624313.26");
     }
+
+    @Test
+    public void testConcurrentCacheCalculatesCrossOnce() throws Exception {
+        final Map<CurrencyPair, FxRate> baseRates = new HashMap<>();
+        baseRates.put(CurrencyPair.of("EUR", "GBP"), new FxRateImpl(CurrencyPair.of("EUR", "GBP"), null, true, BigDecimalUtil.bd("0.7374"),
+                BigDecimalUtil.bd("0.7379"), new JdkCurrencyProvider()));
+        baseRates.put(CurrencyPair.of("GBP", "CHF"), new FxRateImpl(CurrencyPair.of("GBP", "CHF"), null, true, BigDecimalUtil.bd("2.1702"),
+                BigDecimalUtil.bd("2.1707"), new JdkCurrencyProvider()));
+        final int threads = 8;
+        final AtomicInteger legRequests = new AtomicInteger();
+        // every thread looks for the direct rate before any of them can calculate the cross
+        final CyclicBarrier allLookingForDirectRate = new CyclicBarrier(threads);
+        final BaseFxRateProvider provider = pair -> {
+            if (pair.containsCcy("GBP")) {
+                legRequests.incrementAndGet();
+            } else if (pair.equals(CurrencyPair.of("EUR", "CHF"))) {
+                try {
+                    allLookingForDirectRate.await(5, TimeUnit.SECONDS);
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return Optional.ofNullable(baseRates.get(pair));
+        };
+        final FxRateCalculator calc = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .baseFxRateProvider(provider) //
+                .cacheBaseRates(false) //
+                .concurrentCache(true) //
+                .orderedCurrenciesForCross(Lists.newArrayList("GBP")));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Optional<FxRate>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> calc.findFx(CurrencyPair.of("EUR", "CHF"))));
+            }
+            final FxRate first = results.get(0).get().get();
+            assertThat(first.getCrossCcy().get()).isEqualTo("GBP");
+            assertThat(first.getBid()).isEqualByComparingTo("1.600305");
+            assertThat(first.getAsk()).isEqualByComparingTo("1.601760");
+            for (final Future<Optional<FxRate>> result : results) {
+                assertThat(result.get().get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // a single calculation requires the 2 legs GBP.EUR (missing), EUR.GBP, GBP.CHF
+        assertThat(legRequests.get()).isEqualTo(3);
+        assertThat(calc.findFx(CurrencyPair.of("EUR", "CHF")).get().getBid()).isEqualByComparingTo("1.600305");
+        assertThat(legRequests.get()).isEqualTo(3);
+    }
+
+    private static Map<CurrencyPair, FxRate> eurGbpChf() {
+        final Map<CurrencyPair, FxRate> baseRates = new HashMap<>();
+        baseRates.put(CurrencyPair.of("EUR", "GBP"), new FxRateImpl(CurrencyPair.of("EUR", "GBP"), null, true, BigDecimalUtil.bd("0.7374"),
+                BigDecimalUtil.bd("0.7379"), new JdkCurrencyProvider()));
+        baseRates.put(CurrencyPair.of("GBP", "CHF"), new FxRateImpl(CurrencyPair.of("GBP", "CHF"), null, true, BigDecimalUtil.bd("2.1702"),
+                BigDecimalUtil.bd("2.1707"), new JdkCurrencyProvider()));
+        baseRates.put(CurrencyPair.of("GBP", "USD"), new FxRateImpl(CurrencyPair.of("GBP", "USD"), null, true, BigDecimalUtil.bd("1.3012"),
+                BigDecimalUtil.bd("1.3015"), new JdkCurrencyProvider()));
+        return baseRates;
+    }
+
+    @Test
+    public void testFindFxAsyncFetchesCrossLegsOnlyIfNeeded() throws Exception {
+        final Map<CurrencyPair, FxRate> baseRates = eurGbpChf();
+        final List<Collection<CurrencyPair>> calls = new ArrayList<>();
+        final AsyncBaseFxRateProvider provider = pairs -> {
+            calls.add(new ArrayList<>(pairs));
+            final Map<CurrencyPair, FxRate> found = new HashMap<>();
+            pairs.forEach(pair -> Optional.ofNullable(baseRates.get(pair)).ifPresent(rate -> found.put(pair, rate)));
+            return CompletableFuture.completedFuture(found);
+        };
+        final FxRateCalculatorImpl calc = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .asyncBaseFxRateProvider(provider) //
+                .orderedCurrenciesForCross(Lists.newArrayList("GBP")));
+
+        final Map<CurrencyPair, FxRate> result = calc.findFxAsync(
+                Lists.newArrayList(CurrencyPair.of("EUR", "CHF"), CurrencyPair.of("USD", "EUR"), CurrencyPair.of("JPY", "EUR"))).get();
+        // the pairs and their inverse, then the legs via GBP of the pairs not found
+        assertThat(calls).hasSize(2);
+        assertThat(calls.get(0)).containsOnly(CurrencyPair.of("EUR", "CHF"), CurrencyPair.of("CHF", "EUR"), CurrencyPair.of("USD", "EUR"),
+                CurrencyPair.of("EUR", "USD"), CurrencyPair.of("JPY", "EUR"), CurrencyPair.of("EUR", "JPY"));
+        assertThat(calls.get(1)).contains(CurrencyPair.of("GBP", "EUR"), CurrencyPair.of("GBP", "CHF"), CurrencyPair.of("GBP", "USD"),
+                CurrencyPair.of("GBP", "JPY"));
+        assertThat(result).hasSize(2);
+
+        final FxRateCalculator expected = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .ratesSnapshot(baseRates.values()) //
+                .orderedCurrenciesForCross(Lists.newArrayList("GBP")));
+        assertThat(result.get(CurrencyPair.of("EUR", "CHF")).getBid()).isEqualTo(expected.findFx(CurrencyPair.of("EUR", "CHF")).get().getBid());
+        assertThat(result.get(CurrencyPair.of("USD", "EUR")).getAsk()).isEqualTo(expected.findFx(CurrencyPair.of("USD", "EUR")).get().getAsk());
+
+        // the legs found are cached, findFx only asks for CHF.USD and USD.CHF, in one call
+        assertThat(calc.findFx(CurrencyPair.of("CHF", "USD")).isPresent()).isTrue();
+        assertThat(calls).hasSize(3);
+        assertThat(calls.get(2)).containsOnly(CurrencyPair.of("CHF", "USD"), CurrencyPair.of("USD", "CHF"));
+    }
+
+    @Test
+    public void testFindFxAsyncDoesNotFetchCrossLegsOfDirectRate() throws Exception {
+        final Map<CurrencyPair, FxRate> baseRates = eurGbpChf();
+        final List<Collection<CurrencyPair>> calls = new ArrayList<>();
+        final FxRateCalculatorImpl calc = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .asyncBaseFxRateProvider(pairs -> {
+                    calls.add(new ArrayList<>(pairs));
+                    final Map<CurrencyPair, FxRate> found = new HashMap<>();
+                    pairs.forEach(pair -> Optional.ofNullable(baseRates.get(pair)).ifPresent(rate -> found.put(pair, rate)));
+                    return CompletableFuture.completedFuture(found);
+                }) //
+                .orderedCurrenciesForCross(Lists.newArrayList("USD", "GBP")));
+
+        final Map<CurrencyPair, FxRate> result = calc.findFxAsync(Lists.newArrayList(CurrencyPair.of("EUR", "GBP"), CurrencyPair.of("CHF", "GBP")))
+                .get();
+        assertThat(result).hasSize(2);
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsOnly(CurrencyPair.of("EUR", "GBP"), CurrencyPair.of("GBP", "EUR"), CurrencyPair.of("CHF", "GBP"),
+                CurrencyPair.of("GBP", "CHF"));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneFetch() throws Exception {
+        final Map<CurrencyPair, FxRate> baseRates = eurGbpChf();
+        final List<CompletableFuture<Map<CurrencyPair, FxRate>>> pending = new ArrayList<>();
+        final AtomicInteger requested = new AtomicInteger();
+        final AsyncBaseFxRateProvider provider = pairs -> {
+            requested.addAndGet(pairs.size());
+            final Map<CurrencyPair, FxRate> found = new HashMap<>();
+            pairs.forEach(pair -> Optional.ofNullable(baseRates.get(pair)).ifPresent(rate -> found.put(pair, rate)));
+            final CompletableFuture<Map<CurrencyPair, FxRate>> future = new CompletableFuture<>();
+            pending.add(future);
+            return future.thenCompose(v -> CompletableFuture.completedFuture(found));
+        };
+        final FxRateCalculatorImpl calc = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .asyncBaseFxRateProvider(provider) //
+                .cacheResults(false) //
+                .orderedCurrenciesForCross(Lists.newArrayList("GBP")));
+
+        final CompletableFuture<Map<CurrencyPair, FxRate>> first = calc.findFxAsync(Lists.newArrayList(CurrencyPair.of("EUR", "CHF")));
+        final int legs = requested.get();
+        final CompletableFuture<Map<CurrencyPair, FxRate>> second = calc.findFxAsync(Lists.newArrayList(CurrencyPair.of("CHF", "EUR")));
+        // CHF.EUR needs the same legs, they are being fetched
+        assertThat(pending).hasSize(1);
+        assertThat(requested.get()).isEqualTo(legs);
+        assertThat(first.isDone()).isFalse();
+        assertThat(second.isDone()).isFalse();
+
+        // then the legs via GBP, shared as well
+        pending.get(0).complete(null);
+        assertThat(pending).hasSize(2);
+        assertThat(first.isDone()).isFalse();
+        pending.get(1).complete(null);
+        assertThat(first.get().get(CurrencyPair.of("EUR", "CHF")).getBid()).isEqualByComparingTo("1.600305");
+        assertThat(second.get().get(CurrencyPair.of("CHF", "EUR")).getCrossCcy().get()).isEqualTo("GBP");
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        final Map<CurrencyPair, FxRate> baseRates = eurGbpChf();
+        final AtomicInteger calls = new AtomicInteger();
+        final FxRateCalculatorImpl calc = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .baseFxRateProvider(pair -> {
+                    final Optional<FxRate> rate = Optional.ofNullable(baseRates.get(pair));
+                    if (rate.isPresent()) {
+                        calls.incrementAndGet();
+                    }
+                    return rate;
+                }) //
+                .orderedCurrenciesForCross(Lists.newArrayList("GBP")));
+        calc.prefetch(Lists.newArrayList(CurrencyPair.of("EUR", "CHF"), CurrencyPair.of("EUR", "USD"))).get();
+        final int prefetched = calls.get();
+        assertThat(prefetched).isEqualTo(3);
+        assertThat(calc.findFx(CurrencyPair.of("EUR", "CHF")).isPresent()).isTrue();
+        assertThat(calc.findFx(CurrencyPair.of("EUR", "USD")).isPresent()).isTrue();
+        // the rates not found are asked again but the ones found are not
+        assertThat(calls.get()).isEqualTo(prefetched);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAsyncFailure() {
+        final FxRateCalculatorImpl calc = new FxRateCalculatorImpl(new FxRateCalculatorBuilder() //
+                .asyncBaseFxRateProvider(pairs -> {
+                    final CompletableFuture<Map<CurrencyPair, FxRate>> future = new CompletableFuture<>();
+                    future.completeExceptionally(new IllegalStateException("store down"));
+                    return future;
+                }));
+        calc.findFx(CurrencyPair.of("EUR", "CHF"));
+    }
 }
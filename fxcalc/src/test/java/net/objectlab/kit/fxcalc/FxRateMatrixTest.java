@@ -0,0 +1,85 @@
+package net.objectlab.kit.fxcalc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import net.objectlab.kit.util.BigDecimalUtil;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+
+public class FxRateMatrixTest {
+    private static FxRateCalculatorBuilder builder() {
+        final JdkCurrencyProvider currencyProvider = new JdkCurrencyProvider();
+        return new FxRateCalculatorBuilder()
+                //
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("EUR", "USD"), null, true, BigDecimalUtil.bd("1.1213"), BigDecimalUtil.bd("1.1215"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("GBP", "USD"), null, true, BigDecimalUtil.bd("1.3012"), BigDecimalUtil.bd("1.3015"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("USD", "JPY"), null, true, BigDecimalUtil.bd("112.51"), BigDecimalUtil.bd("112.53"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("USD", "CHF"), null, true, BigDecimalUtil.bd("0.9712"), BigDecimalUtil.bd("0.9715"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("AUD", "USD"), null, true, BigDecimalUtil.bd("0.7512"), BigDecimalUtil.bd("0.7514"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("EUR", "SEK"), null, true, BigDecimalUtil.bd("9.5212"), BigDecimalUtil.bd("9.5232"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("EUR", "GBP"), null, true, BigDecimalUtil.bd("0.8612"), BigDecimalUtil.bd("0.8615"),
+                        currencyProvider))//
+                .addRateSnapshot(new FxRateImpl(CurrencyPair.of("NZD", "AUD"), null, true, BigDecimalUtil.bd("0.9212"), BigDecimalUtil.bd("0.9215"),
+                        currencyProvider))//
+                .orderedCurrenciesForCross(Lists.newArrayList("USD", "EUR")) //
+                .cacheResults(false);
+    }
+
+    @Test
+    public void testSameAsCalculator() {
+        final FxRateMatrix matrix = new FxRateMatrix(builder());
+        final FxRateCalculator calc = new FxRateCalculatorImpl(builder());
+
+        assertThat(matrix.getCurrencies()).containsOnly("AUD", "CHF", "EUR", "GBP", "JPY", "NZD", "SEK", "USD");
+        for (final String ccy1 : matrix.getCurrencies()) {
+            for (final String ccy2 : matrix.getCurrencies()) {
+                final CurrencyPair pair = CurrencyPair.of(ccy1, ccy2);
+                final Optional<FxRate> expected = calc.findFx(pair);
+                final FxRate actual = matrix.getFx(matrix.getCurrencyIndex(ccy1), matrix.getCurrencyIndex(ccy2));
+                if (!expected.isPresent()) {
+                    assertThat(actual).as(pair.toString()).isNull();
+                    continue;
+                }
+                assertThat(actual).as(pair.toString()).isNotNull();
+                assertThat(actual.getCurrencyPair()).as(pair.toString()).isEqualTo(pair);
+                assertThat(actual.getCrossCcy()).as(pair.toString()).isEqualTo(expected.get().getCrossCcy());
+                assertThat(actual.isMarketConvention()).as(pair.toString()).isEqualTo(expected.get().isMarketConvention());
+                assertThat(actual.getBid()).as(pair.toString()).isEqualTo(expected.get().getBid());
+                assertThat(actual.getAsk()).as(pair.toString()).isEqualTo(expected.get().getAsk());
+                assertThat(matrix.findFx(pair).get()).isSameAs(actual);
+            }
+        }
+    }
+
+    @Test
+    public void testCrossViaSecondCurrency() {
+        final FxRateMatrix matrix = new FxRateMatrix(builder());
+        // SEK is only quoted against EUR
+        final FxRate gbpSek = matrix.findFx(CurrencyPair.of("GBP", "SEK")).get();
+        assertThat(gbpSek.getCrossCcy().get()).isEqualTo("EUR");
+        // NZD is only quoted against AUD which is not a cross currency
+        assertThat(matrix.findFx(CurrencyPair.of("NZD", "USD")).isPresent()).isFalse();
+        assertThat(matrix.findFx(CurrencyPair.of("NZD", "AUD")).isPresent()).isTrue();
+    }
+
+    @Test
+    public void testUnknownCurrency() {
+        final FxRateMatrix matrix = new FxRateMatrix(builder());
+        assertThat(matrix.getCurrencyIndex("XXX")).isEqualTo(-1);
+        assertThat(matrix.findFx(CurrencyPair.of("XXX", "USD")).isPresent()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiresSnapshot() {
+        new FxRateMatrix(new FxRateCalculatorBuilder().baseFxRateProvider(pair -> Optional.empty()));
+    }
+}
@@ -0,0 +1,115 @@
+package net.objectlab.kit.fxcalc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import net.objectlab.kit.util.BigDecimalUtil;
+
+import org.assertj.core.util.Lists;
+import org.junit.Test;
+
+public class LiveFxRateCalculatorTest {
+    private final JdkCurrencyProvider currencyProvider = new JdkCurrencyProvider();
+
+    private FxRate rate(final String ccy1, final String ccy2, final String bid, final String ask) {
+        return new FxRateImpl(CurrencyPair.of(ccy1, ccy2), null, true, BigDecimalUtil.bd(bid), BigDecimalUtil.bd(ask), currencyProvider);
+    }
+
+    private FxRateCalculatorBuilder builder() {
+        return new FxRateCalculatorBuilder()
+                //
+                .addRateSnapshot(rate("EUR", "USD", "1.1213", "1.1215"))//
+                .addRateSnapshot(rate("GBP", "USD", "1.3012", "1.3015"))//
+                .addRateSnapshot(rate("USD", "JPY", "112.51", "112.53"))//
+                .addRateSnapshot(rate("USD", "CHF", "0.9712", "0.9715"))//
+                .addRateSnapshot(rate("EUR", "SEK", "9.5212", "9.5232"))//
+                .addRateSnapshot(rate("EUR", "GBP", "0.8612", "0.8615"))//
+                .orderedCurrenciesForCross(Lists.newArrayList("USD", "EUR")) //
+                .cacheResults(false);
+    }
+
+    private static void assertSameRate(final Optional<FxRate> actual, final Optional<FxRate> expected) {
+        assertThat(actual.isPresent()).isEqualTo(expected.isPresent());
+        if (expected.isPresent()) {
+            assertThat(actual.get().getCrossCcy()).isEqualTo(expected.get().getCrossCcy());
+            assertThat(actual.get().getBid()).isEqualTo(expected.get().getBid());
+            assertThat(actual.get().getAsk()).isEqualTo(expected.get().getAsk());
+        }
+    }
+
+    @Test
+    public void testTickOnlyRecalculatesDependents() {
+        final LiveFxRateCalculator live = new LiveFxRateCalculator(builder());
+        final FxRate gbpJpy = live.findFx(CurrencyPair.of("GBP", "JPY")).get();
+        final FxRate usdEur = live.findFx(CurrencyPair.of("USD", "EUR")).get();
+        final FxRate eurChf = live.findFx(CurrencyPair.of("EUR", "CHF")).get();
+        final FxRate gbpSek = live.findFx(CurrencyPair.of("GBP", "SEK")).get();
+
+        final List<Set<CurrencyPair>> notifications = new ArrayList<>();
+        live.subscribe((baseRate, changedPairs) -> notifications.add(changedPairs));
+
+        final FxRate eurUsd = rate("EUR", "USD", "1.1220", "1.1222");
+        final Set<CurrencyPair> changed = live.update(eurUsd);
+
+        assertThat(changed).containsOnly(CurrencyPair.of("EUR", "USD"), CurrencyPair.of("USD", "EUR"),
+                CurrencyPair.of("EUR", "CHF"));
+        assertThat(notifications).hasSize(1);
+        assertThat(notifications.get(0)).isEqualTo(changed);
+
+        // GBP.JPY is via USD and does not depend on EUR.USD
+        assertThat(live.findFx(CurrencyPair.of("GBP", "JPY")).get()).isSameAs(gbpJpy);
+        assertThat(live.findFx(CurrencyPair.of("EUR", "USD")).get()).isSameAs(eurUsd);
+        assertSameRate(live.findFx(CurrencyPair.of("USD", "EUR")), Optional.of(eurUsd.createInverse(builder().getPrecisionForInverseFxRate())));
+        assertThat(live.findFx(CurrencyPair.of("USD", "EUR")).get() == usdEur).isFalse();
+        assertThat(live.findFx(CurrencyPair.of("EUR", "CHF")).get() == eurChf).isFalse();
+        // GBP.SEK is via EUR but only uses EUR.GBP and EUR.SEK
+        assertThat(gbpSek.getCrossCcy().get()).isEqualTo("EUR");
+        assertThat(live.findFx(CurrencyPair.of("GBP", "SEK")).get()).isSameAs(gbpSek);
+    }
+
+    @Test
+    public void testSameAsNewCalculator() {
+        final LiveFxRateCalculator live = new LiveFxRateCalculator(builder());
+        final List<String> ccys = Lists.newArrayList("EUR", "USD", "GBP", "JPY", "CHF", "SEK");
+        for (final String ccy1 : ccys) {
+            for (final String ccy2 : ccys) {
+                live.findFx(CurrencyPair.of(ccy1, ccy2));
+            }
+        }
+
+        final FxRate eurUsd = rate("EUR", "USD", "1.0910", "1.0912");
+        final FxRate gbpUsd = rate("GBP", "USD", "1.2510", "1.2514");
+        // USD.SEK was missing, SEK crosses were via EUR
+        final FxRate usdSek = rate("USD", "SEK", "8.7010", "8.7030");
+        live.update(eurUsd);
+        live.update(gbpUsd);
+        live.update(usdSek);
+
+        final FxRateCalculator expected = new FxRateCalculatorImpl(builder().addRateSnapshot(eurUsd).addRateSnapshot(gbpUsd).addRateSnapshot(usdSek));
+        for (final String ccy1 : ccys) {
+            for (final String ccy2 : ccys) {
+                final CurrencyPair pair = CurrencyPair.of(ccy1, ccy2);
+                assertSameRate(live.findFx(pair), expected.findFx(pair));
+            }
+        }
+        assertThat(live.findFx(CurrencyPair.of("GBP", "SEK")).get().getCrossCcy().get()).isEqualTo("USD");
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        final LiveFxRateCalculator live = new LiveFxRateCalculator(builder());
+        final List<Set<CurrencyPair>> notifications = new ArrayList<>();
+        final FxRateListener listener = (baseRate, changedPairs) -> notifications.add(changedPairs);
+        live.subscribe(listener);
+        live.update(rate("USD", "JPY", "112.61", "112.63"));
+        live.unsubscribe(listener);
+        live.update(rate("USD", "JPY", "112.71", "112.73"));
+        assertThat(notifications).hasSize(1);
+        assertThat(notifications.get(0)).containsOnly(CurrencyPair.of("USD", "JPY"));
+        assertThat(live.getBaseRate(CurrencyPair.of("USD", "JPY")).get().getBid()).isEqualTo(BigDecimalUtil.bd("112.71"));
+    }
+}
@@ -0,0 +1,76 @@
+package net.objectlab.kit.pf;
+
+import java.util.Collection;
+import java.util.Map;
+
+import net.objectlab.kit.collections.BatchKeyLoader;
+import net.objectlab.kit.collections.CacheStats;
+import net.objectlab.kit.collections.ExpiringLoadingCache;
+import net.objectlab.kit.collections.ExpiringLoadingCacheBuilder;
+import net.objectlab.kit.collections.KeyLoader;
+import net.objectlab.kit.collections.TimeProvider;
+
+/**
+ * Decorator caching the reference data given by another provider, typically a remote reference data service, per
+ * asset code. The batch lookup only asks the underlying provider for the asset codes not in the cache, in one call.
+ * Entries expire timeToLiveMillis after being loaded and the least recently used are evicted above maximumSize, see
+ * {@link ExpiringLoadingCache}. The cache is split in concurrencyLevel segments (16 by default), each with its own lock
+ * and its own share of maximumSize, so the LRU order is kept per segment; a concurrencyLevel of 1 gives an exact LRU
+ * order over all the asset codes but puts every lookup behind one lock.
+ *
+ * @param <V> the reference data for an asset code
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public abstract class AbstractCachingProvider<V> {
+    /**
+     * Number of segments of the cache unless given.
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private final ExpiringLoadingCache<String, V> cache;
+
+    /**
+     * @param loader the underlying provider for one asset code
+     * @param batchLoader the underlying provider for several asset codes
+     * @param timeToLiveMillis entries expire after this time, 0 or less for no expiry
+     * @param maximumSize maximum number of asset codes cached, 0 or less for no limit
+     * @param concurrencyLevel number of segments, each with its own lock, 1 for an exact LRU order
+     */
+    protected AbstractCachingProvider(final KeyLoader<String, V> loader, final BatchKeyLoader<String, V> batchLoader,
+            final long timeToLiveMillis, final int maximumSize, final int concurrencyLevel, final TimeProvider timeProvider) {
+        this.cache = new ExpiringLoadingCacheBuilder<String, V>(loader)
+                .batchLoader(batchLoader)
+                .timeToLiveMilliseconds(timeToLiveMillis)
+                .maximumSize(maximumSize)
+                .concurrencyLevel(concurrencyLevel)
+                .timeProvider(timeProvider)
+                .build();
+    }
+
+    protected V get(final String assetCode) {
+        return cache.get(assetCode);
+    }
+
+    protected Map<String, V> getAll(final Collection<String> assetCodes) {
+        return cache.getAll(assetCodes);
+    }
+
+    public void invalidate(final String assetCode) {
+        cache.invalidate(assetCode);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Remove the expired entries now rather than when they are requested.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+}
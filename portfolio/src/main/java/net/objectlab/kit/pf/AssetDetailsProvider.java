@@ -1,6 +1,26 @@
 package net.objectlab.kit.pf;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 @FunctionalInterface
 public interface AssetDetailsProvider {
     AssetDetails getDetails(String assetCode);
+
+    /**
+     * Batch version, override it if the reference data can be fetched in one call.
+     * @return the details for each asset code found.
+     * @since 1.4.1
+     */
+    default Map<String, AssetDetails> getDetails(final Collection<String> assetCodes) {
+        final Map<String, AssetDetails> details = new HashMap<>();
+        for (final String assetCode : assetCodes) {
+            final AssetDetails d = getDetails(assetCode);
+            if (d != null) {
+                details.put(assetCode, d);
+            }
+        }
+        return details;
+    }
 }
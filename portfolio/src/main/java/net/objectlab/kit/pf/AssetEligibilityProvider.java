@@ -1,6 +1,23 @@
 package net.objectlab.kit.pf;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 @FunctionalInterface
 public interface AssetEligibilityProvider {
     boolean isEligible(String assetCode);
+
+    /**
+     * Batch version, override it if the eligibility can be fetched in one call.
+     * @return the eligibility for each asset code.
+     * @since 1.4.1
+     */
+    default Map<String, Boolean> getEligibility(final Collection<String> assetCodes) {
+        final Map<String, Boolean> eligibility = new HashMap<>();
+        for (final String assetCode : assetCodes) {
+            eligibility.put(assetCode, isEligible(assetCode));
+        }
+        return eligibility;
+    }
 }
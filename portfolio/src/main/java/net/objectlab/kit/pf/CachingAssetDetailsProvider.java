@@ -0,0 +1,56 @@
+package net.objectlab.kit.pf;
+
+import java.util.Collection;
+import java.util.Map;
+
+import net.objectlab.kit.collections.SystemTimeProvider;
+import net.objectlab.kit.collections.TimeProvider;
+
+/**
+ * Decorator caching the AssetDetails given by another provider, see {@link AbstractCachingProvider}.
+ * <pre>
+ * final CachingAssetDetailsProvider cache = new CachingAssetDetailsProvider(remoteProvider, 60_000L, 100_000);
+ * ...
+ * log(cache.getStats());
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class CachingAssetDetailsProvider extends AbstractCachingProvider<AssetDetails> implements AssetDetailsProvider {
+
+    /**
+     * @param delegate the provider to cache
+     * @param timeToLiveMillis entries expire after this time, 0 or less for no expiry
+     * @param maximumSize maximum number of asset codes cached, 0 or less for no limit
+     */
+    public CachingAssetDetailsProvider(final AssetDetailsProvider delegate, final long timeToLiveMillis, final int maximumSize) {
+        this(delegate, timeToLiveMillis, maximumSize, new SystemTimeProvider());
+    }
+
+    public CachingAssetDetailsProvider(final AssetDetailsProvider delegate, final long timeToLiveMillis, final int maximumSize,
+            final TimeProvider timeProvider) {
+        this(delegate, timeToLiveMillis, maximumSize, DEFAULT_CONCURRENCY_LEVEL, timeProvider);
+    }
+
+    /**
+     * @param delegate the provider to cache
+     * @param timeToLiveMillis entries expire after this time, 0 or less for no expiry
+     * @param maximumSize maximum number of asset codes cached, 0 or less for no limit
+     * @param concurrencyLevel number of segments, each with its own lock, 1 for an exact LRU order
+     */
+    public CachingAssetDetailsProvider(final AssetDetailsProvider delegate, final long timeToLiveMillis, final int maximumSize,
+            final int concurrencyLevel, final TimeProvider timeProvider) {
+        super(delegate::getDetails, delegate::getDetails, timeToLiveMillis, maximumSize, concurrencyLevel, timeProvider);
+    }
+
+    @Override
+    public AssetDetails getDetails(final String assetCode) {
+        return get(assetCode);
+    }
+
+    @Override
+    public Map<String, AssetDetails> getDetails(final Collection<String> assetCodes) {
+        return getAll(assetCodes);
+    }
+}
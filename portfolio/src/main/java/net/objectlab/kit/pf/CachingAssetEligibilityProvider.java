@@ -0,0 +1,56 @@
+package net.objectlab.kit.pf;
+
+import java.util.Collection;
+import java.util.Map;
+
+import net.objectlab.kit.collections.SystemTimeProvider;
+import net.objectlab.kit.collections.TimeProvider;
+
+/**
+ * Decorator caching the eligibility given by another provider, see {@link AbstractCachingProvider}.
+ * <pre>
+ * final CachingAssetEligibilityProvider cache = new CachingAssetEligibilityProvider(remoteProvider, 60_000L, 100_000);
+ * ...
+ * log(cache.getStats());
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class CachingAssetEligibilityProvider extends AbstractCachingProvider<Boolean> implements AssetEligibilityProvider {
+
+    /**
+     * @param delegate the provider to cache
+     * @param timeToLiveMillis entries expire after this time, 0 or less for no expiry
+     * @param maximumSize maximum number of asset codes cached, 0 or less for no limit
+     */
+    public CachingAssetEligibilityProvider(final AssetEligibilityProvider delegate, final long timeToLiveMillis, final int maximumSize) {
+        this(delegate, timeToLiveMillis, maximumSize, new SystemTimeProvider());
+    }
+
+    public CachingAssetEligibilityProvider(final AssetEligibilityProvider delegate, final long timeToLiveMillis, final int maximumSize,
+            final TimeProvider timeProvider) {
+        this(delegate, timeToLiveMillis, maximumSize, DEFAULT_CONCURRENCY_LEVEL, timeProvider);
+    }
+
+    /**
+     * @param delegate the provider to cache
+     * @param timeToLiveMillis entries expire after this time, 0 or less for no expiry
+     * @param maximumSize maximum number of asset codes cached, 0 or less for no limit
+     * @param concurrencyLevel number of segments, each with its own lock, 1 for an exact LRU order
+     */
+    public CachingAssetEligibilityProvider(final AssetEligibilityProvider delegate, final long timeToLiveMillis, final int maximumSize,
+            final int concurrencyLevel, final TimeProvider timeProvider) {
+        super(delegate::isEligible, delegate::getEligibility, timeToLiveMillis, maximumSize, concurrencyLevel, timeProvider);
+    }
+
+    @Override
+    public boolean isEligible(final String assetCode) {
+        return get(assetCode);
+    }
+
+    @Override
+    public Map<String, Boolean> getEligibility(final Collection<String> assetCodes) {
+        return getAll(assetCodes);
+    }
+}
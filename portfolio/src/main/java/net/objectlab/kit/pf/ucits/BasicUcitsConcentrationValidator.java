@@ -3,12 +3,23 @@ package net.objectlab.kit.pf.ucits;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.objectlab.kit.pf.AssetDetailsProvider;
 import net.objectlab.kit.pf.AssetEligibilityProvider;
 import net.objectlab.kit.pf.ExistingPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
 import net.objectlab.kit.pf.RuleNames;
 import net.objectlab.kit.pf.Severity;
 import net.objectlab.kit.pf.ValidationEngine;
@@ -16,19 +27,28 @@ import net.objectlab.kit.pf.ValidationResults;
 import net.objectlab.kit.pf.validator.Results;
 import net.objectlab.kit.pf.validator.ValidatedPortfolioLineImpl;
 import net.objectlab.kit.util.BigDecimalUtil;
+import net.objectlab.kit.util.Pair;
 import net.objectlab.kit.util.Total;
 
 /**
  * Default is the usual 5-10-40 rule.
  * http://www.alfi.lu/investor-centre/investor-protection/how-ucits-funds-protect-investors#Diversification
+ *
+ * If a ForkJoinPool is given to the Builder, the lines of a large portfolio are split in shards validated in parallel
+ * (weight, eligibility and total per issuer), the totals per issuer are then merged before applying the max and medium
+ * concentration rules; the results (issues, their order and the weights) are identical to the sequential validation.
+ * The providers must then be thread safe.
  */
 public class BasicUcitsConcentrationValidator implements ValidationEngine {
+    static final String NOT_ELIGIBLE = "Asset not eligible.";
     private final BigDecimal maxConcentrationPerIssuer;
     private final BigDecimal mediumConcentrationPerIssuer;
     private final BigDecimal maxForMediumConcentration;
     private final AssetDetailsProvider assetDetailsProvider;
     private final AssetEligibilityProvider assetEligibilityProvider;
     private final UcitsLimitProvider ucitsLimitProvider;
+    private final ForkJoinPool forkJoinPool;
+    private final int minLinesPerShard;
 
     public static class Builder {
         private BigDecimal maxConcentrationPerIssuer = new BigDecimal("0.1");
@@ -37,6 +57,8 @@ public class BasicUcitsConcentrationValidator implements ValidationEngine {
         private AssetDetailsProvider assetDetailsProvider;
         private AssetEligibilityProvider assetEligibilityProvider;
         private UcitsLimitProvider ucitsLimitProvider;
+        private ForkJoinPool forkJoinPool;
+        private int minLinesPerShard = 1_000;
 
         public Builder maxConcentrationPerIssuer(final BigDecimal maxConcentrationPerIssuer) {
             this.maxConcentrationPerIssuer = maxConcentrationPerIssuer;
@@ -67,6 +89,26 @@ public class BasicUcitsConcentrationValidator implements ValidationEngine {
             this.ucitsLimitProvider = ucitsLimitProvider;
             return this;
         }
+
+        /**
+         * @param forkJoinPool if not null, the lines of large portfolios are validated in parallel using this pool (e.g.
+         *        ForkJoinPool.commonPool()).
+         * @since 1.4.1
+         */
+        public Builder forkJoinPool(final ForkJoinPool forkJoinPool) {
+            this.forkJoinPool = forkJoinPool;
+            return this;
+        }
+
+        /**
+         * @param minLinesPerShard the minimum number of lines validated by a single task in parallel mode (default 1000),
+         *        portfolios with fewer than twice this number of lines are validated sequentially.
+         * @since 1.4.1
+         */
+        public Builder minLinesPerShard(final int minLinesPerShard) {
+            this.minLinesPerShard = minLinesPerShard;
+            return this;
+        }
     }
 
     public BasicUcitsConcentrationValidator(final Builder builder) {
@@ -76,6 +118,8 @@ public class BasicUcitsConcentrationValidator implements ValidationEngine {
         this.assetDetailsProvider = builder.assetDetailsProvider;
         this.assetEligibilityProvider = builder.assetEligibilityProvider;
         this.ucitsLimitProvider = builder.ucitsLimitProvider;
+        this.forkJoinPool = builder.forkJoinPool;
+        this.minLinesPerShard = Math.max(1, builder.minLinesPerShard);
     }
 
     private static final class TotalPerIssuer {
@@ -103,10 +147,127 @@ public class BasicUcitsConcentrationValidator implements ValidationEngine {
         public List<ValidatedPortfolioLineImpl> getLines() {
             return lines;
         }
+
+        /**
+         * Add the lines (and weight) of the same issuer from a following shard.
+         */
+        public void merge(final TotalPerIssuer other) {
+            lines.addAll(other.lines);
+            total.add(other.getTotalWeight());
+        }
+    }
+
+    /**
+     * The result of validating a consecutive range of lines, with the issuers and the lines in the portfolio order.
+     */
+    private static final class Shard {
+        private final Map<String, TotalPerIssuer> totalPerIssuer = new LinkedHashMap<>();
+        private final List<ValidatedPortfolioLineImpl> notEligibleLines = new ArrayList<>();
+
+        /**
+         * Append the result of the range following this one.
+         */
+        private Shard merge(final Shard next) {
+            notEligibleLines.addAll(next.notEligibleLines);
+            next.totalPerIssuer.forEach((issuer, total) -> {
+                final TotalPerIssuer existing = totalPerIssuer.get(issuer);
+                if (existing == null) {
+                    totalPerIssuer.put(issuer, total);
+                } else {
+                    existing.merge(total);
+                }
+            });
+            return this;
+        }
+    }
+
+    private final class ShardTask extends RecursiveTask<Shard> {
+        private static final long serialVersionUID = 1L;
+        private final transient List<ValidatedPortfolioLineImpl> lines;
+        private final transient BigDecimal portfolioValue;
+        private final transient ReferenceData referenceData;
+        private final int from;
+        private final int to;
+
+        private ShardTask(final List<ValidatedPortfolioLineImpl> lines, final BigDecimal portfolioValue, final ReferenceData referenceData,
+                final int from, final int to) {
+            this.lines = lines;
+            this.portfolioValue = portfolioValue;
+            this.referenceData = referenceData;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Shard compute() {
+            if ((to - from) / 2 < minLinesPerShard) {
+                return validateLines(lines, portfolioValue, referenceData, from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final ShardTask first = new ShardTask(lines, portfolioValue, referenceData, from, middle);
+            first.fork();
+            final Shard second = new ShardTask(lines, portfolioValue, referenceData, middle, to).compute();
+            return first.join().merge(second);
+        }
+    }
+
+    /**
+     * Set the weight of each line in the range, check its eligibility and calculate the weight for each issuer.
+     */
+    private Shard validateLines(final List<ValidatedPortfolioLineImpl> lines, final BigDecimal portfolioValue, final ReferenceData referenceData,
+            final int from, final int to) {
+        final Shard shard = new Shard();
+        for (int i = from; i < to; i++) {
+            final ValidatedPortfolioLineImpl l = lines.get(i);
+            if (!referenceData.isEligible(l.getAssetCode())) {
+                shard.notEligibleLines.add(l);
+            }
+            l.setAllocationWeight(weight(l.getValueInPortfolioCcy(), portfolioValue));
+            shard.totalPerIssuer.computeIfAbsent(referenceData.getUltimateIssuerCode(l.getAssetCode()), k -> new TotalPerIssuer(k)).add(l);
+        }
+        return shard;
     }
 
     @Override
     public ValidationResults validate(final ExistingPortfolio portfolio) {
+        // the reference data for all the assets in one call per provider
+        return validate(portfolio, prefetch(portfolio.getLines()));
+    }
+
+    /**
+     * Validate many portfolios concurrently: the portfolios are pulled from the stream as needed, by windows of
+     * maxInFlight, and the reference data is kept in one snapshot for the whole batch: each window only fetches the
+     * assets not seen yet, in one call per provider, so an asset is fetched once per batch and the snapshot is bounded
+     * by the number of distinct assets.
+     * Up to maxInFlight portfolios are validated at the same time on the executor; the results are given back
+     * by the returned stream in the order they complete, a new validation starting when a result is consumed, so
+     * neither the portfolios nor the results are accumulated. Closing the returned stream cancels the validations
+     * not consumed yet and closes the given stream.
+     * <pre>
+     * final ExecutorService executor = Executors.newFixedThreadPool(8);
+     * validator.validate(portfolios.stream(), executor, 16).forEach(r -&gt; save(r.getElement1().getId(), r.getElement2()));
+     * </pre>
+     * @param portfolios the portfolios to validate
+     * @param executor runs the validations, e.g. a fixed thread pool
+     * @param maxInFlight maximum number of validations submitted and not consumed yet
+     * @return the stream of the portfolio and its results, in order of completion.
+     * @since 1.4.1
+     */
+    public Stream<Pair<ExistingPortfolio, ValidationResults>> validate(final Stream<? extends ExistingPortfolio> portfolios, final Executor executor,
+            final int maxInFlight) {
+        final ReferenceData referenceData = ReferenceData.empty(assetDetailsProvider, assetEligibilityProvider);
+        final ConcurrentValidation validation = new ConcurrentValidation(portfolios.iterator(), window -> {
+            final Set<String> assetCodes = new LinkedHashSet<>();
+            window.forEach(p -> p.getLines().forEach(l -> assetCodes.add(l.getAssetCode())));
+            referenceData.fetchMissing(assetCodes);
+        }, p -> validate(p, referenceData), executor, maxInFlight);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(validation, Spliterator.NONNULL), false).onClose(() -> {
+            validation.close();
+            portfolios.close();
+        });
+    }
+
+    private ValidationResults validate(final ExistingPortfolio portfolio, final ReferenceData referenceData) {
         // for each line:
         final Results results = new Results(portfolio);
 
@@ -115,28 +276,29 @@ public class BasicUcitsConcentrationValidator implements ValidationEngine {
 
         // calculate the value per Issuer (using AssetDetails)
         // check if asset is eligible, if not -> Breach
-        final Map<String, TotalPerIssuer> totalPerIssuer = new HashMap<>();
-        results.getLines().forEach(l -> {
-            if (!assetEligibilityProvider.isEligible(l.getAssetCode())) {
-                l.addIssue(Severity.MANDATORY, RuleNames.ELIGIBILITY, "Asset not eligible.");
-            }
-            l.setAllocationWeight(BigDecimalUtil.divide(8, l.getValueInPortfolioCcy(), porfolioValue, BigDecimal.ROUND_HALF_UP));
-            // calculate the weight for each issuer
-                totalPerIssuer.computeIfAbsent(assetDetailsProvider.getDetails(l.getAssetCode()).getUltimateIssuerCode(), k -> new TotalPerIssuer(k))
-                        .add(l);
+        final List<ValidatedPortfolioLineImpl> lines = results.getLines();
+        final Shard shard;
+        if (forkJoinPool == null || lines.size() / 2 < minLinesPerShard) {
+            shard = validateLines(lines, porfolioValue, referenceData, 0, lines.size());
+        } else {
+            shard = forkJoinPool.invoke(new ShardTask(lines, porfolioValue, referenceData, 0, lines.size()));
+        }
+        shard.notEligibleLines.forEach(l -> l.addIssue(Severity.MANDATORY, RuleNames.ELIGIBILITY, NOT_ELIGIBLE));
 
-            });
+        // the issuers are added one by one, in the order of the lines, so that the issues are in the same order
+        // whether the lines were validated in parallel or not.
+        final Map<String, TotalPerIssuer> totalPerIssuer = new HashMap<>();
+        shard.totalPerIssuer.forEach(totalPerIssuer::put);
 
         final Total totalMediumConcentration = new Total();
         final List<ValidatedPortfolioLineImpl> mediumLines = new ArrayList<>();
         totalPerIssuer.values().forEach(issuer -> {
             final BigDecimal totalWeight = issuer.getTotalWeight();
-            if (BigDecimalUtil.compareTo(totalWeight, maxConcentrationPerIssuer) > 0) {
+            if (isAboveMaxConcentration(totalWeight)) {
                 // if weight > maxConcentrationPerIssuer (e.g. 10%) -> Breach
-                issuer.lines.forEach(line -> line.addIssue(Severity.MANDATORY, RuleNames.ISSUER_MAX_CONCENTRATION,
-                        "Concentration above " + BigDecimalUtil.movePoint(maxConcentrationPerIssuer, 2) + "% for " + issuer.getIssuer() + " ["
-                                + BigDecimalUtil.movePoint(totalWeight, 2) + "]"));
-            } else if (BigDecimalUtil.compareTo(totalWeight, mediumConcentrationPerIssuer) > 0) {
+                final String message = maxConcentrationMessage(issuer.getIssuer(), totalWeight);
+                issuer.lines.forEach(line -> line.addIssue(Severity.MANDATORY, RuleNames.ISSUER_MAX_CONCENTRATION, message));
+            } else if (isAboveMediumConcentration(totalWeight)) {
                 // if weight > mediumConcentrationPerIssuer (e.g. 5%) -> sum them
                 totalMediumConcentration.add(totalWeight);
                 mediumLines.addAll(issuer.getLines());
@@ -144,14 +306,51 @@ public class BasicUcitsConcentrationValidator implements ValidationEngine {
         });
 
         // if sum of those > maxForMediumConcentration -> Breach
-        if (BigDecimalUtil.compareTo(totalMediumConcentration.getTotal(), maxForMediumConcentration) > 0) {
-            mediumLines.forEach(line -> line.addIssue(
-                    Severity.MANDATORY,
-                    RuleNames.ISSUER_MEDIUM_CONCENTRATION,
-                    "Total medium concentration is above " + BigDecimalUtil.movePoint(maxForMediumConcentration, 2) + "% ["
-                            + BigDecimalUtil.movePoint(totalMediumConcentration.getTotal(), 2) + "]"));
-
+        if (isAboveMaxForMediumConcentration(totalMediumConcentration.getTotal())) {
+            final String message = mediumConcentrationMessage(totalMediumConcentration.getTotal());
+            mediumLines.forEach(line -> line.addIssue(Severity.MANDATORY, RuleNames.ISSUER_MEDIUM_CONCENTRATION, message));
         }
         return results;
     }
+
+    /**
+     * Start a what-if session on the portfolio, e.g. for a pre-trade check: the session is validated once, then
+     * each change of a line only re-validates the issuer of that line (and the medium concentration).
+     * @since 1.4.1
+     */
+    public UcitsValidationSession startSession(final ExistingPortfolio portfolio) {
+        return new UcitsValidationSession(this, portfolio);
+    }
+
+    ReferenceData prefetch(final List<? extends ExistingPortfolioLine> lines) {
+        final Set<String> assetCodes = new LinkedHashSet<>();
+        lines.forEach(l -> assetCodes.add(l.getAssetCode()));
+        return ReferenceData.prefetch(assetDetailsProvider, assetEligibilityProvider, assetCodes);
+    }
+
+    static BigDecimal weight(final BigDecimal valueInPortfolioCcy, final BigDecimal portfolioValue) {
+        return BigDecimalUtil.divide(8, valueInPortfolioCcy, portfolioValue, BigDecimal.ROUND_HALF_UP);
+    }
+
+    boolean isAboveMaxConcentration(final BigDecimal issuerWeight) {
+        return BigDecimalUtil.compareTo(issuerWeight, maxConcentrationPerIssuer) > 0;
+    }
+
+    boolean isAboveMediumConcentration(final BigDecimal issuerWeight) {
+        return BigDecimalUtil.compareTo(issuerWeight, mediumConcentrationPerIssuer) > 0;
+    }
+
+    boolean isAboveMaxForMediumConcentration(final BigDecimal totalMediumWeight) {
+        return BigDecimalUtil.compareTo(totalMediumWeight, maxForMediumConcentration) > 0;
+    }
+
+    String maxConcentrationMessage(final String issuer, final BigDecimal issuerWeight) {
+        return "Concentration above " + BigDecimalUtil.movePoint(maxConcentrationPerIssuer, 2) + "% for " + issuer + " ["
+                + BigDecimalUtil.movePoint(issuerWeight, 2) + "]";
+    }
+
+    String mediumConcentrationMessage(final BigDecimal totalMediumWeight) {
+        return "Total medium concentration is above " + BigDecimalUtil.movePoint(maxForMediumConcentration, 2) + "% ["
+                + BigDecimalUtil.movePoint(totalMediumWeight, 2) + "]";
+    }
 }
@@ -0,0 +1,118 @@
+package net.objectlab.kit.pf.ucits;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import net.objectlab.kit.pf.ExistingPortfolio;
+import net.objectlab.kit.pf.ValidationResults;
+import net.objectlab.kit.util.Pair;
+
+/**
+ * Iterates over the results of the validations of many portfolios, in order of completion, keeping at most maxInFlight
+ * validations submitted to the executor and not consumed yet. The portfolios are pulled from their iterator by windows
+ * of maxInFlight, when the previous window has been submitted, and each window is given to prefetch before its
+ * validations are submitted, e.g. to fetch the reference data it needs; so at most 2 * maxInFlight portfolios are held
+ * at any time.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+final class ConcurrentValidation implements Iterator<Pair<ExistingPortfolio, ValidationResults>>, AutoCloseable {
+    private final Iterator<? extends ExistingPortfolio> portfolios;
+    private final Consumer<List<ExistingPortfolio>> prefetch;
+    private final Function<ExistingPortfolio, ValidationResults> validation;
+    private final CompletionService<Pair<ExistingPortfolio, ValidationResults>> completionService;
+    private final int maxInFlight;
+    private final Deque<ExistingPortfolio> window = new ArrayDeque<>();
+    private final Set<Future<Pair<ExistingPortfolio, ValidationResults>>> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    ConcurrentValidation(final Iterator<? extends ExistingPortfolio> portfolios, final Consumer<List<ExistingPortfolio>> prefetch,
+            final Function<ExistingPortfolio, ValidationResults> validation, final Executor executor, final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1, not " + maxInFlight);
+        }
+        this.portfolios = portfolios;
+        this.prefetch = prefetch;
+        this.validation = validation;
+        this.completionService = new ExecutorCompletionService<>(executor);
+        this.maxInFlight = maxInFlight;
+        while (inFlight.size() < maxInFlight && submitNext()) {
+            // submitted
+        }
+    }
+
+    private boolean submitNext() {
+        if (window.isEmpty()) {
+            while (window.size() < maxInFlight && portfolios.hasNext()) {
+                window.add(portfolios.next());
+            }
+            if (window.isEmpty()) {
+                return false;
+            }
+            prefetch.accept(new ArrayList<>(window));
+        }
+        final ExistingPortfolio portfolio = window.poll();
+        inFlight.add(completionService.submit(() -> Pair.create(portfolio, validation.apply(portfolio))));
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed && !inFlight.isEmpty();
+    }
+
+    @Override
+    public Pair<ExistingPortfolio, ValidationResults> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Future<Pair<ExistingPortfolio, ValidationResults>> done;
+        try {
+            done = completionService.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a validation", e);
+        }
+        inFlight.remove(done);
+        if (!closed) {
+            submitNext();
+        }
+        try {
+            return done.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a validation", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Validation failed", e.getCause());
+        }
+    }
+
+    /**
+     * Cancel the validations not consumed yet, no other portfolio is pulled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (final Future<Pair<ExistingPortfolio, ValidationResults>> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+}
@@ -0,0 +1,85 @@
+package net.objectlab.kit.pf.ucits;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.objectlab.kit.pf.AssetDetails;
+import net.objectlab.kit.pf.AssetDetailsProvider;
+import net.objectlab.kit.pf.AssetEligibilityProvider;
+
+/**
+ * The details and eligibility of the assets of a portfolio, fetched in one batch call per provider before the
+ * validation; an asset code missing from a batch is asked individually. The snapshot only grows: {@link #fetchMissing(Collection)}
+ * adds the codes not fetched yet and never changes a fetched one, so it can be shared by the validations of many
+ * portfolios while it is extended for the next ones.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+final class ReferenceData {
+    private final AssetDetailsProvider assetDetailsProvider;
+    private final AssetEligibilityProvider assetEligibilityProvider;
+    private final Set<String> fetched = new HashSet<>();
+    private final Map<String, AssetDetails> details = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> eligibility = new ConcurrentHashMap<>();
+
+    private ReferenceData(final AssetDetailsProvider assetDetailsProvider, final AssetEligibilityProvider assetEligibilityProvider) {
+        this.assetDetailsProvider = assetDetailsProvider;
+        this.assetEligibilityProvider = assetEligibilityProvider;
+    }
+
+    static ReferenceData prefetch(final AssetDetailsProvider assetDetailsProvider, final AssetEligibilityProvider assetEligibilityProvider,
+            final Collection<String> assetCodes) {
+        final ReferenceData referenceData = empty(assetDetailsProvider, assetEligibilityProvider);
+        referenceData.fetchMissing(assetCodes);
+        return referenceData;
+    }
+
+    static ReferenceData empty(final AssetDetailsProvider assetDetailsProvider, final AssetEligibilityProvider assetEligibilityProvider) {
+        return new ReferenceData(assetDetailsProvider, assetEligibilityProvider);
+    }
+
+    /**
+     * Fetch the asset codes not fetched yet in one call per provider and merge them in; a code is asked only once, even
+     * if the provider had no value for it.
+     */
+    synchronized void fetchMissing(final Collection<String> assetCodes) {
+        final List<String> missing = new ArrayList<>();
+        for (final String assetCode : assetCodes) {
+            if (fetched.add(assetCode)) {
+                missing.add(assetCode);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        assetDetailsProvider.getDetails(missing).forEach((code, d) -> {
+            if (d != null) {
+                details.put(code, d);
+            }
+        });
+        assetEligibilityProvider.getEligibility(missing).forEach((code, eligible) -> {
+            if (eligible != null) {
+                eligibility.put(code, eligible);
+            }
+        });
+    }
+
+    boolean isEligible(final String assetCode) {
+        final Boolean eligible = eligibility.get(assetCode);
+        return eligible != null ? eligible : assetEligibilityProvider.isEligible(assetCode);
+    }
+
+    String getUltimateIssuerCode(final String assetCode) {
+        AssetDetails d = details.get(assetCode);
+        if (d == null) {
+            d = assetDetailsProvider.getDetails(assetCode);
+        }
+        return d.getUltimateIssuerCode();
+    }
+}
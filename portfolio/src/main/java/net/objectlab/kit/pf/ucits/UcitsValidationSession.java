@@ -0,0 +1,343 @@
+package net.objectlab.kit.pf.ucits;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import net.objectlab.kit.pf.ExistingPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
+import net.objectlab.kit.pf.RuleIssue;
+import net.objectlab.kit.pf.RuleNames;
+import net.objectlab.kit.pf.Severity;
+import net.objectlab.kit.pf.ValidatedPortfolioLine;
+import net.objectlab.kit.pf.ValidationResults;
+import net.objectlab.kit.pf.validator.RuleIssueImpl;
+import net.objectlab.kit.util.Total;
+
+/**
+ * A what-if validation of a portfolio, e.g. for pre-trade checks: the lines can be added, removed or resized and each
+ * change returns the issues added and removed; only the lines of the issuer concerned (and of the issuers in medium
+ * concentration if their total changes) are re-validated, using the running total per issuer and the total of the
+ * medium concentrations.
+ *
+ * The weights are relative to the portfolio value at the start of the session (as for
+ * {@link BasicUcitsConcentrationValidator#validate(ExistingPortfolio)}), the changes of lines do not change it. For the
+ * same lines, the session has the same issues as a full validation. The session is not thread safe.
+ * <pre>
+ * final UcitsValidationSession session = validator.startSession(portfolio);
+ * final ValidationChanges changes = session.add(new BasicLine("IBM", "IBM", price, quantity, value));
+ * if (!changes.getAddedIssues().isEmpty()) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class UcitsValidationSession {
+    private final BasicUcitsConcentrationValidator validator;
+    private final BigDecimal portfolioValue;
+    private final Set<SessionLine> lines = new LinkedHashSet<>();
+    private final Map<String, IssuerTotal> totalPerIssuer = new HashMap<>();
+    private final Set<IssuerTotal> mediumIssuers = new LinkedHashSet<>();
+    private final Total totalMediumConcentration = new Total();
+    /**
+     * The message of the medium concentration issue, null if the medium concentration is not breached.
+     */
+    private String mediumMessage;
+    private int issueCount;
+
+    private enum Concentration {
+        NONE, MEDIUM, MAX
+    }
+
+    private static final class IssuerTotal {
+        private final String issuer;
+        private final Total total = new Total();
+        private final Set<SessionLine> lines = new LinkedHashSet<>();
+        private Concentration concentration = Concentration.NONE;
+        /**
+         * The weight included in the total medium concentration.
+         */
+        private BigDecimal mediumWeight;
+
+        private IssuerTotal(final String issuer) {
+            this.issuer = issuer;
+        }
+    }
+
+    private static final class SessionLine implements ValidatedPortfolioLine {
+        private final String assetCode;
+        private final String assetName;
+        private final BigDecimal priceInPortfolioCcy;
+        private BigDecimal quantity;
+        private BigDecimal valueInPortfolioCcy;
+        private BigDecimal allocationWeight;
+        private IssuerTotal issuer;
+        private final List<RuleIssue> issues = new ArrayList<>(2);
+
+        private SessionLine(final ExistingPortfolioLine line) {
+            this.assetCode = line.getAssetCode();
+            this.assetName = line.getAssetName();
+            this.priceInPortfolioCcy = line.getPriceInPortfolioCcy();
+            this.quantity = line.getQuantity();
+            this.valueInPortfolioCcy = line.getValueInPortfolioCcy();
+        }
+
+        private RuleIssue getIssue(final String rule) {
+            for (final RuleIssue issue : issues) {
+                if (issue.getRule().equals(rule)) {
+                    return issue;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String getAssetCode() {
+            return assetCode;
+        }
+
+        @Override
+        public String getAssetName() {
+            return assetName;
+        }
+
+        @Override
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public BigDecimal getPriceInPortfolioCcy() {
+            return priceInPortfolioCcy;
+        }
+
+        @Override
+        public BigDecimal getValueInPortfolioCcy() {
+            return valueInPortfolioCcy;
+        }
+
+        @Override
+        public BigDecimal getAllocationWeight() {
+            return allocationWeight;
+        }
+
+        @Override
+        public boolean isValid() {
+            return issues.isEmpty();
+        }
+
+        @Override
+        public List<RuleIssue> getIssues() {
+            return new ArrayList<>(issues);
+        }
+    }
+
+    UcitsValidationSession(final BasicUcitsConcentrationValidator validator, final ExistingPortfolio portfolio) {
+        this.validator = validator;
+        this.portfolioValue = portfolio.getPortfolioValue();
+        final ValidationChanges ignored = new ValidationChanges(null);
+        final ReferenceData referenceData = validator.prefetch(portfolio.getLines());
+        portfolio.getLines().forEach(l -> addLine(new SessionLine(l), referenceData, ignored));
+        totalPerIssuer.values().forEach(issuer -> validateIssuer(issuer, ignored));
+        validateMediumConcentration(null, ignored);
+    }
+
+    /**
+     * Add a line to the portfolio.
+     * @return the issues changed by the new line, getLine() being the new line.
+     */
+    public ValidationChanges add(final ExistingPortfolioLine line) {
+        final SessionLine sessionLine = new SessionLine(line);
+        final ValidationChanges changes = new ValidationChanges(sessionLine);
+        addLine(sessionLine, validator.prefetch(Collections.singletonList(line)), changes);
+        revalidate(sessionLine.issuer, changes);
+        return changes;
+    }
+
+    /**
+     * Remove a line of the session.
+     * @return the issues changed by the removal, including the issues of the removed line.
+     * @throws IllegalArgumentException if the line is not in the session.
+     */
+    public ValidationChanges remove(final ValidatedPortfolioLine line) {
+        final SessionLine sessionLine = find(line);
+        final ValidationChanges changes = new ValidationChanges(sessionLine);
+        lines.remove(sessionLine);
+        new ArrayList<>(sessionLine.issues).forEach(issue -> removeIssue(sessionLine, issue, changes));
+        final IssuerTotal issuer = sessionLine.issuer;
+        issuer.lines.remove(sessionLine);
+        issuer.total.minus(sessionLine.allocationWeight);
+        revalidate(issuer, changes);
+        if (issuer.lines.isEmpty()) {
+            totalPerIssuer.remove(issuer.issuer);
+        }
+        return changes;
+    }
+
+    /**
+     * Change the quantity and value of a line of the session.
+     * @return the issues changed by the new value of the line.
+     * @throws IllegalArgumentException if the line is not in the session.
+     */
+    public ValidationChanges resize(final ValidatedPortfolioLine line, final BigDecimal quantity, final BigDecimal valueInPortfolioCcy) {
+        final SessionLine sessionLine = find(line);
+        final ValidationChanges changes = new ValidationChanges(sessionLine);
+        final IssuerTotal issuer = sessionLine.issuer;
+        issuer.total.minus(sessionLine.allocationWeight);
+        sessionLine.quantity = quantity;
+        sessionLine.valueInPortfolioCcy = valueInPortfolioCcy;
+        sessionLine.allocationWeight = BasicUcitsConcentrationValidator.weight(valueInPortfolioCcy, portfolioValue);
+        issuer.total.add(sessionLine.allocationWeight);
+        revalidate(issuer, changes);
+        return changes;
+    }
+
+    public boolean isValid() {
+        return issueCount == 0;
+    }
+
+    /**
+     * @return the current lines, in the order they were added.
+     */
+    public List<ValidatedPortfolioLine> getLines() {
+        return new ArrayList<>(lines);
+    }
+
+    /**
+     * @return a snapshot of the current lines and issues, the issues are grouped by line.
+     */
+    public ValidationResults getResults() {
+        final List<ValidatedPortfolioLine> currentLines = getLines();
+        final List<RuleIssue> issues = new ArrayList<>(issueCount);
+        lines.forEach(l -> issues.addAll(l.issues));
+        return new ValidationResults() {
+            @Override
+            public boolean isValid() {
+                return issues.isEmpty();
+            }
+
+            @Override
+            public List<RuleIssue> getIssues() {
+                return issues;
+            }
+
+            @Override
+            public List<? extends ValidatedPortfolioLine> getLines() {
+                return currentLines;
+            }
+        };
+    }
+
+    private SessionLine find(final ValidatedPortfolioLine line) {
+        if (line instanceof SessionLine && lines.contains(line)) {
+            return (SessionLine) line;
+        }
+        throw new IllegalArgumentException("Line " + (line != null ? line.getAssetCode() : null) + " is not in this session");
+    }
+
+    /**
+     * Add the line to the running total of its issuer, without validating the issuer.
+     */
+    private void addLine(final SessionLine sessionLine, final ReferenceData referenceData, final ValidationChanges changes) {
+        lines.add(sessionLine);
+        if (!referenceData.isEligible(sessionLine.assetCode)) {
+            setIssue(sessionLine, RuleNames.ELIGIBILITY, BasicUcitsConcentrationValidator.NOT_ELIGIBLE, changes);
+        }
+        sessionLine.allocationWeight = BasicUcitsConcentrationValidator.weight(sessionLine.valueInPortfolioCcy, portfolioValue);
+        final IssuerTotal issuer = totalPerIssuer.computeIfAbsent(referenceData.getUltimateIssuerCode(sessionLine.assetCode), IssuerTotal::new);
+        sessionLine.issuer = issuer;
+        issuer.lines.add(sessionLine);
+        issuer.total.add(sessionLine.allocationWeight);
+    }
+
+    private void revalidate(final IssuerTotal issuer, final ValidationChanges changes) {
+        validateIssuer(issuer, changes);
+        validateMediumConcentration(issuer, changes);
+        changes.setValid(isValid());
+    }
+
+    /**
+     * Apply the max concentration rule to the issuer and update the total of medium concentrations.
+     */
+    private void validateIssuer(final IssuerTotal issuer, final ValidationChanges changes) {
+        final BigDecimal totalWeight = issuer.total.getTotal();
+        final Concentration before = issuer.concentration;
+        final Concentration after;
+        if (issuer.lines.isEmpty()) {
+            after = Concentration.NONE;
+        } else if (validator.isAboveMaxConcentration(totalWeight)) {
+            after = Concentration.MAX;
+        } else if (validator.isAboveMediumConcentration(totalWeight)) {
+            after = Concentration.MEDIUM;
+        } else {
+            after = Concentration.NONE;
+        }
+        issuer.concentration = after;
+
+        if (before == Concentration.MAX || after == Concentration.MAX) {
+            final String message = after == Concentration.MAX ? validator.maxConcentrationMessage(issuer.issuer, totalWeight) : null;
+            issuer.lines.forEach(line -> setIssue(line, RuleNames.ISSUER_MAX_CONCENTRATION, message, changes));
+        }
+        if (before == Concentration.MEDIUM) {
+            totalMediumConcentration.minus(issuer.mediumWeight);
+            mediumIssuers.remove(issuer);
+            issuer.mediumWeight = null;
+        }
+        if (after == Concentration.MEDIUM) {
+            totalMediumConcentration.add(totalWeight);
+            mediumIssuers.add(issuer);
+            issuer.mediumWeight = totalWeight;
+        }
+    }
+
+    /**
+     * Apply the rule on the total of medium concentrations, the message includes the total so if it changes, the issues
+     * of all the lines in medium concentration are replaced; otherwise only the lines of the changed issuer are checked.
+     * @param changedIssuer the issuer just validated, null to check all the lines.
+     */
+    private void validateMediumConcentration(final IssuerTotal changedIssuer, final ValidationChanges changes) {
+        final BigDecimal total = totalMediumConcentration.getTotal();
+        final String message = validator.isAboveMaxForMediumConcentration(total) ? validator.mediumConcentrationMessage(total) : null;
+        if (changedIssuer == null || !Objects.equals(message, mediumMessage)) {
+            mediumMessage = message;
+            mediumIssuers.forEach(issuer -> issuer.lines.forEach(line -> setIssue(line, RuleNames.ISSUER_MEDIUM_CONCENTRATION, message, changes)));
+        }
+        if (changedIssuer != null) {
+            final String issuerMessage = changedIssuer.concentration == Concentration.MEDIUM ? message : null;
+            changedIssuer.lines.forEach(line -> setIssue(line, RuleNames.ISSUER_MEDIUM_CONCENTRATION, issuerMessage, changes));
+        }
+    }
+
+    /**
+     * Set, replace or remove (if message is null) the issue of the line for the rule.
+     */
+    private void setIssue(final SessionLine line, final String rule, final String message, final ValidationChanges changes) {
+        final RuleIssue existing = line.getIssue(rule);
+        if (existing != null) {
+            if (existing.getMsg().equals(message)) {
+                return;
+            }
+            removeIssue(line, existing, changes);
+        }
+        if (message != null) {
+            final RuleIssue issue = new RuleIssueImpl(Severity.MANDATORY, rule, message, line);
+            line.issues.add(issue);
+            issueCount++;
+            changes.added(issue);
+        }
+    }
+
+    private void removeIssue(final SessionLine line, final RuleIssue issue, final ValidationChanges changes) {
+        line.issues.remove(issue);
+        issueCount--;
+        changes.removed(issue);
+    }
+}
@@ -0,0 +1,74 @@
+package net.objectlab.kit.pf.ucits;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.objectlab.kit.pf.RuleIssue;
+import net.objectlab.kit.pf.ValidatedPortfolioLine;
+
+/**
+ * The issues added and removed by a change of line in a {@link UcitsValidationSession}; an issue whose message
+ * changes (e.g. a new concentration for the issuer) is removed and replaced by a new one.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public final class ValidationChanges {
+    private final ValidatedPortfolioLine line;
+    private final Set<RuleIssue> addedIssues = new LinkedHashSet<>();
+    private final Set<RuleIssue> removedIssues = new LinkedHashSet<>();
+    private boolean valid;
+
+    ValidationChanges(final ValidatedPortfolioLine line) {
+        this.line = line;
+    }
+
+    void added(final RuleIssue issue) {
+        addedIssues.add(issue);
+    }
+
+    void removed(final RuleIssue issue) {
+        // an issue added then removed by the same change is not reported
+        if (!addedIssues.remove(issue)) {
+            removedIssues.add(issue);
+        }
+    }
+
+    void setValid(final boolean valid) {
+        this.valid = valid;
+    }
+
+    /**
+     * @return the line added, removed or resized.
+     */
+    public ValidatedPortfolioLine getLine() {
+        return line;
+    }
+
+    /**
+     * @return the new issues, on any line of the session.
+     */
+    public List<RuleIssue> getAddedIssues() {
+        return new ArrayList<>(addedIssues);
+    }
+
+    /**
+     * @return the issues that do not apply anymore.
+     */
+    public List<RuleIssue> getRemovedIssues() {
+        return new ArrayList<>(removedIssues);
+    }
+
+    public boolean hasChanges() {
+        return !addedIssues.isEmpty() || !removedIssues.isEmpty();
+    }
+
+    /**
+     * @return true if the portfolio of the session has no issue after the change.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+}
@@ -1,6 +1,7 @@
 package net.objectlab.kit.pf.validator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
@@ -27,11 +28,15 @@ public class Results implements ValidationResults {
 
     @Override
     public List<RuleIssue> getIssues() {
-        return issues;
+        return Collections.unmodifiableList(issues);
     }
 
     public void addIssue(final Severity sev, final String ruleName, final String message, ValidatedPortfolioLineImpl line) {
-        issues.add(new RuleIssueImpl(sev, ruleName, message, line));
+        final RuleIssue issue = new RuleIssueImpl(sev, ruleName, message, line);
+        issues.add(issue);
+        if (line != null) {
+            line.indexIssue(issue);
+        }
     }
 
     @Override
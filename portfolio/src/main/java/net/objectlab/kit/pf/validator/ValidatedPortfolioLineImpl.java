@@ -2,8 +2,9 @@ package net.objectlab.kit.pf.validator;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -18,6 +19,10 @@ public class ValidatedPortfolioLineImpl implements ValidatedPortfolioLine {
     private final ExistingPortfolioLine line;
     private final Results results;
     private BigDecimal allocationWeight;
+    /**
+     * The issues for this line, in the order of Results.getIssues().
+     */
+    private List<RuleIssue> issues = Collections.emptyList();
 
     public ValidatedPortfolioLineImpl(final ExistingPortfolioLine line, final Results results) {
         this.line = line;
@@ -76,13 +81,23 @@ public class ValidatedPortfolioLineImpl implements ValidatedPortfolioLine {
         results.addIssue(sev, ruleName, message, this);
     }
 
+    /**
+     * Called by Results when an issue is added for this line.
+     */
+    void indexIssue(final RuleIssue issue) {
+        if (issues.isEmpty()) {
+            issues = new ArrayList<>(2);
+        }
+        issues.add(issue);
+    }
+
     @Override
     public boolean isValid() {
-        return !results.getIssues().stream().anyMatch(t -> t.getLine() == this);
+        return issues.isEmpty();
     }
 
     @Override
     public List<RuleIssue> getIssues() {
-        return results.getIssues().stream().filter(t -> t.getLine() == this).collect(Collectors.toList());
+        return new ArrayList<>(issues);
     }
 }
@@ -0,0 +1,146 @@
+package net.objectlab.kit.pf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.objectlab.kit.collections.CacheStats;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingAssetDetailsProviderTest {
+    private final List<Collection<String>> batches = new ArrayList<>();
+    private int singleCalls;
+    private long now = 1_000L;
+    private CachingAssetDetailsProvider provider;
+
+    @Before
+    public void setup() {
+        final AssetDetailsProvider remote = new AssetDetailsProvider() {
+            @Override
+            public AssetDetails getDetails(final String assetCode) {
+                singleCalls++;
+                return details(assetCode);
+            }
+
+            @Override
+            public Map<String, AssetDetails> getDetails(final Collection<String> assetCodes) {
+                batches.add(new ArrayList<>(assetCodes));
+                final Map<String, AssetDetails> result = new HashMap<>();
+                assetCodes.forEach(code -> {
+                    final AssetDetails d = details(code);
+                    if (d != null) {
+                        result.put(code, d);
+                    }
+                });
+                return result;
+            }
+        };
+        // a single segment for an exact LRU order
+        provider = new CachingAssetDetailsProvider(remote, 60_000L, 3, 1, () -> now);
+    }
+
+    private static AssetDetails details(final String assetCode) {
+        return assetCode.startsWith("X") ? null : new BasicAsset(assetCode, assetCode, "LEI-" + assetCode);
+    }
+
+    @Test
+    public void testSingleLookups() {
+        assertThat(provider.getDetails("IBM").getUltimateIssuerCode()).isEqualTo("LEI-IBM");
+        assertThat(provider.getDetails("IBM").getUltimateIssuerCode()).isEqualTo("LEI-IBM");
+        assertThat(singleCalls).isEqualTo(1);
+        // unknown assets are not cached
+        assertThat(provider.getDetails("XYZ")).isNull();
+        assertThat(provider.getDetails("XYZ")).isNull();
+        assertThat(singleCalls).isEqualTo(3);
+
+        final CacheStats stats = provider.getStats();
+        assertThat(stats.getHitCount()).isEqualTo(1L);
+        assertThat(stats.getMissCount()).isEqualTo(3L);
+        assertThat(stats.getLoadCount()).isEqualTo(3L);
+        assertThat(stats.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBatchOnlyAsksForMissingCodes() {
+        final Map<String, AssetDetails> first = provider.getDetails(Arrays.asList("IBM", "MSFT", "IBM", "XYZ"));
+        assertThat(first).hasSize(2);
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsOnly("IBM", "MSFT", "XYZ");
+
+        final Map<String, AssetDetails> second = provider.getDetails(Arrays.asList("IBM", "MSFT", "AAPL"));
+        assertThat(second).hasSize(3);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsOnly("AAPL");
+
+        provider.getDetails(Arrays.asList("IBM", "MSFT"));
+        assertThat(batches).hasSize(2);
+        assertThat(singleCalls).isEqualTo(0);
+    }
+
+    @Test
+    public void testExpiry() {
+        provider.getDetails(Arrays.asList("IBM", "MSFT"));
+        now += 30_000L;
+        provider.getDetails("AAPL");
+        now += 30_000L;
+        // IBM and MSFT are 60s old
+        provider.getDetails(Arrays.asList("IBM", "MSFT", "AAPL"));
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsOnly("IBM", "MSFT");
+        assertThat(provider.getStats().getExpiredCount()).isEqualTo(2L);
+
+        now += 30_000L;
+        provider.cleanUp();
+        assertThat(provider.getStats().getExpiredCount()).isEqualTo(3L);
+        assertThat(provider.getStats().getSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        provider.getDetails(Arrays.asList("A", "B", "C"));
+        provider.getDetails("A");
+        provider.getDetails("D");
+        assertThat(provider.getStats().getEvictionCount()).isEqualTo(1L);
+        assertThat(provider.getStats().getSize()).isEqualTo(3);
+
+        // B was the least recently used
+        provider.getDetails(Arrays.asList("A", "B", "C", "D"));
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsOnly("B");
+
+        provider.invalidateAll();
+        assertThat(provider.getStats().getSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testEligibility() {
+        final List<Collection<String>> eligibilityBatches = new ArrayList<>();
+        final AssetEligibilityProvider remote = new AssetEligibilityProvider() {
+            @Override
+            public boolean isEligible(final String assetCode) {
+                return !assetCode.startsWith("X");
+            }
+
+            @Override
+            public Map<String, Boolean> getEligibility(final Collection<String> assetCodes) {
+                eligibilityBatches.add(new ArrayList<>(assetCodes));
+                return AssetEligibilityProvider.super.getEligibility(assetCodes);
+            }
+        };
+        final CachingAssetEligibilityProvider eligibility = new CachingAssetEligibilityProvider(remote, 0L, 0);
+        assertThat(eligibility.getEligibility(Arrays.asList("IBM", "XYZ")).get("XYZ")).isFalse();
+        assertThat(eligibility.isEligible("XYZ")).isFalse();
+        assertThat(eligibility.isEligible("IBM")).isTrue();
+        assertThat(eligibility.getEligibility(Arrays.asList("IBM", "XYZ", "MSFT"))).hasSize(3);
+        assertThat(eligibilityBatches).hasSize(2);
+        assertThat(eligibilityBatches.get(1)).containsOnly("MSFT");
+        assertThat(eligibility.getStats().getHitCount()).isEqualTo(4L);
+    }
+}
@@ -0,0 +1,212 @@
+package net.objectlab.kit.pf.ucits;
+
+import static net.objectlab.kit.util.BigDecimalUtil.bd;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import net.objectlab.kit.pf.AssetDetails;
+import net.objectlab.kit.pf.AssetDetailsProvider;
+import net.objectlab.kit.pf.AssetEligibilityProvider;
+import net.objectlab.kit.pf.BasicAsset;
+import net.objectlab.kit.pf.BasicLine;
+import net.objectlab.kit.pf.BasicPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
+import net.objectlab.kit.pf.ValidationResults;
+import net.objectlab.kit.util.Pair;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ConcurrentUcitsValidationTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final List<Set<String>> detailBatches = new ArrayList<>();
+    private final List<Set<String>> eligibilityBatches = new ArrayList<>();
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private BasicUcitsConcentrationValidator validator() {
+        final AssetDetailsProvider details = new AssetDetailsProvider() {
+            @Override
+            public AssetDetails getDetails(final String assetCode) {
+                return new BasicAsset(assetCode, assetCode, "ISSUER" + assetCode.substring(0, assetCode.indexOf('-')));
+            }
+
+            @Override
+            public Map<String, AssetDetails> getDetails(final Collection<String> assetCodes) {
+                detailBatches.add(new HashSet<>(assetCodes));
+                return AssetDetailsProvider.super.getDetails(assetCodes);
+            }
+        };
+        final AssetEligibilityProvider eligibility = new AssetEligibilityProvider() {
+            @Override
+            public boolean isEligible(final String assetCode) {
+                return !assetCode.endsWith("7");
+            }
+
+            @Override
+            public Map<String, Boolean> getEligibility(final Collection<String> assetCodes) {
+                eligibilityBatches.add(new HashSet<>(assetCodes));
+                return AssetEligibilityProvider.super.getEligibility(assetCodes);
+            }
+        };
+        return new BasicUcitsConcentrationValidator(new BasicUcitsConcentrationValidator.Builder().assetDetailsProvider(details)
+                .assetEligibilityProvider(eligibility));
+    }
+
+    private static List<ExistingPortfolio> portfolios(final int count) {
+        final Random random = new Random(19L);
+        final List<ExistingPortfolio> portfolios = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            final BasicPortfolio bp = new BasicPortfolio();
+            bp.setId("PF" + p);
+            bp.setPortfolioCcy("USD");
+            final List<ExistingPortfolioLine> lines = new ArrayList<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < 5 + random.nextInt(40); i++) {
+                // 30 issuers, 200 assets shared by all the portfolios
+                final String code = random.nextInt(30) + "-" + random.nextInt(200);
+                final BigDecimal value = bd(String.valueOf(1 + random.nextInt(1_000)));
+                lines.add(new BasicLine(code, code, bd("1"), value, value));
+                total = total.add(value);
+            }
+            bp.setLines(lines);
+            bp.setPortfolioValue(total);
+            portfolios.add(bp);
+        }
+        return portfolios;
+    }
+
+    @Test
+    public void testSameResultsAsOneByOne() {
+        final List<ExistingPortfolio> portfolios = portfolios(300);
+        final BasicUcitsConcentrationValidator validator = validator();
+        final Map<String, ValidationResults> results = new HashMap<>();
+        validator.validate(portfolios.stream(), executor, 8).forEach(r -> results.put(r.getElement1().getId(), r.getElement2()));
+
+        assertThat(results).hasSize(300);
+        // at most one batch per window of 8 portfolios, each asset fetched once for the whole validation
+        assertThat(detailBatches.size()).isLessThanOrEqualTo(38);
+        assertThat(eligibilityBatches.size()).isLessThanOrEqualTo(38);
+        final Set<String> allCodes = new HashSet<>();
+        portfolios.forEach(p -> p.getLines().forEach(l -> allCodes.add(l.getAssetCode())));
+        final Set<String> fetchedCodes = new HashSet<>();
+        int fetched = 0;
+        for (final Set<String> batch : detailBatches) {
+            fetchedCodes.addAll(batch);
+            fetched += batch.size();
+        }
+        assertThat(fetchedCodes).isEqualTo(allCodes);
+        assertThat(fetched).isEqualTo(allCodes.size());
+
+        for (final ExistingPortfolio portfolio : portfolios) {
+            final ValidationResults expected = validator.validate(portfolio);
+            final ValidationResults actual = results.get(portfolio.getId());
+            assertThat(actual.isValid()).isEqualTo(expected.isValid());
+            assertThat(actual.getIssues()).hasSize(expected.getIssues().size());
+            for (int i = 0; i < expected.getIssues().size(); i++) {
+                assertThat(actual.getIssues().get(i).getMsg()).isEqualTo(expected.getIssues().get(i).getMsg());
+                assertThat(actual.getIssues().get(i).getLine().getAssetCode()).isEqualTo(expected.getIssues().get(i).getLine().getAssetCode());
+            }
+        }
+    }
+
+    @Test
+    public void testValidationsInFlightAreBounded() {
+        final AtomicInteger submitted = new AtomicInteger();
+        final int[] consumed = new int[1];
+        final int maxInFlight = 3;
+        validator().validate(portfolios(50).stream(), command -> {
+            submitted.incrementAndGet();
+            executor.execute(command);
+        }, maxInFlight).forEach(r -> {
+            consumed[0]++;
+            assertThat(submitted.get() - consumed[0] <= maxInFlight).isTrue();
+        });
+        assertThat(consumed[0]).isEqualTo(50);
+        assertThat(submitted.get()).isEqualTo(50);
+    }
+
+    @Test
+    public void testPortfoliosArePulledAsNeeded() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final int maxInFlight = 4;
+        final int[] consumed = new int[1];
+        validator().validate(portfolios(50).stream().peek(p -> pulled.incrementAndGet()), executor, maxInFlight).forEach(r -> {
+            consumed[0]++;
+            // the window being submitted and the validations in flight
+            assertThat(pulled.get() - consumed[0] <= 2 * maxInFlight).isTrue();
+        });
+        assertThat(consumed[0]).isEqualTo(50);
+        assertThat(detailBatches.size()).isLessThanOrEqualTo(13);
+    }
+
+    @Test
+    public void testCloseCancelsTheValidations() {
+        final List<Runnable> submitted = new ArrayList<>();
+        final AtomicInteger validated = new AtomicInteger();
+        final List<ExistingPortfolio> portfolios = new ArrayList<>();
+        for (final ExistingPortfolio portfolio : portfolios(10)) {
+            final BasicPortfolio bp = new BasicPortfolio() {
+                @Override
+                public BigDecimal getPortfolioValue() {
+                    validated.incrementAndGet();
+                    return super.getPortfolioValue();
+                }
+            };
+            bp.setId(portfolio.getId());
+            bp.setPortfolioCcy(portfolio.getPortfolioCcy());
+            bp.setPortfolioValue(portfolio.getPortfolioValue());
+            bp.setLines(portfolio.getLines());
+            portfolios.add(bp);
+        }
+        final AtomicInteger sourceClosed = new AtomicInteger();
+        try (Stream<Pair<ExistingPortfolio, ValidationResults>> results = validator().validate(
+                portfolios.stream().onClose(sourceClosed::incrementAndGet), submitted::add, 3)) {
+            assertThat(submitted).hasSize(3);
+        }
+        assertThat(sourceClosed.get()).isEqualTo(1);
+        submitted.forEach(Runnable::run);
+        assertThat(validated.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testEmptyStream() {
+        assertThat(validator().validate(new ArrayList<ExistingPortfolio>().stream(), executor, 4).count()).isEqualTo(0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxInFlight() {
+        validator().validate(portfolios(1).stream(), executor, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureIsRethrown() {
+        final BasicPortfolio bp = new BasicPortfolio();
+        bp.setId("FAIL");
+        bp.setPortfolioValue(bd("100"));
+        bp.getLines().add(new BasicLine("1-1", "1-1", bd("1"), bd("1"), bd("1")));
+        final BasicUcitsConcentrationValidator validator = new BasicUcitsConcentrationValidator(new BasicUcitsConcentrationValidator.Builder()
+                .assetDetailsProvider(code -> {
+                    throw new IllegalStateException("No details for " + code);
+                }).assetEligibilityProvider(code -> true));
+        final List<Pair<ExistingPortfolio, ValidationResults>> results = new ArrayList<>();
+        validator.validate(Stream.of(bp), executor, 1).forEach(results::add);
+    }
+}
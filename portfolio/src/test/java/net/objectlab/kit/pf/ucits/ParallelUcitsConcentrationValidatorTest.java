@@ -0,0 +1,182 @@
+package net.objectlab.kit.pf.ucits;
+
+import static net.objectlab.kit.util.BigDecimalUtil.bd;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.objectlab.kit.pf.AssetDetails;
+import net.objectlab.kit.pf.AssetDetailsProvider;
+import net.objectlab.kit.pf.BasicAsset;
+import net.objectlab.kit.pf.BasicLine;
+import net.objectlab.kit.pf.BasicPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
+import net.objectlab.kit.pf.RuleIssue;
+import net.objectlab.kit.pf.RuleNames;
+import net.objectlab.kit.pf.ValidationResults;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ParallelUcitsConcentrationValidatorTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static BasicUcitsConcentrationValidator validator(final boolean parallel) {
+        return validator(parallel, 50);
+    }
+
+    private static BasicUcitsConcentrationValidator validator(final boolean parallel, final int minLinesPerShard) {
+        final BasicUcitsConcentrationValidator.Builder builder = new BasicUcitsConcentrationValidator.Builder() //
+                .assetDetailsProvider(code -> new BasicAsset(code, code, "ISSUER" + code.substring(0, code.indexOf('-')))) //
+                .assetEligibilityProvider(code -> !code.endsWith("7")) //
+                .minLinesPerShard(minLinesPerShard);
+        if (parallel) {
+            builder.forkJoinPool(POOL);
+        }
+        return new BasicUcitsConcentrationValidator(builder);
+    }
+
+    private static BasicPortfolio portfolio(final List<ExistingPortfolioLine> lines) {
+        final BasicPortfolio bp = new BasicPortfolio();
+        bp.setPortfolioCcy("USD");
+        bp.setLines(lines);
+        BigDecimal value = BigDecimal.ZERO;
+        for (final ExistingPortfolioLine line : lines) {
+            value = value.add(line.getValueInPortfolioCcy());
+        }
+        bp.setPortfolioValue(value);
+        return bp;
+    }
+
+    @Test
+    public void testMaxAndMediumConcentration() {
+        // 9 issuers at 9% (medium, 81% in total) and 1 at 19%, their lines are interleaved
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            final int issuer = i % 10;
+            final String code = issuer + "-" + i;
+            lines.add(new BasicLine(code, code, bd("1"), bd("1"), issuer == 9 ? bd("19") : bd("9")));
+        }
+        final BasicPortfolio bp = portfolio(lines);
+
+        final ValidationResults sequential = validator(false).validate(bp);
+        final ValidationResults parallel = validator(true).validate(bp);
+
+        assertThat(countIssues(parallel, RuleNames.ISSUER_MAX_CONCENTRATION)).isEqualTo(200);
+        assertThat(countIssues(parallel, RuleNames.ISSUER_MEDIUM_CONCENTRATION)).isEqualTo(1_800);
+        assertThat(countIssues(parallel, RuleNames.ELIGIBILITY)).isEqualTo(200);
+        checkSame(sequential, parallel);
+    }
+
+    @Test
+    public void testRandomPortfolios() {
+        final Random random = new Random(15L);
+        for (int run = 0; run < 20; run++) {
+            final List<ExistingPortfolioLine> lines = new ArrayList<>();
+            final int size = 100 + random.nextInt(3_000);
+            final int issuers = 1 + random.nextInt(40);
+            for (int i = 0; i < size; i++) {
+                // a few issuers get most of the lines
+                final int issuer = (int) (Math.pow(random.nextDouble(), 3) * issuers);
+                final String code = issuer + "-" + i;
+                lines.add(new BasicLine(code, code, bd("1"), bd("1"), BigDecimal.valueOf(1 + random.nextInt(100_000), 2)));
+            }
+            final BasicPortfolio bp = portfolio(lines);
+            checkSame(validator(false).validate(bp), validator(true).validate(bp));
+        }
+    }
+
+    @Test
+    public void testSmallPortfolioIsValidatedSequentially() {
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        lines.add(new BasicLine("1-IBM", "IBM", bd("88"), bd("100"), bd("8800")));
+        lines.add(new BasicLine("2-MSFT", "MSFT", bd("40"), bd("100"), bd("4000")));
+        final BasicPortfolio bp = portfolio(lines);
+
+        final ValidationResults res = validator(true).validate(bp);
+        assertThat(res.getLines()).hasSize(2);
+        assertThat(res.getLines().get(0).getAllocationWeight()).isEqualByComparingTo("0.6875");
+        checkSame(validator(false).validate(bp), res);
+    }
+
+    @Test
+    public void testShardSizeBoundaries() {
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            final String code = i % 10 + "-" + i;
+            lines.add(new BasicLine(code, code, bd("1"), bd("1"), BigDecimal.valueOf(1 + i)));
+        }
+        final BasicPortfolio bp = portfolio(lines);
+        final ValidationResults sequential = validator(false).validate(bp);
+
+        // shards down to a single line
+        checkSame(sequential, validator(true, 1).validate(bp));
+        // never sharded, 2 * minLinesPerShard would overflow
+        checkSame(sequential, validator(true, Integer.MAX_VALUE).validate(bp));
+        checkSame(sequential, validator(true, Integer.MAX_VALUE / 2 + 1).validate(bp));
+    }
+
+    @Test
+    public void testReferenceDataIsFetchedInOneBatch() {
+        final AtomicInteger batches = new AtomicInteger();
+        final AssetDetailsProvider details = new AssetDetailsProvider() {
+            @Override
+            public AssetDetails getDetails(final String assetCode) {
+                throw new IllegalStateException("Unexpected call for " + assetCode);
+            }
+
+            @Override
+            public Map<String, AssetDetails> getDetails(final Collection<String> assetCodes) {
+                batches.incrementAndGet();
+                final Map<String, AssetDetails> result = new HashMap<>();
+                assetCodes.forEach(code -> result.put(code, new BasicAsset(code, code, "ISSUER" + code.substring(0, code.indexOf('-')))));
+                return result;
+            }
+        };
+        final BasicUcitsConcentrationValidator validator = new BasicUcitsConcentrationValidator(new BasicUcitsConcentrationValidator.Builder()
+                .assetDetailsProvider(details).assetEligibilityProvider(code -> true).forkJoinPool(POOL).minLinesPerShard(50));
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            final String code = i % 20 + "-" + i % 300;
+            lines.add(new BasicLine(code, code, bd("1"), bd("1"), bd("1")));
+        }
+        final ValidationResults res = validator.validate(portfolio(lines));
+        assertThat(res.getLines()).hasSize(1_000);
+        assertThat(batches.get()).isEqualTo(1);
+    }
+
+    private static long countIssues(final ValidationResults results, final String rule) {
+        return results.getIssues().stream().filter(t -> rule.equals(t.getRule())).count();
+    }
+
+    private static void checkSame(final ValidationResults sequential, final ValidationResults parallel) {
+        assertThat(parallel.isValid()).isEqualTo(sequential.isValid());
+        assertThat(parallel.getLines()).hasSize(sequential.getLines().size());
+        for (int i = 0; i < sequential.getLines().size(); i++) {
+            assertThat(parallel.getLines().get(i).getAllocationWeight()).as("Weight " + i).isEqualTo(
+                    sequential.getLines().get(i).getAllocationWeight());
+        }
+        assertThat(parallel.getIssues()).hasSize(sequential.getIssues().size());
+        for (int i = 0; i < sequential.getIssues().size(); i++) {
+            final RuleIssue expected = sequential.getIssues().get(i);
+            final RuleIssue actual = parallel.getIssues().get(i);
+            assertThat(actual.getRule()).as("Rule " + i).isEqualTo(expected.getRule());
+            assertThat(actual.getMsg()).as("Msg " + i).isEqualTo(expected.getMsg());
+            assertThat(actual.getSeverity()).as("Severity " + i).isEqualTo(expected.getSeverity());
+            assertThat(actual.getLine().getAssetCode()).as("Line " + i).isEqualTo(expected.getLine().getAssetCode());
+        }
+    }
+}
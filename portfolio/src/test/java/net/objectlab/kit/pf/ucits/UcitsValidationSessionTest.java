@@ -0,0 +1,169 @@
+package net.objectlab.kit.pf.ucits;
+
+import static net.objectlab.kit.util.BigDecimalUtil.bd;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.objectlab.kit.pf.BasicAsset;
+import net.objectlab.kit.pf.BasicLine;
+import net.objectlab.kit.pf.BasicPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
+import net.objectlab.kit.pf.RuleIssue;
+import net.objectlab.kit.pf.RuleNames;
+import net.objectlab.kit.pf.ValidatedPortfolioLine;
+import net.objectlab.kit.pf.ValidationResults;
+
+import org.junit.Test;
+
+public class UcitsValidationSessionTest {
+    private final BasicUcitsConcentrationValidator validator = new BasicUcitsConcentrationValidator(new BasicUcitsConcentrationValidator.Builder() //
+            .assetDetailsProvider(code -> new BasicAsset(code, code, "ISSUER" + code.substring(0, code.indexOf('-')))) //
+            .assetEligibilityProvider(code -> !code.endsWith("7")));
+
+    private static BasicPortfolio portfolio(final List<? extends ExistingPortfolioLine> lines, final BigDecimal portfolioValue) {
+        final BasicPortfolio bp = new BasicPortfolio();
+        bp.setPortfolioCcy("USD");
+        bp.setPortfolioValue(portfolioValue);
+        final List<ExistingPortfolioLine> copy = new ArrayList<>();
+        lines.forEach(l -> copy.add(new BasicLine(l.getAssetCode(), l.getAssetName(), l.getPriceInPortfolioCcy(), l.getQuantity(), l
+                .getValueInPortfolioCcy())));
+        bp.setLines(copy);
+        return bp;
+    }
+
+    private static BasicLine line(final int issuer, final int id, final String value) {
+        final String code = issuer + "-" + id;
+        return new BasicLine(code, code, bd("1"), bd(value), bd(value));
+    }
+
+    @Test
+    public void testMaxConcentration() {
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        lines.add(line(1, 1, "9"));
+        lines.add(line(2, 2, "9"));
+        lines.add(line(3, 3, "82"));
+        final UcitsValidationSession session = validator.startSession(portfolio(lines, bd("100")));
+        final ValidatedPortfolioLine first = session.getLines().get(0);
+        assertThat(first.isValid()).isTrue();
+        assertThat(session.getLines().get(2).isValid()).isFalse();
+
+        // issuer 1 goes above 10%
+        final ValidationChanges changes = session.add(line(1, 4, "2"));
+        assertThat(changes.getLine().getAssetCode()).isEqualTo("1-4");
+        assertThat(changes.getLine().getAllocationWeight()).isEqualByComparingTo("0.02");
+        assertThat(changes.getRemovedIssues()).isEmpty();
+        assertThat(changes.getAddedIssues()).hasSize(2);
+        assertThat(changes.getAddedIssues().get(0).getRule()).isEqualTo(RuleNames.ISSUER_MAX_CONCENTRATION);
+        assertThat(changes.getAddedIssues().get(0).getMsg()).isEqualTo("Concentration above 10% for ISSUER1 [11.000000]");
+        assertThat(changes.getAddedIssues().get(0).getLine()).isSameAs(first);
+        assertThat(changes.getAddedIssues().get(1).getLine()).isSameAs(changes.getLine());
+        assertThat(first.isValid()).isFalse();
+
+        // back to 10%
+        final ValidationChanges resized = session.resize(changes.getLine(), bd("1"), bd("1"));
+        assertThat(resized.getAddedIssues()).isEmpty();
+        assertThat(resized.getRemovedIssues()).hasSize(2);
+        assertThat(first.isValid()).isTrue();
+        assertThat(resized.isValid()).isFalse();
+
+        // issuer 3 is the only issue
+        final ValidationChanges removed = session.remove(session.getLines().get(2));
+        assertThat(removed.getLine().getAssetCode()).isEqualTo("3-3");
+        assertThat(removed.getRemovedIssues()).hasSize(1);
+        assertThat(removed.isValid()).isTrue();
+        assertThat(session.isValid()).isTrue();
+        assertThat(session.getLines()).hasSize(3);
+    }
+
+    @Test
+    public void testMediumConcentrationMessageChanges() {
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        for (int issuer = 0; issuer < 5; issuer++) {
+            lines.add(line(issuer, issuer, "9"));
+        }
+        lines.add(line(9, 9, "55"));
+        final UcitsValidationSession session = validator.startSession(portfolio(lines, bd("100")));
+        // 5 medium, 1 above max
+        assertThat(session.getResults().getIssues()).hasSize(6);
+
+        // the total medium concentration changes, so does the message for the 5 lines
+        final ValidationChanges changes = session.resize(session.getLines().get(0), bd("8"), bd("8"));
+        assertThat(changes.getRemovedIssues()).hasSize(5);
+        assertThat(changes.getAddedIssues()).hasSize(5);
+        assertThat(changes.getAddedIssues().get(0).getMsg()).isEqualTo("Total medium concentration is above 40% [44.000000]");
+
+        // below 40%
+        final ValidationChanges removed = session.remove(session.getLines().get(1));
+        assertThat(removed.getRemovedIssues()).hasSize(5);
+        assertThat(removed.getAddedIssues()).isEmpty();
+        assertThat(session.getResults().getIssues()).hasSize(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveUnknownLine() {
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        lines.add(line(1, 1, "9"));
+        final UcitsValidationSession session = validator.startSession(portfolio(lines, bd("100")));
+        final ValidatedPortfolioLine line = session.getLines().get(0);
+        session.remove(line);
+        session.remove(line);
+    }
+
+    @Test
+    public void testRandomChangesGiveSameIssuesAsFullValidation() {
+        final Random random = new Random(17L);
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        int id = 0;
+        for (; id < 300; id++) {
+            lines.add(line(random.nextInt(25), id, String.valueOf(1 + random.nextInt(100))));
+        }
+        final BigDecimal portfolioValue = bd("15000");
+        final UcitsValidationSession session = validator.startSession(portfolio(lines, portfolioValue));
+        Set<RuleIssue> issues = new HashSet<>(session.getResults().getIssues());
+        checkSameAsFullValidation(session, portfolioValue);
+
+        for (int i = 0; i < 500; i++) {
+            final List<ValidatedPortfolioLine> current = session.getLines();
+            final int action = random.nextInt(3);
+            final ValidationChanges changes;
+            if (action == 0 || current.size() < 10) {
+                // a few issuers get most of the new lines
+                final int issuer = (int) (Math.pow(random.nextDouble(), 2) * 25);
+                changes = session.add(line(issuer, id++, String.valueOf(1 + random.nextInt(1_000))));
+            } else if (action == 1) {
+                changes = session.remove(current.get(random.nextInt(current.size())));
+            } else {
+                final BigDecimal value = bd(String.valueOf(random.nextInt(1_000)));
+                changes = session.resize(current.get(random.nextInt(current.size())), value, value);
+            }
+            issues.removeAll(changes.getRemovedIssues());
+            issues.addAll(changes.getAddedIssues());
+            assertThat(issues).as("Changes " + i).isEqualTo(new HashSet<>(session.getResults().getIssues()));
+            assertThat(changes.isValid()).isEqualTo(session.isValid());
+            checkSameAsFullValidation(session, portfolioValue);
+        }
+    }
+
+    private void checkSameAsFullValidation(final UcitsValidationSession session, final BigDecimal portfolioValue) {
+        final List<ValidatedPortfolioLine> lines = session.getLines();
+        final ValidationResults expected = validator.validate(portfolio(lines, portfolioValue));
+        assertThat(session.isValid()).isEqualTo(expected.isValid());
+        for (int i = 0; i < lines.size(); i++) {
+            final ValidatedPortfolioLine expectedLine = expected.getLines().get(i);
+            assertThat(lines.get(i).getAllocationWeight()).isEqualTo(expectedLine.getAllocationWeight());
+            assertThat(describe(lines.get(i).getIssues())).as("Line " + i).isEqualTo(describe(expectedLine.getIssues()));
+        }
+    }
+
+    private static List<String> describe(final List<RuleIssue> issues) {
+        final List<String> result = new ArrayList<>();
+        issues.forEach(issue -> result.add(issue.getSeverity() + " " + issue.getRule() + " " + issue.getMsg()));
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package net.objectlab.kit.pf.validator;
+
+import static net.objectlab.kit.util.BigDecimalUtil.bd;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.objectlab.kit.pf.BasicLine;
+import net.objectlab.kit.pf.BasicPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
+import net.objectlab.kit.pf.RuleIssue;
+import net.objectlab.kit.pf.RuleNames;
+import net.objectlab.kit.pf.Severity;
+
+import org.junit.Test;
+
+public class ResultsTest {
+    private static Results results(final int lineCount) {
+        final BasicPortfolio bp = new BasicPortfolio();
+        final List<ExistingPortfolioLine> lines = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            lines.add(new BasicLine("A" + i, "Asset " + i, bd("1"), bd("1"), bd("1")));
+        }
+        bp.setLines(lines);
+        return new Results(bp);
+    }
+
+    @Test
+    public void testIssuesPerLine() {
+        final Results results = results(3);
+        final ValidatedPortfolioLineImpl first = results.getLines().get(0);
+        final ValidatedPortfolioLineImpl second = results.getLines().get(1);
+        final ValidatedPortfolioLineImpl third = results.getLines().get(2);
+
+        assertThat(results.isValid()).isTrue();
+        assertThat(first.isValid()).isTrue();
+        assertThat(first.getIssues()).isEmpty();
+
+        first.addIssue(Severity.MANDATORY, RuleNames.ELIGIBILITY, "Asset not eligible.");
+        third.addIssue(Severity.MANDATORY, RuleNames.ISSUER_MAX_CONCENTRATION, "Max");
+        first.addIssue(Severity.WARNING, RuleNames.ISSUER_MEDIUM_CONCENTRATION, "Medium");
+
+        assertThat(results.isValid()).isFalse();
+        assertThat(results.getIssues()).hasSize(3);
+        assertThat(first.isValid()).isFalse();
+        assertThat(second.isValid()).isTrue();
+        assertThat(third.isValid()).isFalse();
+        assertThat(second.getIssues()).isEmpty();
+
+        final List<RuleIssue> firstIssues = first.getIssues();
+        assertThat(firstIssues).hasSize(2);
+        assertThat(firstIssues.get(0)).isSameAs(results.getIssues().get(0));
+        assertThat(firstIssues.get(1)).isSameAs(results.getIssues().get(2));
+        assertThat(third.getIssues()).hasSize(1);
+        assertThat(third.getIssues().get(0).getRule()).isEqualTo(RuleNames.ISSUER_MAX_CONCENTRATION);
+        assertThat(third.getIssues().get(0).getLine()).isSameAs(third);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIssuesAreReadOnly() {
+        final Results results = results(1);
+        results.getLines().get(0).addIssue(Severity.MANDATORY, RuleNames.ELIGIBILITY, "Asset not eligible.");
+        results.getIssues().clear();
+    }
+
+    @Test
+    public void testManyLines() {
+        final Results results = results(100_000);
+        for (int i = 0; i < results.getLines().size(); i += 2) {
+            results.getLines().get(i).addIssue(Severity.MANDATORY, RuleNames.ELIGIBILITY, "Asset not eligible.");
+        }
+        int valid = 0;
+        for (final ValidatedPortfolioLineImpl line : results.getLines()) {
+            if (line.isValid()) {
+                valid++;
+            } else {
+                assertThat(line.getIssues()).hasSize(1);
+            }
+        }
+        assertThat(valid).isEqualTo(50_000);
+    }
+}
@@ -118,24 +118,44 @@ public class Excel {
 
     private <E> E readCell(Cell cell, Class<E> colType) {
 
-        if (colType == Date.class) {
-            return (E) cell.getDateCellValue();
-        } else if (colType == Calendar.class) {
+        if (colType == Date.class || colType == Calendar.class) {
+            return convertDate(cell.getDateCellValue(), colType);
+        } else if (colType == Integer.class || colType == Double.class || colType == BigDecimal.class) {
+            return convertNumber(cell.getNumericCellValue(), colType);
+        } else if (colType == String.class) {
+            return (E) cell.getRichStringCellValue().getString();
+        } else {
+            throw new RuntimeException("Column type not supported: " + colType);
+        }
+
+    }
+
+    /**
+     * The date of a cell as a Date or Calendar, as read by readCell (also used by StreamingExcel).
+     */
+    static <E> E convertDate(Date date, Class<E> colType) {
+        if (colType == Calendar.class) {
             Calendar cal = Calendar.getInstance();
-            cal.setTime(cell.getDateCellValue());
+            cal.setTime(date);
             return (E) cal;
-        } else if (colType == Integer.class) {
-            return (E) ((Integer) ((Double) cell.getNumericCellValue()).intValue());
+        }
+        return (E) date;
+    }
+
+    /**
+     * The numeric value of a cell as an Integer, Double or BigDecimal, as read by readCell (also used by
+     * StreamingExcel).
+     */
+    static <E> E convertNumber(double value, Class<E> colType) {
+        if (colType == Integer.class) {
+            return (E) ((Integer) ((Double) value).intValue());
         } else if (colType == Double.class) {
-            return (E) (Double) cell.getNumericCellValue();
+            return (E) (Double) value;
         } else if (colType == BigDecimal.class) {
-            return (E) new BigDecimal(String.valueOf(cell.getNumericCellValue()));
-        } else if (colType == String.class) {
-            return (E) cell.getRichStringCellValue().getString();
+            return (E) new BigDecimal(String.valueOf(value));
         } else {
             throw new RuntimeException("Column type not supported: " + colType);
         }
-
     }
 
     private boolean moreDataToRead(Sheet sheet, int firstColumn, int firstRow, int lastRow, int rowNum) {
@@ -0,0 +1,15 @@
+package net.objectlab.kit.util.excel;
+
+/**
+ * Receives the rows read by {@link StreamingExcel}, one at a time.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.1
+ */
+public interface RowHandler {
+    /**
+     * @param row the values of the row, converted to the column types
+     * @return false to stop reading
+     */
+    boolean handleRow(Object[] row);
+}
@@ -0,0 +1,378 @@
+package net.objectlab.kit.util.excel;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Reads blocks of an .xlsx file without loading the workbook: the sheet is parsed with SAX and each row of the block
+ * is converted (with the same type mapping as {@link Excel}) and given to a {@link RowHandler}, so only one row is held
+ * in memory (plus the shared strings of the workbook).
+ *
+ * <pre>
+ * StreamingExcel xlsx = new StreamingExcel(new File("holidays.xlsx"));
+ * try {
+ *     xlsx.readBlock(xlsx.namedRangeToRangeAddress("Holidays"), new RowHandler() {
+ *         public boolean handleRow(Object[] row) {
+ *             holidays.add((Date) row[0]);
+ *             return true;
+ *         }
+ *     }, Date.class);
+ * } finally {
+ *     xlsx.close();
+ * }
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.1
+ */
+public class StreamingExcel {
+
+    private OPCPackage pkg;
+    private XSSFReader reader;
+    private ReadOnlySharedStringsTable sharedStrings;
+    private final Map<String, String> namedRanges = new HashMap<String, String>();
+    private boolean date1904;
+
+    /**
+     * Preferred constructor, the file is read as needed.
+     */
+    public StreamingExcel(File file) {
+        if (file == null) {
+            throw new NullPointerException("file cannot be null");
+        }
+        try {
+            init(OPCPackage.open(file.getPath(), PackageAccess.READ));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The zip is unpacked in memory by POI, use the File constructor for large workbooks.
+     */
+    public StreamingExcel(InputStream in) {
+        if (in == null) {
+            throw new NullPointerException("inputStream cannot be null");
+        }
+        try {
+            init(OPCPackage.open(in));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void init(OPCPackage opcPackage) throws Exception {
+        pkg = opcPackage;
+        reader = new XSSFReader(pkg);
+        InputStream workbook = reader.getWorkbookData();
+        try {
+            parse(workbook, new WorkbookHandler());
+        } finally {
+            workbook.close();
+        }
+    }
+
+    private static void parse(InputStream in, DefaultHandler handler) throws Exception {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        } catch (Exception e) {
+            // not supported by this parser
+        }
+        XMLReader xmlReader = factory.newSAXParser().getXMLReader();
+        xmlReader.setContentHandler(handler);
+        xmlReader.parse(new InputSource(in));
+    }
+
+    public String namedRangeToRangeAddress(String namedRange) {
+        String address = namedRanges.get(namedRange);
+        if (address == null) {
+            throw new IllegalArgumentException("Unknown named range: " + namedRange);
+        }
+        return address;
+    }
+
+    /**
+     * Same as {@link Excel#readBlock(String, Class[])}, each row being given to the handler instead of being kept.
+     *
+     * @param range either the range of the entire block to be read, or just the
+     *              top row of the cells, in which case the method will stop when
+     *              the first empty cell is reached in the first column
+     * @param handler receives each row, it can stop the reading by returning false
+     * @param columnTypes An array of data types expected at each column.
+     *                 If this array is shorter than the number of column, then the last
+     *                 data type is used until the end.
+     * @return the number of rows read
+     */
+    public int readBlock(String range, RowHandler handler, Class... columnTypes) {
+
+        if (columnTypes == null || columnTypes.length == 0) {
+            throw new RuntimeException("columnTypes cannot be null / empty");
+        }
+
+        CellRangeAddress cra = CellRangeAddress.valueOf(range);
+        AreaReference ar = new AreaReference(range);
+        String sheetName = ar.getFirstCell().getSheetName();
+
+        SheetHandler sheetHandler = new SheetHandler(cra, handler, columnTypes);
+        try {
+            if (sharedStrings == null) {
+                sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            }
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                try {
+                    if (sheets.getSheetName().equals(sheetName)) {
+                        parse(sheet, sheetHandler);
+                        return sheetHandler.rowsRead;
+                    }
+                } finally {
+                    sheet.close();
+                }
+            }
+        } catch (StopReading e) {
+            return sheetHandler.rowsRead;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        throw new IllegalArgumentException("Unknown sheet: " + sheetName);
+    }
+
+    /**
+     * Releases the file.
+     */
+    public void close() {
+        if (pkg != null) {
+            // a package opened for reading is closed without saving it
+            pkg.revert();
+            pkg = null;
+        }
+    }
+
+    /**
+     * Thrown to stop the parsing once the block has been read.
+     */
+    private static final class StopReading extends SAXException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Reads the named ranges and the date system.
+     */
+    private final class WorkbookHandler extends DefaultHandler {
+        private String name;
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if ("workbookPr".equals(localName)) {
+                String value = attributes.getValue("date1904");
+                date1904 = "1".equals(value) || "true".equals(value);
+            } else if ("definedName".equals(localName)) {
+                // names local to a sheet are ignored
+                name = attributes.getValue("localSheetId") == null ? attributes.getValue("name") : null;
+                text.setLength(0);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (name != null) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if ("definedName".equals(localName) && name != null) {
+                namedRanges.put(name, text.toString());
+                name = null;
+            }
+        }
+    }
+
+    /**
+     * Keeps the raw values of the cells of the block for the current row, then converts and hands the row over.
+     */
+    private final class SheetHandler extends DefaultHandler {
+        private final RowHandler handler;
+        private final Class[] columnTypes;
+        private final int firstColumn;
+        private final int firstRow;
+        private final int lastRow;
+        private final int width;
+        private final String[] values;
+        private final String[] types;
+        private final StringBuilder text = new StringBuilder();
+        private int rowsRead;
+        private int currentRow = -1;
+        private int nextColumn;
+        private int cellIndex = -1;
+        private String cellType;
+        private boolean hasValue;
+        private boolean inValue;
+
+        private SheetHandler(CellRangeAddress cra, RowHandler handler, Class[] columnTypes) {
+            this.handler = handler;
+            this.columnTypes = columnTypes;
+            this.firstColumn = cra.getFirstColumn();
+            this.firstRow = cra.getFirstRow();
+            this.lastRow = cra.getLastRow();
+            this.width = cra.getLastColumn() - firstColumn + 1;
+            this.values = new String[width];
+            this.types = new String[width];
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("row".equals(localName)) {
+                String r = attributes.getValue("r");
+                currentRow = r != null ? Integer.parseInt(r) - 1 : currentRow + 1;
+                if (currentRow > firstRow + rowsRead) {
+                    // the next row of the block is empty
+                    throw new StopReading();
+                }
+                nextColumn = 0;
+                Arrays.fill(values, null);
+                Arrays.fill(types, null);
+            } else if ("c".equals(localName)) {
+                String r = attributes.getValue("r");
+                int column = r != null ? columnIndex(r) : nextColumn;
+                nextColumn = column + 1;
+                cellIndex = currentRow >= firstRow && column >= firstColumn && column < firstColumn + width ? column - firstColumn : -1;
+                cellType = attributes.getValue("t");
+                hasValue = false;
+                text.setLength(0);
+            } else if (cellIndex >= 0 && ("v".equals(localName) || "t".equals(localName))) {
+                // the text of an inline string can be split in several runs, all appended
+                inValue = true;
+                hasValue = true;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if ("v".equals(localName) || "t".equals(localName)) {
+                inValue = false;
+            } else if ("c".equals(localName)) {
+                if (cellIndex >= 0) {
+                    values[cellIndex] = hasValue ? text.toString() : null;
+                    types[cellIndex] = cellType;
+                }
+                cellIndex = -1;
+            } else if ("row".equals(localName) && currentRow >= firstRow) {
+                endRow();
+            }
+        }
+
+        private void endRow() throws SAXException {
+            // an empty first cell ends the block, as in Excel
+            String first = text(0);
+            if (first == null || "".equals(first)) {
+                throw new StopReading();
+            }
+
+            Object[] row = new Object[width];
+            for (int colNum = 0; colNum < width; colNum++) {
+
+                Class colType;
+                if (colNum < columnTypes.length - 1) {
+                    colType = columnTypes[colNum];
+                } else {
+                    colType = columnTypes[columnTypes.length - 1];
+                }
+
+                row[colNum] = readCell(colNum, colType);
+            }
+            rowsRead++;
+
+            if (!handler.handleRow(row) || lastRow > firstRow && currentRow >= lastRow) {
+                throw new StopReading();
+            }
+        }
+
+        private boolean isNumeric(int colNum) {
+            return types[colNum] == null || "n".equals(types[colNum]);
+        }
+
+        /**
+         * @return the text of the cell, null if the cell is blank.
+         */
+        private String text(int colNum) {
+            String value = values[colNum];
+            if (value != null && "s".equals(types[colNum])) {
+                return sharedStrings.getEntryAt(Integer.parseInt(value));
+            }
+            return value;
+        }
+
+        /**
+         * Same mapping as Excel.readCell: a blank cell is an empty String, a 0 number or a null Date.
+         */
+        private Object readCell(int colNum, Class colType) {
+            String value = values[colNum];
+            if (colType == String.class) {
+                if (value != null && isNumeric(colNum)) {
+                    throw new IllegalStateException("Cannot get a text value from a numeric cell");
+                }
+                return value == null ? "" : text(colNum);
+            }
+            if (value != null && !isNumeric(colNum)) {
+                throw new IllegalStateException("Cannot get a numeric value from a text cell");
+            }
+            if (colType == Date.class || colType == Calendar.class) {
+                return value == null ? null : Excel.convertDate(DateUtil.getJavaDate(Double.parseDouble(value), date1904), colType);
+            } else if (colType == Integer.class || colType == Double.class || colType == BigDecimal.class) {
+                return Excel.convertNumber(value == null ? 0.0 : Double.parseDouble(value), colType);
+            } else {
+                throw new RuntimeException("Column type not supported: " + colType);
+            }
+        }
+    }
+
+    /**
+     * @return the 0 based column of a cell reference such as AB12.
+     */
+    static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c == '$') {
+                continue;
+            }
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + c - 'A' + 1;
+        }
+        return column - 1;
+    }
+}
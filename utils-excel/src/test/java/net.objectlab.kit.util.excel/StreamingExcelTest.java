@@ -0,0 +1,226 @@
+package net.objectlab.kit.util.excel;
+
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * @author Benoit Xhenseval
+ * @since 1.1
+ */
+public class StreamingExcelTest {
+
+    private Excel xlsx;
+    private StreamingExcel streaming;
+
+    @Before
+    public void setUp() {
+        xlsx = new Excel(getClass().getResourceAsStream("Test Workbook.xlsx"));
+        streaming = new StreamingExcel(getClass().getResourceAsStream("Test Workbook.xlsx"));
+    }
+
+    @After
+    public void tearDown() {
+        streaming.close();
+    }
+
+    private static class CollectingHandler implements RowHandler {
+        private final List<Object[]> rows = new ArrayList<Object[]>();
+        private final int maxRows;
+
+        CollectingHandler(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        public boolean handleRow(Object[] row) {
+            rows.add(row);
+            return rows.size() < maxRows;
+        }
+    }
+
+    @Test
+    public void shouldReadTwoLinesAndStop() {
+        // When
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        int read = streaming.readBlock("'Test Sheet'!C3:F4", handler, String.class, Integer.class);
+
+        // Then
+        assertEquals("Number of rows read should be 2", 2, read);
+        assertEquals("Number of rows read should be 2", 2, handler.rows.size());
+        assertEquals("Number of columns read should be 4", 4, handler.rows.get(0).length);
+    }
+
+    @Test
+    public void shouldReadWholeBlockGivenTopLine() {
+        // When
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        streaming.readBlock("'Test Sheet'!C3:F3", handler, String.class, Integer.class);
+
+        // Then
+        assertEquals("Number of rows read should be 9", 9, handler.rows.size());
+        assertEquals("TestA", handler.rows.get(0)[0]);
+        assertEquals("TestI", handler.rows.get(8)[0]);
+    }
+
+    @Test
+    public void shouldStopWhenTheHandlerSaysSo() {
+        // When
+        CollectingHandler handler = new CollectingHandler(3);
+        int read = streaming.readBlock("'Test Sheet'!C3", handler, String.class);
+
+        // Then
+        assertEquals(3, read);
+        assertEquals("TestC", handler.rows.get(2)[0]);
+    }
+
+    @Test
+    public void shouldReadSameValuesAsExcel() {
+        // Given
+        Object[][] expected = xlsx.readBlock("'Test Sheet'!C3:F12", String.class, Integer.class, Double.class, BigDecimal.class);
+
+        // When
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        streaming.readBlock("'Test Sheet'!C3:F12", handler, String.class, Integer.class, Double.class, BigDecimal.class);
+
+        // Then
+        assertEquals(expected.length, handler.rows.size());
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals("Row " + i + " column " + j, expected[i][j], handler.rows.get(i)[j]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindColumnIndex() {
+        assertEquals(0, StreamingExcel.columnIndex("A1"));
+        assertEquals(2, StreamingExcel.columnIndex("$C$3"));
+        assertEquals(27, StreamingExcel.columnIndex("AB12"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownSheet() {
+        streaming.readBlock("'Unknown'!C3", new CollectingHandler(1), String.class);
+    }
+
+    private StreamingExcel holidayWorkbook(String name) throws URISyntaxException {
+        return new StreamingExcel(new File(getClass().getResource(name).toURI()));
+    }
+
+    private static Date date(int year, int month, int day) {
+        return new GregorianCalendar(year, month, day).getTime();
+    }
+
+    @Test
+    public void shouldResolveNamedRange() throws Exception {
+        StreamingExcel holidays = holidayWorkbook("Holiday Workbook.xlsx");
+        try {
+            assertEquals("'Holiday Sheet'!$A$2:$B$4", holidays.namedRangeToRangeAddress("Holidays"));
+        } finally {
+            holidays.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldIgnoreNamesLocalToASheet() throws Exception {
+        StreamingExcel holidays = holidayWorkbook("Holiday Workbook.xlsx");
+        try {
+            holidays.namedRangeToRangeAddress("FirstHoliday");
+        } finally {
+            holidays.close();
+        }
+    }
+
+    @Test
+    public void shouldReadDatesOfNamedRangeFromFile() throws Exception {
+        // When
+        StreamingExcel holidays = holidayWorkbook("Holiday Workbook.xlsx");
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        try {
+            holidays.readBlock(holidays.namedRangeToRangeAddress("Holidays"), handler, Date.class, String.class);
+        } finally {
+            holidays.close();
+        }
+
+        // Then
+        assertEquals(3, handler.rows.size());
+        assertEquals(date(2024, Calendar.JANUARY, 1), handler.rows.get(0)[0]);
+        assertEquals("New Year", handler.rows.get(0)[1]);
+        assertEquals(date(2024, Calendar.MARCH, 29), handler.rows.get(1)[0]);
+        assertEquals(date(2024, Calendar.DECEMBER, 25), handler.rows.get(2)[0]);
+        assertEquals("Christmas", handler.rows.get(2)[1]);
+    }
+
+    @Test
+    public void shouldReadCalendars() throws Exception {
+        // When
+        StreamingExcel holidays = holidayWorkbook("Holiday Workbook.xlsx");
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        try {
+            holidays.readBlock("'Holiday Sheet'!A2:A4", handler, Calendar.class);
+        } finally {
+            holidays.close();
+        }
+
+        // Then
+        assertEquals(3, handler.rows.size());
+        Calendar goodFriday = (Calendar) handler.rows.get(1)[0];
+        assertEquals(2024, goodFriday.get(Calendar.YEAR));
+        assertEquals(Calendar.MARCH, goodFriday.get(Calendar.MONTH));
+        assertEquals(29, goodFriday.get(Calendar.DAY_OF_MONTH));
+    }
+
+    @Test
+    public void shouldReadDatesOfDate1904Workbook() throws Exception {
+        // When
+        StreamingExcel holidays = holidayWorkbook("Holiday Workbook 1904.xlsx");
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        try {
+            holidays.readBlock(holidays.namedRangeToRangeAddress("Holidays"), handler, Date.class, String.class);
+        } finally {
+            holidays.close();
+        }
+
+        // Then the same dates as in the 1900 based workbook
+        assertEquals(3, handler.rows.size());
+        assertEquals(date(2024, Calendar.JANUARY, 1), handler.rows.get(0)[0]);
+        assertEquals(date(2024, Calendar.MARCH, 29), handler.rows.get(1)[0]);
+        assertEquals(date(2024, Calendar.DECEMBER, 25), handler.rows.get(2)[0]);
+    }
+
+    @Test
+    public void shouldReadSameDatesAsExcel() throws Exception {
+        // Given
+        Excel dom = new Excel(getClass().getResourceAsStream("Holiday Workbook.xlsx"));
+        Object[][] expected = dom.readBlock(dom.namedRangeToRangeAddress("Holidays"), Date.class, String.class);
+
+        // When
+        StreamingExcel holidays = holidayWorkbook("Holiday Workbook.xlsx");
+        CollectingHandler handler = new CollectingHandler(Integer.MAX_VALUE);
+        try {
+            holidays.readBlock(holidays.namedRangeToRangeAddress("Holidays"), handler, Date.class, String.class);
+        } finally {
+            holidays.close();
+        }
+
+        // Then
+        assertEquals(expected.length, handler.rows.size());
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals("Row " + i + " column " + j, expected[i][j], handler.rows.get(i)[j]);
+            }
+        }
+    }
+}
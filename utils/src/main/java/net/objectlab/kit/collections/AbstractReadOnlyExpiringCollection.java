@@ -3,21 +3,36 @@
  */
 package net.objectlab.kit.collections;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * The periodic reloads (reloadOnExpiry) and the background reloads (refreshAhead) run on an
+ * {@link ExpiringCollectionScheduler}, by default the shared one; stop (or close) the collection to unregister it.
+ *
+ * In refreshAhead mode, once the data has been loaded, an access to expired data does not block: the current data is
+ * returned and a single reload runs in the background, the new data replacing it atomically when loaded.
+ *
+ * The loads (with their duration and size) and the outcome of each access are given to the
+ * {@link ExpiringCollectionListener}, if any.
+ *
  * @author Benoit Xhenseval
  */
-public abstract class AbstractReadOnlyExpiringCollection {
+public abstract class AbstractReadOnlyExpiringCollection implements AutoCloseable {
     private TimeProvider timeProvider;
     private long expiryTimeoutMilliseconds;
     private boolean reloadOnExpiry = true;
     private boolean reloadWhenExpired = true;
     private boolean loadOnFirstAccess = true;
-    private long lastLoadingTime;
+    private boolean refreshAhead;
+    private long reloadJitterMilliseconds;
+    private volatile long lastLoadingTime;
     private String id;
-    private Timer timer;
+    private ExpiringCollectionScheduler scheduler = ExpiringCollectionScheduler.getDefault();
+    private ExpiringCollectionScheduler.Registration registration;
+    private ExpiringCollectionListener listener = ExpiringCollectionListener.NONE;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object registrationLock = new Object();
 
     protected void setId(final String id) {
         this.id = id;
@@ -47,20 +62,45 @@ public abstract class AbstractReadOnlyExpiringCollection {
         this.reloadWhenExpired = reloadWhenExpired;
     }
 
+    /**
+     * @since 1.4.1
+     */
+    public void setRefreshAhead(final boolean refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * @since 1.4.1
+     */
+    public void setReloadJitterMilliseconds(final long reloadJitterMilliseconds) {
+        this.reloadJitterMilliseconds = reloadJitterMilliseconds;
+    }
+
+    /**
+     * @param scheduler the scheduler for the reloads, the shared one if null.
+     * @since 1.4.1
+     */
+    protected void setScheduler(final ExpiringCollectionScheduler scheduler) {
+        this.scheduler = scheduler != null ? scheduler : ExpiringCollectionScheduler.getDefault();
+    }
+
+    /**
+     * @param listener notified of the loads and accesses, none if null; call after setId.
+     * @since 1.4.1
+     */
+    protected void setListener(final ExpiringCollectionListener listener) {
+        this.listener = listener != null ? listener.forCollection(id) : ExpiringCollectionListener.NONE;
+    }
+
     protected boolean hasExpired() {
         return lastLoadingTime == 0 || timeProvider.getCurrentTimeMillis() - lastLoadingTime > expiryTimeoutMilliseconds;
     }
 
     public void start() {
-        if (reloadOnExpiry && expiryTimeoutMilliseconds > 0) {
-            // start timer
-            timer = new Timer();
-            timer.scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    load();
-                }
-            }, 0, expiryTimeoutMilliseconds);
+        synchronized (registrationLock) {
+            if (reloadOnExpiry && expiryTimeoutMilliseconds > 0 && registration == null) {
+                registration = scheduler.schedule(this::load, expiryTimeoutMilliseconds, reloadJitterMilliseconds);
+            }
         }
         if (!loadOnFirstAccess) {
             load();
@@ -68,36 +108,91 @@ public abstract class AbstractReadOnlyExpiringCollection {
     }
 
     public void stop() {
-        if (timer != null) {
-            timer.cancel();
-            timer.purge();
-            timer = null;
+        synchronized (registrationLock) {
+            if (registration != null) {
+                registration.close();
+                registration = null;
+            }
         }
     }
 
+    /**
+     * Same as stop, the periodic reload is unregistered from the scheduler.
+     * @since 1.4.1
+     */
     @Override
-    protected void finalize() throws Throwable {
+    public void close() {
         stop();
-        super.finalize();
     }
 
     protected void validateOnAccess() {
         if (hasExpired()) {
-            if (reloadWhenExpired || loadOnFirstAccess && lastLoadingTime == 0) {
+            if (refreshAhead && lastLoadingTime != 0) {
+                listener.accessed(id, ExpiringCollectionListener.Access.STALE);
+                refreshInBackground();
+            } else if (reloadWhenExpired || loadOnFirstAccess && lastLoadingTime == 0) {
+                listener.accessed(id, ExpiringCollectionListener.Access.RELOADED);
                 load();
             } else {
+                listener.accessed(id, ExpiringCollectionListener.Access.CLEARED);
                 doClear();
             }
+        } else {
+            listener.accessed(id, ExpiringCollectionListener.Access.FRESH);
+        }
+    }
+
+    /**
+     * Start a reload on the scheduler unless one is already running.
+     */
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    try {
+                        load();
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                // the scheduler has been closed
+                refreshing.set(false);
+                load();
+            }
         }
     }
 
     private synchronized void load() {
         if (hasExpired()) {
-            doLoad();
+            timedLoad();
             lastLoadingTime = timeProvider.getCurrentTimeMillis();
         }
     }
 
+    /**
+     * Call doLoad and notify the listener.
+     * @since 1.4.1
+     */
+    protected void timedLoad() {
+        final long start = System.nanoTime();
+        try {
+            doLoad();
+        } catch (final RuntimeException e) {
+            listener.loadFailed(id, System.nanoTime() - start, e);
+            throw e;
+        }
+        listener.loaded(id, timeProvider.getCurrentTimeMillis(), System.nanoTime() - start, getLoadedSize());
+    }
+
+    /**
+     * @return the number of entries currently loaded (without triggering a load), -1 if unknown.
+     * @since 1.4.1
+     */
+    protected int getLoadedSize() {
+        return -1;
+    }
+
     protected abstract void doLoad();
 
     protected abstract void doClear();
@@ -118,4 +213,15 @@ public abstract class AbstractReadOnlyExpiringCollection {
         return lastLoadingTime;
     }
 
+    protected boolean isRefreshAhead() {
+        return refreshAhead;
+    }
+
+    /**
+     * @since 1.4.1
+     */
+    protected TimeProvider getTimeProvider() {
+        return timeProvider;
+    }
+
 }
@@ -0,0 +1,19 @@
+package net.objectlab.kit.collections;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Loads the values of several keys in one call for {@link ExpiringLoadingCache#getAll(Collection)}.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@FunctionalInterface
+public interface BatchKeyLoader<K, V> {
+    /**
+     * @param keys the keys missing from the cache, without duplicates.
+     * @return the values per key, a key without value may be absent or mapped to null (null is not cached).
+     */
+    Map<K, V> loadAll(Collection<K> keys);
+}
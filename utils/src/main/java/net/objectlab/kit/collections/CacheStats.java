@@ -0,0 +1,81 @@
+package net.objectlab.kit.collections;
+
+/**
+ * Snapshot of the statistics of a cache.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long evictionCount;
+    private final long expiredCount;
+    private final int size;
+
+    public CacheStats(final long hitCount, final long missCount, final long loadCount, final long evictionCount, final long expiredCount, final int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.evictionCount = evictionCount;
+        this.expiredCount = expiredCount;
+        this.size = size;
+    }
+
+    /**
+     * @return number of keys found in the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of keys not found in the cache (or expired).
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of calls to the loader (a batch counts as one call).
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return number of entries removed because the cache was full.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of entries removed because they were too old.
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * @return number of entries in the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return hits / (hits + misses), 1 if there was no request.
+     */
+    public double getHitRate() {
+        final long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + hitCount + ", misses=" + missCount + ", loads=" + loadCount + ", evictions=" + evictionCount + ", expired="
+                + expiredCount + ", size=" + size + "]";
+    }
+}
@@ -3,26 +3,45 @@
  */
 package net.objectlab.kit.collections;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-
-import net.objectlab.kit.util.Pair;
 
 /**
  * Inspired by the Google Collection builder.
  *
+ * The entries are inserted directly in a HashMap created with the capacity for the expected size (if given), so it is
+ * not rehashed while loaded; {@link #build()} returns it as an immutable map, without copy.
+ *
  * @author Benoit Xhenseval
  *
  */
 public class DefaultMapBuilder<K, V> implements MapBuilder<K, V> {
-    private final List<Pair<K, V>> entries = new ArrayList<>();
+    private Map<K, V> map;
+    private Map<K, V> built;
     private final String id;
 
     public DefaultMapBuilder(final String id) {
+        this(id, 0);
+    }
+
+    /**
+     * @param expectedSize expected number of entries
+     * @since 1.4.1
+     */
+    public DefaultMapBuilder(final String id, final int expectedSize) {
         this.id = id;
+        this.map = new HashMap<>(capacity(expectedSize));
+    }
+
+    /**
+     * @return the HashMap capacity for the given number of entries with the default load factor.
+     */
+    static int capacity(final int expectedSize) {
+        if (expectedSize < 3) {
+            return 4;
+        }
+        return expectedSize < 1 << 30 ? (int) (expectedSize / 0.75f + 1.0f) : Integer.MAX_VALUE;
     }
 
     @Override
@@ -30,47 +49,54 @@ public class DefaultMapBuilder<K, V> implements MapBuilder<K, V> {
         return id;
     }
 
+    private void checkNotBuilt() {
+        if (built != null) {
+            throw new IllegalStateException("The map has already been built");
+        }
+    }
+
     /**
-     * Associates {@code key} with {@code value} in the built map.
+     * Presize the map, if no entry has been added yet.
+     * @since 1.4.1
+     */
+    @Override
+    public DefaultMapBuilder<K, V> expectedSize(final int expectedSize) {
+        checkNotBuilt();
+        if (map.isEmpty()) {
+            map = new HashMap<>(capacity(expectedSize));
+        }
+        return this;
+    }
+
+    /**
+     * Associates {@code key} with {@code value} in the built map (the last value wins for a duplicate key).
      */
     @Override
     public DefaultMapBuilder<K, V> put(final K key, final V value) {
-        entries.add(new Pair<>(key, value));
+        checkNotBuilt();
+        map.put(key, value);
         return this;
     }
 
     /**
      * Associates all of the given map's keys and values in the built map.
-     *
-     * @throws NullPointerException if any key or value in {@code map} is null
      */
     @Override
-    public DefaultMapBuilder<K, V> putAll(final Map<? extends K, ? extends V> map) {
-        for (final Entry<? extends K, ? extends V> entry : map.entrySet()) {
-            put(entry.getKey(), entry.getValue());
-        }
+    public DefaultMapBuilder<K, V> putAll(final Map<? extends K, ? extends V> m) {
+        checkNotBuilt();
+        map.putAll(m);
         return this;
     }
 
     /**
-     * Returns a newly-created immutable map.
+     * Returns the immutable map, the builder cannot be used to add entries anymore.
      *
-     * @throws IllegalArgumentException if duplicate keys were added
-     * @return
+     * @return the immutable map
      */
     public Map<K, V> build() {
-        return fromEntryList(entries);
-    }
-
-    private static <K, V> Map<K, V> fromEntryList(final List<Pair<K, V>> entries) {
-        final int size = entries.size();
-        if (size == 0) {
-            return new HashMap<>();
-        }
-        final Map<K, V> m = new HashMap<>();
-        for (final Pair<K, V> entry : entries) {
-            m.put(entry.getElement1(), entry.getElement2());
+        if (built == null) {
+            built = Collections.unmodifiableMap(map);
         }
-        return m;
+        return built;
     }
 }
@@ -4,20 +4,34 @@
 package net.objectlab.kit.collections;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
+ * The elements are inserted directly in a HashSet created with the capacity for the expected size (if given), so it
+ * is not rehashed while loaded; {@link #build()} returns it as an immutable set, without copy.
+ *
  * @author Benoit Xhenseval
  *
  */
 public class DefaultSetBuilder<T> implements SetBuilder<T> {
-    private final Set<T> set = new HashSet<>();
+    private Set<T> set;
+    private Set<T> built;
     private final String id;
 
     public DefaultSetBuilder(final String id) {
+        this(id, 0);
+    }
+
+    /**
+     * @param expectedSize expected number of elements
+     * @since 1.4.1
+     */
+    public DefaultSetBuilder(final String id, final int expectedSize) {
         super();
         this.id = id;
+        this.set = new HashSet<>(DefaultMapBuilder.capacity(expectedSize));
     }
 
     @Override
@@ -25,17 +39,43 @@ public class DefaultSetBuilder<T> implements SetBuilder<T> {
         return id;
     }
 
+    /**
+     * Presize the set, if no element has been added yet.
+     * @since 1.4.1
+     */
+    @Override
+    public void expectedSize(final int expectedSize) {
+        checkNotBuilt();
+        if (set.isEmpty()) {
+            set = new HashSet<>(DefaultMapBuilder.capacity(expectedSize));
+        }
+    }
+
+    private void checkNotBuilt() {
+        if (built != null) {
+            throw new IllegalStateException("The set has already been built");
+        }
+    }
+
     @Override
     public void add(final T t) {
+        checkNotBuilt();
         set.add(t);
     }
 
     @Override
     public void addAll(final Collection<T> t) {
+        checkNotBuilt();
         set.addAll(t);
     }
 
+    /**
+     * Returns the immutable set, the builder cannot be used to add elements anymore.
+     */
     Set<T> build() {
-        return new HashSet<>(set);
+        if (built == null) {
+            built = Collections.unmodifiableSet(set);
+        }
+        return built;
     }
 }
@@ -0,0 +1,58 @@
+package net.objectlab.kit.collections;
+
+/**
+ * Notified of the loads and accesses of the expiring collections, for instance to publish metrics (see
+ * {@link ExpiringCollectionMetrics} or forward them to any metrics registry). The methods are called on the thread
+ * loading or accessing the collection, so they should be fast and must not throw.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public interface ExpiringCollectionListener {
+    /**
+     * Listener doing nothing, the default.
+     */
+    ExpiringCollectionListener NONE = new ExpiringCollectionListener() {
+    };
+
+    /**
+     * What an access found.
+     */
+    enum Access {
+        /** The data had not expired. */
+        FRESH,
+        /** The data had expired and was returned while reloaded in the background (refreshAhead). */
+        STALE,
+        /** The data had expired (or was not loaded), the access waited for the load. */
+        RELOADED,
+        /** The data had expired and was cleared (reloadWhenExpired false). */
+        CLEARED
+    }
+
+    /**
+     * Called once by each collection created with this listener, the collection then notifies the returned listener.
+     * @param id the id of the collection
+     * @return the listener for this collection, this one by default.
+     */
+    default ExpiringCollectionListener forCollection(final String id) {
+        return this;
+    }
+
+    /**
+     * @param id the id of the collection
+     * @param timestamp time (from the collection TimeProvider) at the end of the load
+     * @param durationNanos duration of the load
+     * @param size number of entries after the load, -1 if unknown
+     */
+    default void loaded(final String id, final long timestamp, final long durationNanos, final int size) {
+    }
+
+    /**
+     * The loader has thrown an exception, the previous data is kept.
+     */
+    default void loadFailed(final String id, final long durationNanos, final RuntimeException exception) {
+    }
+
+    default void accessed(final String id, final Access access) {
+    }
+}
@@ -0,0 +1,283 @@
+package net.objectlab.kit.collections;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Listener keeping counters and a load time histogram per collection id, which can be published as MXBeans (one per
+ * id, named domain:type=ExpiringCollection,name=id). Each collection resolves its metrics once, when it is created;
+ * a failure to register or unregister an MXBean is logged and does not affect the collections.
+ * <pre>
+ * final ExpiringCollectionMetrics metrics = new ExpiringCollectionMetrics();
+ * metrics.registerMBeans(ManagementFactory.getPlatformMBeanServer(), "net.objectlab.kit");
+ * final ReadOnlyExpiringHashMapBuilder&lt;String, Asset&gt; builder = new ReadOnlyExpiringHashMapBuilder&lt;&gt;(loader);
+ * builder.id("Assets").listener(metrics);
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class ExpiringCollectionMetrics implements ExpiringCollectionListener, AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(ExpiringCollectionMetrics.class.getName());
+    private static final long[] BUCKET_MILLIS = { 1, 5, 10, 50, 100, 500, 1_000, 5_000, 10_000, 60_000 };
+    private final ConcurrentMap<String, CollectionMetrics> metrics = new ConcurrentHashMap<>();
+    private final TimeProvider timeProvider;
+    private MBeanServer server;
+    private String domain;
+
+    public ExpiringCollectionMetrics() {
+        this(new SystemTimeProvider());
+    }
+
+    /**
+     * @param timeProvider the clock used by the collections, for the time since their last load.
+     */
+    public ExpiringCollectionMetrics(final TimeProvider timeProvider) {
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * The metrics of one collection, also the listener given to that collection.
+     */
+    public final class CollectionMetrics implements ExpiringCollectionMetricsMXBean, ExpiringCollectionListener {
+        private final String id;
+        private final LongAdder loadCount = new LongAdder();
+        private final LongAdder loadFailureCount = new LongAdder();
+        private final LongAdder totalLoadNanos = new LongAdder();
+        private final LongAccumulator maxLoadNanos = new LongAccumulator(Long::max, 0L);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_MILLIS.length + 1);
+        private final LongAdder freshAccessCount = new LongAdder();
+        private final LongAdder staleAccessCount = new LongAdder();
+        private final LongAdder reloadOnAccessCount = new LongAdder();
+        private final LongAdder clearCount = new LongAdder();
+        private volatile int lastLoadSize = -1;
+        private volatile long lastLoadTime = -1L;
+
+        private CollectionMetrics(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void loaded(final String collectionId, final long timestamp, final long durationNanos, final int size) {
+            loadCount.increment();
+            recordLoadTime(durationNanos);
+            lastLoadSize = size;
+            lastLoadTime = timestamp;
+        }
+
+        @Override
+        public void loadFailed(final String collectionId, final long durationNanos, final RuntimeException exception) {
+            loadFailureCount.increment();
+            recordLoadTime(durationNanos);
+        }
+
+        @Override
+        public void accessed(final String collectionId, final Access access) {
+            switch (access) {
+            case FRESH:
+                freshAccessCount.increment();
+                break;
+            case STALE:
+                staleAccessCount.increment();
+                break;
+            case RELOADED:
+                reloadOnAccessCount.increment();
+                break;
+            default:
+                clearCount.increment();
+                break;
+            }
+        }
+
+        private void recordLoadTime(final long durationNanos) {
+            totalLoadNanos.add(durationNanos);
+            maxLoadNanos.accumulate(durationNanos);
+            final long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_MILLIS.length && millis > BUCKET_MILLIS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getLoadCount() {
+            return loadCount.sum();
+        }
+
+        @Override
+        public long getLoadFailureCount() {
+            return loadFailureCount.sum();
+        }
+
+        @Override
+        public double getAverageLoadMillis() {
+            final long loads = loadCount.sum() + loadFailureCount.sum();
+            return loads == 0 ? 0.0 : totalLoadNanos.sum() / 1_000_000.0 / loads;
+        }
+
+        @Override
+        public double getMaxLoadMillis() {
+            return maxLoadNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public long[] getLoadTimeBucketMillis() {
+            return BUCKET_MILLIS.clone();
+        }
+
+        @Override
+        public long[] getLoadTimeHistogram() {
+            final long[] result = new long[histogram.length()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = histogram.get(i);
+            }
+            return result;
+        }
+
+        @Override
+        public int getLastLoadSize() {
+            return lastLoadSize;
+        }
+
+        @Override
+        public long getMillisSinceLastLoad() {
+            final long last = lastLoadTime;
+            return last < 0 ? -1L : timeProvider.getCurrentTimeMillis() - last;
+        }
+
+        @Override
+        public long getFreshAccessCount() {
+            return freshAccessCount.sum();
+        }
+
+        @Override
+        public long getStaleAccessCount() {
+            return staleAccessCount.sum();
+        }
+
+        @Override
+        public long getReloadOnAccessCount() {
+            return reloadOnAccessCount.sum();
+        }
+
+        @Override
+        public long getClearCount() {
+            return clearCount.sum();
+        }
+    }
+
+    /**
+     * @return the metrics for the collection id, created if needed.
+     */
+    public CollectionMetrics getMetrics(final String id) {
+        final String key = String.valueOf(id);
+        CollectionMetrics m = metrics.get(key);
+        if (m == null) {
+            final CollectionMetrics created = new CollectionMetrics(key);
+            m = metrics.putIfAbsent(key, created);
+            if (m == null) {
+                m = created;
+                register(created);
+            }
+        }
+        return m;
+    }
+
+    public Collection<CollectionMetrics> getAllMetrics() {
+        return Collections.unmodifiableCollection(metrics.values());
+    }
+
+    /**
+     * @return the metrics of the collection, so that it does not look them up on each access.
+     */
+    @Override
+    public ExpiringCollectionListener forCollection(final String id) {
+        return getMetrics(id);
+    }
+
+    @Override
+    public void loaded(final String id, final long timestamp, final long durationNanos, final int size) {
+        getMetrics(id).loaded(id, timestamp, durationNanos, size);
+    }
+
+    @Override
+    public void loadFailed(final String id, final long durationNanos, final RuntimeException exception) {
+        getMetrics(id).loadFailed(id, durationNanos, exception);
+    }
+
+    @Override
+    public void accessed(final String id, final Access access) {
+        getMetrics(id).accessed(id, access);
+    }
+
+    /**
+     * Register an MXBean for each collection id, now and when new ids are seen.
+     * @param server the MBean server, the platform one if null
+     * @param domain domain of the object names
+     */
+    public synchronized void registerMBeans(final MBeanServer server, final String domain) {
+        this.server = server != null ? server : ManagementFactory.getPlatformMBeanServer();
+        this.domain = domain;
+        for (final CollectionMetrics m : metrics.values()) {
+            register(m);
+        }
+    }
+
+    private synchronized void register(final CollectionMetrics m) {
+        if (server == null) {
+            return;
+        }
+        try {
+            final ObjectName name = objectName(m.getId());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(m, name);
+            }
+        } catch (final JMException e) {
+            LOG.log(Level.WARNING, "Cannot register the metrics of " + m.getId(), e);
+        }
+    }
+
+    ObjectName objectName(final String id) throws JMException {
+        return new ObjectName(domain + ":type=ExpiringCollection,name=" + ObjectName.quote(id));
+    }
+
+    /**
+     * Unregister the MXBeans, the metrics are still recorded.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        for (final CollectionMetrics m : metrics.values()) {
+            try {
+                final ObjectName name = objectName(m.getId());
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (final JMException e) {
+                LOG.log(Level.WARNING, "Cannot unregister the metrics of " + m.getId(), e);
+            }
+        }
+        server = null;
+    }
+}
@@ -0,0 +1,47 @@
+package net.objectlab.kit.collections;
+
+/**
+ * JMX view of the metrics of one expiring collection.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public interface ExpiringCollectionMetricsMXBean {
+    String getId();
+
+    long getLoadCount();
+
+    long getLoadFailureCount();
+
+    double getAverageLoadMillis();
+
+    double getMaxLoadMillis();
+
+    /**
+     * @return the upper bound (inclusive) of each bucket of the load time histogram, the last bucket has no bound.
+     */
+    long[] getLoadTimeBucketMillis();
+
+    /**
+     * @return the number of loads per bucket, one more bucket than getLoadTimeBucketMillis.
+     */
+    long[] getLoadTimeHistogram();
+
+    /**
+     * @return number of entries after the last load, -1 if unknown.
+     */
+    int getLastLoadSize();
+
+    /**
+     * @return time since the end of the last load, -1 if not loaded yet.
+     */
+    long getMillisSinceLastLoad();
+
+    long getFreshAccessCount();
+
+    long getStaleAccessCount();
+
+    long getReloadOnAccessCount();
+
+    long getClearCount();
+}
@@ -0,0 +1,175 @@
+package net.objectlab.kit.collections;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scheduler shared by the expiring collections for their periodic and background reloads, instead of a Timer (and
+ * its thread) per collection. The threads are daemon threads.
+ *
+ * The reloads run on the threads of the scheduler, so a slow loader holds one of them for the duration of its load
+ * and, once all are busy, delays the reloads of every other collection using the same scheduler. The default
+ * scheduler has one thread per available processor, or the number given by the system property
+ * {@value #THREADS_PROPERTY}; collections with slow loaders should be given their own scheduler.
+ *
+ * Each periodic task can have a jitter: a random delay between 0 and jitter milliseconds is added to each period (and
+ * used as the initial delay) so that collections created at the same time do not all reload at the same time.
+ * <pre>
+ * try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("RefData", 2)) {
+ *     final ReadOnlyExpiringHashMapBuilder&lt;String, Asset&gt; builder = new ReadOnlyExpiringHashMapBuilder&lt;&gt;(loader);
+ *     builder.scheduler(scheduler).reloadJitterMilliseconds(5_000L).expiryTimeoutMilliseconds(60_000L);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class ExpiringCollectionScheduler implements AutoCloseable {
+    /** System property for the number of threads of the default scheduler. */
+    public static final String THREADS_PROPERTY = "net.objectlab.kit.collections.schedulerThreads";
+    private static final Logger LOG = Logger.getLogger(ExpiringCollectionScheduler.class.getName());
+    private final ScheduledThreadPoolExecutor executor;
+
+    private static final class DefaultHolder {
+        private static final ExpiringCollectionScheduler DEFAULT = new ExpiringCollectionScheduler("ExpiringCollectionScheduler",
+                Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * A registration of a periodic task, close it to stop the task.
+     */
+    public static final class Registration implements AutoCloseable {
+        private final ScheduledExecutorService executor;
+        private final Runnable task;
+        private final long periodMilliseconds;
+        private final long jitterMilliseconds;
+        private volatile ScheduledFuture<?> next;
+        private volatile boolean cancelled;
+
+        private Registration(final ScheduledExecutorService executor, final Runnable task, final long periodMilliseconds,
+                final long jitterMilliseconds) {
+            this.executor = executor;
+            this.task = task;
+            this.periodMilliseconds = periodMilliseconds;
+            this.jitterMilliseconds = jitterMilliseconds;
+        }
+
+        private void schedule(final long delay) {
+            if (cancelled || executor.isShutdown()) {
+                return;
+            }
+            try {
+                final ScheduledFuture<?> f = executor.schedule(this::run, delay + jitter(), TimeUnit.MILLISECONDS);
+                next = f;
+                if (cancelled) {
+                    // closed while scheduling
+                    f.cancel(false);
+                }
+            } catch (final RejectedExecutionException e) {
+                // the scheduler has been closed
+            }
+        }
+
+        private long jitter() {
+            return jitterMilliseconds > 0 ? ThreadLocalRandom.current().nextLong(jitterMilliseconds + 1) : 0L;
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                // the task is tried again at the next period, as for a reload triggered by an access
+                LOG.log(Level.WARNING, "Periodic task " + task + " failed, tried again in " + periodMilliseconds + "ms", e);
+            } finally {
+                schedule(periodMilliseconds);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void close() {
+            cancelled = true;
+            final ScheduledFuture<?> f = next;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @param name prefix for the names of the threads
+     * @param threads number of threads
+     */
+    public ExpiringCollectionScheduler(final String name, final int threads) {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory threadFactory = r -> {
+            final Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        executor = new ScheduledThreadPoolExecutor(threads, threadFactory);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return the scheduler used by the collections that are not given one, see {@value #THREADS_PROPERTY} for its
+     *         number of threads; it should not be closed.
+     */
+    public static ExpiringCollectionScheduler getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Run the task every periodMilliseconds (plus a random jitter), the first run is after the jitter only.
+     * @return the registration to close in order to stop the task.
+     */
+    public Registration schedule(final Runnable task, final long periodMilliseconds, final long jitterMilliseconds) {
+        final Registration registration = new Registration(executor, task, periodMilliseconds, jitterMilliseconds);
+        registration.schedule(0L);
+        return registration;
+    }
+
+    /**
+     * Run the task once, as soon as possible; an exception thrown by the task is logged.
+     */
+    public void execute(final Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                LOG.log(Level.WARNING, "Task " + task + " failed", e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of tasks waiting for their time or for a thread.
+     */
+    int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    public boolean isClosed() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Stop the threads, the registered tasks will not run anymore.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
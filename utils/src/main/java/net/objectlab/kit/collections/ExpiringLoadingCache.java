@@ -0,0 +1,395 @@
+package net.objectlab.kit.collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Thread safe cache of values loaded per key; each entry expires timeToLive after being loaded and the least recently
+ * used entries are evicted above the maximum size.
+ *
+ * The keys are spread over segments, each with its own lock and LRU order (the maximum size is split between them).
+ * The loader is called outside the lock and only once per key: the other threads requesting the same key wait for that
+ * load. Null values are not cached and an exception from the loader is given to all the waiting threads.
+ * {@link #getAll(Collection)} loads all the missing keys with one call to the batch loader.
+ * <pre>
+ * final ExpiringLoadingCache&lt;String, Asset&gt; cache = new ExpiringLoadingCacheBuilder&lt;String, Asset&gt;(assetService::find)
+ *         .timeToLiveMilliseconds(60_000L).maximumSize(10_000).build();
+ * final Asset asset = cache.get("IBM");
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class ExpiringLoadingCache<K, V> {
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private final KeyLoader<K, V> loader;
+    private final BatchKeyLoader<K, V> batchLoader;
+    private final long timeToLiveMilliseconds;
+    private final TimeProvider timeProvider;
+    private final String id;
+    private final Segment<K, V>[] segments;
+
+    private static final class Node<V> {
+        private V value;
+        private long expiresAt;
+        private FutureTask<V> loading;
+    }
+
+    private static final class Segment<K, V> {
+        private final Map<K, Node<V>> entries;
+        private long hitCount;
+        private long missCount;
+        private long loadCount;
+        private long evictionCount;
+        private long expiredCount;
+
+        private Segment(final int maximumSize) {
+            entries = new LinkedHashMap<K, Node<V>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<K, Node<V>> eldest) {
+                    if (maximumSize > 0 && size() > maximumSize) {
+                        evictionCount++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public ExpiringLoadingCache(final ExpiringLoadingCacheBuilder<K, V> builder) {
+        this.loader = Objects.requireNonNull(builder.getLoader(), "loader");
+        this.batchLoader = builder.getBatchLoader() != null ? builder.getBatchLoader() : this::loadOneByOne;
+        this.timeToLiveMilliseconds = builder.getTimeToLiveMilliseconds();
+        this.timeProvider = builder.getTimeProvider() != null ? builder.getTimeProvider() : new SystemTimeProvider();
+        this.id = builder.getId();
+        final int maximumSize = builder.getMaximumSize();
+        int count = 1;
+        while (count < builder.getConcurrencyLevel() && count < MAX_SEGMENTS) {
+            count <<= 1;
+        }
+        // each segment should be able to hold a few entries
+        while (count > 1 && maximumSize > 0 && count > maximumSize) {
+            count >>= 1;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // the remainder is spread over the first segments so that the total is the maximum size
+            segments[i] = new Segment<>(maximumSize > 0 ? maximumSize / count + (i < maximumSize % count ? 1 : 0) : -1);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    private Segment<K, V> segmentFor(final Object key) {
+        final int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    private boolean isExpired(final Node<V> node, final long now) {
+        return node.loading == null && now >= node.expiresAt;
+    }
+
+    private long expiresAt(final long now) {
+        return timeToLiveMilliseconds > 0 ? now + timeToLiveMilliseconds : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the value for the key, loading it if it is not in the cache or has expired; null if the loader returns
+     *         null.
+     * @throws RuntimeException thrown by the loader
+     */
+    public V get(final K key) {
+        Objects.requireNonNull(key, "key");
+        final Segment<K, V> segment = segmentFor(key);
+        final Node<V> node;
+        final FutureTask<V> task;
+        boolean owner = false;
+        synchronized (segment) {
+            final long now = timeProvider.getCurrentTimeMillis();
+            final Node<V> existing = segment.entries.get(key);
+            if (existing != null && existing.loading == null && !isExpired(existing, now)) {
+                segment.hitCount++;
+                return existing.value;
+            }
+            segment.missCount++;
+            if (existing != null && existing.loading != null) {
+                node = existing;
+            } else {
+                if (existing != null) {
+                    segment.expiredCount++;
+                }
+                node = new Node<>();
+                node.loading = new FutureTask<>(() -> loader.load(key));
+                segment.entries.put(key, node);
+                segment.loadCount++;
+                owner = true;
+            }
+            task = node.loading;
+        }
+        if (owner) {
+            task.run();
+            complete(segment, key, node, task);
+        }
+        return getLoaded(task);
+    }
+
+    /**
+     * @return the values for the keys, the ones not in the cache (or expired) are loaded with one call to the batch
+     *         loader; keys without value are absent.
+     * @throws RuntimeException thrown by the batch loader
+     */
+    public Map<K, V> getAll(final Collection<? extends K> keys) {
+        final Map<K, V> result = new HashMap<>();
+        final Map<K, FutureTask<V>> pending = new LinkedHashMap<>();
+        final Map<K, Node<V>> owned = new LinkedHashMap<>();
+        final FutureTask<Map<K, V>> batch = new FutureTask<>(() -> batchLoader.loadAll(new ArrayList<>(owned.keySet())));
+        final Set<K> missing = new LinkedHashSet<>();
+        // all the lookups are done before adding the missing keys, which could evict requested ones
+        for (final K key : keys) {
+            Objects.requireNonNull(key, "key");
+            if (result.containsKey(key) || pending.containsKey(key) || missing.contains(key)) {
+                continue;
+            }
+            final Segment<K, V> segment = segmentFor(key);
+            synchronized (segment) {
+                final Node<V> existing = segment.entries.get(key);
+                if (existing != null && existing.loading == null && !isExpired(existing, timeProvider.getCurrentTimeMillis())) {
+                    segment.hitCount++;
+                    result.put(key, existing.value);
+                    continue;
+                }
+                segment.missCount++;
+                if (existing != null && existing.loading != null) {
+                    // loaded by another thread
+                    pending.put(key, existing.loading);
+                    continue;
+                }
+                if (existing != null) {
+                    segment.entries.remove(key);
+                    segment.expiredCount++;
+                }
+                missing.add(key);
+            }
+        }
+        for (final K key : missing) {
+            final Segment<K, V> segment = segmentFor(key);
+            synchronized (segment) {
+                final Node<V> existing = segment.entries.get(key);
+                if (existing != null && existing.loading != null) {
+                    pending.put(key, existing.loading);
+                    continue;
+                }
+                if (existing != null && !isExpired(existing, timeProvider.getCurrentTimeMillis())) {
+                    // put or loaded by another thread in the meantime
+                    result.put(key, existing.value);
+                    continue;
+                }
+                if (owned.isEmpty()) {
+                    // the batch counts as one load
+                    segment.loadCount++;
+                }
+                final Node<V> node = new Node<>();
+                node.loading = new FutureTask<>(() -> getLoaded(batch).get(key));
+                segment.entries.put(key, node);
+                owned.put(key, node);
+                pending.put(key, node.loading);
+            }
+        }
+        if (!owned.isEmpty()) {
+            batch.run();
+            for (final Map.Entry<K, Node<V>> entry : owned.entrySet()) {
+                final FutureTask<V> task = entry.getValue().loading;
+                task.run();
+                complete(segmentFor(entry.getKey()), entry.getKey(), entry.getValue(), task);
+            }
+        }
+        for (final Map.Entry<K, FutureTask<V>> entry : pending.entrySet()) {
+            final V value = getLoaded(entry.getValue());
+            if (value != null) {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    private Map<K, V> loadOneByOne(final Collection<K> keys) {
+        final Map<K, V> values = new HashMap<>();
+        for (final K key : keys) {
+            values.put(key, loader.load(key));
+        }
+        return values;
+    }
+
+    private void complete(final Segment<K, V> segment, final K key, final Node<V> node, final FutureTask<V> task) {
+        V value = null;
+        try {
+            value = task.get();
+        } catch (final ExecutionException | InterruptedException e) {
+            // the task has run, given to the callers by getLoaded
+        }
+        synchronized (segment) {
+            // the node may have been evicted, invalidated or replaced by a put in the meantime
+            if (segment.entries.get(key) != node) {
+                return;
+            }
+            if (value == null) {
+                segment.entries.remove(key);
+            } else {
+                node.value = value;
+                node.expiresAt = expiresAt(timeProvider.getCurrentTimeMillis());
+                node.loading = null;
+            }
+        }
+    }
+
+    private static <V> V getLoaded(final FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the value", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Could not load the value", cause);
+        }
+    }
+
+    /**
+     * @return the value if it is in the cache and has not expired, without loading it.
+     */
+    public V getIfPresent(final K key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            final Node<V> existing = segment.entries.get(key);
+            if (existing == null || existing.loading != null) {
+                segment.missCount++;
+                return null;
+            }
+            if (isExpired(existing, timeProvider.getCurrentTimeMillis())) {
+                segment.entries.remove(key);
+                segment.expiredCount++;
+                segment.missCount++;
+                return null;
+            }
+            segment.hitCount++;
+            return existing.value;
+        }
+    }
+
+    /**
+     * Add or replace the value, it expires timeToLive after now; a null value removes the key.
+     */
+    public void put(final K key, final V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            final Node<V> node = new Node<>();
+            node.value = value;
+            node.expiresAt = expiresAt(timeProvider.getCurrentTimeMillis());
+            segment.entries.put(key, node);
+        }
+    }
+
+    /**
+     * Remove the key, a load in progress for it will not be cached.
+     */
+    public void invalidate(final K key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Remove all the expired entries (they are otherwise removed when requested or evicted).
+     */
+    public void cleanUp() {
+        if (timeToLiveMilliseconds <= 0) {
+            return;
+        }
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                final long now = timeProvider.getCurrentTimeMillis();
+                final Iterator<Node<V>> it = segment.entries.values().iterator();
+                while (it.hasNext()) {
+                    if (isExpired(it.next(), now)) {
+                        it.remove();
+                        segment.expiredCount++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of entries, including the ones being loaded and the expired ones not removed yet.
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the statistics summed over the segments (each segment is read under its own lock).
+     */
+    public CacheStats getStats() {
+        long hits = 0;
+        long misses = 0;
+        long loads = 0;
+        long evictions = 0;
+        long expired = 0;
+        int size = 0;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                hits += segment.hitCount;
+                misses += segment.missCount;
+                loads += segment.loadCount;
+                evictions += segment.evictionCount;
+                expired += segment.expiredCount;
+                size += segment.entries.size();
+            }
+        }
+        return new CacheStats(hits, misses, loads, evictions, expired, size);
+    }
+
+    int getSegmentCount() {
+        return segments.length;
+    }
+}
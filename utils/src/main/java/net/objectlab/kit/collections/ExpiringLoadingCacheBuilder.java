@@ -0,0 +1,108 @@
+package net.objectlab.kit.collections;
+
+import net.objectlab.kit.util.PeriodBuilder;
+
+/**
+ * Builder for the {@link ExpiringLoadingCache}.
+ * Default:
+ * - no time out
+ * - no maximum size
+ * - 16 segments
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public class ExpiringLoadingCacheBuilder<K, V> {
+    private final KeyLoader<K, V> loader;
+    private BatchKeyLoader<K, V> batchLoader;
+    private long timeToLiveMilliseconds = -1;
+    private int maximumSize = -1;
+    private int concurrencyLevel = 16;
+    private String id;
+    private TimeProvider timeProvider;
+
+    public ExpiringLoadingCacheBuilder(final KeyLoader<K, V> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Loader for {@link ExpiringLoadingCache#getAll(java.util.Collection)}, by default the keys are loaded one by one.
+     */
+    public ExpiringLoadingCacheBuilder<K, V> batchLoader(final BatchKeyLoader<K, V> batchLoader) {
+        this.batchLoader = batchLoader;
+        return this;
+    }
+
+    public ExpiringLoadingCacheBuilder<K, V> id(final String id) {
+        this.id = id;
+        return this;
+    }
+
+    public ExpiringLoadingCacheBuilder<K, V> timeProvider(final TimeProvider timeProvider) {
+        this.timeProvider = timeProvider;
+        return this;
+    }
+
+    /**
+     * Each entry expires this time after being loaded (or put), 0 or less for no expiry.
+     */
+    public ExpiringLoadingCacheBuilder<K, V> timeToLiveMilliseconds(final long timeToLiveMilliseconds) {
+        this.timeToLiveMilliseconds = timeToLiveMilliseconds;
+        return this;
+    }
+
+    public ExpiringLoadingCacheBuilder<K, V> timeToLive(final PeriodBuilder timeToLive) {
+        if (timeToLive != null) {
+            this.timeToLiveMilliseconds = timeToLive.calculateMilliseconds();
+        }
+        return this;
+    }
+
+    /**
+     * The least recently used entries are evicted above this size, 0 or less for no limit.
+     */
+    public ExpiringLoadingCacheBuilder<K, V> maximumSize(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * Number of segments, each with its own lock (rounded to a power of 2).
+     */
+    public ExpiringLoadingCacheBuilder<K, V> concurrencyLevel(final int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+        return this;
+    }
+
+    public ExpiringLoadingCache<K, V> build() {
+        return new ExpiringLoadingCache<>(this);
+    }
+
+    final KeyLoader<K, V> getLoader() {
+        return loader;
+    }
+
+    final BatchKeyLoader<K, V> getBatchLoader() {
+        return batchLoader;
+    }
+
+    final long getTimeToLiveMilliseconds() {
+        return timeToLiveMilliseconds;
+    }
+
+    final int getMaximumSize() {
+        return maximumSize;
+    }
+
+    final int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    final String getId() {
+        return id;
+    }
+
+    final TimeProvider getTimeProvider() {
+        return timeProvider;
+    }
+}
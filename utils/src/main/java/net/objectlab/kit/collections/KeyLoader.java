@@ -0,0 +1,15 @@
+package net.objectlab.kit.collections;
+
+/**
+ * Loads the value of a single key for an {@link ExpiringLoadingCache}.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+@FunctionalInterface
+public interface KeyLoader<K, V> {
+    /**
+     * @return the value for the key, null if there is none (null is not cached).
+     */
+    V load(K key);
+}
@@ -29,4 +29,15 @@ public interface MapBuilder<K, V> {
      * @return a map builder
      */
     MapBuilder<K, V> putAll(Map<? extends K, ? extends V> map);
+
+    /**
+     * Hint given by the loader before adding the entries, so that the map is created with the right capacity instead
+     * of growing while loaded.
+     * @param expectedSize expected number of entries
+     * @return a map builder
+     * @since 1.4.1
+     */
+    default MapBuilder<K, V> expectedSize(final int expectedSize) {
+        return this;
+    }
 }
\ No newline at end of file
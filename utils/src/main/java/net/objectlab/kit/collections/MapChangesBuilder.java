@@ -0,0 +1,28 @@
+package net.objectlab.kit.collections;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Receives the changes of a map since its previous load: the entries added or updated and the keys removed.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+public interface MapChangesBuilder<K, V> extends MapBuilder<K, V> {
+    /**
+     * Adds or replaces the value for {@code key}.
+     */
+    @Override
+    MapChangesBuilder<K, V> put(K key, V value);
+
+    @Override
+    MapChangesBuilder<K, V> putAll(Map<? extends K, ? extends V> map);
+
+    /**
+     * Removes {@code key} from the map, if present.
+     */
+    MapChangesBuilder<K, V> remove(K key);
+
+    MapChangesBuilder<K, V> removeAll(Collection<? extends K> keys);
+}
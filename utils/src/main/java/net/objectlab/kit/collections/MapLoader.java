@@ -10,4 +10,17 @@ package net.objectlab.kit.collections;
 @FunctionalInterface
 public interface MapLoader<K, V> {
     void load(MapBuilder<K, V> builder);
+
+    /**
+     * Called instead of {@link #load(MapBuilder)} once the map has been loaded, to give only the entries added, updated
+     * or removed since the given time; the map then shares the unchanged entries with the previous version, so the
+     * cost of a reload depends on the number of changes, not on the size of the map.
+     *
+     * @param lastLoadingTime the time (from the TimeProvider) at which the previous load started.
+     * @return false if the changes are not known, the map is then fully reloaded (the default).
+     * @since 1.4.1
+     */
+    default boolean loadChangesSince(final long lastLoadingTime, final MapChangesBuilder<K, V> builder) {
+        return false;
+    }
 }
@@ -0,0 +1,496 @@
+package net.objectlab.kit.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash map (a hash array mapped trie) where a new version is created by applying changes to an existing one:
+ * only the nodes on the path of the changed keys are copied, the rest is shared with the previous version. The cost of
+ * a new version is therefore proportional to the number of changes, not to the size of the map.
+ *
+ * The changes are made with an {@link Editor}, which updates in place the nodes it has already copied, so a large batch
+ * of changes (or a full load) does not copy the same nodes again and again.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    /** 32 bits of hash, 5 at a time, plus a collision node. */
+    private static final int MAX_DEPTH = 8;
+    @SuppressWarnings("rawtypes")
+    private static final PersistentHashMap EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return an editor starting from this version, which is not modified.
+     */
+    Editor<K, V> edit() {
+        return new Editor<>(root, size);
+    }
+
+    private static int hash(final Object key) {
+        final int h = key == null ? 0 : key.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    private static int bitpos(final int hash, final int shift) {
+        return 1 << (hash >>> shift & MASK);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf<K, V> find(final Object key) {
+        return root == null ? null : (Leaf<K, V>) root.find(hash(key), key, 0);
+    }
+
+    @Override
+    public V get(final Object key) {
+        final Leaf<K, V> leaf = find(key);
+        return leaf == null ? null : leaf.value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        if (es == null) {
+            es = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new LeafIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(final Object o) {
+                    if (!(o instanceof Map.Entry)) {
+                        return false;
+                    }
+                    final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                    final Leaf<K, V> leaf = find(e.getKey());
+                    return leaf != null && Objects.equals(leaf.value, e.getValue());
+                }
+            };
+            entrySet = es;
+        }
+        return es;
+    }
+
+    /**
+     * Applies changes to a version of the map; the nodes it creates belong to it and are modified in place until
+     * {@link #build()} is called.
+     */
+    static final class Editor<K, V> {
+        private final Change change = new Change();
+        private Object token = new Object();
+        private Node root;
+        private int size;
+
+        private Editor(final Node root, final int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        private void checkOpen() {
+            if (token == null) {
+                throw new IllegalStateException("The map has already been built");
+            }
+        }
+
+        Editor<K, V> put(final K key, final V value) {
+            checkOpen();
+            change.sizeDelta = 0;
+            final int hash = hash(key);
+            root = root == null ? new BitmapNode(token, 0, new Object[0]).put(token, hash, key, value, 0, change) : root.put(token, hash, key,
+                    value, 0, change);
+            size += change.sizeDelta;
+            return this;
+        }
+
+        Editor<K, V> remove(final Object key) {
+            checkOpen();
+            if (root != null) {
+                change.sizeDelta = 0;
+                root = root.remove(token, hash(key), key, 0, change);
+                size += change.sizeDelta;
+            }
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return the new version, the editor cannot be used anymore.
+         */
+        PersistentHashMap<K, V> build() {
+            checkOpen();
+            token = null;
+            return size == 0 ? PersistentHashMap.<K, V> empty() : new PersistentHashMap<>(root, size);
+        }
+    }
+
+    private static final class Change {
+        private int sizeDelta;
+    }
+
+    private static final class Leaf<K, V> implements Map.Entry<K, V> {
+        private final int hash;
+        private final K key;
+        private final V value;
+
+        private Leaf(final int hash, final K key, final V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(final V v) {
+            throw new UnsupportedOperationException("Collection is immutable");
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * A node holds its children in an array of {@link Leaf} and {@link Node}; it can be modified only by the editor
+     * owning its token.
+     */
+    private abstract static class Node {
+        private final Object token;
+        Object[] array;
+
+        Node(final Object token, final Object[] array) {
+            this.token = token;
+            this.array = array;
+        }
+
+        boolean isOwnedBy(final Object editToken) {
+            return token == editToken;
+        }
+
+        abstract Leaf<?, ?> find(int hash, Object key, int shift);
+
+        abstract <K, V> Node put(Object editToken, int hash, K key, V value, int shift, Change change);
+
+        /**
+         * @return the node without the key, null if it is empty.
+         */
+        abstract Node remove(Object editToken, int hash, Object key, int shift, Change change);
+    }
+
+    private static final class BitmapNode extends Node {
+        private int bitmap;
+
+        private BitmapNode(final Object token, final int bitmap, final Object[] array) {
+            super(token, array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & bit - 1);
+        }
+
+        private BitmapNode editable(final Object editToken) {
+            return isOwnedBy(editToken) ? this : new BitmapNode(editToken, bitmap, array.clone());
+        }
+
+        @Override
+        Leaf<?, ?> find(final int hash, final Object key, final int shift) {
+            final int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final Object slot = array[index(bit)];
+            if (slot instanceof Node) {
+                return ((Node) slot).find(hash, key, shift + BITS);
+            }
+            final Leaf<?, ?> leaf = (Leaf<?, ?>) slot;
+            return leaf.hash == hash && Objects.equals(leaf.key, key) ? leaf : null;
+        }
+
+        @Override
+        <K, V> Node put(final Object editToken, final int hash, final K key, final V value, final int shift, final Change change) {
+            final int bit = bitpos(hash, shift);
+            final int idx = index(bit);
+            if ((bitmap & bit) == 0) {
+                final Object[] newArray = new Object[array.length + 1];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = new Leaf<>(hash, key, value);
+                System.arraycopy(array, idx, newArray, idx + 1, array.length - idx);
+                final BitmapNode node = editable(editToken);
+                node.array = newArray;
+                node.bitmap |= bit;
+                change.sizeDelta = 1;
+                return node;
+            }
+            final Object slot = array[idx];
+            final Object newSlot;
+            if (slot instanceof Node) {
+                newSlot = ((Node) slot).put(editToken, hash, key, value, shift + BITS, change);
+            } else {
+                final Leaf<?, ?> leaf = (Leaf<?, ?>) slot;
+                if (leaf.hash == hash && Objects.equals(leaf.key, key)) {
+                    newSlot = leaf.value == value ? leaf : new Leaf<>(hash, key, value);
+                } else {
+                    newSlot = createNode(editToken, shift + BITS, leaf, new Leaf<>(hash, key, value));
+                    change.sizeDelta = 1;
+                }
+            }
+            if (newSlot == slot) {
+                return this;
+            }
+            final BitmapNode node = editable(editToken);
+            node.array[idx] = newSlot;
+            return node;
+        }
+
+        private static Node createNode(final Object editToken, final int shift, final Leaf<?, ?> existing, final Leaf<?, ?> added) {
+            if (existing.hash == added.hash) {
+                return new CollisionNode(editToken, existing.hash, new Object[] { existing, added });
+            }
+            final int fragment1 = existing.hash >>> shift & MASK;
+            final int fragment2 = added.hash >>> shift & MASK;
+            if (fragment1 == fragment2) {
+                return new BitmapNode(editToken, 1 << fragment1, new Object[] { createNode(editToken, shift + BITS, existing, added) });
+            }
+            // the children are ordered by their bit position
+            return new BitmapNode(editToken, 1 << fragment1 | 1 << fragment2, fragment1 < fragment2 ? new Object[] { existing, added }
+                    : new Object[] { added, existing });
+        }
+
+        @Override
+        Node remove(final Object editToken, final int hash, final Object key, final int shift, final Change change) {
+            final int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int idx = index(bit);
+            final Object slot = array[idx];
+            if (slot instanceof Node) {
+                final Node child = ((Node) slot).remove(editToken, hash, key, shift + BITS, change);
+                if (child == slot) {
+                    return this;
+                }
+                if (child != null) {
+                    final BitmapNode node = editable(editToken);
+                    node.array[idx] = child;
+                    return node;
+                }
+            } else {
+                final Leaf<?, ?> leaf = (Leaf<?, ?>) slot;
+                if (leaf.hash != hash || !Objects.equals(leaf.key, key)) {
+                    return this;
+                }
+                change.sizeDelta = -1;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 1];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 1, newArray, idx, array.length - idx - 1);
+            final BitmapNode node = editable(editToken);
+            node.array = newArray;
+            node.bitmap ^= bit;
+            return node;
+        }
+    }
+
+    /**
+     * Keys with the same hash.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        private CollisionNode(final Object token, final int hash, final Object[] array) {
+            super(token, array);
+            this.hash = hash;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i++) {
+                if (Objects.equals(((Leaf<?, ?>) array[i]).key, key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private CollisionNode editable(final Object editToken) {
+            return isOwnedBy(editToken) ? this : new CollisionNode(editToken, hash, array.clone());
+        }
+
+        @Override
+        Leaf<?, ?> find(final int h, final Object key, final int shift) {
+            if (h != hash) {
+                return null;
+            }
+            final int idx = indexOf(key);
+            return idx < 0 ? null : (Leaf<?, ?>) array[idx];
+        }
+
+        @Override
+        <K, V> Node put(final Object editToken, final int h, final K key, final V value, final int shift, final Change change) {
+            if (h != hash) {
+                // a different hash with the same prefix, this node moves one level down
+                return new BitmapNode(editToken, bitpos(hash, shift), new Object[] { this }).put(editToken, h, key, value, shift, change);
+            }
+            final int idx = indexOf(key);
+            final CollisionNode node;
+            if (idx >= 0) {
+                if (((Leaf<?, ?>) array[idx]).value == value) {
+                    return this;
+                }
+                node = editable(editToken);
+                node.array[idx] = new Leaf<>(h, key, value);
+            } else {
+                final Object[] newArray = new Object[array.length + 1];
+                System.arraycopy(array, 0, newArray, 0, array.length);
+                newArray[array.length] = new Leaf<>(h, key, value);
+                node = editable(editToken);
+                node.array = newArray;
+                change.sizeDelta = 1;
+            }
+            return node;
+        }
+
+        @Override
+        Node remove(final Object editToken, final int h, final Object key, final int shift, final Change change) {
+            final int idx = h == hash ? indexOf(key) : -1;
+            if (idx < 0) {
+                return this;
+            }
+            change.sizeDelta = -1;
+            if (array.length == 1) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 1];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 1, newArray, idx, array.length - idx - 1);
+            final CollisionNode node = editable(editToken);
+            node.array = newArray;
+            return node;
+        }
+    }
+
+    /**
+     * Depth first iteration over the leaves.
+     */
+    private static final class LeafIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] indexes = new int[MAX_DEPTH];
+        private int depth = -1;
+        private Leaf<K, V> next;
+
+        private LeafIterator(final Node root) {
+            if (root != null) {
+                depth = 0;
+                arrays[0] = root.array;
+                advance();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                final Object[] array = arrays[depth];
+                if (indexes[depth] == array.length) {
+                    depth--;
+                    continue;
+                }
+                final Object slot = array[indexes[depth]++];
+                if (slot instanceof Node) {
+                    depth++;
+                    arrays[depth] = ((Node) slot).array;
+                    indexes[depth] = 0;
+                } else {
+                    next = (Leaf<K, V>) slot;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Leaf<K, V> result = next;
+            advance();
+            return result;
+        }
+    }
+}
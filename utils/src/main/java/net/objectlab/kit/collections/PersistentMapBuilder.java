@@ -0,0 +1,59 @@
+package net.objectlab.kit.collections;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Builds a new version of a {@link PersistentHashMap}, for a full load (from the empty map) or for the changes since
+ * the previous load.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.1
+ */
+final class PersistentMapBuilder<K, V> implements MapChangesBuilder<K, V> {
+    private final String id;
+    private final PersistentHashMap.Editor<K, V> editor;
+
+    PersistentMapBuilder(final String id, final PersistentHashMap<K, V> from) {
+        this.id = id;
+        this.editor = from.edit();
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public PersistentMapBuilder<K, V> put(final K key, final V value) {
+        editor.put(key, value);
+        return this;
+    }
+
+    @Override
+    public PersistentMapBuilder<K, V> putAll(final Map<? extends K, ? extends V> map) {
+        for (final Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            editor.put(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    @Override
+    public PersistentMapBuilder<K, V> remove(final K key) {
+        editor.remove(key);
+        return this;
+    }
+
+    @Override
+    public PersistentMapBuilder<K, V> removeAll(final Collection<? extends K> keys) {
+        for (final K key : keys) {
+            editor.remove(key);
+        }
+        return this;
+    }
+
+    PersistentHashMap<K, V> build() {
+        return editor.build();
+    }
+}
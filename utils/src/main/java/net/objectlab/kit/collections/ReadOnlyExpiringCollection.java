@@ -7,8 +7,17 @@ package net.objectlab.kit.collections;
  * @author Benoit Xhenseval
  *
  */
-public interface ReadOnlyExpiringCollection {
+public interface ReadOnlyExpiringCollection extends AutoCloseable {
     void stop();
 
     void reload();
+
+    /**
+     * Same as stop.
+     * @since 1.4.1
+     */
+    @Override
+    default void close() {
+        stop();
+    }
 }
@@ -17,8 +17,12 @@ public class ReadOnlyExpiringCollectionBuilder {
     private boolean reloadOnExpiry = true;
     private boolean reloadWhenExpired;
     private boolean loadOnFirstAccess = true;
+    private boolean refreshAhead;
+    private long reloadJitterMilliseconds;
     private String id;
     private TimeProvider timeProvider;
+    private ExpiringCollectionScheduler scheduler;
+    private ExpiringCollectionListener listener;
 
     public ReadOnlyExpiringCollectionBuilder timeProvider(final TimeProvider timeProvider) {
         this.timeProvider = timeProvider;
@@ -57,6 +61,43 @@ public class ReadOnlyExpiringCollectionBuilder {
         return this;
     }
 
+    /**
+     * Once loaded, an access to expired data returns the current data and triggers a single reload in the
+     * background (whatever reloadWhenExpired); the readers never wait for the loader after the first load.
+     * @since 1.4.1
+     */
+    public ReadOnlyExpiringCollectionBuilder refreshAhead(final boolean refreshAhead) {
+        this.refreshAhead = refreshAhead;
+        return this;
+    }
+
+    /**
+     * A random delay up to this is added to each periodic reload (reloadOnExpiry), default 0.
+     * @since 1.4.1
+     */
+    public ReadOnlyExpiringCollectionBuilder reloadJitterMilliseconds(final long reloadJitterMilliseconds) {
+        this.reloadJitterMilliseconds = reloadJitterMilliseconds;
+        return this;
+    }
+
+    /**
+     * The scheduler running the reloads, default is the shared ExpiringCollectionScheduler.getDefault().
+     * @since 1.4.1
+     */
+    public ReadOnlyExpiringCollectionBuilder scheduler(final ExpiringCollectionScheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * Notified of the loads and accesses, for metrics (see ExpiringCollectionMetrics), default none.
+     * @since 1.4.1
+     */
+    public ReadOnlyExpiringCollectionBuilder listener(final ExpiringCollectionListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
     final long getExpiryTimeoutMilliseconds() {
         return expiryTimeoutMilliseconds;
     }
@@ -73,6 +114,22 @@ public class ReadOnlyExpiringCollectionBuilder {
         return loadOnFirstAccess;
     }
 
+    final boolean isRefreshAhead() {
+        return refreshAhead;
+    }
+
+    final long getReloadJitterMilliseconds() {
+        return reloadJitterMilliseconds;
+    }
+
+    final ExpiringCollectionScheduler getScheduler() {
+        return scheduler;
+    }
+
+    final ExpiringCollectionListener getListener() {
+        return listener;
+    }
+
     final String getId() {
         return id;
     }
@@ -4,18 +4,26 @@
 package net.objectlab.kit.collections;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 /**
+ * The data is held in an immutable snapshot replaced atomically by each load, so a reader never sees a partially
+ * loaded or cleared map.
+ *
+ * Once loaded, the map asks the loader for the changes since the previous load ({@link MapLoader#loadChangesSince})
+ * and applies them to a new version sharing the unchanged entries with the current one; if the loader does not know
+ * the changes, the map is fully reloaded.
+ *
  * @author Benoit Xhenseval
  *
  */
 public class ReadOnlyExpiringHashMap<K, V> extends AbstractReadOnlyExpiringCollection implements ReadOnlyExpiringMap<K, V> {
     private static final String COLLECTION_IS_IMMUTABLE = "Collection is immutable";
-    private Map<K, V> delegate = new HashMap<>();
+    private volatile PersistentHashMap<K, V> delegate = PersistentHashMap.empty();
     private final MapLoader<K, V> loader;
+    /** Start of the previous load, 0 if the next load must be a full one. */
+    private volatile long changesSince;
 
     public ReadOnlyExpiringHashMap(final ReadOnlyExpiringHashMapBuilder<K, V> builder) {
         loader = builder.getLoader();
@@ -25,14 +33,28 @@ public class ReadOnlyExpiringHashMap<K, V> extends AbstractReadOnlyExpiringColle
         setLoadOnFirstAccess(builder.isLoadOnFirstAccess());
         setReloadWhenExpired(builder.isReloadWhenExpired());
         setTimeProvider(builder.getTimeProvider());
+        setRefreshAhead(builder.isRefreshAhead());
+        setReloadJitterMilliseconds(builder.getReloadJitterMilliseconds());
+        setScheduler(builder.getScheduler());
+        setListener(builder.getListener());
         start();
     }
 
     @Override
-    protected void doLoad() {
-        final DefaultMapBuilder<K, V> builder = new DefaultMapBuilder<>(getId());
+    protected synchronized void doLoad() {
+        final long start = getTimeProvider().getCurrentTimeMillis();
+        if (changesSince != 0) {
+            final PersistentMapBuilder<K, V> changes = new PersistentMapBuilder<>(getId(), delegate);
+            if (loader.loadChangesSince(changesSince, changes)) {
+                delegate = changes.build();
+                changesSince = start;
+                return;
+            }
+        }
+        final PersistentMapBuilder<K, V> builder = new PersistentMapBuilder<>(getId(), PersistentHashMap.<K, V> empty());
         loader.load(builder);
         delegate = builder.build();
+        changesSince = start;
     }
 
     @Override
@@ -103,13 +125,22 @@ public class ReadOnlyExpiringHashMap<K, V> extends AbstractReadOnlyExpiringColle
         return delegate.values();
     }
 
+    /**
+     * Does not wait for a load in progress, the readers see either the empty map or the result of that load.
+     */
     @Override
     protected void doClear() {
-        delegate.clear();
+        delegate = PersistentHashMap.empty();
+        changesSince = 0;
+    }
+
+    @Override
+    protected int getLoadedSize() {
+        return delegate.size();
     }
 
     @Override
     public void reload() {
-        doLoad();
+        timedLoad();
     }
 }
@@ -15,7 +15,7 @@ import java.util.Set;
 public class ReadOnlyExpiringHashSet<T> extends AbstractReadOnlyExpiringCollection implements ReadOnlyExpiringSet<T> {
     private static final String COLLECTION_IS_IMMUTABLE = "Collection is immutable";
     private final SetLoader<T> loader;
-    private Set<T> delegate = new HashSet<>();
+    private volatile Set<T> delegate = new HashSet<>();
 
     public ReadOnlyExpiringHashSet(final ReadOnlyExpiringHashSetBuilder<T> builder) {
         this.loader = builder.getLoader();
@@ -25,20 +25,24 @@ public class ReadOnlyExpiringHashSet<T> extends AbstractReadOnlyExpiringCollecti
         setLoadOnFirstAccess(builder.isLoadOnFirstAccess());
         setReloadWhenExpired(builder.isReloadWhenExpired());
         setTimeProvider(builder.getTimeProvider());
+        setRefreshAhead(builder.isRefreshAhead());
+        setReloadJitterMilliseconds(builder.getReloadJitterMilliseconds());
+        setScheduler(builder.getScheduler());
+        setListener(builder.getListener());
         start();
     }
 
     @Override
     protected void doLoad() {
-        final DefaultSetBuilder<T> builder = new DefaultSetBuilder<>(getId());
+        // presized for the previous size, unless the loader gives a hint
+        final DefaultSetBuilder<T> builder = new DefaultSetBuilder<>(getId(), delegate.size());
         loader.load(builder);
         delegate = builder.build();
     }
 
     @Override
     public boolean add(final T e) {
-        validateOnAccess();
-        return delegate.add(e);
+        throw new UnsupportedOperationException(COLLECTION_IS_IMMUTABLE);
     }
 
     @Override
@@ -110,11 +114,16 @@ public class ReadOnlyExpiringHashSet<T> extends AbstractReadOnlyExpiringCollecti
 
     @Override
     protected void doClear() {
-        delegate.clear();
+        delegate = new HashSet<>();
+    }
+
+    @Override
+    protected int getLoadedSize() {
+        return delegate.size();
     }
 
     @Override
     public void reload() {
-        doLoad();
+        timedLoad();
     }
 }
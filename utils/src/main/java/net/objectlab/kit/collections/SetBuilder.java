@@ -15,4 +15,12 @@ public interface SetBuilder<T> {
     void add(final T t);
 
     void addAll(final Collection<T> t);
+
+    /**
+     * Hint given by the loader before adding the elements, so that the set is created with the right capacity instead
+     * of growing while loaded.
+     * @since 1.4.1
+     */
+    default void expectedSize(final int expectedSize) {
+    }
 }
@@ -0,0 +1,101 @@
+package net.objectlab.kit.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class DefaultMapBuilderTest {
+
+    @Test
+    public void lastValueWinsAndMapIsNotCopied() {
+        final DefaultMapBuilder<String, Integer> builder = new DefaultMapBuilder<>("Test", 3);
+        builder.put("A", 1).put("B", 2).put("A", 3).putAll(Collections.singletonMap("C", 4));
+        final Map<String, Integer> map = builder.build();
+        assertEquals(3, map.size());
+        assertEquals(Integer.valueOf(3), map.get("A"));
+        assertSame(map, builder.build());
+    }
+
+    @Test
+    public void expectedSizeFromTheLoader() {
+        final DefaultMapBuilder<Integer, Integer> builder = new DefaultMapBuilder<>("Test");
+        builder.expectedSize(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            builder.put(i, i);
+        }
+        // ignored once loading
+        builder.expectedSize(5);
+        assertEquals(10_000, builder.build().size());
+    }
+
+    @Test
+    public void capacityAvoidsRehash() {
+        assertEquals(4, DefaultMapBuilder.capacity(0));
+        assertEquals(4, DefaultMapBuilder.capacity(2));
+        assertEquals(14, DefaultMapBuilder.capacity(10));
+        assertTrue(DefaultMapBuilder.capacity(3_000_000) * 0.75 >= 3_000_000);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void builtMapIsImmutable() {
+        new DefaultMapBuilder<String, Integer>("Test").put("A", 1).build().put("B", 2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noPutAfterBuild() {
+        final DefaultMapBuilder<String, Integer> builder = new DefaultMapBuilder<>("Test");
+        builder.build();
+        builder.put("A", 1);
+    }
+
+    @Test
+    public void setBuilderWithExpectedSize() {
+        final DefaultSetBuilder<Integer> builder = new DefaultSetBuilder<>("Test", 2);
+        builder.add(1);
+        builder.addAll(Collections.singleton(2));
+        builder.add(1);
+        final Set<Integer> set = builder.build();
+        assertEquals(2, set.size());
+        assertSame(set, builder.build());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noAddAfterBuild() {
+        final DefaultSetBuilder<Integer> builder = new DefaultSetBuilder<>("Test");
+        builder.build();
+        builder.add(1);
+    }
+
+    @Test
+    public void builtSetIsImmutable() {
+        final DefaultSetBuilder<Integer> builder = new DefaultSetBuilder<>("Test");
+        builder.add(1);
+        final Set<Integer> set = builder.build();
+        try {
+            set.add(2);
+            fail("add should throw");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+        try {
+            set.remove(1);
+            fail("remove should throw");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+        try {
+            set.clear();
+            fail("clear should throw");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+        assertEquals(Collections.singleton(1), set);
+    }
+}
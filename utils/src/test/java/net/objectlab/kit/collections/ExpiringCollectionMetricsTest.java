@@ -0,0 +1,126 @@
+package net.objectlab.kit.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+
+import org.junit.Test;
+
+public class ExpiringCollectionMetricsTest {
+    private final AtomicLong time = new AtomicLong(10_000L);
+
+    private ReadOnlyExpiringHashMapBuilder<String, Integer> builder(final ExpiringCollectionMetrics metrics, final MapLoader<String, Integer> loader) {
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = new ReadOnlyExpiringHashMapBuilder<>(loader);
+        builder.id("Assets").expiryTimeoutMilliseconds(1000).reloadOnExpiry(false).timeProvider(time::get).listener(metrics);
+        return builder;
+    }
+
+    @Test
+    public void loadsAndAccessesAreCounted() {
+        final ExpiringCollectionMetrics metrics = new ExpiringCollectionMetrics(time::get);
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = builder(metrics, b -> b.put("A", 1).put("B", 2));
+        builder.reloadWhenExpired(true);
+        final ReadOnlyExpiringMap<String, Integer> map = new ReadOnlyExpiringHashMap<>(builder);
+
+        assertEquals(Integer.valueOf(1), map.get("A"));
+        assertEquals(Integer.valueOf(2), map.get("B"));
+        time.addAndGet(1001);
+        assertEquals(2, map.size());
+
+        final ExpiringCollectionMetrics.CollectionMetrics m = metrics.getMetrics("Assets");
+        assertEquals(2, m.getLoadCount());
+        assertEquals(0, m.getLoadFailureCount());
+        assertEquals(2, m.getReloadOnAccessCount());
+        assertEquals(1, m.getFreshAccessCount());
+        assertEquals(2, m.getLastLoadSize());
+        assertEquals(0, m.getMillisSinceLastLoad());
+        time.addAndGet(10);
+        assertEquals(10, m.getMillisSinceLastLoad());
+
+        long loads = 0;
+        for (final long count : m.getLoadTimeHistogram()) {
+            loads += count;
+        }
+        assertEquals(2, loads);
+        assertEquals(m.getLoadTimeBucketMillis().length + 1, m.getLoadTimeHistogram().length);
+    }
+
+    @Test
+    public void clearsAndFailuresAreCounted() {
+        final ExpiringCollectionMetrics metrics = new ExpiringCollectionMetrics(time::get);
+        final AtomicBoolean fail = new AtomicBoolean();
+        final ReadOnlyExpiringHashMap<String, Integer> map = new ReadOnlyExpiringHashMap<>(builder(metrics, b -> {
+            if (fail.get()) {
+                throw new IllegalStateException("Down");
+            }
+            b.put("A", 1);
+        }));
+        assertFalse(map.isEmpty());
+        time.addAndGet(1001);
+        assertTrue(map.isEmpty());
+
+        fail.set(true);
+        try {
+            map.reload();
+            fail("Should have thrown");
+        } catch (final IllegalStateException e) {
+            assertEquals("Down", e.getMessage());
+        }
+        final ExpiringCollectionMetrics.CollectionMetrics m = metrics.getMetrics("Assets");
+        assertEquals(1, m.getLoadCount());
+        assertEquals(1, m.getLoadFailureCount());
+        assertEquals(1, m.getClearCount());
+        assertEquals(1, m.getReloadOnAccessCount());
+    }
+
+    @Test
+    public void metricsArePublishedAsMBeans() throws Exception {
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        try (ExpiringCollectionMetrics metrics = new ExpiringCollectionMetrics(time::get)) {
+            metrics.getMetrics("Before");
+            metrics.registerMBeans(server, "net.objectlab.test");
+            final ReadOnlyExpiringMap<String, Integer> map = new ReadOnlyExpiringHashMap<>(builder(metrics, b -> b.put("A", 1)));
+            assertEquals(1, map.size());
+
+            assertTrue(server.isRegistered(metrics.objectName("Before")));
+            assertEquals(1L, server.getAttribute(metrics.objectName("Assets"), "LoadCount"));
+            assertEquals(1, server.getAttribute(metrics.objectName("Assets"), "LastLoadSize"));
+            metrics.close();
+            assertFalse(server.isRegistered(metrics.objectName("Assets")));
+        }
+    }
+
+    @Test
+    public void metricsAreResolvedOncePerCollection() {
+        final ExpiringCollectionMetrics metrics = new ExpiringCollectionMetrics(time::get);
+        assertSame(metrics.getMetrics("Assets"), metrics.forCollection("Assets"));
+        assertSame(metrics.getMetrics("null"), metrics.forCollection(null));
+    }
+
+    @Test
+    public void failedRegistrationDoesNotBreakTheCollection() {
+        final MBeanServer failing = (MBeanServer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { MBeanServer.class },
+                (proxy, method, args) -> {
+                    if ("isRegistered".equals(method.getName())) {
+                        return Boolean.FALSE;
+                    }
+                    throw new InstanceAlreadyExistsException(String.valueOf(args[1]));
+                });
+        try (ExpiringCollectionMetrics metrics = new ExpiringCollectionMetrics(time::get)) {
+            metrics.registerMBeans(failing, "net.objectlab.test");
+            final ReadOnlyExpiringMap<String, Integer> map = new ReadOnlyExpiringHashMap<>(builder(metrics, b -> b.put("A", 1)));
+            assertEquals(Integer.valueOf(1), map.get("A"));
+            assertEquals(1, metrics.getMetrics("Assets").getLoadCount());
+        }
+    }
+}
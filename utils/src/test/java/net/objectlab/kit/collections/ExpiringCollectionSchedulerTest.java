@@ -0,0 +1,155 @@
+package net.objectlab.kit.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+public class ExpiringCollectionSchedulerTest {
+
+    @Test
+    public void periodicTaskStopsWhenClosed() throws Exception {
+        try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("Test", 1)) {
+            final CountDownLatch runs = new CountDownLatch(3);
+            final ExpiringCollectionScheduler.Registration registration = scheduler.schedule(runs::countDown, 10L, 5L);
+            assertTrue(runs.await(5, TimeUnit.SECONDS));
+            registration.close();
+            assertTrue(registration.isCancelled());
+            // the next run is removed from the queue, a run in progress does not schedule another one
+            awaitIdle(scheduler);
+            assertEquals(0, scheduler.getQueuedTaskCount());
+        }
+    }
+
+    @Test
+    public void periodicTaskClosedWhileRunningIsNotRescheduled() throws Exception {
+        try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("Test", 1)) {
+            final AtomicInteger count = new AtomicInteger();
+            final AtomicReference<ExpiringCollectionScheduler.Registration> registration = new AtomicReference<>();
+            final CountDownLatch registered = new CountDownLatch(1);
+            final CountDownLatch closed = new CountDownLatch(1);
+            registration.set(scheduler.schedule(() -> {
+                if (count.incrementAndGet() == 3) {
+                    try {
+                        registered.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    registration.get().close();
+                    closed.countDown();
+                }
+            }, 1L, 0L));
+            registered.countDown();
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+            awaitIdle(scheduler);
+            assertEquals(0, scheduler.getQueuedTaskCount());
+            assertEquals(3, count.get());
+        }
+    }
+
+    /**
+     * Wait for the task in progress, if any, to end: the scheduler has a single thread.
+     */
+    private static void awaitIdle(final ExpiringCollectionScheduler scheduler) throws InterruptedException {
+        final CountDownLatch idle = new CountDownLatch(1);
+        scheduler.execute(idle::countDown);
+        assertTrue(idle.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failingTaskIsRescheduled() throws Exception {
+        final List<LogRecord> warnings = new CopyOnWriteArrayList<>();
+        final Handler handler = new WarningHandler(warnings);
+        final Logger logger = Logger.getLogger(ExpiringCollectionScheduler.class.getName());
+        logger.addHandler(handler);
+        try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("Test", 1)) {
+            final CountDownLatch runs = new CountDownLatch(3);
+            scheduler.schedule(() -> {
+                runs.countDown();
+                throw new IllegalStateException("Loader failed");
+            }, 10L, 0L);
+            assertTrue(runs.await(5, TimeUnit.SECONDS));
+            awaitIdle(scheduler);
+            // each failure is logged
+            assertTrue(warnings.size() >= 2);
+            assertEquals("Loader failed", warnings.get(0).getThrown().getMessage());
+        } finally {
+            logger.removeHandler(handler);
+        }
+    }
+
+    @Test
+    public void failingTaskIsLogged() throws Exception {
+        final List<LogRecord> warnings = new CopyOnWriteArrayList<>();
+        final Handler handler = new WarningHandler(warnings);
+        final Logger logger = Logger.getLogger(ExpiringCollectionScheduler.class.getName());
+        logger.addHandler(handler);
+        try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("Test", 1)) {
+            scheduler.execute(() -> {
+                throw new IllegalStateException("Task failed");
+            });
+            awaitIdle(scheduler);
+            assertEquals(1, warnings.size());
+            assertEquals("Task failed", warnings.get(0).getThrown().getMessage());
+        } finally {
+            logger.removeHandler(handler);
+        }
+    }
+
+    private static final class WarningHandler extends Handler {
+        private final List<LogRecord> warnings;
+
+        private WarningHandler(final List<LogRecord> warnings) {
+            this.warnings = warnings;
+        }
+
+        @Override
+        public void publish(final LogRecord record) {
+            if (record.getLevel() == Level.WARNING) {
+                warnings.add(record);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void collectionsShareTheScheduler() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("Test", 1)) {
+            for (int i = 0; i < 20; i++) {
+                final ReadOnlyExpiringHashSetBuilder<String> builder = new ReadOnlyExpiringHashSetBuilder<>(b -> {
+                    loads.incrementAndGet();
+                    b.add("Hello");
+                });
+                builder.expiryTimeoutMilliseconds(60_000L);
+                builder.reloadOnExpiry(true);
+                builder.reloadJitterMilliseconds(20L);
+                builder.scheduler(scheduler);
+                new ReadOnlyExpiringHashSet<>(builder);
+            }
+            for (int i = 0; i < 500 && loads.get() < 20; i++) {
+                Thread.sleep(10);
+            }
+            // each collection is loaded once by the first (jittered) run of its reload task
+            assertEquals(20, loads.get());
+        }
+    }
+}
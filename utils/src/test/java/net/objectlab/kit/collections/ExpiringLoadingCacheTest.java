@@ -0,0 +1,202 @@
+package net.objectlab.kit.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ExpiringLoadingCacheTest {
+    private final AtomicLong time = new AtomicLong(1_000L);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ExpiringLoadingCacheBuilder<Integer, String> builder() {
+        return new ExpiringLoadingCacheBuilder<Integer, String>(key -> {
+            loads.incrementAndGet();
+            return key < 0 ? null : "V" + key;
+        }).timeProvider(time::get);
+    }
+
+    @Test
+    public void entriesExpireAfterTimeToLive() {
+        final ExpiringLoadingCache<Integer, String> cache = builder().timeToLiveMilliseconds(100L).build();
+        assertEquals("V1", cache.get(1));
+        time.addAndGet(50L);
+        assertEquals("V2", cache.get(2));
+        assertEquals("V1", cache.get(1));
+        assertEquals(2, loads.get());
+
+        time.addAndGet(50L);
+        // 1 has expired, not 2
+        assertNull(cache.getIfPresent(1));
+        assertEquals("V2", cache.getIfPresent(2));
+        assertEquals("V1", cache.get(1));
+        assertEquals(3, loads.get());
+
+        time.addAndGet(60L);
+        cache.cleanUp();
+        assertEquals(1, cache.size());
+        final CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getExpiredCount());
+        assertEquals(3, stats.getLoadCount());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(4, stats.getMissCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        final ExpiringLoadingCache<Integer, String> cache = builder().maximumSize(3).concurrencyLevel(1).build();
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        cache.get(1);
+        cache.get(4);
+        assertEquals(3, cache.size());
+        assertNull(cache.getIfPresent(2));
+        assertEquals("V1", cache.getIfPresent(1));
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void segmentsAreLimitedByMaximumSize() {
+        assertEquals(16, builder().build().getSegmentCount());
+        assertEquals(8, builder().concurrencyLevel(5).build().getSegmentCount());
+        assertEquals(2, builder().maximumSize(3).build().getSegmentCount());
+
+        final ExpiringLoadingCache<Integer, String> cache = builder().maximumSize(100).build();
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(i);
+        }
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void nullIsNotCached() {
+        final ExpiringLoadingCache<Integer, String> cache = builder().build();
+        assertNull(cache.get(-1));
+        assertNull(cache.get(-1));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void putAndInvalidate() {
+        final ExpiringLoadingCache<Integer, String> cache = builder().timeToLiveMilliseconds(100L).build();
+        cache.put(1, "X");
+        assertEquals("X", cache.get(1));
+        cache.invalidate(1);
+        assertEquals("V1", cache.get(1));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void getAllLoadsMissingKeysInOneBatch() {
+        final List<Collection<Integer>> batches = new ArrayList<>();
+        final ExpiringLoadingCache<Integer, String> cache = builder().timeToLiveMilliseconds(100L).batchLoader(keys -> {
+            batches.add(new ArrayList<>(keys));
+            final Map<Integer, String> values = new HashMap<>();
+            keys.stream().filter(key -> key >= 0).forEach(key -> values.put(key, "B" + key));
+            return values;
+        }).build();
+        assertEquals("V1", cache.get(1));
+
+        final Map<Integer, String> values = cache.getAll(Arrays.asList(1, 2, 3, 2, -1));
+        assertEquals(3, values.size());
+        assertEquals("V1", values.get(1));
+        assertEquals("B2", values.get(2));
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList(2, 3, -1), batches.get(0));
+        assertEquals("B3", cache.getIfPresent(3));
+        assertNull(cache.getIfPresent(-1));
+
+        time.addAndGet(100L);
+        assertEquals(3, cache.getAll(Arrays.asList(1, 2, 3)).size());
+        assertEquals(Arrays.asList(1, 2, 3), batches.get(1));
+        final CacheStats stats = cache.getStats();
+        assertEquals(3, stats.getLoadCount());
+        assertEquals(3, stats.getExpiredCount());
+    }
+
+    @Test
+    public void getAllWithoutBatchLoaderLoadsOneByOne() {
+        final ExpiringLoadingCache<Integer, String> cache = builder().build();
+        final Map<Integer, String> values = cache.getAll(Arrays.asList(1, -1, 2));
+        assertEquals(2, values.size());
+        assertEquals("V2", values.get(2));
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void loaderExceptionIsNotCached() {
+        final AtomicInteger calls = new AtomicInteger();
+        final ExpiringLoadingCache<Integer, String> cache = new ExpiringLoadingCacheBuilder<Integer, String>(key -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Down");
+            }
+            return "V" + key;
+        }).build();
+        try {
+            cache.get(1);
+            fail("Should have thrown");
+        } catch (final IllegalStateException e) {
+            assertEquals("Down", e.getMessage());
+        }
+        assertEquals(0, cache.size());
+        assertEquals("V1", cache.get(1));
+    }
+
+    @Test
+    public void concurrentGetsLoadOnce() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExpiringLoadingCache<Integer, String> cache = new ExpiringLoadingCacheBuilder<Integer, String>(key -> {
+            loads.incrementAndGet();
+            if (key == 7) {
+                loading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "V" + key;
+        }).build();
+        final ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(7)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> cache.get(7)));
+            }
+            // a different key is not blocked by the load in progress
+            assertEquals("V8", executor.submit(() -> cache.get(8)).get(1, TimeUnit.SECONDS));
+            release.countDown();
+            for (final Future<String> result : results) {
+                assertEquals("V7", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(2, loads.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package net.objectlab.kit.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+    /**
+     * Key with a chosen hash code, to create collisions.
+     */
+    private static final class Key {
+        private final int id;
+        private final int hash;
+
+        private Key(final int id, final int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public String toString() {
+            return id + "#" + hash;
+        }
+    }
+
+    @Test
+    public void randomChangesGiveSameMapAsHashMap() {
+        final Random random = new Random(22L);
+        final Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int version = 0; version < 50; version++) {
+            final Map<Key, Integer> before = new HashMap<>(expected);
+            final PersistentHashMap<Key, Integer> previous = map;
+            final PersistentHashMap.Editor<Key, Integer> editor = map.edit();
+            for (int i = 0; i < 500; i++) {
+                // few hash codes, so that there are collisions at every level
+                final Key key = new Key(random.nextInt(3_000), random.nextInt(4) == 0 ? random.nextInt(50) : random.nextInt());
+                if (random.nextInt(3) == 0) {
+                    editor.remove(key);
+                    expected.remove(key);
+                } else {
+                    editor.put(key, i);
+                    expected.put(key, i);
+                }
+            }
+            map = editor.build();
+            assertEquals(expected, map);
+            assertEquals(expected.size(), map.size());
+            assertEquals(map.size(), map.entrySet().size());
+            for (final Map.Entry<Key, Integer> e : expected.entrySet()) {
+                assertTrue(map.containsKey(e.getKey()));
+                assertEquals(e.getValue(), map.get(e.getKey()));
+            }
+            // the previous version is unchanged
+            assertEquals(before, previous);
+        }
+    }
+
+    @Test
+    public void collisionsAndNulls() {
+        final PersistentHashMap<Key, String> map = PersistentHashMap.<Key, String> empty().edit() //
+                .put(new Key(1, 7), "A").put(new Key(2, 7), "B").put(new Key(3, 7), null).put(null, "N").build();
+        assertEquals(4, map.size());
+        assertEquals("B", map.get(new Key(2, 7)));
+        assertTrue(map.containsKey(new Key(3, 7)));
+        assertNull(map.get(new Key(3, 7)));
+        assertEquals("N", map.get(null));
+        assertFalse(map.containsKey(new Key(4, 7)));
+
+        final PersistentHashMap<Key, String> removed = map.edit().remove(new Key(1, 7)).remove(new Key(2, 7)).remove(new Key(3, 7)).remove(null)
+                .build();
+        assertTrue(removed.isEmpty());
+        assertSame(PersistentHashMap.empty(), removed);
+        assertEquals(4, map.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void editorCannotBeUsedAfterBuild() {
+        final PersistentHashMap.Editor<String, String> editor = PersistentHashMap.<String, String> empty().edit();
+        editor.put("A", "B").build();
+        editor.put("C", "D");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void entriesAreReadOnly() {
+        final PersistentHashMap<String, String> map = PersistentHashMap.<String, String> empty().edit().put("A", "B").build();
+        map.entrySet().iterator().next().setValue("C");
+    }
+}
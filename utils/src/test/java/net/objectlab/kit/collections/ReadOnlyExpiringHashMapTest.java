@@ -8,6 +8,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -217,6 +224,171 @@ public class ReadOnlyExpiringHashMapTest implements MapLoader<String, Integer>,
         assertEquals(Integer.valueOf(2), ims.get("Yo"));
     }
 
+    @Test
+    public void refreshAheadServesStaleDataWhileReloading() throws Exception {
+        final CountDownLatch reloadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseReload = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final MapLoader<String, Integer> slowLoader = builder -> {
+            final int count = loads.incrementAndGet();
+            if (count > 1) {
+                reloadStarted.countDown();
+                try {
+                    releaseReload.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.put("Hello", count);
+        };
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = new ReadOnlyExpiringHashMapBuilder<>(slowLoader);
+        builder.expiryTimeoutMilliseconds(1000);
+        builder.reloadOnExpiry(false);
+        builder.reloadWhenExpired(true);
+        builder.refreshAhead(true);
+        builder.timeProvider(this);
+
+        try (ExpiringCollectionScheduler scheduler = new ExpiringCollectionScheduler("Test", 1)) {
+            builder.scheduler(scheduler);
+            final ReadOnlyExpiringMap<String, Integer> ims = new ReadOnlyExpiringHashMap<>(builder);
+            // the first load is done by the reader
+            assertEquals(Integer.valueOf(1), ims.get("Hello"));
+
+            time += 1001;
+            // expired: the stale value is returned while a single reload runs
+            assertEquals(Integer.valueOf(1), ims.get("Hello"));
+            assertTrue(reloadStarted.await(5, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(1), ims.get("Hello"));
+            assertEquals(1, ims.size());
+            assertEquals(2, loads.get());
+
+            releaseReload.countDown();
+            for (int i = 0; i < 500 && !Integer.valueOf(2).equals(ims.get("Hello")); i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(Integer.valueOf(2), ims.get("Hello"));
+            assertEquals(2, loads.get());
+            ims.close();
+        }
+    }
+
+    @Test
+    public void clearedMapIsReplacedNotModified() {
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = new ReadOnlyExpiringHashMapBuilder<>(this);
+        builder.expiryTimeoutMilliseconds(1000);
+        builder.reloadOnExpiry(false);
+        builder.reloadWhenExpired(false);
+        builder.timeProvider(this);
+        builder.id("Greetings");
+
+        final ReadOnlyExpiringMap<String, Integer> ims = new ReadOnlyExpiringHashMap<>(builder);
+        final Set<String> keys = ims.keySet();
+        assertEquals(2, keys.size());
+
+        time += 1001;
+        assertTrue(ims.isEmpty());
+        // a view obtained before the expiry is not cleared under the reader
+        assertEquals(2, keys.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void viewsAreReadOnly() {
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = new ReadOnlyExpiringHashMapBuilder<>(this);
+        builder.timeProvider(this);
+        builder.id("Greetings");
+        builder.expiryTimeoutMilliseconds(1000);
+        builder.reloadOnExpiry(false);
+
+        final ReadOnlyExpiringMap<String, Integer> ims = new ReadOnlyExpiringHashMap<>(builder);
+        ims.keySet().remove("Hello");
+    }
+
+    @Test
+    public void reloadAppliesOnlyTheChanges() {
+        final AtomicInteger fullLoads = new AtomicInteger();
+        final List<Long> since = new ArrayList<>();
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = new ReadOnlyExpiringHashMapBuilder<>(new MapLoader<String, Integer>() {
+            @Override
+            public void load(final MapBuilder<String, Integer> b) {
+                fullLoads.incrementAndGet();
+                for (int i = 0; i < 1_000; i++) {
+                    b.put("K" + i, i);
+                }
+            }
+
+            @Override
+            public boolean loadChangesSince(final long lastLoadingTime, final MapChangesBuilder<String, Integer> b) {
+                since.add(lastLoadingTime);
+                if (since.size() == 3) {
+                    // changes not known
+                    return false;
+                }
+                b.put("K1", -1).put("NEW", 5).remove("K2").remove("UNKNOWN");
+                return true;
+            }
+        });
+        builder.expiryTimeoutMilliseconds(1000);
+        builder.reloadOnExpiry(false);
+        builder.reloadWhenExpired(true);
+        builder.timeProvider(this);
+
+        final ReadOnlyExpiringMap<String, Integer> ims = new ReadOnlyExpiringHashMap<>(builder);
+        assertEquals(1_000, ims.size());
+        final long firstLoad = time;
+        final Set<String> keys = ims.keySet();
+
+        time += 1001;
+        assertEquals(1_000, ims.size());
+        assertEquals(1, fullLoads.get());
+        assertEquals(Long.valueOf(firstLoad), since.get(0));
+        assertEquals(Integer.valueOf(-1), ims.get("K1"));
+        assertEquals(Integer.valueOf(5), ims.get("NEW"));
+        assertFalse(ims.containsKey("K2"));
+        assertEquals(Integer.valueOf(3), ims.get("K3"));
+        // the previous version is unchanged
+        assertTrue(keys.contains("K2"));
+        assertFalse(keys.contains("NEW"));
+
+        time += 1001;
+        assertEquals(1_000, ims.size());
+        assertEquals(Long.valueOf(firstLoad + 1001), since.get(1));
+
+        time += 1001;
+        assertEquals(Integer.valueOf(1), ims.get("K1"));
+        assertEquals(2, fullLoads.get());
+        assertEquals(1_000, ims.size());
+    }
+
+    @Test
+    public void clearedMapIsFullyReloaded() {
+        final AtomicInteger changes = new AtomicInteger();
+        final ReadOnlyExpiringHashMapBuilder<String, Integer> builder = new ReadOnlyExpiringHashMapBuilder<>(new MapLoader<String, Integer>() {
+            @Override
+            public void load(final MapBuilder<String, Integer> b) {
+                ReadOnlyExpiringHashMapTest.this.load(b);
+            }
+
+            @Override
+            public boolean loadChangesSince(final long lastLoadingTime, final MapChangesBuilder<String, Integer> b) {
+                changes.incrementAndGet();
+                return true;
+            }
+        });
+        builder.expiryTimeoutMilliseconds(1000);
+        builder.reloadOnExpiry(false);
+        builder.reloadWhenExpired(false);
+        builder.timeProvider(this);
+        builder.id("Greetings");
+
+        final ReadOnlyExpiringHashMap<String, Integer> ims = new ReadOnlyExpiringHashMap<>(builder);
+        assertEquals(2, ims.size());
+        time += 1001;
+        assertTrue(ims.isEmpty());
+        ims.reload();
+        assertEquals(2, reloadCount);
+        assertEquals(0, changes.get());
+    }
+
     @Override
     public void load(final MapBuilder<String, Integer> builder) {
         assertEquals("Greetings", builder.getId());
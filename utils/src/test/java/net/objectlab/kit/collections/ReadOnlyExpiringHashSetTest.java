@@ -6,6 +6,10 @@ package net.objectlab.kit.collections;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Iterator;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -187,6 +191,42 @@ public class ReadOnlyExpiringHashSetTest implements SetLoader<String>, TimeProvi
         assertTrue("Correct key", ims.contains("Hello"));
     }
 
+    @Test
+    public void loadedSetIsImmutable() {
+        final ReadOnlyExpiringHashSetBuilder<String> builder = new ReadOnlyExpiringHashSetBuilder<>(this);
+        builder.expiryTimeoutMilliseconds(1000);
+        builder.loadOnFirstAccess(false);
+        builder.timeProvider(this);
+        builder.id("Greetings");
+
+        final ReadOnlyExpiringSet<String> ims = new ReadOnlyExpiringHashSet<>(builder);
+        assertEquals(1, reloadCount);
+        try {
+            ims.add("Hi");
+            fail("add should throw");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+        try {
+            ims.addAll(Collections.singleton("Hi"));
+            fail("addAll should throw");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+        // the set built by the loader is frozen
+        final Iterator<String> it = ims.iterator();
+        it.next();
+        try {
+            it.remove();
+            fail("remove should throw");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+        assertEquals(1, ims.size());
+        assertFalse(ims.contains("Hi"));
+        assertTrue(ims.contains("Hello"));
+    }
+
     @Override
     public void load(final SetBuilder<String> builder) {
         assertEquals("Greetings", builder.getId());